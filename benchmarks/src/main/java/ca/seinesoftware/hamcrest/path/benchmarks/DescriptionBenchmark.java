@@ -0,0 +1,51 @@
+package ca.seinesoftware.hamcrest.path.benchmarks;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+import org.hamcrest.Matcher;
+import org.hamcrest.StringDescription;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures describing each matcher, which touches no file system, so is
+ * measured once for each {@link Subject} rather than for every fixture of
+ * {@link MatcherBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DescriptionBenchmark {
+
+	@Param
+	public Subject matcher;
+
+	private Matcher<Path> pathMatcher;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		pathMatcher = matcher.matcher(Paths.get("file"));
+	}
+
+	@Benchmark
+	public String describeTo() {
+		final StringDescription description = new StringDescription();
+		pathMatcher.describeTo(description);
+		return description.toString();
+	}
+}
@@ -0,0 +1,176 @@
+package ca.seinesoftware.hamcrest.path.benchmarks;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.hamcrest.Matcher;
+import org.hamcrest.StringDescription;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ca.seinesoftware.hamcrest.path.PathMatcher;
+
+/**
+ * Measures the cost of each matcher created by {@link PathMatcher}, against
+ * calling the equivalent {@link Files} method directly.
+ * <p>
+ * Every {@link Subject} is measured on a path which matches ({@code hit})
+ * and one which does not ({@code miss}), reached either directly or through a
+ * symbolic link, on a disk-backed and a memory-backed ({@code /dev/shm}) file
+ * system. Run with {@code -prof gc} to report allocation rates.
+ *
+ * @see DescriptionBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MatcherBenchmark {
+
+	@Param
+	public Subject matcher;
+
+	@Param({ "hit", "miss" })
+	public String outcome;
+
+	/** Whether the examined path is the entry itself, or a link to it */
+	@Param({ "direct", "link" })
+	public String via;
+
+	/** Where the fixtures are created */
+	@Param({ "disk", "tmpfs" })
+	public String storage;
+
+	private Path root;
+	private Path path;
+	private Matcher<Path> pathMatcher;
+	private Path sameFileExpected;
+
+	// ========================================================================
+	// Fixtures
+	// ========================================================================
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		final Path base = "tmpfs".equals(storage) ? Paths.get("/dev/shm") : Paths.get("target").toAbsolutePath();
+		if (!Files.isDirectory(base)) {
+			throw new IllegalStateException("No " + storage + " storage at " + base);
+		}
+		root = Files.createTempDirectory(Files.createDirectories(base), "hamcrest-path-");
+
+		final Path folder = Files.createDirectory(root.resolve("folder"));
+		final Path file = Files.write(folder.resolve("file"), Collections.singleton("Some text"),
+				StandardCharsets.ISO_8859_1);
+		final Path hidden = Files.write(folder.resolve(".hidden"), Collections.singleton("Hidden"),
+				StandardCharsets.ISO_8859_1);
+		final Path noFile = folder.resolve("no-file");
+		final Path symbolicLink = Files.createSymbolicLink(folder.resolve("link"), file);
+
+		sameFileExpected = file;
+		pathMatcher = matcher.matcher(file);
+
+		final Path hit, miss;
+		switch (matcher) {
+		case EXISTS:
+		case EXISTS_NOFOLLOW:
+		case READABLE:
+		case WRITABLE:
+			hit = file;
+			miss = noFile;
+			break;
+		case A_DIRECTORY:
+		case A_DIRECTORY_NOFOLLOW:
+		case EXECUTABLE:
+			hit = folder;
+			miss = file;
+			break;
+		case A_REGULAR_FILE:
+		case A_REGULAR_FILE_NOFOLLOW:
+			hit = file;
+			miss = folder;
+			break;
+		case A_SYMBOLIC_LINK:
+			hit = symbolicLink;
+			miss = file;
+			break;
+		case HIDDEN:
+			hit = hidden;
+			miss = file;
+			break;
+		case SAME_FILE:
+			hit = folder.resolve("..").resolve("folder").resolve("file");
+			miss = hidden;
+			break;
+		default:
+			throw new IllegalArgumentException("Unknown matcher: " + matcher);
+		}
+
+		path = "hit".equals(outcome) ? hit : miss;
+		if ("link".equals(via)) {
+			path = Files.createSymbolicLink(root.resolve("via-link"), path.toAbsolutePath());
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+				Files.delete(file);
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+				Files.delete(dir);
+				return FileVisitResult.CONTINUE;
+			}
+		});
+	}
+
+	// ========================================================================
+	// Benchmarks
+	// ========================================================================
+
+	@Benchmark
+	public boolean matches() {
+		return pathMatcher.matches(path);
+	}
+
+	@Benchmark
+	public String describeMismatch() {
+		final StringDescription description = new StringDescription();
+		pathMatcher.describeMismatch(path, description);
+		return description.toString();
+	}
+
+	/**
+	 * The cost of asking the file system the same question without a matcher,
+	 * through the subject chosen when the trial was set up.
+	 */
+	@Benchmark
+	public boolean files() throws IOException {
+		return matcher.files(path, sameFileExpected);
+	}
+}
@@ -0,0 +1,177 @@
+package ca.seinesoftware.hamcrest.path.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+
+import org.hamcrest.Matcher;
+
+import ca.seinesoftware.hamcrest.path.PathMatcher;
+
+/**
+ * A matcher measured, together with the {@link Files} method which asks the
+ * file system the same question. A matcher which accepts link options is
+ * measured both following symbolic links and not; the others only once.
+ */
+public enum Subject {
+
+	EXISTS {
+		@Override
+		Matcher<Path> matcher(final Path expected) {
+			return PathMatcher.exists();
+		}
+
+		@Override
+		boolean files(final Path path, final Path expected) {
+			return Files.exists(path);
+		}
+	},
+
+	EXISTS_NOFOLLOW {
+		@Override
+		Matcher<Path> matcher(final Path expected) {
+			return PathMatcher.exists(LinkOption.NOFOLLOW_LINKS);
+		}
+
+		@Override
+		boolean files(final Path path, final Path expected) {
+			return Files.exists(path, LinkOption.NOFOLLOW_LINKS);
+		}
+	},
+
+	A_DIRECTORY {
+		@Override
+		Matcher<Path> matcher(final Path expected) {
+			return PathMatcher.aDirectory();
+		}
+
+		@Override
+		boolean files(final Path path, final Path expected) {
+			return Files.isDirectory(path);
+		}
+	},
+
+	A_DIRECTORY_NOFOLLOW {
+		@Override
+		Matcher<Path> matcher(final Path expected) {
+			return PathMatcher.aDirectory(LinkOption.NOFOLLOW_LINKS);
+		}
+
+		@Override
+		boolean files(final Path path, final Path expected) {
+			return Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS);
+		}
+	},
+
+	A_REGULAR_FILE {
+		@Override
+		Matcher<Path> matcher(final Path expected) {
+			return PathMatcher.aRegularFile();
+		}
+
+		@Override
+		boolean files(final Path path, final Path expected) {
+			return Files.isRegularFile(path);
+		}
+	},
+
+	A_REGULAR_FILE_NOFOLLOW {
+		@Override
+		Matcher<Path> matcher(final Path expected) {
+			return PathMatcher.aRegularFile(LinkOption.NOFOLLOW_LINKS);
+		}
+
+		@Override
+		boolean files(final Path path, final Path expected) {
+			return Files.isRegularFile(path, LinkOption.NOFOLLOW_LINKS);
+		}
+	},
+
+	A_SYMBOLIC_LINK {
+		@Override
+		Matcher<Path> matcher(final Path expected) {
+			return PathMatcher.aSymbolicLink();
+		}
+
+		@Override
+		boolean files(final Path path, final Path expected) {
+			return Files.isSymbolicLink(path);
+		}
+	},
+
+	READABLE {
+		@Override
+		Matcher<Path> matcher(final Path expected) {
+			return PathMatcher.readable();
+		}
+
+		@Override
+		boolean files(final Path path, final Path expected) {
+			return Files.isReadable(path);
+		}
+	},
+
+	WRITABLE {
+		@Override
+		Matcher<Path> matcher(final Path expected) {
+			return PathMatcher.writable();
+		}
+
+		@Override
+		boolean files(final Path path, final Path expected) {
+			return Files.isWritable(path);
+		}
+	},
+
+	EXECUTABLE {
+		@Override
+		Matcher<Path> matcher(final Path expected) {
+			return PathMatcher.executable();
+		}
+
+		@Override
+		boolean files(final Path path, final Path expected) {
+			return Files.isExecutable(path);
+		}
+	},
+
+	HIDDEN {
+		@Override
+		Matcher<Path> matcher(final Path expected) {
+			return PathMatcher.hidden();
+		}
+
+		@Override
+		boolean files(final Path path, final Path expected) throws IOException {
+			return Files.isHidden(path);
+		}
+	},
+
+	SAME_FILE {
+		@Override
+		Matcher<Path> matcher(final Path expected) {
+			return PathMatcher.sameFile(expected);
+		}
+
+		@Override
+		boolean files(final Path path, final Path expected) {
+			try {
+				return Files.isSameFile(path, expected);
+			} catch (IOException e) {
+				return false;
+			}
+		}
+	};
+
+	/**
+	 * @param expected
+	 *            the file the path is expected to be, for {@link #SAME_FILE}
+	 */
+	abstract Matcher<Path> matcher(Path expected);
+
+	/**
+	 * Ask the file system directly what the matcher asks.
+	 */
+	abstract boolean files(Path path, Path expected) throws IOException;
+}
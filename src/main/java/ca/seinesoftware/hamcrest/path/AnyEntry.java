@@ -0,0 +1,63 @@
+package ca.seinesoftware.hamcrest.path;
+
+import java.nio.file.Path;
+
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+
+class AnyEntry extends TreeMatcher {
+
+	private final EntryPattern pattern;
+	private final Matcher<? super Path> matcher;
+
+	public AnyEntry(final Matcher<? super Path> matcher) {
+		this(null, matcher);
+	}
+
+	/**
+	 * @param pattern
+	 *            the pattern entries must match to be examined, or
+	 *            {@code null} to examine every entry
+	 */
+	public AnyEntry(final EntryPattern pattern, final Matcher<? super Path> matcher) {
+		this.pattern = pattern;
+		this.matcher = matcher;
+	}
+
+	@Override
+	public void describeTo(Description description) {
+		description.appendText("a directory in which some entry ");
+		if (pattern != null) {
+			description.appendText("matching ").appendValue(pattern.toString()).appendText(" ");
+		}
+		description.appendText("is ").appendDescriptionOf(matcher);
+	}
+
+	@Override
+	boolean matchesTree(final Path root, final Description mismatch) {
+		final int[] visited = new int[1];
+		final boolean[] found = new boolean[1];
+		final boolean walked = walk(root, pattern, new EntryVisitor() {
+			@Override
+			public boolean visit(final Path entry, final PathProbe probe) {
+				visited[0]++;
+				found[0] = PathMatcher.matches(matcher, entry, probe);
+				return !found[0];
+			}
+		}, mismatch);
+
+		if (!walked) {
+			return false;
+		}
+		if (!found[0]) {
+			mismatch.appendText("none of the ").appendText(Integer.toString(visited[0]))
+					.appendText(" entries of ").appendValue(root);
+			if (pattern != null) {
+				mismatch.appendText(" matching ").appendValue(pattern.toString());
+			}
+			mismatch.appendText(" matched");
+			return false;
+		}
+		return true;
+	}
+}
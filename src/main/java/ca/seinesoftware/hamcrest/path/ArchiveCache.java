@@ -0,0 +1,159 @@
+package ca.seinesoftware.hamcrest.path;
+
+import java.io.IOException;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * ArchiveCache
+ * <p>
+ * Keeps the archives examined by {@link PathMatcher#archiveEntry(String,
+ * org.hamcrest.Matcher) archiveEntry} and
+ * {@link PathMatcher#hasArchiveEntry(String) hasArchiveEntry} open through
+ * the zip file system provider, which reads an archive's central directory
+ * once, when opened, and then answers questions about its entries from
+ * memory.
+ * <p>
+ * An archive is reopened if its file key, size or modification time has
+ * changed since it was opened. The archives used least recently are closed
+ * once more than {@link #CAPACITY} are open. An archive is only closed once no
+ * matcher is examining it, so a matcher on another thread never finds its
+ * entries' file system closed.
+ * <p>
+ * <b>Note</b> that an open archive may not be deleted or replaced on some
+ * platforms, such as Windows. Tests which rebuild an archive they have
+ * asserted on should {@link #clear()} the cache first.
+ */
+public final class ArchiveCache {
+
+	/**
+	 * The most archives kept open.
+	 */
+	static final int CAPACITY = 16;
+
+	private static final Map<Path, Archive> ARCHIVES = new LinkedHashMap<Path, Archive>(CAPACITY, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(final Map.Entry<Path, Archive> eldest) {
+			if (size() > CAPACITY) {
+				eldest.getValue().retire();
+				return true;
+			}
+			return false;
+		}
+	};
+
+	private ArchiveCache() {
+	}
+
+	/**
+	 * An open archive, and how many matchers are examining it.
+	 */
+	static final class Archive {
+
+		final FileSystem fileSystem;
+		private final Object fileKey;
+		private final long size;
+		private final FileTime modified;
+
+		/** Guarded by {@link ArchiveCache#ARCHIVES} */
+		private int users;
+		private boolean retired;
+
+		Archive(final FileSystem fileSystem, final BasicFileAttributes attributes) {
+			this.fileSystem = fileSystem;
+			this.fileKey = attributes.fileKey();
+			this.size = attributes.size();
+			this.modified = attributes.lastModifiedTime();
+		}
+
+		private boolean isCurrent(final BasicFileAttributes attributes) {
+			return fileSystem.isOpen() && Objects.equals(fileKey, attributes.fileKey())
+					&& size == attributes.size() && modified.equals(attributes.lastModifiedTime());
+		}
+
+		/**
+		 * Stop examining the archive, closing it if it has been evicted and no
+		 * other matcher is examining it.
+		 */
+		void release() {
+			synchronized (ARCHIVES) {
+				users--;
+				closeIfUnused();
+			}
+		}
+
+		private void retire() {
+			retired = true;
+			closeIfUnused();
+		}
+
+		private void closeIfUnused() {
+			if (retired && users == 0) {
+				try {
+					fileSystem.close();
+				} catch (IOException e) {
+					// Nothing more can be done
+				}
+			}
+		}
+	}
+
+	/**
+	 * Open an archive, to be {@link Archive#release() released} once its
+	 * entries have been examined.
+	 *
+	 * @return the archive, opened now or when it was last asked for if it has
+	 *         not changed since
+	 * @throws IOException
+	 *             if the archive cannot be read, or is not an archive
+	 */
+	static Archive open(final Path archive) throws IOException {
+		final BasicFileAttributes attributes = Files.readAttributes(archive, BasicFileAttributes.class);
+		if (!attributes.isRegularFile()) {
+			throw new IOException(archive + " is not a regular file");
+		}
+		final Path key = archive.toAbsolutePath().normalize();
+		synchronized (ARCHIVES) {
+			Archive cached = ARCHIVES.get(key);
+			if (cached == null || !cached.isCurrent(attributes)) {
+				if (cached != null) {
+					ARCHIVES.remove(key);
+					cached.retire();
+				}
+
+				final FileSystem fileSystem;
+				try {
+					fileSystem = FileSystems.newFileSystem(archive, (ClassLoader) null);
+				} catch (RuntimeException e) {
+					throw new IOException(archive + " is not an archive", e);
+				}
+				cached = new Archive(fileSystem, attributes);
+				ARCHIVES.put(key, cached);
+			}
+			cached.users++;
+			return cached;
+		}
+	}
+
+	/**
+	 * Close every archive, once no matcher is examining it. Later matches
+	 * open the archives they examine again.
+	 */
+	public static void clear() {
+		synchronized (ARCHIVES) {
+			for (final Archive archive : ARCHIVES.values()) {
+				archive.retire();
+			}
+			ARCHIVES.clear();
+		}
+	}
+}
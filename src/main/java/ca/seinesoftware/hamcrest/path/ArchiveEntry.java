@@ -0,0 +1,54 @@
+package ca.seinesoftware.hamcrest.path;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.hamcrest.TypeSafeDiagnosingMatcher;
+
+/**
+ * Matches an archive one of whose entries satisfies a matcher. The entry is
+ * examined through the archive's zip file system, kept open by
+ * {@link ArchiveCache}, so the archive is neither extracted nor read again
+ * for each entry asked about.
+ */
+class ArchiveEntry extends TypeSafeDiagnosingMatcher<Path> {
+
+	private final String entry;
+	private final Matcher<? super Path> matcher;
+
+	public ArchiveEntry(final String entry, final Matcher<? super Path> matcher) {
+		this.entry = entry;
+		this.matcher = matcher;
+	}
+
+	@Override
+	public void describeTo(final Description description) {
+		description.appendText("an archive whose entry ").appendValue(entry).appendText(" is ")
+				.appendDescriptionOf(matcher);
+	}
+
+	@Override
+	protected boolean matchesSafely(final Path archive, final Description mismatch) {
+		final ArchiveCache.Archive opened;
+		try {
+			opened = ArchiveCache.open(archive);
+		} catch (IOException e) {
+			mismatch.appendValue(archive).appendText(" could not be opened: ").appendText(e.getMessage());
+			return false;
+		}
+
+		try {
+			final Path path = opened.fileSystem.getPath("/").resolve(entry);
+			if (matcher.matches(path)) {
+				return true;
+			}
+			mismatch.appendText("in ").appendValue(archive).appendText(", ");
+			matcher.describeMismatch(path, mismatch);
+			return false;
+		} finally {
+			opened.release();
+		}
+	}
+}
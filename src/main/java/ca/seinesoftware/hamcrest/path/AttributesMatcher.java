@@ -0,0 +1,318 @@
+package ca.seinesoftware.hamcrest.path;
+
+import java.io.IOException;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+
+import org.hamcrest.Description;
+import org.hamcrest.StringDescription;
+import org.hamcrest.TypeSafeMatcher;
+
+/**
+ * AttributesMatcher
+ * <p>
+ * A matcher which checks several properties of a {@link Path} at once,
+ * answering all of them from a single read of the entry's attributes. Access
+ * permissions are only checked if one was asked for, and only once every
+ * cheaper check has passed.
+ * <p>
+ * For example:
+ *
+ * <pre>
+ * assertThat(home, attributes().directory().readable().writable().notHidden());
+ * </pre>
+ *
+ * is equivalent to, but cheaper than:
+ *
+ * <pre>
+ * assertThat(home, allOf(aDirectory(), readable(), writable(), not(hidden())));
+ * </pre>
+ *
+ * and is described the same way. Each method returns a new matcher; matchers
+ * are never modified once created.
+ *
+ * @see PathMatcher#attributes(LinkOption...)
+ */
+public final class AttributesMatcher extends TypeSafeMatcher<Path> {
+
+	/**
+	 * The properties which can be checked, in the order they are evaluated.
+	 */
+	private enum Check {
+		EXISTS("an existing filesystem entry", true),
+		DIRECTORY("a directory", true),
+		REGULAR_FILE("a regular file", true),
+		SYMBOLIC_LINK("a symbolic link", false),
+		HIDDEN("a hidden file or directory", false),
+		READABLE("a readable file or directory", false),
+		WRITABLE("a writable file or directory", false),
+		EXECUTABLE("an executable file or directory", false);
+
+		final String text;
+		final boolean followsOptions;
+
+		Check(final String text, final boolean followsOptions) {
+			this.text = text;
+			this.followsOptions = followsOptions;
+		}
+	}
+
+	private final Check[] checks;
+	private final boolean[] expected;
+	private final LinkOption[] linkOptions;
+
+	/**
+	 * Evaluates the checks as a {@link PathMatcher}, which the
+	 * {@link PathMatcher} factories cannot be subclassed into without their
+	 * names clashing with the methods below.
+	 */
+	final PathMatcher evaluator;
+
+	AttributesMatcher(final LinkOption... options) {
+		this(new Check[0], new boolean[0], options);
+	}
+
+	private AttributesMatcher(final Check[] checks, final boolean[] expected, final LinkOption... options) {
+		this.checks = checks;
+		this.expected = expected;
+		this.linkOptions = options;
+		this.evaluator = new Evaluator(options);
+	}
+
+	private AttributesMatcher with(final Check check, final boolean value) {
+		final Check[] moreChecks = Arrays.copyOf(checks, checks.length + 1);
+		final boolean[] moreExpected = Arrays.copyOf(expected, expected.length + 1);
+		moreChecks[checks.length] = check;
+		moreExpected[checks.length] = value;
+		return new AttributesMatcher(moreChecks, moreExpected, linkOptions);
+	}
+
+	// ========================================================================
+	// Checks
+	// ========================================================================
+
+	/**
+	 * @return a matcher which also requires the path to exist
+	 * @see PathMatcher#exists(LinkOption...)
+	 */
+	public AttributesMatcher existing() {
+		return with(Check.EXISTS, true);
+	}
+
+	/**
+	 * @return a matcher which also requires the path to be a directory
+	 * @see PathMatcher#aDirectory(LinkOption...)
+	 */
+	public AttributesMatcher directory() {
+		return with(Check.DIRECTORY, true);
+	}
+
+	/**
+	 * @return a matcher which also requires the path to be a regular file
+	 * @see PathMatcher#aRegularFile(LinkOption...)
+	 */
+	public AttributesMatcher regularFile() {
+		return with(Check.REGULAR_FILE, true);
+	}
+
+	/**
+	 * @return a matcher which also requires the path to be a symbolic link
+	 * @see PathMatcher#aSymbolicLink()
+	 */
+	public AttributesMatcher symbolicLink() {
+		return with(Check.SYMBOLIC_LINK, true);
+	}
+
+	/**
+	 * @return a matcher which also requires the path not to be a symbolic link
+	 * @see PathMatcher#aSymbolicLink()
+	 */
+	public AttributesMatcher notSymbolicLink() {
+		return with(Check.SYMBOLIC_LINK, false);
+	}
+
+	/**
+	 * @return a matcher which also requires the path to be hidden
+	 * @see PathMatcher#hidden()
+	 */
+	public AttributesMatcher hidden() {
+		return with(Check.HIDDEN, true);
+	}
+
+	/**
+	 * @return a matcher which also requires the path not to be hidden
+	 * @see PathMatcher#hidden()
+	 */
+	public AttributesMatcher notHidden() {
+		return with(Check.HIDDEN, false);
+	}
+
+	/**
+	 * @return a matcher which also requires the path to be readable
+	 * @see PathMatcher#readable()
+	 */
+	public AttributesMatcher readable() {
+		return with(Check.READABLE, true);
+	}
+
+	/**
+	 * @return a matcher which also requires the path not to be readable
+	 * @see PathMatcher#readable()
+	 */
+	public AttributesMatcher notReadable() {
+		return with(Check.READABLE, false);
+	}
+
+	/**
+	 * @return a matcher which also requires the path to be writable
+	 * @see PathMatcher#writable()
+	 */
+	public AttributesMatcher writable() {
+		return with(Check.WRITABLE, true);
+	}
+
+	/**
+	 * @return a matcher which also requires the path not to be writable
+	 * @see PathMatcher#writable()
+	 */
+	public AttributesMatcher notWritable() {
+		return with(Check.WRITABLE, false);
+	}
+
+	/**
+	 * @return a matcher which also requires the path to be executable
+	 * @see PathMatcher#executable()
+	 */
+	public AttributesMatcher executable() {
+		return with(Check.EXECUTABLE, true);
+	}
+
+	/**
+	 * @return a matcher which also requires the path not to be executable
+	 * @see PathMatcher#executable()
+	 */
+	public AttributesMatcher notExecutable() {
+		return with(Check.EXECUTABLE, false);
+	}
+
+	// ========================================================================
+	// describeTo
+	// ========================================================================
+
+	/**
+	 * Described as {@link org.hamcrest.Matchers#allOf(org.hamcrest.Matcher...)
+	 * allOf} would describe the equivalent individual matchers.
+	 */
+	@Override
+	public void describeTo(Description description) {
+		evaluator.describeTo(description);
+	}
+
+	// ========================================================================
+	// matchesSafely
+	// ========================================================================
+
+	@Override
+	protected boolean matchesSafely(Path path) {
+		return evaluator.matches(path);
+	}
+
+	@Override
+	protected void describeMismatchSafely(Path path, Description description) {
+		evaluator.describeMismatch(path, description);
+	}
+
+	// ========================================================================
+	// Evaluator
+	// ========================================================================
+
+	private final class Evaluator extends PathMatcher {
+
+		private final String text;
+
+		Evaluator(final LinkOption... options) {
+			super(options);
+
+			final StringDescription prefix = new StringDescription();
+			super.describeTo(prefix);
+
+			final StringBuilder text = new StringBuilder("(");
+			for (int i = 0; i < checks.length; i++) {
+				if (i > 0) {
+					text.append(" and ");
+				}
+				if (!expected[i]) {
+					text.append("not ");
+				}
+				if (checks[i].followsOptions) {
+					text.append(prefix);
+				}
+				text.append(checks[i].text);
+			}
+			this.text = text.append(")").toString();
+		}
+
+		@Override
+		public void describeTo(Description description) {
+			description.appendText(text);
+		}
+
+		@Override
+		protected boolean matchesSafely(Path path) {
+			return evaluate(path, probe);
+		}
+
+		@Override
+		boolean matchesSafely(Path path, PathProbe probe) {
+			BasicFileAttributes attributes;
+			try {
+				attributes = probe.readAttributes(path, linkOptions);
+			} catch (IOException e) {
+				attributes = null;
+			}
+
+			// Evaluate in order of cost, rather than the order given
+			for (final Check check : Check.values()) {
+				for (int i = 0; i < checks.length; i++) {
+					if (checks[i] == check && check(check, path, attributes, probe) != expected[i]) {
+						return false;
+					}
+				}
+			}
+			return true;
+		}
+
+		private boolean check(final Check check, final Path path, final BasicFileAttributes attributes,
+				final PathProbe probe) {
+			switch (check) {
+			case EXISTS:
+				return attributes != null;
+			case DIRECTORY:
+				return attributes != null && attributes.isDirectory();
+			case REGULAR_FILE:
+				return attributes != null && attributes.isRegularFile();
+			case SYMBOLIC_LINK:
+				if (PathProbe.noFollow(linkOptions)) {
+					return attributes != null && attributes.isSymbolicLink();
+				}
+				return probe.isSymbolicLink(path);
+			case HIDDEN:
+				try {
+					return probe.isHidden(path);
+				} catch (IOException e) {
+					return false;
+				}
+			case READABLE:
+				return attributes != null && probe.isReadable(path);
+			case WRITABLE:
+				return attributes != null && probe.isWritable(path);
+			case EXECUTABLE:
+				return attributes != null && probe.isExecutable(path);
+			default:
+				throw new AssertionError(check);
+			}
+		}
+	}
+}
@@ -0,0 +1,61 @@
+package ca.seinesoftware.hamcrest.path;
+
+import java.io.IOException;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+
+import org.hamcrest.Description;
+
+/**
+ * A matcher of an entry's {@link BasicFileAttributes}, which are read once
+ * per match.
+ */
+abstract class BasicAttributeMatcher extends PathMatcher {
+
+	BasicAttributeMatcher(final String noun, final LinkOption... options) {
+		super(PathProbe.FILES, noun, options);
+	}
+
+	@Override
+	protected boolean matchesSafely(final Path path) {
+		return evaluate(path, probe);
+	}
+
+	@Override
+	boolean matchesSafely(final Path path, final PathProbe probe) {
+		try {
+			return matchesAttributes(path, probe.readAttributes(path, linkOptions), probe);
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	@Override
+	void describe(final Path path, final Description description) {
+		final BasicFileAttributes attributes;
+		try {
+			attributes = PathSnapshot.probe(path, probe).readAttributes(path, linkOptions);
+		} catch (IOException e) {
+			describeEntry(path, description);
+			return;
+		}
+		describeAttributes(path, attributes, description);
+	}
+
+	/**
+	 * Describe the entry's type and access, as matchers of those do.
+	 */
+	final void describeEntry(final Path path, final Description description) {
+		super.describe(path, description);
+	}
+
+	/**
+	 * @param probe
+	 *            the probe through which any other path is examined
+	 */
+	abstract boolean matchesAttributes(Path path, BasicFileAttributes attributes, PathProbe probe)
+			throws IOException;
+
+	abstract void describeAttributes(Path path, BasicFileAttributes attributes, Description description);
+}
@@ -0,0 +1,102 @@
+package ca.seinesoftware.hamcrest.path;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.hamcrest.SelfDescribing;
+import org.hamcrest.StringDescription;
+
+/**
+ * BatchResult
+ * <p>
+ * The outcome of evaluating one {@link Matcher} against many {@link Path}
+ * objects with {@link PathBatch}. Only the paths which did not match are
+ * retained, together with their mismatch descriptions.
+ */
+public final class BatchResult implements SelfDescribing {
+
+	/**
+	 * A path which did not match, and why.
+	 */
+	public static final class Mismatch {
+
+		private final Path path;
+		private final String description;
+
+		Mismatch(final Path path, final String description) {
+			this.path = path;
+			this.description = description;
+		}
+
+		/**
+		 * @return the path which did not match
+		 */
+		public Path path() {
+			return path;
+		}
+
+		/**
+		 * @return the mismatch description produced by the matcher
+		 */
+		public String description() {
+			return description;
+		}
+
+		@Override
+		public String toString() {
+			return description;
+		}
+	}
+
+	private final SelfDescribing matcher;
+	private final int evaluated;
+	private final List<Mismatch> mismatches;
+
+	BatchResult(final SelfDescribing matcher, final int evaluated, final List<Mismatch> mismatches) {
+		this.matcher = matcher;
+		this.evaluated = evaluated;
+		this.mismatches = Collections.unmodifiableList(mismatches);
+	}
+
+	/**
+	 * @return {@code true} if every path matched
+	 */
+	public boolean isSuccess() {
+		return mismatches.isEmpty();
+	}
+
+	/**
+	 * @return the number of paths evaluated
+	 */
+	public int evaluated() {
+		return evaluated;
+	}
+
+	/**
+	 * @return the paths which did not match, grouped by parent directory
+	 */
+	public List<Mismatch> mismatches() {
+		return mismatches;
+	}
+
+	/**
+	 * Describe every mismatch, one per line.
+	 */
+	@Override
+	public void describeTo(Description description) {
+		description.appendText(Integer.toString(mismatches.size())).appendText(" of ")
+				.appendText(Integer.toString(evaluated)).appendText(" paths were not ")
+				.appendDescriptionOf(matcher);
+		for (final Mismatch mismatch : mismatches) {
+			description.appendText("\n    ").appendText(mismatch.description());
+		}
+	}
+
+	@Override
+	public String toString() {
+		return StringDescription.toString(this);
+	}
+}
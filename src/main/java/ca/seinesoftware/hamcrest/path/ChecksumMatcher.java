@@ -0,0 +1,74 @@
+package ca.seinesoftware.hamcrest.path;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.hamcrest.Description;
+
+/**
+ * A matcher of a regular file's checksum, rendered as text.
+ * <p>
+ * A checksum which did not match is remembered as the {@link LastMismatch},
+ * so describing the mismatch does not read the file again, and describes the
+ * content which failed.
+ */
+abstract class ChecksumMatcher extends ContentMatcher {
+
+	private final String name;
+	private final String expected;
+
+	private final LastMismatch<String> mismatched = new LastMismatch<>();
+
+	/**
+	 * @param name
+	 *            the checksum's name, for instance {@code "SHA-256 digest"}
+	 * @param expected
+	 *            the expected checksum, rendered as by
+	 *            {@link #checksum(Path, long)}
+	 */
+	ChecksumMatcher(final String name, final String expected) {
+		super("with a " + name + " of " + expected);
+		this.name = name;
+		this.expected = expected;
+	}
+
+	@Override
+	boolean matchesSafely(final Path path, final PathProbe probe) {
+		mismatched.take(path);
+		return super.matchesSafely(path, probe);
+	}
+
+	@Override
+	boolean matchesContent(final Path path) throws IOException {
+		final String checksum = checksum(path);
+		if (expected.equals(checksum)) {
+			return true;
+		}
+		mismatched.put(path, checksum);
+		return false;
+	}
+
+	@Override
+	void describeContentMismatch(final Path path, final Description description) throws IOException {
+		String checksum = mismatched.take(path);
+		if (checksum == null) {
+			checksum = checksum(path);
+		}
+		description.appendValue(path).appendText(" has a " + name + " of " + checksum);
+	}
+
+	private String checksum(final Path path) throws IOException {
+		Instrumentation.operation();
+		return checksum(path, Files.size(path));
+	}
+
+	/**
+	 * Compute the file's checksum.
+	 *
+	 * @param size
+	 *            the file's size
+	 * @return the checksum, rendered as text
+	 */
+	abstract String checksum(Path path, long size) throws IOException;
+}
@@ -0,0 +1,47 @@
+package ca.seinesoftware.hamcrest.path;
+
+import java.nio.file.Path;
+
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.hamcrest.TypeSafeDiagnosingMatcher;
+
+class Consistently extends TypeSafeDiagnosingMatcher<Path> {
+
+	private final Matcher<? super Path> matcher;
+
+	private final LastMismatch<PathSnapshot> failed = new LastMismatch<>();
+
+	public Consistently(final Matcher<? super Path> matcher) {
+		this.matcher = matcher;
+	}
+
+	@Override
+	public void describeTo(Description description) {
+		description.appendDescriptionOf(matcher);
+	}
+
+	/**
+	 * Each evaluation takes a snapshot of its own. A mismatch is described
+	 * from the snapshot which did not match, when it is the
+	 * {@link LastMismatch}, so the description cannot contradict it.
+	 */
+	@Override
+	protected boolean matchesSafely(final Path path, final Description mismatchDescription) {
+		final boolean describing = !(mismatchDescription instanceof Description.NullDescription);
+		PathSnapshot snapshot = failed.take(path);
+		if (!describing || snapshot == null) {
+			snapshot = PathSnapshot.of(path);
+		}
+
+		if (snapshot.matches(matcher)) {
+			return true;
+		}
+		if (describing) {
+			SnapshotMatching.describe(snapshot, matcher, mismatchDescription);
+		} else {
+			failed.put(path, snapshot);
+		}
+		return false;
+	}
+}
@@ -0,0 +1,101 @@
+package ca.seinesoftware.hamcrest.path;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+import org.hamcrest.Description;
+
+class ContainsBytes extends ContentMatcher {
+
+	private final byte[] bytes;
+
+	/**
+	 * For each prefix of {@link #bytes}, the length of its longest proper
+	 * prefix which is also a suffix (Knuth-Morris-Pratt), so the search never
+	 * steps back and a match may span two buffers.
+	 */
+	private final int[] fallback;
+
+	public ContainsBytes(final byte[] bytes) {
+		super("containing " + hex(bytes, bytes.length));
+		this.bytes = bytes.clone();
+		this.fallback = new int[bytes.length + 1];
+
+		int k = 0;
+		for (int i = 1; i < bytes.length; i++) {
+			while (k > 0 && bytes[i] != bytes[k]) {
+				k = fallback[k];
+			}
+			if (bytes[i] == bytes[k]) {
+				k++;
+			}
+			fallback[i + 1] = k;
+		}
+	}
+
+	@Override
+	boolean matchesContent(final Path path) throws IOException {
+		return search(path).found();
+	}
+
+	@Override
+	void describeContentMismatch(final Path path, final Description description) throws IOException {
+		final Search search = search(path);
+		description.appendValue(path).appendText(" does not contain them in its ").appendValue(search.searched)
+				.appendText(" bytes");
+		if (search.longest > 0) {
+			description.appendText("; the longest partial match is ").appendValue(search.longest)
+					.appendText(" bytes at offset ").appendValue(search.longestAt);
+		}
+	}
+
+	private Search search(final Path path) throws IOException {
+		final Search search = new Search();
+		if (bytes.length > 0) {
+			FileContent.read(path, search);
+		}
+		return search;
+	}
+
+	private final class Search implements FileContent.Visitor {
+
+		/** The number of bytes of {@link #bytes} matched so far */
+		int matched;
+		long searched;
+		int longest;
+		long longestAt;
+
+		boolean found() {
+			return matched == bytes.length;
+		}
+
+		@Override
+		public boolean visit(final ByteBuffer buffer, final long offset) {
+			final int start = buffer.position();
+			final int end = buffer.limit();
+			int k = matched;
+			for (int i = start; i < end; i++) {
+				final byte b = buffer.get(i);
+				while (k > 0 && b != bytes[k]) {
+					k = fallback[k];
+				}
+				if (b == bytes[k]) {
+					k++;
+					if (k > longest) {
+						longest = k;
+						longestAt = offset + (i - start) + 1 - k;
+					}
+					if (k == bytes.length) {
+						matched = k;
+						searched = offset + (i - start) + 1;
+						return false;
+					}
+				}
+			}
+			matched = k;
+			searched = offset + (end - start);
+			return true;
+		}
+	}
+}
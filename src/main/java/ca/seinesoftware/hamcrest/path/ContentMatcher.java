@@ -0,0 +1,77 @@
+package ca.seinesoftware.hamcrest.path;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.hamcrest.Description;
+
+/**
+ * A matcher of the content of a regular file. The content is streamed through
+ * {@link FileContent}, never loaded onto the heap, and reading stops as soon
+ * as the outcome is known.
+ */
+abstract class ContentMatcher extends PathMatcher {
+
+	private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+	ContentMatcher(final String noun) {
+		super(PathProbe.FILES, "a regular file " + noun);
+	}
+
+	@Override
+	protected boolean matchesSafely(final Path path) {
+		return evaluate(path, probe);
+	}
+
+	@Override
+	boolean matchesSafely(final Path path, final PathProbe probe) {
+		if (!probe.isRegularFile(path)) {
+			return false;
+		}
+		try {
+			return matchesContent(path);
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	@Override
+	void describe(final Path path, final Description description) {
+		if (!PathSnapshot.probe(path, probe).isRegularFile(path)) {
+			super.describe(path, description);
+			return;
+		}
+		try {
+			describeContentMismatch(path, description);
+		} catch (IOException e) {
+			description.appendText("content of ").appendValue(path).appendText(" cannot be read: ")
+					.appendText(String.valueOf(e.getMessage()));
+		}
+	}
+
+	/**
+	 * @param path
+	 *            a regular file
+	 * @return whether the file's content matches
+	 */
+	abstract boolean matchesContent(Path path) throws IOException;
+
+	/**
+	 * Describe why the file's content does not match, reading it again.
+	 *
+	 * @param path
+	 *            a regular file
+	 */
+	abstract void describeContentMismatch(Path path, Description description) throws IOException;
+
+	/**
+	 * @return the bytes in hexadecimal, for instance {@code 0x7F454C46}
+	 */
+	static String hex(final byte[] bytes, final int length) {
+		final StringBuilder text = new StringBuilder(2 + 2 * length).append("0x");
+		for (int i = 0; i < length; i++) {
+			text.append(HEX[bytes[i] >> 4 & 0xF]).append(HEX[bytes[i] & 0xF]);
+		}
+		return text.toString();
+	}
+}
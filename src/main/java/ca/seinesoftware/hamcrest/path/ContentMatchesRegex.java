@@ -0,0 +1,217 @@
+package ca.seinesoftware.hamcrest.path;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.hamcrest.Description;
+
+class ContentMatchesRegex extends ContentMatcher {
+
+	/**
+	 * The longest line decoded whole, in bytes. A longer line is searched in
+	 * windows of as many characters, rather than being collected on the heap.
+	 */
+	static final int MAXIMUM_LINE_LENGTH = 1 << 20;
+
+	/**
+	 * The characters at the end of a window which begin the next, so that a
+	 * match no longer than this is found even where it crosses windows.
+	 */
+	static final int WINDOW_OVERLAP = 1 << 16;
+
+	private final Pattern pattern;
+	private final Charset charset;
+
+	public ContentMatchesRegex(final Pattern pattern, final Charset charset) {
+		super("with a line containing a match for \"" + pattern.pattern() + "\"");
+		if (!Arrays.equals("\n".getBytes(charset), new byte[] { '\n' })) {
+			throw new IllegalArgumentException("Line feed is not a single byte in " + charset);
+		}
+		this.pattern = pattern;
+		this.charset = charset;
+	}
+
+	@Override
+	boolean matchesContent(final Path path) throws IOException {
+		return search(path).found;
+	}
+
+	@Override
+	void describeContentMismatch(final Path path, final Description description) throws IOException {
+		final Search search = search(path);
+		description.appendText("none of the ").appendValue(search.lines).appendText(" lines of ")
+				.appendValue(path).appendText(" contains a match");
+	}
+
+	private Search search(final Path path) throws IOException {
+		final Search search = new Search();
+		if (FileContent.read(path, search) && (search.length > 0 || search.windowed)) {
+			search.line();
+		}
+		return search;
+	}
+
+	/**
+	 * Splits the content into lines at each line feed, decoding only one line
+	 * at a time; a trailing carriage return is not part of the line. A line
+	 * longer than {@link #MAXIMUM_LINE_LENGTH} is decoded as it is read, and
+	 * searched a window at a time, each window beginning with the last
+	 * {@link #WINDOW_OVERLAP} characters of the one before.
+	 * <p>
+	 * A window is searched with transparent, non-anchoring bounds, and its
+	 * first character, when it continues the previous window, and its last
+	 * two, unless it ends the line, lie outside the region searched: so
+	 * boundary matchers and anchors such as {@code ^}, {@code $} and
+	 * {@code \b} only match where they would in the whole line.
+	 */
+	private final class Search implements FileContent.Visitor {
+
+		private final Matcher matcher = pattern.matcher("").useAnchoringBounds(false).useTransparentBounds(true);
+
+		/** The line being collected, which may span buffers */
+		private byte[] line = new byte[256];
+		private int length;
+
+		long lines;
+
+		boolean found;
+
+		/** Whether the line being collected is searched in windows */
+		private boolean windowed;
+
+		/** Whether the window begins with the end of the previous one */
+		private boolean continued;
+
+		private CharsetDecoder decoder;
+		private CharBuffer window;
+
+		@Override
+		public boolean visit(final ByteBuffer buffer, final long offset) {
+			final int end = buffer.limit();
+			int from = buffer.position();
+			for (int i = from; i < end; i++) {
+				if (buffer.get(i) == '\n') {
+					if (append(buffer, from, i) || line()) {
+						return false;
+					}
+					from = i + 1;
+				}
+			}
+			return !append(buffer, from, end);
+		}
+
+		/**
+		 * @return whether a window of a long line, searched to make room,
+		 *         contains a match
+		 */
+		private boolean append(final ByteBuffer buffer, int from, final int to) {
+			while (from < to) {
+				if (length == MAXIMUM_LINE_LENGTH && decode(false)) {
+					return true;
+				}
+				final int count = Math.min(to - from, MAXIMUM_LINE_LENGTH - length);
+				if (length + count > line.length) {
+					line = Arrays.copyOf(line, Math.max(length + count, 2 * line.length));
+				}
+				for (int i = 0; i < count; i++) {
+					line[length + i] = buffer.get(from + i);
+				}
+				length += count;
+				from += count;
+			}
+			return false;
+		}
+
+		/**
+		 * End the line being collected.
+		 *
+		 * @return whether it contains a match
+		 */
+		boolean line() {
+			lines++;
+			if (windowed) {
+				found = decode(true);
+				windowed = false;
+				length = 0;
+				return found;
+			}
+			final int end = length > 0 && line[length - 1] == '\r' ? length - 1 : length;
+			length = 0;
+			found = matcher.reset(new String(line, 0, end, charset)).find();
+			return found;
+		}
+
+		/**
+		 * Decode the bytes collected of a long line into the window, keeping
+		 * those of an incomplete character, and search each window filled.
+		 *
+		 * @param last
+		 *            whether the line ends with these bytes
+		 * @return whether a window searched contains a match
+		 */
+		private boolean decode(final boolean last) {
+			if (!windowed) {
+				if (decoder == null) {
+					decoder = charset.newDecoder().onMalformedInput(CodingErrorAction.REPLACE)
+							.onUnmappableCharacter(CodingErrorAction.REPLACE);
+					window = CharBuffer.allocate(MAXIMUM_LINE_LENGTH);
+				}
+				decoder.reset();
+				window.clear();
+				windowed = true;
+				continued = false;
+			}
+
+			final ByteBuffer bytes = ByteBuffer.wrap(line, 0, length);
+			while (decoder.decode(bytes, window, last).isOverflow()) {
+				if (search(false)) {
+					return true;
+				}
+			}
+			if (last) {
+				while (decoder.flush(window).isOverflow()) {
+					if (search(false)) {
+						return true;
+					}
+				}
+				return search(true);
+			}
+			length = bytes.remaining();
+			System.arraycopy(line, bytes.position(), line, 0, length);
+			return false;
+		}
+
+		/**
+		 * Search the window, then keep its end to begin the next.
+		 *
+		 * @param last
+		 *            whether the window ends the line
+		 * @return whether it contains a match
+		 */
+		private boolean search(final boolean last) {
+			window.flip();
+			int end = window.limit();
+			if (!last) {
+				// Past any line terminator $ could match before
+				end -= 2;
+			} else if (end > 0 && window.get(end - 1) == '\r') {
+				end--;
+			}
+			final int start = continued ? 1 : 0;
+			found = start <= end && matcher.reset(window).region(start, end).find();
+
+			window.position(window.limit() - Math.min(WINDOW_OVERLAP, window.limit()));
+			window.compact();
+			continued = true;
+			return found;
+		}
+	}
+}
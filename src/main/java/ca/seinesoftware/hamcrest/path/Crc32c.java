@@ -0,0 +1,222 @@
+package ca.seinesoftware.hamcrest.path;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * The CRC-32C (Castagnoli) checksum, computed eight bytes at a time. Large
+ * files are split into chunks, checksummed concurrently, and the chunks'
+ * checksums combined.
+ */
+final class Crc32c {
+
+	/** The reversed Castagnoli polynomial */
+	private static final int POLYNOMIAL = 0x82F63B78;
+
+	/**
+	 * The largest part of a file checksummed by a single task.
+	 */
+	static final long CHUNK = 32 << 20;
+
+	/**
+	 * {@code TABLE[k][n]} is the checksum of byte {@code n} followed by
+	 * {@code k} zero bytes.
+	 */
+	private static final int[][] TABLE = new int[8][256];
+
+	static {
+		for (int n = 0; n < 256; n++) {
+			int crc = n;
+			for (int bit = 0; bit < 8; bit++) {
+				crc = (crc & 1) != 0 ? crc >>> 1 ^ POLYNOMIAL : crc >>> 1;
+			}
+			TABLE[0][n] = crc;
+		}
+		for (int n = 0; n < 256; n++) {
+			for (int k = 1; k < 8; k++) {
+				TABLE[k][n] = TABLE[k - 1][n] >>> 8 ^ TABLE[0][TABLE[k - 1][n] & 0xFF];
+			}
+		}
+	}
+
+	/**
+	 * Created when first needed; its threads are daemons.
+	 */
+	private static final class Workers {
+		static final ForkJoinPool POOL = new ForkJoinPool();
+	}
+
+	private Crc32c() {
+	}
+
+	/**
+	 * Continue a checksum over the buffer's remaining bytes, without moving
+	 * its position.
+	 *
+	 * @param crc
+	 *            the checksum of the preceding bytes, or 0
+	 * @return the checksum including the buffer
+	 */
+	static int update(int crc, final ByteBuffer buffer) {
+		final ByteBuffer words = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+		final int end = words.limit();
+		final int[] t0 = TABLE[0], t1 = TABLE[1], t2 = TABLE[2], t3 = TABLE[3];
+		final int[] t4 = TABLE[4], t5 = TABLE[5], t6 = TABLE[6], t7 = TABLE[7];
+
+		crc = ~crc;
+		int i = words.position();
+		for (; i + 8 <= end; i += 8) {
+			final long word = words.getLong(i) ^ crc & 0xFFFFFFFFL;
+			crc = t7[(int) word & 0xFF] ^ t6[(int) (word >>> 8) & 0xFF] ^ t5[(int) (word >>> 16) & 0xFF]
+					^ t4[(int) (word >>> 24) & 0xFF] ^ t3[(int) (word >>> 32) & 0xFF]
+					^ t2[(int) (word >>> 40) & 0xFF] ^ t1[(int) (word >>> 48) & 0xFF] ^ t0[(int) (word >>> 56)];
+		}
+		for (; i < end; i++) {
+			crc = t0[(crc ^ words.get(i)) & 0xFF] ^ crc >>> 8;
+		}
+		return ~crc;
+	}
+
+	/**
+	 * Combine the checksums of two consecutive sequences of bytes.
+	 *
+	 * @param crc1
+	 *            the checksum of the first sequence
+	 * @param crc2
+	 *            the checksum of the second sequence
+	 * @param length2
+	 *            the length of the second sequence
+	 * @return the checksum of both sequences, one after the other
+	 */
+	static int combine(int crc1, final int crc2, long length2) {
+		if (length2 <= 0) {
+			return crc1;
+		}
+
+		// Operators appending one, then two, four... zero bits (as in zlib)
+		final int[] even = new int[32];
+		final int[] odd = new int[32];
+		odd[0] = POLYNOMIAL;
+		for (int n = 1, row = 1; n < 32; n++, row <<= 1) {
+			odd[n] = row;
+		}
+		square(even, odd);
+		square(odd, even);
+
+		do {
+			square(even, odd);
+			if ((length2 & 1) != 0) {
+				crc1 = times(even, crc1);
+			}
+			length2 >>>= 1;
+			if (length2 == 0) {
+				break;
+			}
+			square(odd, even);
+			if ((length2 & 1) != 0) {
+				crc1 = times(odd, crc1);
+			}
+			length2 >>>= 1;
+		} while (length2 != 0);
+
+		return crc1 ^ crc2;
+	}
+
+	private static int times(final int[] matrix, int vector) {
+		int sum = 0;
+		for (int i = 0; vector != 0; i++, vector >>>= 1) {
+			if ((vector & 1) != 0) {
+				sum ^= matrix[i];
+			}
+		}
+		return sum;
+	}
+
+	private static void square(final int[] square, final int[] matrix) {
+		for (int n = 0; n < 32; n++) {
+			square[n] = times(matrix, matrix[n]);
+		}
+	}
+
+	/**
+	 * Checksum a file, in concurrent chunks if it is larger than
+	 * {@link #CHUNK}.
+	 */
+	static int checksum(final Path path, final long size) throws IOException {
+		if (size <= CHUNK) {
+			return checksum(path, 0, size);
+		}
+		try {
+			return Workers.POOL.invoke(new Chunk(path, 0, size));
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	private static int checksum(final Path path, final long from, final long length) throws IOException {
+		final int[] crc = new int[1];
+		FileContent.read(path, from, length, new FileContent.Visitor() {
+			@Override
+			public boolean visit(final ByteBuffer buffer, final long offset) {
+				crc[0] = update(crc[0], buffer);
+				return true;
+			}
+		});
+		return crc[0];
+	}
+
+	private static final class Chunk extends RecursiveTask<Integer> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Path path;
+		private final long from;
+		private final long length;
+
+		Chunk(final Path path, final long from, final long length) {
+			this.path = path;
+			this.from = from;
+			this.length = length;
+		}
+
+		@Override
+		protected Integer compute() {
+			if (length <= CHUNK) {
+				try {
+					return checksum(path, from, length);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			}
+
+			// Split on a chunk boundary, so every task but the last is whole
+			final long half = (length / CHUNK + 1) / 2 * CHUNK;
+			final Chunk first = new Chunk(path, from, half);
+			final Chunk second = new Chunk(path, from + half, length - half);
+			first.fork();
+			final int crc2 = second.compute();
+			return combine(first.join(), crc2, length - half);
+		}
+	}
+
+	/**
+	 * Carries an {@link IOException} out of a task.
+	 */
+	private static final class UncheckedIOException extends RuntimeException {
+
+		private static final long serialVersionUID = 1L;
+
+		UncheckedIOException(final IOException cause) {
+			super(cause);
+		}
+
+		@Override
+		public synchronized IOException getCause() {
+			return (IOException) super.getCause();
+		}
+	}
+}
@@ -0,0 +1,16 @@
+package ca.seinesoftware.hamcrest.path;
+
+import java.nio.file.Path;
+
+class DanglingLink extends LinkMatcher {
+
+	public DanglingLink() {
+		super("a dangling symbolic link");
+	}
+
+	@Override
+	boolean matchesResolution(final Path path, final LinkResolver.Resolution resolution,
+			final LinkResolver resolver) {
+		return resolution.isLink() && resolution.outcome != LinkResolver.Outcome.RESOLVED;
+	}
+}
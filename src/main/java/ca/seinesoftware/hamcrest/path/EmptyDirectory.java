@@ -0,0 +1,49 @@
+package ca.seinesoftware.hamcrest.path;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Iterator;
+
+import org.hamcrest.Description;
+
+class EmptyDirectory extends BasicAttributeMatcher {
+
+	public EmptyDirectory(final LinkOption... linkOptions) {
+		super("an empty directory", linkOptions);
+	}
+
+	@Override
+	boolean matchesAttributes(final Path path, final BasicFileAttributes attributes, final PathProbe probe)
+			throws IOException {
+		return attributes.isDirectory() && firstEntry(path) == null;
+	}
+
+	@Override
+	void describeAttributes(final Path path, final BasicFileAttributes attributes, final Description description) {
+		if (!attributes.isDirectory()) {
+			describeEntry(path, description);
+			return;
+		}
+		try {
+			description.appendValue(path).appendText(" contains ").appendValue(firstEntry(path));
+		} catch (IOException e) {
+			description.appendValue(path).appendText(" could not be listed: ").appendText(e.toString());
+		}
+	}
+
+	/**
+	 * @return the first entry listed, without listing the rest, or
+	 *         {@code null} if the directory is empty
+	 */
+	private static Path firstEntry(final Path directory) throws IOException {
+		Instrumentation.operation();
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+			final Iterator<Path> entries = stream.iterator();
+			return entries.hasNext() ? entries.next() : null;
+		}
+	}
+}
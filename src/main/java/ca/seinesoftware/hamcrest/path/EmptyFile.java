@@ -0,0 +1,28 @@
+package ca.seinesoftware.hamcrest.path;
+
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+
+import org.hamcrest.Description;
+
+class EmptyFile extends BasicAttributeMatcher {
+
+	public EmptyFile(final LinkOption... linkOptions) {
+		super("an empty regular file", linkOptions);
+	}
+
+	@Override
+	boolean matchesAttributes(final Path path, final BasicFileAttributes attributes, final PathProbe probe) {
+		return attributes.isRegularFile() && attributes.size() == 0;
+	}
+
+	@Override
+	void describeAttributes(final Path path, final BasicFileAttributes attributes, final Description description) {
+		if (attributes.isRegularFile()) {
+			description.appendValue(path).appendText(" has a size of ").appendValue(attributes.size());
+		} else {
+			describeEntry(path, description);
+		}
+	}
+}
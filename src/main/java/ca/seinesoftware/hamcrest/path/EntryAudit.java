@@ -0,0 +1,128 @@
+package ca.seinesoftware.hamcrest.path;
+
+import java.io.IOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+
+/**
+ * Checks every entry of a tree, like {@link EveryEntry}, but reports every
+ * entry which does not match rather than only the first.
+ * <p>
+ * The tree is listed one directory at a time, and each entry's attributes
+ * are read once, as {@link java.nio.file.attribute.PosixFileAttributes
+ * PosixFileAttributes} where supported, so permission and ownership matchers
+ * are answered without reading them again. A directory which could not be
+ * listed is reported as not matching, and the rest of the tree is still
+ * audited.
+ */
+class EntryAudit extends TreeMatcher {
+
+	private final Matcher<? super Path> matcher;
+
+	public EntryAudit(final Matcher<? super Path> matcher) {
+		this.matcher = matcher;
+	}
+
+	@Override
+	public void describeTo(Description description) {
+		description.appendText("a directory in which every entry is ").appendDescriptionOf(matcher);
+	}
+
+	@Override
+	boolean matchesTree(final Path root, final Description mismatch) {
+		if (!Files.isDirectory(root)) {
+			PathMatcher.aDirectory().describeMismatch(root, mismatch);
+			return false;
+		}
+
+		final Audit audit = new Audit(new Differences(root, "has entries which did not match", mismatch));
+		try {
+			audit.walk(root);
+		} catch (IOException e) {
+			mismatch.appendValue(root).appendText(" could not be walked: ").appendText(e.toString());
+			return false;
+		}
+		return audit.failures.end();
+	}
+
+	private final class Audit {
+
+		final Differences failures;
+		private final VisitedEntry probe = new VisitedEntry();
+
+		Audit(final Differences failures) {
+			this.failures = failures;
+		}
+
+		/**
+		 * @return {@code false} if the audit ended early
+		 * @throws IOException
+		 *             if the directory could not be listed
+		 */
+		boolean walk(final Path directory) throws IOException {
+			Instrumentation.operation();
+			try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+				for (final Path entry : stream) {
+					BasicFileAttributes attributes;
+					try {
+						attributes = PathProbe.FILES.readAttributes(entry, LinkOption.NOFOLLOW_LINKS);
+					} catch (IOException e) {
+						attributes = null;
+					}
+
+					if (!visit(entry, attributes)) {
+						return false;
+					}
+					if (attributes != null && attributes.isDirectory() && !descend(entry)) {
+						return false;
+					}
+				}
+			} catch (DirectoryIteratorException e) {
+				throw e.getCause();
+			}
+			return true;
+		}
+
+		/**
+		 * Walk a directory below the root, reporting it if it could not be
+		 * listed.
+		 *
+		 * @return {@code false} if the audit ended early
+		 */
+		private boolean descend(final Path directory) {
+			try {
+				return walk(directory);
+			} catch (IOException e) {
+				final Description line = failures.next();
+				if (line != null) {
+					line.appendText("entry ").appendValue(directory).appendText(" could not be listed: ")
+							.appendText(e.toString());
+				}
+				return failures.wanted();
+			}
+		}
+
+		/**
+		 * @return {@code false} once the outcome is known
+		 */
+		private boolean visit(final Path entry, final BasicFileAttributes attributes) {
+			probe.reset(entry, attributes);
+			if (PathMatcher.matches(matcher, entry, probe)) {
+				return true;
+			}
+
+			final Description line = failures.next();
+			if (line != null) {
+				describeEntryMismatch(matcher, entry, line);
+			}
+			return failures.wanted();
+		}
+	}
+}
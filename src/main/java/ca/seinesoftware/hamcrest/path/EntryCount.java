@@ -0,0 +1,41 @@
+package ca.seinesoftware.hamcrest.path;
+
+import java.nio.file.Path;
+
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+
+class EntryCount extends TreeMatcher {
+
+	private final Matcher<? super Integer> matcher;
+
+	public EntryCount(final Matcher<? super Integer> matcher) {
+		this.matcher = matcher;
+	}
+
+	@Override
+	public void describeTo(Description description) {
+		description.appendText("a directory with an entry count of ").appendDescriptionOf(matcher);
+	}
+
+	@Override
+	boolean matchesTree(final Path root, final Description mismatch) {
+		final int[] count = new int[1];
+		final boolean walked = walk(root, new EntryVisitor() {
+			@Override
+			public boolean visit(final Path entry, final PathProbe probe) {
+				count[0]++;
+				return true;
+			}
+		}, mismatch);
+
+		if (!walked) {
+			return false;
+		}
+		if (!matcher.matches(count[0])) {
+			mismatch.appendValue(root).appendText(" has ").appendValue(count[0]).appendText(" entries");
+			return false;
+		}
+		return true;
+	}
+}
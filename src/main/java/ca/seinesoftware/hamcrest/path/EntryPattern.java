@@ -0,0 +1,252 @@
+package ca.seinesoftware.hamcrest.path;
+
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A glob or regular expression which selects the entries of a tree by their
+ * path relative to its root, as {@link FileSystem#getPathMatcher(String)}
+ * matches them. The pattern is written with {@code '/'} separating names.
+ * <p>
+ * The pattern is examined once, when it is created, for the parts of the
+ * tree no entry it matches can be in: the literal directories it starts
+ * with, the greatest depth a glob without {@code "**"} can reach, and, for a
+ * glob, the names each of its leading directories must match. A walk can
+ * then start below the root and skip any subtree which cannot hold a match,
+ * rather than visiting every entry and filtering.
+ */
+final class EntryPattern {
+
+	private static final String GLOB = "glob";
+	private static final String REGEX = "regex";
+
+	private final String text;
+	private final String syntaxAndPattern;
+
+	/**
+	 * The literal directories every match is below; empty if none.
+	 */
+	private final String prefix;
+	private final int prefixCount;
+
+	/**
+	 * Patterns for the first {@code i + 1} names of any match, for each
+	 * leading name which cannot span directories; empty if unknown.
+	 */
+	private final String[] leading;
+
+	/**
+	 * The depth of the deepest possible match, or
+	 * {@link Integer#MAX_VALUE} if unbounded.
+	 */
+	private final int maxDepth;
+
+	/**
+	 * @param text
+	 *            a glob, or a pattern prefixed by its syntax as accepted by
+	 *            {@link FileSystem#getPathMatcher(String)}, for instance
+	 *            {@code "regex:.*\\.so"}
+	 * @throws IllegalArgumentException
+	 *             if the pattern is empty, or is a malformed glob or
+	 *             regular expression
+	 */
+	EntryPattern(final String text) {
+		final int colon = text.indexOf(':');
+		final String syntax;
+		final String pattern;
+		if (colon > 0) {
+			syntax = text.substring(0, colon);
+			pattern = text.substring(colon + 1);
+		} else {
+			syntax = GLOB;
+			pattern = text;
+		}
+		if (pattern.isEmpty()) {
+			throw new IllegalArgumentException("Pattern is empty: " + text);
+		}
+		this.text = text;
+		this.syntaxAndPattern = syntax + ':' + pattern;
+
+		if (syntax.equalsIgnoreCase(GLOB) || syntax.equalsIgnoreCase(REGEX)) {
+			FileSystems.getDefault().getPathMatcher(syntaxAndPattern);
+		}
+
+		if (syntax.equalsIgnoreCase(GLOB)) {
+			final List<String> names = globNames(pattern);
+			if (names == null) {
+				prefix = "";
+				prefixCount = 0;
+				leading = new String[0];
+				maxDepth = Integer.MAX_VALUE;
+			} else {
+				int literal = 0;
+				while (literal < names.size() - 1 && isLiteralGlob(names.get(literal))) {
+					literal++;
+				}
+				int fixed = 0;
+				while (fixed < names.size() && !names.get(fixed).contains("**")) {
+					fixed++;
+				}
+				prefix = join(names, literal);
+				prefixCount = literal;
+				leading = new String[fixed];
+				for (int i = 0; i < fixed; i++) {
+					leading[i] = GLOB + ':' + join(names, i + 1);
+				}
+				maxDepth = fixed == names.size() ? names.size() : Integer.MAX_VALUE;
+			}
+		} else if (syntax.equalsIgnoreCase(REGEX)) {
+			prefix = regexPrefix(pattern);
+			prefixCount = prefix.isEmpty() ? 0 : prefix.split("/").length;
+			leading = new String[0];
+			maxDepth = Integer.MAX_VALUE;
+		} else {
+			prefix = "";
+			prefixCount = 0;
+			leading = new String[0];
+			maxDepth = Integer.MAX_VALUE;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return text;
+	}
+
+	/**
+	 * Bind the pattern to the root of a tree.
+	 *
+	 * @throws IllegalArgumentException
+	 *             if the root's file system does not accept the pattern
+	 */
+	Scope scope(final Path root) {
+		return new Scope(root);
+	}
+
+	/**
+	 * The pattern bound to the root of a tree.
+	 */
+	final class Scope {
+
+		private final Path root;
+		private final java.nio.file.PathMatcher matcher;
+		private final java.nio.file.PathMatcher[] directories;
+
+		Scope(final Path root) {
+			final FileSystem fileSystem = root.getFileSystem();
+			this.root = root;
+			this.matcher = fileSystem.getPathMatcher(syntaxAndPattern);
+			this.directories = new java.nio.file.PathMatcher[leading.length];
+			for (int i = 0; i < leading.length; i++) {
+				directories[i] = fileSystem.getPathMatcher(leading[i]);
+			}
+		}
+
+		/**
+		 * @return the directory to walk from, below which every match is,
+		 *         or {@code null} if no entry of the tree can match
+		 */
+		Path start() {
+			if (prefix.isEmpty()) {
+				return root;
+			}
+			final Path start = root.resolve(root.getFileSystem().getPath(prefix));
+			return Files.isDirectory(start, LinkOption.NOFOLLOW_LINKS) ? start : null;
+		}
+
+		/**
+		 * @return the greatest depth below {@link #start()} to walk
+		 */
+		int maxDepth() {
+			return maxDepth == Integer.MAX_VALUE ? maxDepth : maxDepth - prefixCount;
+		}
+
+		boolean matches(final Path entry) {
+			return matcher.matches(root.relativize(entry));
+		}
+
+		/**
+		 * @return {@code false} if no entry below the directory can match
+		 */
+		boolean descend(final Path directory) {
+			final Path relative = root.relativize(directory);
+			final int depth = relative.getNameCount();
+			return depth > directories.length || directories[depth - 1].matches(relative);
+		}
+	}
+
+	// ========================================================================
+	// Pattern analysis
+	// ========================================================================
+
+	/**
+	 * @return the names of a glob, or {@code null} if a group or bracket
+	 *         expression may hold a separator
+	 */
+	private static List<String> globNames(final String glob) {
+		final List<String> names = new ArrayList<>();
+		int depth = 0;
+		int start = 0;
+		for (int i = 0; i < glob.length(); i++) {
+			final char c = glob.charAt(i);
+			if (c == '\\') {
+				i++;
+			} else if (c == '{' || c == '[') {
+				depth++;
+			} else if (c == '}' || c == ']') {
+				depth--;
+			} else if (c == '/') {
+				if (depth > 0) {
+					return null;
+				}
+				names.add(glob.substring(start, i));
+				start = i + 1;
+			}
+		}
+		names.add(glob.substring(start));
+		return names;
+	}
+
+	private static boolean isLiteralGlob(final String name) {
+		for (int i = 0; i < name.length(); i++) {
+			if ("*?[{\\".indexOf(name.charAt(i)) >= 0) {
+				return false;
+			}
+		}
+		return !name.isEmpty();
+	}
+
+	/**
+	 * @return the literal directories at the start of a regular expression
+	 */
+	private static String regexPrefix(final String regex) {
+		if (regex.indexOf('|') >= 0) {
+			return "";
+		}
+		int end = 0;
+		while (end < regex.length() && "\\^$.?*+()[]{}".indexOf(regex.charAt(end)) < 0) {
+			end++;
+		}
+		if (end < regex.length() && "?*+{".indexOf(regex.charAt(end)) >= 0) {
+			end--;
+		}
+		final int slash = end > 0 ? regex.lastIndexOf('/', end - 1) : -1;
+		return slash > 0 ? regex.substring(0, slash) : "";
+	}
+
+	private static String join(final List<String> names, final int count) {
+		final StringBuilder joined = new StringBuilder();
+		for (int i = 0; i < count; i++) {
+			if (i > 0) {
+				joined.append('/');
+			}
+			joined.append(names.get(i));
+		}
+		return joined.toString();
+	}
+}
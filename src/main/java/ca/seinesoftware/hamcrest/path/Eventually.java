@@ -0,0 +1,237 @@
+package ca.seinesoftware.hamcrest.path;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.hamcrest.StringDescription;
+import org.hamcrest.TypeSafeDiagnosingMatcher;
+
+/**
+ * Eventually
+ * <p>
+ * A matcher which waits, up to a timeout, for a {@link Path} to satisfy
+ * another matcher, rather than a test polling in a sleep loop.
+ * <p>
+ * The path is examined once at first, and again whenever a
+ * {@link WatchService} reports a change in its parent directory (or, until
+ * the parent exists, in its nearest existing ancestor). On file systems which
+ * report no events, or are slow to, the path is also examined at intervals,
+ * starting at 10 milliseconds and doubling up to one second. If the timeout
+ * passes, the mismatch is the given matcher's description of the path at its
+ * last examination.
+ * <p>
+ * For example:
+ *
+ * <pre>
+ * assertThat(Paths.get("out/report.pdf"), eventually(exists(), 30, TimeUnit.SECONDS));
+ * </pre>
+ *
+ * or, without blocking the calling thread:
+ *
+ * <pre>
+ * Future&lt;Path&gt; report = eventually(exists(), 30, TimeUnit.SECONDS).await(Paths.get("out/report.pdf"));
+ * </pre>
+ *
+ * @see PathMatcher#eventually(Matcher, long, TimeUnit)
+ */
+public final class Eventually extends TypeSafeDiagnosingMatcher<Path> {
+
+	private static final long FIRST_INTERVAL = TimeUnit.MILLISECONDS.toNanos(10);
+	private static final long LAST_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+
+	/**
+	 * Runs {@link #await(Path)}; created when first needed, with daemon
+	 * threads.
+	 */
+	private static final class Waiters {
+		static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(new ThreadFactory() {
+			@Override
+			public Thread newThread(final Runnable runnable) {
+				final Thread thread = new Thread(runnable, "hamcrest-path-eventually");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+
+	private final Matcher<? super Path> matcher;
+	private final long timeout;
+	private final TimeUnit unit;
+
+	/**
+	 * The mismatch found when the last wait timed out.
+	 */
+	private final LastMismatch<String> last = new LastMismatch<>();
+
+	Eventually(final Matcher<? super Path> matcher, final long timeout, final TimeUnit unit) {
+		if (timeout < 0) {
+			throw new IllegalArgumentException("Timeout must not be negative: " + timeout);
+		}
+		this.matcher = matcher;
+		this.timeout = timeout;
+		this.unit = unit;
+	}
+
+	@Override
+	public void describeTo(Description description) {
+		description.appendDescriptionOf(matcher).appendText(" within ").appendText(Long.toString(timeout))
+				.appendText(" ").appendText(unit.name().toLowerCase(Locale.ROOT));
+	}
+
+	/**
+	 * Wait for the path to match on another thread.
+	 *
+	 * @param path
+	 *            the path expected to match
+	 * @return a future which completes with the path once it matches, or
+	 *         fails with an {@link AssertionError} describing the mismatch
+	 *         once the timeout has passed
+	 */
+	public Future<Path> await(final Path path) {
+		return Waiters.EXECUTOR.submit(new Callable<Path>() {
+			@Override
+			public Path call() throws InterruptedException {
+				final Description mismatch = new StringDescription();
+				if (!waitFor(path, mismatch)) {
+					final Description description = new StringDescription();
+					description.appendText("Expected: ").appendDescriptionOf(Eventually.this)
+							.appendText("\n     but: ").appendText(mismatch.toString());
+					throw new AssertionError(description.toString());
+				}
+				return path;
+			}
+		});
+	}
+
+	/**
+	 * Waits for the path to match. When describing a mismatch straight after
+	 * a wait timed out, the {@link LastMismatch} found then is described
+	 * without waiting again.
+	 */
+	@Override
+	protected boolean matchesSafely(final Path path, final Description mismatch) {
+		final boolean describing = !(mismatch instanceof Description.NullDescription);
+		final String timedOut = last.take(path);
+		if (describing && timedOut != null) {
+			mismatch.appendText(timedOut);
+			return false;
+		}
+
+		try {
+			final StringDescription found = new StringDescription();
+			if (waitFor(path, found)) {
+				return true;
+			}
+			if (!describing) {
+				last.put(path, found.toString());
+			}
+			mismatch.appendText(found.toString());
+			return false;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			mismatch.appendText("interrupted while waiting for ").appendValue(path);
+			return false;
+		}
+	}
+
+	/**
+	 * @return {@code true} once the path matches, or {@code false}, having
+	 *         described the last mismatch, once the timeout has passed
+	 */
+	private boolean waitFor(final Path path, final Description mismatch) throws InterruptedException {
+		final long deadline = System.nanoTime() + unit.toNanos(timeout);
+		if (matcher.matches(path)) {
+			return true;
+		}
+
+		final WatchService watcher = newWatchService(path);
+		try {
+			Path watched = null;
+			long interval = FIRST_INTERVAL;
+			for (long remaining = deadline - System.nanoTime(); remaining > 0; remaining = deadline
+					- System.nanoTime()) {
+				final Path directory = nearestDirectory(path);
+				if (watcher != null && directory != null && !directory.equals(watched)) {
+					watched = register(watcher, directory) ? directory : null;
+				}
+
+				if (watcher != null && watched != null) {
+					final WatchKey key = watcher.poll(Math.min(interval, remaining), TimeUnit.NANOSECONDS);
+					if (key != null) {
+						key.pollEvents();
+						if (!key.reset()) {
+							watched = null;
+						}
+						interval = FIRST_INTERVAL;
+					} else {
+						interval = Math.min(2 * interval, LAST_INTERVAL);
+					}
+				} else {
+					TimeUnit.NANOSECONDS.sleep(Math.min(interval, remaining));
+					interval = Math.min(2 * interval, LAST_INTERVAL);
+				}
+
+				if (matcher.matches(path)) {
+					return true;
+				}
+			}
+		} finally {
+			if (watcher != null) {
+				try {
+					watcher.close();
+				} catch (IOException e) {
+					// Nothing more can be done
+				}
+			}
+		}
+
+		matcher.describeMismatch(path, mismatch);
+		return false;
+	}
+
+	private static WatchService newWatchService(final Path path) {
+		try {
+			return path.getFileSystem().newWatchService();
+		} catch (IOException | UnsupportedOperationException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * @return the path's parent, or its nearest existing ancestor if the
+	 *         parent does not exist
+	 */
+	private static Path nearestDirectory(final Path path) {
+		for (Path directory = path.toAbsolutePath().getParent(); directory != null; directory = directory
+				.getParent()) {
+			if (Files.isDirectory(directory)) {
+				return directory;
+			}
+		}
+		return null;
+	}
+
+	private static boolean register(final WatchService watcher, final Path directory) {
+		try {
+			directory.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE,
+					StandardWatchEventKinds.ENTRY_MODIFY);
+			return true;
+		} catch (IOException | UnsupportedOperationException | ClosedWatchServiceException e) {
+			return false;
+		}
+	}
+}
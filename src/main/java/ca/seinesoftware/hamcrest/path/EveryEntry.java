@@ -0,0 +1,59 @@
+package ca.seinesoftware.hamcrest.path;
+
+import java.nio.file.Path;
+
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+
+class EveryEntry extends TreeMatcher {
+
+	private final EntryPattern pattern;
+	private final Matcher<? super Path> matcher;
+
+	public EveryEntry(final Matcher<? super Path> matcher) {
+		this(null, matcher);
+	}
+
+	/**
+	 * @param pattern
+	 *            the pattern entries must match to be examined, or
+	 *            {@code null} to examine every entry
+	 */
+	public EveryEntry(final EntryPattern pattern, final Matcher<? super Path> matcher) {
+		this.pattern = pattern;
+		this.matcher = matcher;
+	}
+
+	@Override
+	public void describeTo(Description description) {
+		description.appendText("a directory in which every entry ");
+		if (pattern != null) {
+			description.appendText("matching ").appendValue(pattern.toString()).appendText(" ");
+		}
+		description.appendText("is ").appendDescriptionOf(matcher);
+	}
+
+	@Override
+	boolean matchesTree(final Path root, final Description mismatch) {
+		final Path[] failed = new Path[1];
+		final boolean walked = walk(root, pattern, new EntryVisitor() {
+			@Override
+			public boolean visit(final Path entry, final PathProbe probe) {
+				if (PathMatcher.matches(matcher, entry, probe)) {
+					return true;
+				}
+				failed[0] = entry;
+				return false;
+			}
+		}, mismatch);
+
+		if (!walked) {
+			return false;
+		}
+		if (failed[0] != null) {
+			describeEntryMismatch(matcher, failed[0], mismatch);
+			return false;
+		}
+		return true;
+	}
+}
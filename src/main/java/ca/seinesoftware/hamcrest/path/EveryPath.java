@@ -0,0 +1,37 @@
+package ca.seinesoftware.hamcrest.path;
+
+import java.nio.file.Path;
+
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.hamcrest.TypeSafeDiagnosingMatcher;
+
+class EveryPath extends TypeSafeDiagnosingMatcher<Iterable<? extends Path>> {
+
+	private final Matcher<? super Path> matcher;
+	private final int parallelism;
+
+	public EveryPath(final Matcher<? super Path> matcher, final int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+		}
+		this.matcher = matcher;
+		this.parallelism = parallelism;
+	}
+
+	@Override
+	public void describeTo(Description description) {
+		description.appendText("every path is ").appendDescriptionOf(matcher);
+	}
+
+	@Override
+	protected boolean matchesSafely(final Iterable<? extends Path> paths, Description mismatchDescription) {
+		final BatchResult result = parallelism == 1 ? PathBatch.evaluate(paths, matcher)
+				: PathBatch.evaluate(paths, matcher, parallelism);
+		if (result.isSuccess()) {
+			return true;
+		}
+		mismatchDescription.appendDescriptionOf(result);
+		return false;
+	}
+}
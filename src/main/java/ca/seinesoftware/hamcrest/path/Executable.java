@@ -1,20 +1,24 @@
 package ca.seinesoftware.hamcrest.path;
 
-import java.nio.file.Files;
 import java.nio.file.Path;
 
-import org.hamcrest.Description;
-
 class Executable extends PathMatcher {
 
-	@Override
-	public void describeTo(Description description) {
-		super.describeTo(description);
-		description.appendText("an executable file or directory");
+	public Executable() {
+		this(PathProbe.FILES);
+	}
+
+	Executable(PathProbe probe) {
+		super(probe, "an executable file or directory");
 	}
 
 	@Override
 	protected boolean matchesSafely(Path path) {
-		return Files.isExecutable(path);
+		return evaluate(path, probe);
+	}
+
+	@Override
+	boolean matchesSafely(Path path, PathProbe probe) {
+		return probe.isExecutable(path);
 	}
 }
\ No newline at end of file
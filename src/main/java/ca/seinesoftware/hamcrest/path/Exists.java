@@ -1,25 +1,25 @@
 package ca.seinesoftware.hamcrest.path;
 
-import java.nio.file.Files;
 import java.nio.file.LinkOption;
 import java.nio.file.Path;
 
-import org.hamcrest.Description;
-
 class Exists extends PathMatcher {
 
 	public Exists(LinkOption... linkOptions) {
-		super(linkOptions);
+		this(PathProbe.FILES, linkOptions);
 	}
 
-	@Override
-	public void describeTo(Description description) {
-		super.describeTo(description);
-		description.appendText("an existing filesystem entry");
+	Exists(PathProbe probe, LinkOption... linkOptions) {
+		super(probe, "an existing filesystem entry", linkOptions);
 	}
 
 	@Override
 	protected boolean matchesSafely(Path path) {
-		return Files.exists(path, linkOptions);
+		return evaluate(path, probe);
+	}
+
+	@Override
+	boolean matchesSafely(Path path, PathProbe probe) {
+		return probe.exists(path, linkOptions);
 	}
 }
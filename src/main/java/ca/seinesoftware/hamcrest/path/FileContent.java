@@ -0,0 +1,255 @@
+package ca.seinesoftware.hamcrest.path;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+
+/**
+ * Streams the content of a file without copying it onto the heap.
+ * <p>
+ * The file is memory-mapped a window at a time. Providers which cannot map
+ * files, such as the zip file system, or which have no file channels at all,
+ * such as {@link MemoryFileSystems}, are read through a direct buffer
+ * instead.
+ */
+final class FileContent {
+
+	/**
+	 * The largest part of a file mapped at once.
+	 */
+	static final int WINDOW = 64 << 20;
+
+	/**
+	 * The size of the direct buffer used when a file cannot be mapped.
+	 */
+	static final int BUFFER = 1 << 20;
+
+	private FileContent() {
+	}
+
+	/**
+	 * Receives a file's content, one buffer at a time.
+	 */
+	interface Visitor {
+
+		/**
+		 * @param buffer
+		 *            the next part of the file, from its position to its limit
+		 * @param offset
+		 *            the offset in the file of the buffer's position
+		 * @return {@code false} to stop reading
+		 */
+		boolean visit(ByteBuffer buffer, long offset) throws IOException;
+	}
+
+	/**
+	 * Read the whole file.
+	 *
+	 * @return {@code false} if the visitor stopped reading early
+	 */
+	static boolean read(final Path path, final Visitor visitor) throws IOException {
+		return read(path, 0, Long.MAX_VALUE, visitor);
+	}
+
+	/**
+	 * Read up to {@code length} bytes of the file, starting at {@code from}.
+	 *
+	 * @return {@code false} if the visitor stopped reading early
+	 */
+	static boolean read(final Path path, final long from, final long length, final Visitor visitor)
+			throws IOException {
+		Instrumentation.operation();
+		final FileChannel channel;
+		try {
+			channel = FileChannel.open(path, StandardOpenOption.READ);
+		} catch (UnsupportedOperationException e) {
+			try (SeekableByteChannel bytes = Files.newByteChannel(path, StandardOpenOption.READ)) {
+				return read(bytes, from, end(bytes.size(), from, length), visitor);
+			}
+		}
+
+		try {
+			final long end = end(channel.size(), from, length);
+
+			long offset = from;
+			try {
+				while (offset < end) {
+					final long size = Math.min(WINDOW, end - offset);
+					if (!visitor.visit(channel.map(MapMode.READ_ONLY, offset, size), offset)) {
+						return false;
+					}
+					offset += size;
+				}
+				return true;
+			} catch (UnsupportedOperationException e) {
+				return read(channel, offset, end, visitor);
+			}
+		} finally {
+			channel.close();
+		}
+	}
+
+	private static long end(final long size, final long from, final long length) {
+		return Math.min(size, from + Math.min(length, Long.MAX_VALUE - from));
+	}
+
+	private static boolean read(final SeekableByteChannel channel, long offset, final long end, final Visitor visitor)
+			throws IOException {
+		final ByteBuffer buffer = ByteBuffer.allocateDirect((int) Math.min(BUFFER, Math.max(end - offset, 1)));
+		channel.position(offset);
+		while (offset < end) {
+			buffer.clear();
+			buffer.limit((int) Math.min(buffer.capacity(), end - offset));
+			final int read = channel.read(buffer);
+			if (read < 0) {
+				break;
+			}
+			buffer.flip();
+			if (!visitor.visit(buffer, offset)) {
+				return false;
+			}
+			offset += read;
+		}
+		return true;
+	}
+
+	/**
+	 * Compare the content of two files, mapping a window of each at a time,
+	 * or reading them through direct buffers where they cannot be mapped.
+	 *
+	 * @return the offset of the first byte at which the files differ, which
+	 *         is the length of the shorter if it is a prefix of the longer,
+	 *         or -1 if they are the same
+	 */
+	static long mismatch(final Path a, final Path b) throws IOException {
+		try (SeekableByteChannel first = open(a); SeekableByteChannel second = open(b)) {
+			final long size = Math.min(first.size(), second.size());
+			final long same = first instanceof FileChannel && second instanceof FileChannel
+					? mapped((FileChannel) first, (FileChannel) second, size) : 0;
+			if (same < size) {
+				final long at = buffered(first, second, same, size);
+				if (at >= 0) {
+					return at;
+				}
+			}
+			return first.size() == second.size() ? -1 : size;
+		}
+	}
+
+	private static SeekableByteChannel open(final Path path) throws IOException {
+		Instrumentation.operation();
+		try {
+			return FileChannel.open(path, StandardOpenOption.READ);
+		} catch (UnsupportedOperationException e) {
+			return Files.newByteChannel(path, StandardOpenOption.READ);
+		}
+	}
+
+	/**
+	 * @return the offset of the first difference, or the offset up to which
+	 *         the files are the same if they cannot be mapped further
+	 */
+	private static long mapped(final FileChannel first, final FileChannel second, final long size)
+			throws IOException {
+		long offset = 0;
+		try {
+			while (offset < size) {
+				final long length = Math.min(WINDOW, size - offset);
+				final int at = mismatch(first.map(MapMode.READ_ONLY, offset, length),
+						second.map(MapMode.READ_ONLY, offset, length));
+				if (at >= 0) {
+					return offset + at;
+				}
+				offset += length;
+			}
+		} catch (UnsupportedOperationException e) {
+			// Compare the rest through buffers
+		}
+		return offset;
+	}
+
+	/**
+	 * @return the offset of the first difference between {@code offset} and
+	 *         {@code end}, or -1 if there is none
+	 */
+	private static long buffered(final SeekableByteChannel first, final SeekableByteChannel second, long offset,
+			final long end) throws IOException {
+		final int capacity = (int) Math.min(BUFFER, Math.max(end - offset, 1));
+		final ByteBuffer x = ByteBuffer.allocateDirect(capacity);
+		final ByteBuffer y = ByteBuffer.allocateDirect(capacity);
+		first.position(offset);
+		second.position(offset);
+		while (offset < end) {
+			final int length = (int) Math.min(capacity, end - offset);
+			if (!fill(first, x, length) || !fill(second, y, length)) {
+				return offset;
+			}
+			final int at = mismatch(x, y);
+			if (at >= 0) {
+				return offset + at;
+			}
+			offset += length;
+		}
+		return -1;
+	}
+
+	/**
+	 * Read exactly {@code length} bytes into the buffer, and flip it.
+	 *
+	 * @return {@code false} if the channel ended first
+	 */
+	private static boolean fill(final SeekableByteChannel channel, final ByteBuffer buffer, final int length)
+			throws IOException {
+		buffer.clear();
+		buffer.limit(length);
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer) < 0) {
+				return false;
+			}
+		}
+		buffer.flip();
+		return true;
+	}
+
+	/**
+	 * @return the index, relative to their positions, of the first byte at
+	 *         which two buffers of the same length differ, or -1
+	 */
+	private static int mismatch(final ByteBuffer a, final ByteBuffer b) {
+		if (a.equals(b)) {
+			return -1;
+		}
+		final int length = a.remaining();
+		int i = 0;
+		while (i + 8 <= length && a.getLong(a.position() + i) == b.getLong(b.position() + i)) {
+			i += 8;
+		}
+		while (a.get(a.position() + i) == b.get(b.position() + i)) {
+			i++;
+		}
+		return i;
+	}
+
+	/**
+	 * Digest up to {@code length} bytes of the file, from its start.
+	 *
+	 * @return the digest
+	 */
+	static byte[] digest(final Path path, final MessageDigest digest, final long length) throws IOException {
+		digest.reset();
+		read(path, 0, length, new Visitor() {
+			@Override
+			public boolean visit(final ByteBuffer buffer, final long offset) {
+				digest.update(buffer);
+				return true;
+			}
+		});
+		return digest.digest();
+	}
+}
@@ -0,0 +1,23 @@
+package ca.seinesoftware.hamcrest.path;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+class FileCrc32c extends ChecksumMatcher {
+
+	public FileCrc32c(final long expected) {
+		super("CRC32C", render((int) expected));
+		if (expected >>> 32 != 0) {
+			throw new IllegalArgumentException("Not a 32-bit checksum: " + expected);
+		}
+	}
+
+	@Override
+	String checksum(final Path path, final long size) throws IOException {
+		return render(Crc32c.checksum(path, size));
+	}
+
+	private static String render(final int crc) {
+		return String.format("0x%08X", crc);
+	}
+}
@@ -0,0 +1,49 @@
+package ca.seinesoftware.hamcrest.path;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.Provider;
+import java.util.Locale;
+
+class FileDigest extends ChecksumMatcher {
+
+	private final String algorithm;
+	private final Provider provider;
+
+	public FileDigest(final String algorithm, final String expected) {
+		super(algorithm + " digest", expected.toLowerCase(Locale.ROOT));
+
+		final MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance(algorithm);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalArgumentException("Unknown digest algorithm: " + algorithm, e);
+		}
+		if (!expected.matches("[0-9a-fA-F]{" + 2 * digest.getDigestLength() + "}")) {
+			throw new IllegalArgumentException(
+					"Not a " + 2 * digest.getDigestLength() + "-digit hexadecimal " + algorithm + " digest: " + expected);
+		}
+
+		this.algorithm = algorithm;
+		this.provider = digest.getProvider();
+	}
+
+	/**
+	 * A new {@link MessageDigest} is used for each file, so the matcher can be
+	 * used from several threads.
+	 */
+	@Override
+	String checksum(final Path path, final long size) throws IOException {
+		final MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance(algorithm, provider);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+
+		final byte[] bytes = FileContent.digest(path, digest, Long.MAX_VALUE);
+		return hex(bytes, bytes.length).substring(2).toLowerCase(Locale.ROOT);
+	}
+}
@@ -0,0 +1,119 @@
+package ca.seinesoftware.hamcrest.path;
+
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Translates globs, as described by
+ * {@link java.nio.file.FileSystem#getPathMatcher(String) getPathMatcher}, into
+ * regular expressions, for file systems with {@code '/'} separators.
+ */
+final class Globs {
+
+	private static final String REGEX_META = ".^$+{[]|()";
+	private static final String GLOB_META = "\\*?[{";
+
+	private Globs() {
+	}
+
+	/**
+	 * @throws PatternSyntaxException
+	 *             if the glob is malformed
+	 */
+	static String toRegex(final String glob) {
+		final StringBuilder regex = new StringBuilder("^");
+		boolean inGroup = false;
+		int i = 0;
+		while (i < glob.length()) {
+			final char c = glob.charAt(i++);
+			switch (c) {
+			case '\\':
+				if (i == glob.length()) {
+					throw new PatternSyntaxException("No character to escape", glob, i - 1);
+				}
+				final char escaped = glob.charAt(i++);
+				if (GLOB_META.indexOf(escaped) >= 0 || REGEX_META.indexOf(escaped) >= 0) {
+					regex.append('\\');
+				}
+				regex.append(escaped);
+				break;
+			case '/':
+				regex.append(c);
+				break;
+			case '[':
+				i = bracket(glob, i, regex);
+				break;
+			case '{':
+				if (inGroup) {
+					throw new PatternSyntaxException("Cannot nest groups", glob, i - 1);
+				}
+				regex.append("(?:(?:");
+				inGroup = true;
+				break;
+			case '}':
+				if (inGroup) {
+					regex.append("))");
+					inGroup = false;
+				} else {
+					regex.append('}');
+				}
+				break;
+			case ',':
+				regex.append(inGroup ? ")|(?:" : ",");
+				break;
+			case '*':
+				if (i < glob.length() && glob.charAt(i) == '*') {
+					regex.append(".*");
+					i++;
+				} else {
+					regex.append("[^/]*");
+				}
+				break;
+			case '?':
+				regex.append("[^/]");
+				break;
+			default:
+				if (REGEX_META.indexOf(c) >= 0) {
+					regex.append('\\');
+				}
+				regex.append(c);
+			}
+		}
+		if (inGroup) {
+			throw new PatternSyntaxException("Missing '}'", glob, i - 1);
+		}
+		return regex.append('$').toString();
+	}
+
+	/**
+	 * Translate a bracket expression, whose {@code '['} has been read.
+	 *
+	 * @return the index following its {@code ']'}
+	 */
+	private static int bracket(final String glob, int i, final StringBuilder regex) {
+		regex.append("[[^/]&&[");
+		if (i < glob.length() && glob.charAt(i) == '^') {
+			regex.append("\\^");
+			i++;
+		} else if (i < glob.length() && glob.charAt(i) == '!') {
+			regex.append('^');
+			i++;
+		}
+		boolean first = true;
+		while (i < glob.length()) {
+			final char c = glob.charAt(i++);
+			if (c == ']' && !first) {
+				regex.append("]]");
+				return i;
+			}
+			if (c == '/') {
+				throw new PatternSyntaxException("Explicit 'name separator' in class", glob, i - 1);
+			}
+			if (c == '\\' || c == '[' || c == ']' || c == '&' && i < glob.length() && glob.charAt(i) == '&') {
+				regex.append('\\');
+			}
+			regex.append(c);
+			first = false;
+		}
+		throw new PatternSyntaxException("Missing ']'", glob, i - 1);
+	}
+}
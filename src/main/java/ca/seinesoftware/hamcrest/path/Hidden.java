@@ -1,23 +1,27 @@
 package ca.seinesoftware.hamcrest.path;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 
-import org.hamcrest.Description;
-
 class Hidden extends PathMatcher {
 
-	@Override
-	public void describeTo(Description description) {
-		super.describeTo(description);
-		description.appendText("a hidden file or directory");
+	public Hidden() {
+		this(PathProbe.FILES);
+	}
+
+	Hidden(PathProbe probe) {
+		super(probe, "a hidden file or directory");
 	}
 
 	@Override
 	protected boolean matchesSafely(Path path) {
+		return evaluate(path, probe);
+	}
+
+	@Override
+	boolean matchesSafely(Path path, PathProbe probe) {
 		try {
-			return Files.isHidden(path);
+			return probe.isHidden(path);
 		} catch (IOException e) {
 			return false;
 		}
@@ -0,0 +1,502 @@
+package ca.seinesoftware.hamcrest.path;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Opt-in instrumentation of the matchers of this library: for each type of
+ * matcher, how often it is evaluated and describes a mismatch, how many file
+ * system operations it makes, and a histogram of how long each takes.
+ * <p>
+ * It is off unless {@link #enable() enabled}, or the system property
+ * {@value #PROPERTY} is {@code true} when this class is loaded, in which case
+ * a {@link #summary() summary} is also printed to {@link System#err} when the
+ * JVM exits. While off, evaluating a matcher costs a single read of a
+ * volatile field and allocates nothing.
+ * <p>
+ * Counts are kept in striped counters, so threads evaluating matchers
+ * concurrently rarely contend. File system operations are the attribute
+ * reads, access checks, directory listings and file opens the matchers
+ * make; an evaluation's count and time include those of any matchers it
+ * evaluates in turn, such as the entry matcher of a tree matcher. Matchers
+ * subclassing {@link PathMatcher} outside this package are counted when
+ * evaluated, but not when describing a mismatch.
+ * <p>
+ * For example:
+ *
+ * <pre>
+ * Instrumentation.enable();
+ * ...
+ * System.out.println(Instrumentation.summary());
+ * </pre>
+ */
+public final class Instrumentation {
+
+	/**
+	 * The system property which enables instrumentation when this class is
+	 * loaded, and prints a summary when the JVM exits.
+	 */
+	public static final String PROPERTY = "ca.seinesoftware.hamcrest.path.instrumentation";
+
+	/**
+	 * The name under which {@link #registerMBean()} registers the
+	 * {@link InstrumentationMXBean}.
+	 */
+	public static final String OBJECT_NAME = "ca.seinesoftware.hamcrest.path:type=Instrumentation";
+
+	/**
+	 * Receives every evaluation and mismatch description while
+	 * instrumentation is enabled, on the thread which made it.
+	 */
+	public interface Listener {
+
+		/**
+		 * @param matcher
+		 *            the type of matcher, for instance {@code "Exists"}
+		 * @param description
+		 *            {@code true} if a mismatch was described, rather than
+		 *            the matcher evaluated
+		 * @param nanos
+		 *            how long it took, in nanoseconds
+		 * @param operations
+		 *            the file system operations made
+		 */
+		void evaluated(String matcher, boolean description, long nanos, long operations);
+	}
+
+	static volatile boolean enabled;
+
+	private static final List<Listener> LISTENERS = new CopyOnWriteArrayList<>();
+
+	private static final ThreadLocal<long[]> OPERATIONS = new ThreadLocal<long[]>() {
+		@Override
+		protected long[] initialValue() {
+			return new long[1];
+		}
+	};
+
+	private static final ClassValue<Counters> COUNTERS = new ClassValue<Counters>() {
+		@Override
+		protected Counters computeValue(final Class<?> type) {
+			return new Counters(name(type));
+		}
+	};
+
+	/**
+	 * Every type's counters, so that they can be listed.
+	 */
+	private static final List<Counters> ALL = new CopyOnWriteArrayList<>();
+
+	static {
+		if (Boolean.getBoolean(PROPERTY)) {
+			enabled = true;
+			Runtime.getRuntime().addShutdownHook(new Thread("hamcrest-path instrumentation summary") {
+				@Override
+				public void run() {
+					print(System.err);
+				}
+			});
+		}
+	}
+
+	private Instrumentation() {
+	}
+
+	/**
+	 * Start recording.
+	 */
+	public static void enable() {
+		enabled = true;
+	}
+
+	/**
+	 * Stop recording. What has been recorded is kept until
+	 * {@link #reset()}.
+	 */
+	public static void disable() {
+		enabled = false;
+	}
+
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Forget everything recorded so far.
+	 */
+	public static void reset() {
+		for (final Counters counters : ALL) {
+			counters.reset();
+		}
+	}
+
+	public static void addListener(final Listener listener) {
+		LISTENERS.add(listener);
+	}
+
+	public static void removeListener(final Listener listener) {
+		LISTENERS.remove(listener);
+	}
+
+	// ========================================================================
+	// Recording
+	// ========================================================================
+
+	/**
+	 * Count a file system operation made by the current thread.
+	 */
+	static void operation() {
+		if (enabled) {
+			OPERATIONS.get()[0]++;
+		}
+	}
+
+	/**
+	 * @return the file system operations the current thread has made
+	 */
+	static long operations() {
+		return OPERATIONS.get()[0];
+	}
+
+	/**
+	 * Take the file system operations the current thread has made since it
+	 * had made {@code since}, so that they can be counted on the thread they
+	 * were made for, such as the thread waiting for a task of a pool.
+	 *
+	 * @return the operations taken
+	 * @see #addOperations(long)
+	 */
+	static long takeOperations(final long since) {
+		final long[] operations = OPERATIONS.get();
+		final long taken = operations[0] - since;
+		operations[0] = since;
+		return taken;
+	}
+
+	/**
+	 * Count file system operations made for the current thread by others.
+	 */
+	static void addOperations(final long operations) {
+		if (enabled) {
+			OPERATIONS.get()[0] += operations;
+		}
+	}
+
+	/**
+	 * Record an evaluation, or a mismatch description, by a matcher.
+	 */
+	static void record(final Class<?> type, final boolean description, final long nanos,
+			final long operations) {
+		final Counters counters = COUNTERS.get(type);
+		counters.add(description, nanos, operations);
+		for (final Listener listener : LISTENERS) {
+			listener.evaluated(counters.name, description, nanos, operations);
+		}
+	}
+
+	/**
+	 * @return the name of a type of matcher: its simple name, or that of the
+	 *         class it extends if it is anonymous, or is declared in if it is
+	 *         private
+	 */
+	private static String name(final Class<?> type) {
+		if (type.isAnonymousClass()) {
+			return name(type.getSuperclass());
+		}
+		if (type.isMemberClass() && Modifier.isPrivate(type.getModifiers())) {
+			return name(type.getEnclosingClass());
+		}
+		return type.getSimpleName();
+	}
+
+	// ========================================================================
+	// Counters
+	// ========================================================================
+
+	/**
+	 * The number of histogram buckets: bucket {@code i} counts times of at
+	 * least {@code 2^(i-1)} and less than {@code 2^i} nanoseconds.
+	 */
+	static final int BUCKETS = 64;
+
+	private static final int CALLS = 0;
+	private static final int DESCRIPTIONS = 1;
+	private static final int OPERATION_COUNT = 2;
+	private static final int NANOS = 3;
+	private static final int HISTOGRAM = 4;
+
+	/**
+	 * The counters of each stripe, padded to a multiple of a cache line.
+	 */
+	private static final int STRIDE = HISTOGRAM + BUCKETS + 4;
+
+	private static final int STRIPES = Integer
+			.highestOneBit(Math.min(64, Runtime.getRuntime().availableProcessors()) * 2 - 1);
+
+	private static final class Counters {
+
+		final String name;
+		private final AtomicLongArray counts = new AtomicLongArray(STRIPES * STRIDE);
+
+		Counters(final String name) {
+			this.name = name;
+			ALL.add(this);
+		}
+
+		void add(final boolean description, final long nanos, final long operations) {
+			final int base = (int) (Thread.currentThread().getId() & (STRIPES - 1)) * STRIDE;
+			counts.incrementAndGet(base + (description ? DESCRIPTIONS : CALLS));
+			counts.addAndGet(base + OPERATION_COUNT, operations);
+			counts.addAndGet(base + NANOS, nanos);
+			counts.incrementAndGet(base + HISTOGRAM + bucket(nanos));
+		}
+
+		long sum(final int counter) {
+			long sum = 0;
+			for (int stripe = 0; stripe < STRIPES; stripe++) {
+				sum += counts.get(stripe * STRIDE + counter);
+			}
+			return sum;
+		}
+
+		void reset() {
+			for (int i = 0; i < counts.length(); i++) {
+				counts.set(i, 0);
+			}
+		}
+
+		Statistics statistics() {
+			final long[] histogram = new long[BUCKETS];
+			for (int i = 0; i < BUCKETS; i++) {
+				histogram[i] = sum(HISTOGRAM + i);
+			}
+			return new Statistics(name, sum(CALLS), sum(DESCRIPTIONS), sum(OPERATION_COUNT), sum(NANOS),
+					histogram);
+		}
+	}
+
+	static int bucket(final long nanos) {
+		return nanos <= 0 ? 0 : Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos));
+	}
+
+	// ========================================================================
+	// Reporting
+	// ========================================================================
+
+	/**
+	 * What has been recorded for one type of matcher.
+	 */
+	public static final class Statistics {
+
+		private final String matcher;
+		private final long evaluations;
+		private final long descriptions;
+		private final long operations;
+		private final long nanos;
+		private final long[] histogram;
+
+		Statistics(final String matcher, final long evaluations, final long descriptions, final long operations,
+				final long nanos, final long[] histogram) {
+			this.matcher = matcher;
+			this.evaluations = evaluations;
+			this.descriptions = descriptions;
+			this.operations = operations;
+			this.nanos = nanos;
+			this.histogram = histogram;
+		}
+
+		/**
+		 * @return the type of matcher, for instance {@code "Exists"}
+		 */
+		public String getMatcher() {
+			return matcher;
+		}
+
+		public long getEvaluations() {
+			return evaluations;
+		}
+
+		/**
+		 * @return the number of mismatches described
+		 */
+		public long getDescriptions() {
+			return descriptions;
+		}
+
+		/**
+		 * @return the file system operations made by evaluations and
+		 *         descriptions
+		 */
+		public long getOperations() {
+			return operations;
+		}
+
+		/**
+		 * @return the time taken by evaluations and descriptions, in
+		 *         nanoseconds
+		 */
+		public long getTotalNanos() {
+			return nanos;
+		}
+
+		/**
+		 * @return the number of evaluations and descriptions in each bucket:
+		 *         bucket {@code i} counts those which took at least
+		 *         {@code 2^(i-1)}, and less than {@code 2^i}, nanoseconds
+		 */
+		public long[] getHistogram() {
+			return histogram.clone();
+		}
+
+		/**
+		 * @param percentile
+		 *            between 0 and 100
+		 * @return an upper bound of the time, in nanoseconds, within which
+		 *         that percentage of evaluations and descriptions completed
+		 */
+		public long nanosAtPercentile(final double percentile) {
+			final long total = evaluations + descriptions;
+			long seen = 0;
+			for (int i = 0; i < BUCKETS; i++) {
+				seen += histogram[i];
+				if (seen > 0 && seen >= total * percentile / 100) {
+					return i == 0 ? 0 : i >= 63 ? Long.MAX_VALUE : (1L << i) - 1;
+				}
+			}
+			return 0;
+		}
+	}
+
+	/**
+	 * @return what has been recorded for each type of matcher, by name
+	 */
+	public static Map<String, Statistics> statistics() {
+		final Map<String, Statistics> statistics = new TreeMap<>();
+		for (final Counters counters : ALL) {
+			final Statistics recorded = counters.statistics();
+			if (recorded.getEvaluations() + recorded.getDescriptions() > 0) {
+				statistics.put(counters.name, recorded);
+			}
+		}
+		return Collections.unmodifiableMap(statistics);
+	}
+
+	/**
+	 * @return a table of what has been recorded, one line per type of
+	 *         matcher, most time-consuming first
+	 */
+	public static String summary() {
+		final List<Statistics> statistics = new ArrayList<>(statistics().values());
+		Collections.sort(statistics, new Comparator<Statistics>() {
+			@Override
+			public int compare(final Statistics a, final Statistics b) {
+				return Long.compare(b.getTotalNanos(), a.getTotalNanos());
+			}
+		});
+
+		final StringBuilder summary = new StringBuilder();
+		summary.append(String.format(Locale.ROOT, "%-24s %10s %10s %12s %12s %10s %10s%n", "Matcher",
+				"Evaluated", "Described", "FS ops", "Total ms", "p50 us", "p99 us"));
+		for (final Statistics recorded : statistics) {
+			summary.append(String.format(Locale.ROOT, "%-24s %10d %10d %12d %12.3f %10.1f %10.1f%n",
+					recorded.getMatcher(), recorded.getEvaluations(), recorded.getDescriptions(),
+					recorded.getOperations(), recorded.getTotalNanos() / 1e6, micros(recorded, 50),
+					micros(recorded, 99)));
+		}
+		return summary.toString();
+	}
+
+	private static double micros(final Statistics statistics, final double percentile) {
+		return statistics.nanosAtPercentile(percentile) / 1e3;
+	}
+
+	private static void print(final PrintStream out) {
+		if (!statistics().isEmpty()) {
+			out.println("hamcrest-path matchers:");
+			out.print(summary());
+		}
+	}
+
+	// ========================================================================
+	// JMX
+	// ========================================================================
+
+	/**
+	 * The instrumentation, as managed through JMX.
+	 */
+	public interface InstrumentationMXBean {
+
+		boolean isEnabled();
+
+		void setEnabled(boolean enabled);
+
+		void reset();
+
+		String getSummary();
+
+		Map<String, Statistics> getStatistics();
+	}
+
+	/**
+	 * Register an {@link InstrumentationMXBean} with the platform MBean
+	 * server, as {@value #OBJECT_NAME}, unless one is registered already.
+	 *
+	 * @return its name
+	 * @throws IllegalStateException
+	 *             if it cannot be registered
+	 */
+	public static ObjectName registerMBean() {
+		try {
+			final ObjectName name = new ObjectName(OBJECT_NAME);
+			synchronized (Instrumentation.class) {
+				if (!ManagementFactory.getPlatformMBeanServer().isRegistered(name)) {
+					ManagementFactory.getPlatformMBeanServer().registerMBean(new Bean(), name);
+				}
+			}
+			return name;
+		} catch (JMException e) {
+			throw new IllegalStateException("Cannot register " + OBJECT_NAME, e);
+		}
+	}
+
+	private static final class Bean implements InstrumentationMXBean {
+
+		@Override
+		public boolean isEnabled() {
+			return Instrumentation.isEnabled();
+		}
+
+		@Override
+		public void setEnabled(final boolean enabled) {
+			Instrumentation.enabled = enabled;
+		}
+
+		@Override
+		public void reset() {
+			Instrumentation.reset();
+		}
+
+		@Override
+		public String getSummary() {
+			return summary();
+		}
+
+		@Override
+		public Map<String, Statistics> getStatistics() {
+			return statistics();
+		}
+	}
+}
@@ -0,0 +1,56 @@
+package ca.seinesoftware.hamcrest.path;
+
+import java.nio.file.Path;
+
+/**
+ * What a matcher found when its last match on a thread failed, so that
+ * describing the mismatch straight after, as
+ * {@link org.hamcrest.MatcherAssert#assertThat(Object, org.hamcrest.Matcher)
+ * assertThat} does, reports the evaluation which failed rather than
+ * evaluating again.
+ * <p>
+ * Every match {@link #take(Path) takes} what the previous one left, and only
+ * a failed match leaves anything. What was found is only handed back for the
+ * very same {@link Path} instance, and is forgotten once handed back.
+ *
+ * @param <T>
+ *            what the matcher found
+ */
+final class LastMismatch<T> {
+
+	private static final class Found<T> {
+
+		final Path path;
+		final T value;
+
+		Found(final Path path, final T value) {
+			this.path = path;
+			this.value = value;
+		}
+	}
+
+	private final ThreadLocal<Found<T>> found = new ThreadLocal<>();
+
+	/**
+	 * Forget what the last failed match on this thread found.
+	 *
+	 * @return what it found, if it was a match of this path instance; or else
+	 *         {@code null}
+	 */
+	T take(final Path path) {
+		final Found<T> last = found.get();
+		if (last == null) {
+			return null;
+		}
+		found.remove();
+		return last.path == path ? last.value : null;
+	}
+
+	/**
+	 * Remember what a failed match of the path found, until the next match on
+	 * this thread.
+	 */
+	void put(final Path path, final T value) {
+		found.set(new Found<>(path, value));
+	}
+}
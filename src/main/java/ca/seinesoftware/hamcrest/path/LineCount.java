@@ -0,0 +1,57 @@
+package ca.seinesoftware.hamcrest.path;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.hamcrest.StringDescription;
+
+class LineCount extends ContentMatcher {
+
+	private final Matcher<? super Long> matcher;
+
+	public LineCount(final Matcher<? super Long> matcher) {
+		super("with a line count of " + StringDescription.toString(matcher));
+		this.matcher = matcher;
+	}
+
+	@Override
+	boolean matchesContent(final Path path) throws IOException {
+		return matcher.matches(count(path));
+	}
+
+	@Override
+	void describeContentMismatch(final Path path, final Description description) throws IOException {
+		description.appendValue(path).appendText(" has ").appendValue(count(path)).appendText(" lines");
+	}
+
+	/**
+	 * @return the number of line feeds, plus one if the last line is not
+	 *         terminated
+	 */
+	private static long count(final Path path) throws IOException {
+		final Counter counter = new Counter();
+		FileContent.read(path, counter);
+		return counter.unterminated ? counter.lines + 1 : counter.lines;
+	}
+
+	private static final class Counter implements FileContent.Visitor {
+
+		long lines;
+		boolean unterminated;
+
+		@Override
+		public boolean visit(final ByteBuffer buffer, final long offset) {
+			final int end = buffer.limit();
+			for (int i = buffer.position(); i < end; i++) {
+				if (buffer.get(i) == '\n') {
+					lines++;
+				}
+			}
+			unterminated = end > buffer.position() && buffer.get(end - 1) != '\n';
+			return true;
+		}
+	}
+}
@@ -0,0 +1,32 @@
+package ca.seinesoftware.hamcrest.path;
+
+import java.nio.file.Path;
+
+import org.hamcrest.Matcher;
+import org.hamcrest.StringDescription;
+
+class LinkChainLength extends LinkMatcher {
+
+	private final Matcher<? super Integer> matcher;
+
+	public LinkChainLength(final Matcher<? super Integer> matcher) {
+		super("a file system entry with a chain of symbolic links of length " + StringDescription.toString(matcher));
+		this.matcher = matcher;
+	}
+
+	/**
+	 * A dangling link's chain has a length, but a cycle's does not, and a
+	 * missing entry has none.
+	 */
+	@Override
+	boolean matchesResolution(final Path path, final LinkResolver.Resolution resolution,
+			final LinkResolver resolver) {
+		if (resolution.outcome == LinkResolver.Outcome.CYCLE) {
+			return false;
+		}
+		if (!resolution.isLink() && resolution.outcome == LinkResolver.Outcome.DANGLING) {
+			return false;
+		}
+		return matcher.matches(resolution.length);
+	}
+}
@@ -0,0 +1,40 @@
+package ca.seinesoftware.hamcrest.path;
+
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.hamcrest.StringDescription;
+
+class LinkCount extends PathMatcher {
+
+	private final Matcher<? super Integer> matcher;
+
+	public LinkCount(final Matcher<? super Integer> matcher, final LinkOption... linkOptions) {
+		super(PathProbe.FILES, "a file system entry with a link count of " + StringDescription.toString(matcher),
+				linkOptions);
+		this.matcher = matcher;
+	}
+
+	@Override
+	protected boolean matchesSafely(Path path) {
+		return evaluate(path, probe);
+	}
+
+	@Override
+	boolean matchesSafely(Path path, PathProbe probe) {
+		final Integer count = probe.linkCount(path, linkOptions);
+		return count != null && matcher.matches(count);
+	}
+
+	@Override
+	void describe(final Path path, final Description description) {
+		final Integer count = PathSnapshot.probe(path, probe).linkCount(path, linkOptions);
+		if (count == null) {
+			description.appendText("link count of ").appendValue(path).appendText(" cannot be determined");
+		} else {
+			description.appendValue(path).appendText(" has a link count of ").appendValue(count);
+		}
+	}
+}
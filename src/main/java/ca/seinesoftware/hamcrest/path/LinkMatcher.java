@@ -0,0 +1,86 @@
+package ca.seinesoftware.hamcrest.path;
+
+import java.io.IOException;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+
+import org.hamcrest.Description;
+
+/**
+ * A matcher of where the chain of symbolic links starting at an entry ends,
+ * which is followed one link at a time by a {@link LinkResolver}.
+ */
+abstract class LinkMatcher extends PathMatcher {
+
+	LinkMatcher(final String noun) {
+		super(PathProbe.FILES, noun);
+	}
+
+	@Override
+	protected boolean matchesSafely(final Path path) {
+		return evaluate(path, probe);
+	}
+
+	@Override
+	boolean matchesSafely(final Path path, final PathProbe probe) {
+		if (!probe.isSymbolicLink(path)) {
+			return matchesResolution(path, notLink(path, probe), null);
+		}
+		final LinkResolver resolver = new LinkResolver();
+		try {
+			return matchesResolution(path, resolver.resolve(path), resolver);
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	@Override
+	void describe(final Path path, final Description description) {
+		final PathProbe probe = PathSnapshot.probe(path, this.probe);
+		if (!probe.isSymbolicLink(path)) {
+			describeLink(path, notLink(path, probe), null, description);
+			return;
+		}
+		final LinkResolver resolver = new LinkResolver();
+		try {
+			describeLink(path, resolver.resolve(path), resolver, description);
+		} catch (IOException e) {
+			description.appendValue(path).appendText(" could not be resolved: ")
+					.appendText(String.valueOf(e.getMessage()));
+		}
+	}
+
+	private static LinkResolver.Resolution notLink(final Path path, final PathProbe probe) {
+		final boolean exists = probe.exists(path, LinkOption.NOFOLLOW_LINKS);
+		return new LinkResolver.Resolution(exists ? LinkResolver.Outcome.RESOLVED : LinkResolver.Outcome.DANGLING,
+				path, 0);
+	}
+
+	/**
+	 * @param resolver
+	 *            the resolver which followed the chain, or {@code null} if
+	 *            the path is not a symbolic link
+	 */
+	abstract boolean matchesResolution(Path path, LinkResolver.Resolution resolution, LinkResolver resolver);
+
+	/**
+	 * Describe the chain of links starting at a path, for instance
+	 * {@code <a> links to <b> -> <c>, which does not exist}.
+	 */
+	static void describeLink(final Path path, final LinkResolver.Resolution resolution,
+			final LinkResolver resolver, final Description description) {
+		description.appendValue(path);
+		if (!resolution.isLink()) {
+			description.appendText(resolution.outcome == LinkResolver.Outcome.DANGLING ? " does not exist"
+					: " is not a symbolic link");
+			return;
+		}
+
+		description.appendValueList(" links to ", " -> ", "", resolver.chain(path));
+		if (resolution.outcome == LinkResolver.Outcome.DANGLING) {
+			description.appendText(", which does not exist");
+		} else if (resolution.outcome == LinkResolver.Outcome.CYCLE) {
+			description.appendText(", a cycle");
+		}
+	}
+}
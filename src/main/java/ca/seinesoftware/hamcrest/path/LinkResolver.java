@@ -0,0 +1,189 @@
+package ca.seinesoftware.hamcrest.path;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Follows chains of symbolic links one link at a time, detecting cycles.
+ * <p>
+ * Every link followed is remembered with the end of its chain, so a chain
+ * which reaches a link already followed, by this or an earlier resolution,
+ * stops there: resolving every link of a tree reads each link once. Links are
+ * identified by the real path of their directory and their name, so a link
+ * reached by different paths is still only followed once; the real path of
+ * each directory is read once too.
+ * <p>
+ * Nothing is remembered between resolvers, so a resolver should only be used
+ * while the links it has followed are not expected to change.
+ */
+final class LinkResolver {
+
+	enum Outcome {
+		/** The chain ends at an existing entry which is not a symbolic link */
+		RESOLVED,
+		/** The chain ends at a missing entry */
+		DANGLING,
+		/** The chain never ends */
+		CYCLE
+	}
+
+	/**
+	 * Where a chain of links ends.
+	 */
+	static final class Resolution {
+
+		final Outcome outcome;
+
+		/**
+		 * The entry the chain ends at: the missing entry if it is dangling,
+		 * or the first link to be reached twice if it is a cycle.
+		 */
+		final Path end;
+
+		/**
+		 * The number of links followed to the end, which is 0 if the path is
+		 * not a link, or -1 for a cycle.
+		 */
+		final int length;
+
+		Resolution(final Outcome outcome, final Path end, final int length) {
+			this.outcome = outcome;
+			this.end = end;
+			this.length = length;
+		}
+
+		/**
+		 * @return whether the path resolved was a symbolic link
+		 */
+		boolean isLink() {
+			return length != 0;
+		}
+	}
+
+	/**
+	 * A link followed, with where it leads.
+	 */
+	private static final class Link {
+
+		final Path next;
+		Resolution resolution;
+
+		Link(final Path next) {
+			this.next = next;
+		}
+	}
+
+	private final Map<Path, Path> directories = new HashMap<>();
+	private final Map<Path, Link> links = new HashMap<>();
+
+	/**
+	 * Follow the chain of links starting at the path.
+	 *
+	 * @throws IOException
+	 *             if an entry of the chain cannot be read, other than because
+	 *             it is missing
+	 */
+	Resolution resolve(final Path path) throws IOException {
+		final List<Path> followed = new ArrayList<>();
+		final List<Link> targets = new ArrayList<>();
+		final Set<Path> chain = new HashSet<>();
+
+		Path current = identify(path);
+		Resolution resolution;
+		while (true) {
+			final Link known = links.get(current);
+			if (known != null) {
+				resolution = known.resolution;
+				break;
+			}
+			if (!chain.add(current)) {
+				resolution = new Resolution(Outcome.CYCLE, current, -1);
+				break;
+			}
+
+			final BasicFileAttributes attributes;
+			try {
+				attributes = PathProbe.FILES.readAttributes(current, LinkOption.NOFOLLOW_LINKS);
+			} catch (NoSuchFileException e) {
+				resolution = new Resolution(Outcome.DANGLING, current, 0);
+				break;
+			}
+			if (!attributes.isSymbolicLink()) {
+				resolution = new Resolution(Outcome.RESOLVED, current, 0);
+				break;
+			}
+
+			Instrumentation.operation();
+			final Link link = new Link(identify(current.resolveSibling(Files.readSymbolicLink(current))));
+			followed.add(current);
+			targets.add(link);
+			current = link.next;
+		}
+
+		// Each link followed, from the last, is one link further from the end
+		final Resolution end = resolution;
+		for (int i = followed.size() - 1; i >= 0; i--) {
+			if (end.outcome != Outcome.CYCLE) {
+				resolution = new Resolution(end.outcome, end.end, resolution.length + 1);
+			}
+			targets.get(i).resolution = resolution;
+			links.put(followed.get(i), targets.get(i));
+		}
+		return resolution;
+	}
+
+	/**
+	 * @return the paths the links of the chain starting at the path lead to,
+	 *         in order, as far as this resolver has followed them
+	 */
+	List<Path> chain(final Path path) {
+		final List<Path> chain = new ArrayList<>();
+		final Set<Path> seen = new HashSet<>();
+		Link link;
+		try {
+			link = links.get(identify(path));
+		} catch (IOException e) {
+			return chain;
+		}
+		while (link != null && seen.add(link.next)) {
+			chain.add(link.next);
+			link = links.get(link.next);
+		}
+		return chain;
+	}
+
+	/**
+	 * @return the path, absolute, with its directory's real path, so that
+	 *         every path to the same entry is the same; or the path, absolute,
+	 *         if its directory is missing
+	 */
+	Path identify(final Path path) throws IOException {
+		final Path absolute = path.toAbsolutePath();
+		final Path directory = absolute.getParent();
+		if (directory == null || absolute.getFileName() == null) {
+			return absolute;
+		}
+
+		Path real = directories.get(directory);
+		if (real == null) {
+			Instrumentation.operation();
+			try {
+				real = directory.toRealPath();
+			} catch (NoSuchFileException e) {
+				return absolute;
+			}
+			directories.put(directory, real);
+		}
+		return real.resolve(absolute.getFileName().toString());
+	}
+}
@@ -0,0 +1,42 @@
+package ca.seinesoftware.hamcrest.path;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.hamcrest.StringDescription;
+
+class LinksTo extends LinkMatcher {
+
+	private final Path expected;
+
+	public LinksTo(final Path expected) {
+		super(new StringDescription().appendText("a symbolic link to ").appendValue(expected).toString());
+		this.expected = expected;
+	}
+
+	/**
+	 * The chain matches if it passes through the expected path, or ends at
+	 * the same file.
+	 */
+	@Override
+	boolean matchesResolution(final Path path, final LinkResolver.Resolution resolution,
+			final LinkResolver resolver) {
+		if (!resolution.isLink()) {
+			return false;
+		}
+		try {
+			if (resolver.chain(path).contains(resolver.identify(expected))) {
+				return true;
+			}
+			// A link expected is only reached if it is in the chain
+			if (resolution.outcome != LinkResolver.Outcome.RESOLVED || PathProbe.FILES.isSymbolicLink(expected)) {
+				return false;
+			}
+			Instrumentation.operation();
+			return Files.isSameFile(resolution.end, expected);
+		} catch (IOException e) {
+			return false;
+		}
+	}
+}
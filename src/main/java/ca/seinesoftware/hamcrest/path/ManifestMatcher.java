@@ -0,0 +1,67 @@
+package ca.seinesoftware.hamcrest.path;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.hamcrest.Description;
+
+/**
+ * Compares a tree with a {@link PathManifest}, merging the walk of the tree
+ * with the manifest as it is read.
+ */
+class ManifestMatcher extends TreeMatcher {
+
+	private final Path manifest;
+
+	public ManifestMatcher(final Path manifest) {
+		this.manifest = manifest;
+	}
+
+	@Override
+	public void describeTo(Description description) {
+		description.appendText("a directory matching the manifest ").appendValue(manifest);
+	}
+
+	@Override
+	boolean matchesTree(final Path root, final Description mismatch) {
+		if (!Files.isDirectory(root)) {
+			PathMatcher.aDirectory().describeMismatch(root, mismatch);
+			return false;
+		}
+
+		final Differences differences = new Differences(root, "differs from the manifest", mismatch);
+		try (PathManifest.Reader reader = new PathManifest.Reader(manifest)) {
+			final String algorithm = reader.algorithm();
+			final PathManifest.Walk walk = new PathManifest.Walk(root,
+					algorithm == null ? null : PathManifest.digest(algorithm));
+
+			PathManifest.Entry expected = reader.next();
+			PathManifest.Entry actual = walk.next();
+			while ((expected != null || actual != null) && differences.wanted()) {
+				final int order = expected == null ? 1
+						: actual == null ? -1 : PathManifest.ORDER.compare(expected.path, actual.path);
+				if (order < 0) {
+					differences.add("removed ", expected.path, null);
+					expected = reader.next();
+				} else if (order > 0) {
+					differences.add("added ", actual.path, null);
+					actual = walk.next();
+				} else {
+					final StringBuilder changes = new StringBuilder();
+					if (expected.describeChanges(actual, changes)) {
+						differences.add("changed ", actual.path, changes);
+					}
+					expected = reader.next();
+					actual = walk.next();
+				}
+			}
+		} catch (IOException e) {
+			mismatch.appendValue(root).appendText(" could not be compared with ").appendValue(manifest)
+					.appendText(": ").appendText(e.toString());
+			return false;
+		}
+
+		return differences.end();
+	}
+}
@@ -0,0 +1,1260 @@
+package ca.seinesoftware.hamcrest.path;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.NonReadableChannelException;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.AccessMode;
+import java.nio.file.ClosedFileSystemException;
+import java.nio.file.CopyOption;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileStore;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystemException;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.NotDirectoryException;
+import java.nio.file.NotLinkException;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.ProviderMismatchException;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributeView;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.DosFileAttributeView;
+import java.nio.file.attribute.DosFileAttributes;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.FileAttributeView;
+import java.nio.file.attribute.FileOwnerAttributeView;
+import java.nio.file.attribute.FileStoreAttributeView;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.GroupPrincipal;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.nio.file.attribute.UserPrincipalLookupService;
+import java.nio.file.spi.FileSystemProvider;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * A file system held entirely in memory, created by {@link MemoryFileSystems}.
+ * <p>
+ * Every operation holds the file system's lock, so it may be used from
+ * several threads. Entries are owned by the file system's user and group
+ * when created; their permissions are reported by
+ * {@link FileSystemProvider#checkAccess(Path, AccessMode...) checkAccess}
+ * for that user but do not restrict other operations.
+ */
+final class MemoryFileSystem extends FileSystem {
+
+	private static final int MAX_LINKS = 40;
+
+	static final Set<PosixFilePermission> FILE_PERMISSIONS = PosixFilePermissions.fromString("rw-r--r--");
+	static final Set<PosixFilePermission> DIRECTORY_PERMISSIONS = PosixFilePermissions.fromString("rwxr-xr-x");
+
+	private static final Set<String> VIEWS = Collections
+			.unmodifiableSet(new HashSet<>(Arrays.asList("basic", "posix", "unix", "dos", "owner")));
+
+	private final MemoryFileSystemProvider provider;
+	private final String name;
+	private final Principal user;
+	private final Principal group;
+	private final Node root;
+	private long nextId;
+	private boolean open = true;
+
+	MemoryFileSystem(final MemoryFileSystemProvider provider, final String name, final String user,
+			final String group) {
+		this.provider = provider;
+		this.name = name;
+		this.user = new Principal(user, false);
+		this.group = new Principal(group, true);
+		this.root = newNode(Node.DIRECTORY);
+	}
+
+	String name() {
+		return name;
+	}
+
+	// ========================================================================
+	// FileSystem
+	// ========================================================================
+
+	@Override
+	public FileSystemProvider provider() {
+		return provider;
+	}
+
+	@Override
+	public synchronized void close() {
+		if (open) {
+			open = false;
+			provider.closed(this);
+		}
+	}
+
+	@Override
+	public synchronized boolean isOpen() {
+		return open;
+	}
+
+	@Override
+	public boolean isReadOnly() {
+		return false;
+	}
+
+	@Override
+	public String getSeparator() {
+		return "/";
+	}
+
+	@Override
+	public Iterable<Path> getRootDirectories() {
+		return Collections.<Path> singleton(new MemoryPath(this, "/"));
+	}
+
+	@Override
+	public Iterable<FileStore> getFileStores() {
+		return Collections.<FileStore> singleton(new Store());
+	}
+
+	@Override
+	public Set<String> supportedFileAttributeViews() {
+		return VIEWS;
+	}
+
+	@Override
+	public MemoryPath getPath(final String first, final String... more) {
+		final StringBuilder path = new StringBuilder(first);
+		for (final String name : more) {
+			if (!name.isEmpty()) {
+				if (path.length() > 0) {
+					path.append('/');
+				}
+				path.append(name);
+			}
+		}
+		return new MemoryPath(this, path.toString());
+	}
+
+	@Override
+	public PathMatcher getPathMatcher(final String syntaxAndPattern) {
+		final int colon = syntaxAndPattern.indexOf(':');
+		if (colon <= 0) {
+			throw new IllegalArgumentException("Syntax and pattern expected: " + syntaxAndPattern);
+		}
+		final String syntax = syntaxAndPattern.substring(0, colon);
+		final String pattern = syntaxAndPattern.substring(colon + 1);
+		final Pattern regex;
+		if (syntax.equalsIgnoreCase("glob")) {
+			regex = Pattern.compile(Globs.toRegex(pattern));
+		} else if (syntax.equalsIgnoreCase("regex")) {
+			regex = Pattern.compile(pattern);
+		} else {
+			throw new UnsupportedOperationException("Syntax '" + syntax + "' not recognized");
+		}
+		return new PathMatcher() {
+			@Override
+			public boolean matches(final Path path) {
+				return regex.matcher(path.toString()).matches();
+			}
+		};
+	}
+
+	@Override
+	public UserPrincipalLookupService getUserPrincipalLookupService() {
+		return new UserPrincipalLookupService() {
+			@Override
+			public UserPrincipal lookupPrincipalByName(final String name) {
+				return new Principal(name, false);
+			}
+
+			@Override
+			public GroupPrincipal lookupPrincipalByGroupName(final String group) {
+				return new Principal(group, true);
+			}
+		};
+	}
+
+	/**
+	 * @throws UnsupportedOperationException
+	 *             always, as changes are not reported
+	 */
+	@Override
+	public WatchService newWatchService() {
+		throw new UnsupportedOperationException("In-memory file systems cannot be watched");
+	}
+
+	// ========================================================================
+	// Entries
+	// ========================================================================
+
+	/**
+	 * An entry: a directory, regular file or symbolic link, which may have
+	 * several names if it is a regular file.
+	 */
+	static final class Node {
+
+		static final int DIRECTORY = 0;
+		static final int FILE = 1;
+		static final int LINK = 2;
+
+		final long id;
+		final int type;
+
+		final TreeMap<String, Node> entries;
+		byte[] content = new byte[0];
+		int size;
+		String target;
+
+		FileTime created, modified, accessed;
+		Set<PosixFilePermission> permissions;
+		Principal owner, group;
+		boolean hidden, readOnly, system, archive;
+		int links;
+
+		Node(final long id, final int type, final FileTime now) {
+			this.id = id;
+			this.type = type;
+			this.entries = type == DIRECTORY ? new TreeMap<String, Node>() : null;
+			this.created = this.modified = this.accessed = now;
+		}
+
+		boolean isDirectory() {
+			return type == DIRECTORY;
+		}
+
+		boolean isLink() {
+			return type == LINK;
+		}
+
+		void touch() {
+			modified = accessed = FileTime.fromMillis(System.currentTimeMillis());
+		}
+	}
+
+	private Node newNode(final int type) {
+		final Node node = new Node(++nextId, type, FileTime.fromMillis(System.currentTimeMillis()));
+		node.permissions = EnumSet.noneOf(PosixFilePermission.class);
+		node.permissions.addAll(type == Node.FILE ? FILE_PERMISSIONS : DIRECTORY_PERMISSIONS);
+		if (type == Node.LINK) {
+			node.permissions.addAll(PosixFilePermissions.fromString("rwxrwxrwx"));
+		}
+		node.owner = user;
+		node.group = group;
+		return node;
+	}
+
+	/**
+	 * Where a path leads: the directory holding its last name, that name,
+	 * and the entry of that name if there is one. The parent and name are
+	 * {@code null} for the root and for paths ending in {@code "."} or
+	 * {@code ".."}.
+	 */
+	private static final class Lookup {
+
+		final Node parent;
+		final String name;
+		final Node node;
+
+		Lookup(final Node parent, final String name, final Node node) {
+			this.parent = parent;
+			this.name = name;
+			this.node = node;
+		}
+	}
+
+	private Lookup lookup(final Path path, final boolean follow) throws IOException {
+		checkOpen();
+		final Deque<Node> chain = new ArrayDeque<>();
+		chain.push(root);
+		return walk(chain, ((MemoryPath) path.toAbsolutePath()).names(), follow, new int[1], path);
+	}
+
+	private Lookup existing(final Path path, final boolean follow) throws IOException {
+		final Lookup lookup = lookup(path, follow);
+		if (lookup.node == null) {
+			throw new NoSuchFileException(path.toString());
+		}
+		return lookup;
+	}
+
+	/**
+	 * Walk the names from the directory at the head of the chain, leaving the
+	 * chain at the directory holding the last name.
+	 */
+	private Lookup walk(Deque<Node> chain, final String[] names, final boolean follow, final int[] links,
+			final Path path) throws IOException {
+		if (names.length == 0) {
+			return new Lookup(null, null, chain.peek());
+		}
+		for (int i = 0; i < names.length; i++) {
+			final Node directory = chain.peek();
+			if (!directory.isDirectory()) {
+				throw new FileSystemException(path.toString(), null, "Not a directory");
+			}
+			final String name = names[i];
+			final boolean last = i == names.length - 1;
+			if (name.equals(".") || name.equals("..")) {
+				if (name.equals("..") && chain.size() > 1) {
+					chain.pop();
+				}
+				if (last) {
+					return new Lookup(null, null, chain.peek());
+				}
+				continue;
+			}
+
+			final Node node = directory.entries.get(name);
+			if (last) {
+				if (node != null && node.isLink() && follow) {
+					final Deque<Node> target = new ArrayDeque<>(chain);
+					return followLink(target, node, links, path);
+				}
+				return new Lookup(directory, name, node);
+			}
+			if (node == null) {
+				throw new NoSuchFileException(path.toString());
+			}
+			if (node.isLink()) {
+				final Deque<Node> target = new ArrayDeque<>(chain);
+				final Lookup lookup = followLink(target, node, links, path);
+				if (lookup.node == null) {
+					throw new NoSuchFileException(path.toString());
+				}
+				if (lookup.parent != null) {
+					target.push(lookup.node);
+				}
+				chain = target;
+			} else {
+				chain.push(node);
+			}
+		}
+		throw new AssertionError();
+	}
+
+	private Lookup followLink(final Deque<Node> chain, final Node link, final int[] links, final Path path)
+			throws IOException {
+		if (++links[0] > MAX_LINKS) {
+			throw new FileSystemException(path.toString(), null, "Too many levels of symbolic links");
+		}
+		final MemoryPath target = getPath(link.target);
+		if (target.isAbsolute()) {
+			chain.clear();
+			chain.push(root);
+		}
+		return walk(chain, target.names(), true, links, path);
+	}
+
+	private void checkOpen() {
+		if (!open) {
+			throw new ClosedFileSystemException();
+		}
+	}
+
+	private static void add(final Node directory, final String name, final Node node) {
+		directory.entries.put(name, node);
+		directory.touch();
+		node.links++;
+	}
+
+	private static void remove(final Node directory, final String name) {
+		directory.entries.remove(name).links--;
+		directory.touch();
+	}
+
+	private Lookup creatable(final Path path) throws IOException {
+		final Lookup lookup = lookup(path, false);
+		if (lookup.node != null || lookup.parent == null) {
+			throw new FileAlreadyExistsException(path.toString());
+		}
+		return lookup;
+	}
+
+	// ========================================================================
+	// Operations of the provider
+	// ========================================================================
+
+	synchronized SeekableByteChannel newByteChannel(final Path path, final Set<? extends OpenOption> options,
+			final FileAttribute<?>... attributes) throws IOException {
+		final boolean append = options.contains(StandardOpenOption.APPEND);
+		final boolean write = append || options.contains(StandardOpenOption.WRITE);
+		final boolean read = options.contains(StandardOpenOption.READ) || !write;
+		if (read && append) {
+			throw new IllegalArgumentException("READ + APPEND not allowed");
+		}
+		final boolean createNew = write && options.contains(StandardOpenOption.CREATE_NEW);
+		final boolean create = createNew || write && options.contains(StandardOpenOption.CREATE);
+
+		final Lookup lookup = lookup(path, !options.contains(LinkOption.NOFOLLOW_LINKS));
+		Node node = lookup.node;
+		if (node == null) {
+			if (!create) {
+				throw new NoSuchFileException(path.toString());
+			}
+			if (lookup.parent == null) {
+				throw new FileAlreadyExistsException(path.toString());
+			}
+			node = newNode(Node.FILE);
+			setAttributes(node, attributes);
+			add(lookup.parent, lookup.name, node);
+		} else if (createNew) {
+			throw new FileAlreadyExistsException(path.toString());
+		} else if (node.isDirectory()) {
+			throw new FileSystemException(path.toString(), null, "Is a directory");
+		} else if (node.isLink()) {
+			throw new FileSystemException(path.toString(), null, "Too many levels of symbolic links");
+		} else if (write && options.contains(StandardOpenOption.TRUNCATE_EXISTING) && !append) {
+			node.size = 0;
+			node.touch();
+		}
+		return new Channel(node, read, write, append);
+	}
+
+	synchronized DirectoryStream<Path> newDirectoryStream(final Path directory,
+			final DirectoryStream.Filter<? super Path> filter) throws IOException {
+		final Node node = existing(directory, true).node;
+		if (!node.isDirectory()) {
+			throw new NotDirectoryException(directory.toString());
+		}
+		final List<Path> entries = new ArrayList<>(node.entries.size());
+		for (final String name : node.entries.keySet()) {
+			final Path entry = directory.resolve(name);
+			if (filter.accept(entry)) {
+				entries.add(entry);
+			}
+		}
+		return new DirectoryStream<Path>() {
+			private boolean iterated;
+
+			@Override
+			public Iterator<Path> iterator() {
+				if (iterated) {
+					throw new IllegalStateException("Already iterated");
+				}
+				iterated = true;
+				return Collections.unmodifiableList(entries).iterator();
+			}
+
+			@Override
+			public void close() {
+			}
+		};
+	}
+
+	synchronized void createDirectory(final Path directory, final FileAttribute<?>... attributes)
+			throws IOException {
+		final Lookup lookup = creatable(directory);
+		final Node node = newNode(Node.DIRECTORY);
+		setAttributes(node, attributes);
+		add(lookup.parent, lookup.name, node);
+	}
+
+	synchronized void createSymbolicLink(final Path link, final Path target, final FileAttribute<?>... attributes)
+			throws IOException {
+		if (!(target instanceof MemoryPath)) {
+			throw new ProviderMismatchException();
+		}
+		final Lookup lookup = creatable(link);
+		final Node node = newNode(Node.LINK);
+		node.target = target.toString();
+		setAttributes(node, attributes);
+		add(lookup.parent, lookup.name, node);
+	}
+
+	synchronized void createLink(final Path link, final Path existing) throws IOException {
+		final Node node = existing(existing, false).node;
+		if (node.isDirectory()) {
+			throw new FileSystemException(link.toString(), existing.toString(), "Operation not permitted");
+		}
+		final Lookup lookup = creatable(link);
+		add(lookup.parent, lookup.name, node);
+	}
+
+	synchronized void delete(final Path path) throws IOException {
+		final Lookup lookup = existing(path, false);
+		if (lookup.parent == null) {
+			throw new FileSystemException(path.toString(), null, "Cannot delete");
+		}
+		if (lookup.node.isDirectory() && !lookup.node.entries.isEmpty()) {
+			throw new DirectoryNotEmptyException(path.toString());
+		}
+		remove(lookup.parent, lookup.name);
+	}
+
+	synchronized Path readSymbolicLink(final Path link) throws IOException {
+		final Node node = existing(link, false).node;
+		if (!node.isLink()) {
+			throw new NotLinkException(link.toString());
+		}
+		return getPath(node.target);
+	}
+
+	synchronized void copy(final Path source, final Path target, final CopyOption... options) throws IOException {
+		final List<CopyOption> list = Arrays.asList(options);
+		final Node from = existing(source, !list.contains(LinkOption.NOFOLLOW_LINKS)).node;
+		final Lookup to = replaceable(target, list.contains(StandardCopyOption.REPLACE_EXISTING));
+
+		final Node copy = newNode(from.type);
+		if (from.type == Node.FILE) {
+			copy.content = Arrays.copyOf(from.content, from.size);
+			copy.size = from.size;
+		}
+		copy.target = from.target;
+		if (list.contains(StandardCopyOption.COPY_ATTRIBUTES)) {
+			copy.created = from.created;
+			copy.modified = from.modified;
+			copy.accessed = from.accessed;
+			copy.permissions = EnumSet.copyOf(from.permissions);
+			copy.owner = from.owner;
+			copy.group = from.group;
+			copy.hidden = from.hidden;
+			copy.readOnly = from.readOnly;
+			copy.system = from.system;
+			copy.archive = from.archive;
+		}
+		add(to.parent, to.name, copy);
+	}
+
+	synchronized void move(final Path source, final Path target, final CopyOption... options) throws IOException {
+		final Lookup lookup = existing(source, false);
+		if (lookup.parent == null) {
+			throw new FileSystemException(source.toString(), target.toString(), "Cannot move");
+		}
+		final Path from = source.toAbsolutePath().normalize();
+		final Path to = target.toAbsolutePath().normalize();
+		if (to.equals(from)) {
+			return;
+		}
+		if (to.startsWith(from)) {
+			throw new FileSystemException(source.toString(), target.toString(), "Cannot move into itself");
+		}
+		final Lookup replaced = replaceable(target,
+				Arrays.asList(options).contains(StandardCopyOption.REPLACE_EXISTING));
+		remove(lookup.parent, lookup.name);
+		add(replaced.parent, replaced.name, lookup.node);
+	}
+
+	/**
+	 * Make way for a copy or move.
+	 */
+	private Lookup replaceable(final Path target, final boolean replace) throws IOException {
+		Lookup lookup = lookup(target, false);
+		if (lookup.parent == null) {
+			throw new FileAlreadyExistsException(target.toString());
+		}
+		if (lookup.node != null) {
+			if (!replace) {
+				throw new FileAlreadyExistsException(target.toString());
+			}
+			delete(target);
+			lookup = new Lookup(lookup.parent, lookup.name, null);
+		}
+		return lookup;
+	}
+
+	synchronized boolean isSameFile(final Path path, final Path other) throws IOException {
+		if (path.equals(other)) {
+			return true;
+		}
+		if (!(other instanceof MemoryPath) || ((MemoryPath) other).getFileSystem() != this) {
+			return false;
+		}
+		return existing(path, true).node == existing(other, true).node;
+	}
+
+	/**
+	 * An entry is hidden if its name starts with a {@code '.'}, as on UNIX, or
+	 * if its {@code dos:hidden} attribute is set.
+	 */
+	synchronized boolean isHidden(final Path path) throws IOException {
+		final Path name = path.getFileName();
+		if (name != null && name.toString().startsWith(".")) {
+			return true;
+		}
+		final Lookup lookup = lookup(path, false);
+		return lookup.node != null && lookup.node.hidden;
+	}
+
+	synchronized void checkAccess(final Path path, final AccessMode... modes) throws IOException {
+		final Node node = existing(path, true).node;
+		for (final AccessMode mode : modes) {
+			if (!permitted(node, mode)) {
+				throw new AccessDeniedException(path.toString());
+			}
+		}
+	}
+
+	private boolean permitted(final Node node, final AccessMode mode) {
+		final boolean owner = node.owner.equals(user);
+		final boolean group = !owner && node.group.equals(this.group);
+		switch (mode) {
+		case READ:
+			return node.permissions.contains(owner ? PosixFilePermission.OWNER_READ
+					: group ? PosixFilePermission.GROUP_READ : PosixFilePermission.OTHERS_READ);
+		case WRITE:
+			return !node.readOnly && node.permissions.contains(owner ? PosixFilePermission.OWNER_WRITE
+					: group ? PosixFilePermission.GROUP_WRITE : PosixFilePermission.OTHERS_WRITE);
+		default:
+			return node.permissions.contains(owner ? PosixFilePermission.OWNER_EXECUTE
+					: group ? PosixFilePermission.GROUP_EXECUTE : PosixFilePermission.OTHERS_EXECUTE);
+		}
+	}
+
+	synchronized Path toRealPath(final MemoryPath path, final LinkOption... options) throws IOException {
+		return realPath(path, !PathProbe.noFollow(options), new int[1], path);
+	}
+
+	private MemoryPath realPath(final MemoryPath path, final boolean follow, final int[] links,
+			final Path original) throws IOException {
+		MemoryPath real = getPath("/");
+		final String[] names = ((MemoryPath) path.toAbsolutePath()).names();
+		for (int i = 0; i < names.length; i++) {
+			final String name = names[i];
+			if (name.equals(".")) {
+				continue;
+			}
+			if (name.equals("..")) {
+				real = real.getParent() == null ? real : (MemoryPath) real.getParent();
+				continue;
+			}
+			final MemoryPath next = (MemoryPath) real.resolve(name);
+			final Node node = lookup(next, false).node;
+			if (node == null) {
+				throw new NoSuchFileException(original.toString());
+			}
+			if (node.isLink() && (follow || i < names.length - 1)) {
+				if (++links[0] > MAX_LINKS) {
+					throw new FileSystemException(original.toString(), null, "Too many levels of symbolic links");
+				}
+				real = realPath((MemoryPath) real.resolve(node.target), true, links, original);
+			} else {
+				real = next;
+			}
+		}
+		return real;
+	}
+
+	// ========================================================================
+	// Attributes
+	// ========================================================================
+
+	@SuppressWarnings("unchecked")
+	synchronized <A extends BasicFileAttributes> A readAttributes(final Path path, final Class<A> type,
+			final LinkOption... options) throws IOException {
+		if (type != BasicFileAttributes.class && type != PosixFileAttributes.class
+				&& type != DosFileAttributes.class) {
+			throw new UnsupportedOperationException("Attributes of type " + type.getName() + " not supported");
+		}
+		return (A) new Attributes(existing(path, !PathProbe.noFollow(options)).node);
+	}
+
+	synchronized Map<String, Object> readAttributes(final Path path, final String attributes,
+			final LinkOption... options) throws IOException {
+		final int colon = attributes.indexOf(':');
+		final String view = colon < 0 ? "basic" : attributes.substring(0, colon);
+		final String names = attributes.substring(colon + 1);
+		if (!VIEWS.contains(view)) {
+			throw new UnsupportedOperationException("View '" + view + "' not available");
+		}
+
+		final Attributes read = new Attributes(existing(path, !PathProbe.noFollow(options)).node);
+		final Map<String, Object> all = new HashMap<>();
+		if (!view.equals("owner")) {
+			all.put("size", read.size());
+			all.put("creationTime", read.creationTime());
+			all.put("lastAccessTime", read.lastAccessTime());
+			all.put("lastModifiedTime", read.lastModifiedTime());
+			all.put("fileKey", read.fileKey());
+			all.put("isDirectory", read.isDirectory());
+			all.put("isRegularFile", read.isRegularFile());
+			all.put("isSymbolicLink", read.isSymbolicLink());
+			all.put("isOther", read.isOther());
+		}
+		if (view.equals("posix") || view.equals("unix")) {
+			all.put("permissions", read.permissions());
+			all.put("group", read.group());
+		}
+		if (!view.equals("basic") && !view.equals("dos")) {
+			all.put("owner", read.owner());
+		}
+		if (view.equals("unix")) {
+			all.put("nlink", read.links);
+			all.put("ino", read.fileKey());
+			all.put("mode", read.mode());
+		}
+		if (view.equals("dos")) {
+			all.put("readonly", read.isReadOnly());
+			all.put("hidden", read.isHidden());
+			all.put("system", read.isSystem());
+			all.put("archive", read.isArchive());
+		}
+
+		if (names.equals("*")) {
+			return all;
+		}
+		final Map<String, Object> selected = new HashMap<>();
+		for (final String name : names.split(",")) {
+			if (name.equals("*")) {
+				selected.putAll(all);
+			} else if (all.containsKey(name)) {
+				selected.put(name, all.get(name));
+			} else {
+				throw new IllegalArgumentException("'" + name + "' not recognized");
+			}
+		}
+		return selected;
+	}
+
+	synchronized void setAttribute(final Path path, final String attribute, final Object value,
+			final LinkOption... options) throws IOException {
+		setAttribute(existing(path, !PathProbe.noFollow(options)).node, attribute, value);
+	}
+
+	private void setAttributes(final Node node, final FileAttribute<?>... attributes) {
+		for (final FileAttribute<?> attribute : attributes) {
+			setAttribute(node, attribute.name(), attribute.value());
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private void setAttribute(final Node node, final String attribute, final Object value) {
+		final int colon = attribute.indexOf(':');
+		final String view = colon < 0 ? "basic" : attribute.substring(0, colon);
+		final String name = attribute.substring(colon + 1);
+		if (!VIEWS.contains(view)) {
+			throw new UnsupportedOperationException("View '" + view + "' not available");
+		}
+		switch (name) {
+		case "lastModifiedTime":
+			node.modified = (FileTime) value;
+			return;
+		case "lastAccessTime":
+			node.accessed = (FileTime) value;
+			return;
+		case "creationTime":
+			node.created = (FileTime) value;
+			return;
+		case "permissions":
+			node.permissions = EnumSet.noneOf(PosixFilePermission.class);
+			node.permissions.addAll((Set<PosixFilePermission>) value);
+			return;
+		case "owner":
+			node.owner = new Principal(((UserPrincipal) value).getName(), false);
+			return;
+		case "group":
+			node.group = new Principal(((GroupPrincipal) value).getName(), true);
+			return;
+		case "hidden":
+			node.hidden = (Boolean) value;
+			return;
+		case "readonly":
+			node.readOnly = (Boolean) value;
+			return;
+		case "system":
+			node.system = (Boolean) value;
+			return;
+		case "archive":
+			node.archive = (Boolean) value;
+			return;
+		default:
+			throw new IllegalArgumentException("'" + attribute + "' not recognized");
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	<V extends FileAttributeView> V getFileAttributeView(final Path path, final Class<V> type,
+			final LinkOption... options) {
+		if (type == DosFileAttributeView.class) {
+			return (V) new DosView(path, options);
+		}
+		if (type == BasicFileAttributeView.class || type == PosixFileAttributeView.class
+				|| type == FileOwnerAttributeView.class) {
+			return (V) new PosixView(path, options);
+		}
+		return null;
+	}
+
+	/**
+	 * The attributes of an entry as they were when read.
+	 */
+	private static final class Attributes implements PosixFileAttributes, DosFileAttributes {
+
+		private final long id;
+		private final int type;
+		private final long size;
+		private final FileTime created, modified, accessed;
+		private final Set<PosixFilePermission> permissions;
+		private final UserPrincipal owner;
+		private final GroupPrincipal group;
+		private final boolean hidden, readOnly, system, archive;
+		final int links;
+
+		Attributes(final Node node) {
+			this.id = node.id;
+			this.type = node.type;
+			this.size = node.type == Node.LINK ? node.target.length() : node.type == Node.FILE ? node.size : 0;
+			this.created = node.created;
+			this.modified = node.modified;
+			this.accessed = node.accessed;
+			this.permissions = Collections.unmodifiableSet(EnumSet.copyOf(node.permissions));
+			this.owner = node.owner;
+			this.group = node.group;
+			this.hidden = node.hidden;
+			this.readOnly = node.readOnly;
+			this.system = node.system;
+			this.archive = node.archive;
+			this.links = node.isDirectory() ? 2 + subdirectories(node) : node.links;
+		}
+
+		private static int subdirectories(final Node directory) {
+			int count = 0;
+			for (final Node entry : directory.entries.values()) {
+				if (entry.isDirectory()) {
+					count++;
+				}
+			}
+			return count;
+		}
+
+		int mode() {
+			int mode = type == Node.DIRECTORY ? 0040000 : type == Node.LINK ? 0120000 : 0100000;
+			for (final PosixFilePermission permission : permissions) {
+				mode |= 0400 >> permission.ordinal();
+			}
+			return mode;
+		}
+
+		@Override
+		public FileTime lastModifiedTime() {
+			return modified;
+		}
+
+		@Override
+		public FileTime lastAccessTime() {
+			return accessed;
+		}
+
+		@Override
+		public FileTime creationTime() {
+			return created;
+		}
+
+		@Override
+		public boolean isRegularFile() {
+			return type == Node.FILE;
+		}
+
+		@Override
+		public boolean isDirectory() {
+			return type == Node.DIRECTORY;
+		}
+
+		@Override
+		public boolean isSymbolicLink() {
+			return type == Node.LINK;
+		}
+
+		@Override
+		public boolean isOther() {
+			return false;
+		}
+
+		@Override
+		public long size() {
+			return size;
+		}
+
+		@Override
+		public Object fileKey() {
+			return id;
+		}
+
+		@Override
+		public UserPrincipal owner() {
+			return owner;
+		}
+
+		@Override
+		public GroupPrincipal group() {
+			return group;
+		}
+
+		@Override
+		public Set<PosixFilePermission> permissions() {
+			return permissions;
+		}
+
+		@Override
+		public boolean isReadOnly() {
+			return readOnly;
+		}
+
+		@Override
+		public boolean isHidden() {
+			return hidden;
+		}
+
+		@Override
+		public boolean isArchive() {
+			return archive;
+		}
+
+		@Override
+		public boolean isSystem() {
+			return system;
+		}
+	}
+
+	private abstract class View implements BasicFileAttributeView {
+
+		final Path path;
+		final LinkOption[] options;
+
+		View(final Path path, final LinkOption... options) {
+			this.path = path;
+			this.options = options;
+		}
+
+		@Override
+		public void setTimes(final FileTime lastModifiedTime, final FileTime lastAccessTime,
+				final FileTime createTime) throws IOException {
+			synchronized (MemoryFileSystem.this) {
+				final Node node = existing(path, !PathProbe.noFollow(options)).node;
+				if (lastModifiedTime != null) {
+					node.modified = lastModifiedTime;
+				}
+				if (lastAccessTime != null) {
+					node.accessed = lastAccessTime;
+				}
+				if (createTime != null) {
+					node.created = createTime;
+				}
+			}
+		}
+	}
+
+	private final class PosixView extends View implements PosixFileAttributeView {
+
+		PosixView(final Path path, final LinkOption... options) {
+			super(path, options);
+		}
+
+		@Override
+		public String name() {
+			return "posix";
+		}
+
+		@Override
+		public PosixFileAttributes readAttributes() throws IOException {
+			return MemoryFileSystem.this.readAttributes(path, PosixFileAttributes.class, options);
+		}
+
+		@Override
+		public UserPrincipal getOwner() throws IOException {
+			return readAttributes().owner();
+		}
+
+		@Override
+		public void setOwner(final UserPrincipal owner) throws IOException {
+			setAttribute(path, "posix:owner", owner, options);
+		}
+
+		@Override
+		public void setPermissions(final Set<PosixFilePermission> permissions) throws IOException {
+			setAttribute(path, "posix:permissions", permissions, options);
+		}
+
+		@Override
+		public void setGroup(final GroupPrincipal group) throws IOException {
+			setAttribute(path, "posix:group", group, options);
+		}
+	}
+
+	private final class DosView extends View implements DosFileAttributeView {
+
+		DosView(final Path path, final LinkOption... options) {
+			super(path, options);
+		}
+
+		@Override
+		public String name() {
+			return "dos";
+		}
+
+		@Override
+		public DosFileAttributes readAttributes() throws IOException {
+			return MemoryFileSystem.this.readAttributes(path, DosFileAttributes.class, options);
+		}
+
+		@Override
+		public void setReadOnly(final boolean value) throws IOException {
+			setAttribute(path, "dos:readonly", value, options);
+		}
+
+		@Override
+		public void setHidden(final boolean value) throws IOException {
+			setAttribute(path, "dos:hidden", value, options);
+		}
+
+		@Override
+		public void setSystem(final boolean value) throws IOException {
+			setAttribute(path, "dos:system", value, options);
+		}
+
+		@Override
+		public void setArchive(final boolean value) throws IOException {
+			setAttribute(path, "dos:archive", value, options);
+		}
+	}
+
+	static final class Principal implements GroupPrincipal {
+
+		private final String name;
+		private final boolean group;
+
+		Principal(final String name, final boolean group) {
+			this.name = name;
+			this.group = group;
+		}
+
+		@Override
+		public String getName() {
+			return name;
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			return obj instanceof Principal && ((Principal) obj).group == group && ((Principal) obj).name.equals(name);
+		}
+
+		@Override
+		public int hashCode() {
+			return name.hashCode();
+		}
+
+		@Override
+		public String toString() {
+			return name;
+		}
+	}
+
+	// ========================================================================
+	// Content
+	// ========================================================================
+
+	private final class Channel implements SeekableByteChannel {
+
+		private final Node node;
+		private final boolean read, write, append;
+		private long position;
+		private boolean closed;
+
+		Channel(final Node node, final boolean read, final boolean write, final boolean append) {
+			this.node = node;
+			this.read = read;
+			this.write = write;
+			this.append = append;
+		}
+
+		@Override
+		public boolean isOpen() {
+			synchronized (MemoryFileSystem.this) {
+				return !closed && open;
+			}
+		}
+
+		@Override
+		public void close() {
+			synchronized (MemoryFileSystem.this) {
+				closed = true;
+			}
+		}
+
+		private void checkChannel() throws ClosedChannelException {
+			if (closed || !open) {
+				throw new ClosedChannelException();
+			}
+		}
+
+		@Override
+		public int read(final ByteBuffer dst) throws IOException {
+			synchronized (MemoryFileSystem.this) {
+				checkChannel();
+				if (!read) {
+					throw new NonReadableChannelException();
+				}
+				if (position >= node.size) {
+					return -1;
+				}
+				final int count = (int) Math.min(dst.remaining(), node.size - position);
+				dst.put(node.content, (int) position, count);
+				position += count;
+				node.accessed = FileTime.fromMillis(System.currentTimeMillis());
+				return count;
+			}
+		}
+
+		@Override
+		public int write(final ByteBuffer src) throws IOException {
+			synchronized (MemoryFileSystem.this) {
+				checkChannel();
+				if (!write) {
+					throw new NonWritableChannelException();
+				}
+				if (append) {
+					position = node.size;
+				}
+				final int count = src.remaining();
+				final long end = position + count;
+				if (end > Integer.MAX_VALUE - 8) {
+					throw new IOException("File too large for an in-memory file system");
+				}
+				if (end > node.content.length) {
+					node.content = Arrays.copyOf(node.content,
+							(int) Math.min(Integer.MAX_VALUE - 8, Math.max(end, node.content.length * 2L)));
+				}
+				if (position > node.size) {
+					Arrays.fill(node.content, node.size, (int) position, (byte) 0);
+				}
+				src.get(node.content, (int) position, count);
+				position = end;
+				node.size = (int) Math.max(node.size, end);
+				node.touch();
+				return count;
+			}
+		}
+
+		@Override
+		public long position() throws IOException {
+			synchronized (MemoryFileSystem.this) {
+				checkChannel();
+				return position;
+			}
+		}
+
+		@Override
+		public SeekableByteChannel position(final long newPosition) throws IOException {
+			if (newPosition < 0) {
+				throw new IllegalArgumentException("Negative position: " + newPosition);
+			}
+			synchronized (MemoryFileSystem.this) {
+				checkChannel();
+				position = newPosition;
+				return this;
+			}
+		}
+
+		@Override
+		public long size() throws IOException {
+			synchronized (MemoryFileSystem.this) {
+				checkChannel();
+				return node.size;
+			}
+		}
+
+		@Override
+		public SeekableByteChannel truncate(final long size) throws IOException {
+			if (size < 0) {
+				throw new IllegalArgumentException("Negative size: " + size);
+			}
+			synchronized (MemoryFileSystem.this) {
+				checkChannel();
+				if (!write) {
+					throw new NonWritableChannelException();
+				}
+				if (size < node.size) {
+					node.size = (int) size;
+					node.touch();
+				}
+				position = Math.min(position, size);
+				return this;
+			}
+		}
+	}
+
+	// ========================================================================
+	// File store
+	// ========================================================================
+
+	private final class Store extends FileStore {
+
+		@Override
+		public String name() {
+			return name;
+		}
+
+		@Override
+		public String type() {
+			return MemoryFileSystemProvider.SCHEME;
+		}
+
+		@Override
+		public boolean isReadOnly() {
+			return false;
+		}
+
+		@Override
+		public long getTotalSpace() {
+			return Runtime.getRuntime().maxMemory();
+		}
+
+		@Override
+		public long getUsableSpace() {
+			return Runtime.getRuntime().freeMemory();
+		}
+
+		@Override
+		public long getUnallocatedSpace() {
+			return Runtime.getRuntime().freeMemory();
+		}
+
+		@Override
+		public boolean supportsFileAttributeView(final Class<? extends FileAttributeView> type) {
+			return type == BasicFileAttributeView.class || type == PosixFileAttributeView.class
+					|| type == DosFileAttributeView.class || type == FileOwnerAttributeView.class;
+		}
+
+		@Override
+		public boolean supportsFileAttributeView(final String name) {
+			return VIEWS.contains(name);
+		}
+
+		@Override
+		public <V extends FileStoreAttributeView> V getFileStoreAttributeView(final Class<V> type) {
+			return null;
+		}
+
+		@Override
+		public Object getAttribute(final String attribute) {
+			throw new UnsupportedOperationException("'" + attribute + "' not recognized");
+		}
+	}
+
+	FileStore fileStore() {
+		return new Store();
+	}
+}
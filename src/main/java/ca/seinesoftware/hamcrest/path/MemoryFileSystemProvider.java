@@ -0,0 +1,207 @@
+package ca.seinesoftware.hamcrest.path;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.AccessMode;
+import java.nio.file.CopyOption;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileStore;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystemAlreadyExistsException;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.LinkOption;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.ProviderMismatchException;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.FileAttributeView;
+import java.nio.file.spi.FileSystemProvider;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The provider of {@link MemoryFileSystem}s, which are named by the
+ * authority of their {@code memory:} URIs. It is not installed, so file
+ * systems are created through {@link MemoryFileSystems} or this provider
+ * rather than {@link java.nio.file.FileSystems}.
+ */
+final class MemoryFileSystemProvider extends FileSystemProvider {
+
+	static final String SCHEME = "memory";
+
+	static final MemoryFileSystemProvider INSTANCE = new MemoryFileSystemProvider();
+
+	/**
+	 * The environment key naming the user which owns new entries.
+	 */
+	static final String USER = "user";
+
+	/**
+	 * The environment key naming the group which owns new entries.
+	 */
+	static final String GROUP = "group";
+
+	private final ConcurrentMap<String, MemoryFileSystem> fileSystems = new ConcurrentHashMap<>();
+
+	private MemoryFileSystemProvider() {
+	}
+
+	@Override
+	public String getScheme() {
+		return SCHEME;
+	}
+
+	@Override
+	public FileSystem newFileSystem(final URI uri, final Map<String, ?> env) {
+		final String name = name(uri);
+		final Object user = env.get(USER);
+		final Object group = env.get(GROUP);
+		final MemoryFileSystem fileSystem = new MemoryFileSystem(this, name,
+				user != null ? user.toString() : System.getProperty("user.name", "user"),
+				group != null ? group.toString() : "users");
+		if (fileSystems.putIfAbsent(name, fileSystem) != null) {
+			throw new FileSystemAlreadyExistsException(uri.toString());
+		}
+		return fileSystem;
+	}
+
+	@Override
+	public FileSystem getFileSystem(final URI uri) {
+		final MemoryFileSystem fileSystem = fileSystems.get(name(uri));
+		if (fileSystem == null) {
+			throw new FileSystemNotFoundException(uri.toString());
+		}
+		return fileSystem;
+	}
+
+	@Override
+	public Path getPath(final URI uri) {
+		return ((MemoryFileSystem) getFileSystem(uri)).getPath(uri.getPath());
+	}
+
+	void closed(final MemoryFileSystem fileSystem) {
+		fileSystems.remove(fileSystem.name(), fileSystem);
+	}
+
+	private String name(final URI uri) {
+		if (!SCHEME.equalsIgnoreCase(uri.getScheme()) || uri.getAuthority() == null) {
+			throw new IllegalArgumentException("Not a memory file system URI: " + uri);
+		}
+		return uri.getAuthority();
+	}
+
+	private static MemoryFileSystem fileSystem(final Path path) {
+		if (!(path instanceof MemoryPath)) {
+			throw new ProviderMismatchException();
+		}
+		return ((MemoryPath) path).getFileSystem();
+	}
+
+	// ========================================================================
+	// Operations, each delegated to the path's file system
+	// ========================================================================
+
+	@Override
+	public SeekableByteChannel newByteChannel(final Path path, final Set<? extends OpenOption> options,
+			final FileAttribute<?>... attrs) throws IOException {
+		return fileSystem(path).newByteChannel(path, options, attrs);
+	}
+
+	@Override
+	public DirectoryStream<Path> newDirectoryStream(final Path dir, final DirectoryStream.Filter<? super Path> filter)
+			throws IOException {
+		return fileSystem(dir).newDirectoryStream(dir, filter);
+	}
+
+	@Override
+	public void createDirectory(final Path dir, final FileAttribute<?>... attrs) throws IOException {
+		fileSystem(dir).createDirectory(dir, attrs);
+	}
+
+	@Override
+	public void createSymbolicLink(final Path link, final Path target, final FileAttribute<?>... attrs)
+			throws IOException {
+		fileSystem(link).createSymbolicLink(link, target, attrs);
+	}
+
+	@Override
+	public void createLink(final Path link, final Path existing) throws IOException {
+		fileSystem(link).createLink(link, existing);
+	}
+
+	@Override
+	public void delete(final Path path) throws IOException {
+		fileSystem(path).delete(path);
+	}
+
+	@Override
+	public Path readSymbolicLink(final Path link) throws IOException {
+		return fileSystem(link).readSymbolicLink(link);
+	}
+
+	@Override
+	public void copy(final Path source, final Path target, final CopyOption... options) throws IOException {
+		checkSameFileSystem(source, target);
+		fileSystem(source).copy(source, target, options);
+	}
+
+	@Override
+	public void move(final Path source, final Path target, final CopyOption... options) throws IOException {
+		checkSameFileSystem(source, target);
+		fileSystem(source).move(source, target, options);
+	}
+
+	private static void checkSameFileSystem(final Path source, final Path target) {
+		if (fileSystem(source) != fileSystem(target)) {
+			throw new ProviderMismatchException();
+		}
+	}
+
+	@Override
+	public boolean isSameFile(final Path path, final Path path2) throws IOException {
+		return fileSystem(path).isSameFile(path, path2);
+	}
+
+	@Override
+	public boolean isHidden(final Path path) throws IOException {
+		return fileSystem(path).isHidden(path);
+	}
+
+	@Override
+	public FileStore getFileStore(final Path path) {
+		return fileSystem(path).fileStore();
+	}
+
+	@Override
+	public void checkAccess(final Path path, final AccessMode... modes) throws IOException {
+		fileSystem(path).checkAccess(path, modes);
+	}
+
+	@Override
+	public <V extends FileAttributeView> V getFileAttributeView(final Path path, final Class<V> type,
+			final LinkOption... options) {
+		return fileSystem(path).getFileAttributeView(path, type, options);
+	}
+
+	@Override
+	public <A extends BasicFileAttributes> A readAttributes(final Path path, final Class<A> type,
+			final LinkOption... options) throws IOException {
+		return fileSystem(path).readAttributes(path, type, options);
+	}
+
+	@Override
+	public Map<String, Object> readAttributes(final Path path, final String attributes,
+			final LinkOption... options) throws IOException {
+		return fileSystem(path).readAttributes(path, attributes, options);
+	}
+
+	@Override
+	public void setAttribute(final Path path, final String attribute, final Object value,
+			final LinkOption... options) throws IOException {
+		fileSystem(path).setAttribute(path, attribute, value, options);
+	}
+}
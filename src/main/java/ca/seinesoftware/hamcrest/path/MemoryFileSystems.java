@@ -0,0 +1,79 @@
+package ca.seinesoftware.hamcrest.path;
+
+import java.net.URI;
+import java.nio.file.FileSystem;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Creates file systems held entirely in memory, so that tests of code which
+ * works through {@link java.nio.file.Files} can build their fixtures, and
+ * assert on them with {@link PathMatcher}, without any disk I/O.
+ * <p>
+ * For example:
+ *
+ * <pre>
+ * try (FileSystem fs = MemoryFileSystems.newFileSystem()) {
+ *     Path script = Files.createFile(fs.getPath("/start.sh"),
+ *             PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwxr-x---")));
+ *     assertThat(script, both(executable()).and(hasPermissions("rwxr-x---")));
+ * }
+ * </pre>
+ * <p>
+ * The file systems have a single root, {@code "/"}, which relative paths
+ * are resolved against, and {@code '/'} separates names. They support:
+ * <ul>
+ * <li>directories, regular files, symbolic links and hard links to regular
+ * files;</li>
+ * <li>the {@code "basic"}, {@code "posix"}, {@code "unix"}, {@code "dos"}
+ * and {@code "owner"} attribute views. New files have permissions
+ * {@code rw-r--r--} and new directories {@code rwxr-xr-x}, unless created
+ * with other permissions. {@link java.nio.file.Files#isReadable(java.nio.file.Path)
+ * isReadable} and its like answer from the permissions, for the user and
+ * group the file system was created with, though they do not restrict any
+ * other operation;</li>
+ * <li>hidden entries: an entry is hidden if its name starts with
+ * {@code '.'} or its {@code "dos:hidden"} attribute is set;</li>
+ * <li>{@code "glob"} and {@code "regex"} path matchers.</li>
+ * </ul>
+ * They cannot be watched, and paths cannot be converted to
+ * {@link java.io.File}s. A file system's content is discarded once it is
+ * closed.
+ */
+public final class MemoryFileSystems {
+
+	private static final AtomicLong COUNT = new AtomicLong();
+
+	private MemoryFileSystems() {
+	}
+
+	/**
+	 * Create an empty file system whose entries are owned by the current
+	 * user, as named by the {@code user.name} system property, and the group
+	 * {@code "users"}.
+	 *
+	 * @return a new file system, to be closed once no longer needed
+	 */
+	public static FileSystem newFileSystem() {
+		return newFileSystem(System.getProperty("user.name", "user"), "users");
+	}
+
+	/**
+	 * Create an empty file system whose entries are owned by the given user
+	 * and group, for whom access is checked.
+	 *
+	 * @param user
+	 *            the user owning new entries
+	 * @param group
+	 *            the group owning new entries
+	 * @return a new file system, to be closed once no longer needed
+	 */
+	public static FileSystem newFileSystem(final String user, final String group) {
+		final Map<String, String> env = new HashMap<>();
+		env.put(MemoryFileSystemProvider.USER, user);
+		env.put(MemoryFileSystemProvider.GROUP, group);
+		return MemoryFileSystemProvider.INSTANCE.newFileSystem(
+				URI.create(MemoryFileSystemProvider.SCHEME + "://fs" + COUNT.incrementAndGet()), env);
+	}
+}
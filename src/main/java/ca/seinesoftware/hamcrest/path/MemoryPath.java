@@ -0,0 +1,348 @@
+package ca.seinesoftware.hamcrest.path;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.ProviderMismatchException;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A path of a {@link MemoryFileSystem}: names separated by {@code '/'},
+ * absolute if it starts with one.
+ */
+final class MemoryPath implements Path {
+
+	private final MemoryFileSystem fileSystem;
+	private final String path;
+	private volatile String[] names;
+
+	MemoryPath(final MemoryFileSystem fileSystem, final String path) {
+		this.fileSystem = fileSystem;
+		this.path = normalizeSeparators(path);
+	}
+
+	private static String normalizeSeparators(final String path) {
+		if (path.indexOf('\u0000') >= 0) {
+			throw new InvalidPathException(path, "Nul character not allowed");
+		}
+		final StringBuilder normalized = new StringBuilder(path.length());
+		char previous = 0;
+		for (int i = 0; i < path.length(); i++) {
+			final char c = path.charAt(i);
+			if (c != '/' || previous != '/') {
+				normalized.append(c);
+			}
+			previous = c;
+		}
+		if (normalized.length() > 1 && normalized.charAt(normalized.length() - 1) == '/') {
+			normalized.setLength(normalized.length() - 1);
+		}
+		return normalized.toString();
+	}
+
+	String[] names() {
+		String[] result = names;
+		if (result == null) {
+			final String relative = isAbsolute() ? path.substring(1) : path;
+			result = relative.isEmpty() ? (isAbsolute() ? new String[0] : new String[] { "" })
+					: relative.split("/");
+			names = result;
+		}
+		return result;
+	}
+
+	private MemoryPath of(final String[] names, final int from, final int to, final boolean absolute) {
+		final StringBuilder joined = new StringBuilder();
+		if (absolute) {
+			joined.append('/');
+		}
+		for (int i = from; i < to; i++) {
+			if (i > from) {
+				joined.append('/');
+			}
+			joined.append(names[i]);
+		}
+		return new MemoryPath(fileSystem, joined.toString());
+	}
+
+	private MemoryPath check(final Path other) {
+		if (!(other instanceof MemoryPath) || ((MemoryPath) other).fileSystem != fileSystem) {
+			throw new ProviderMismatchException();
+		}
+		return (MemoryPath) other;
+	}
+
+	@Override
+	public MemoryFileSystem getFileSystem() {
+		return fileSystem;
+	}
+
+	@Override
+	public boolean isAbsolute() {
+		return path.startsWith("/");
+	}
+
+	@Override
+	public Path getRoot() {
+		return isAbsolute() ? new MemoryPath(fileSystem, "/") : null;
+	}
+
+	@Override
+	public Path getFileName() {
+		final String[] names = names();
+		if (names.length == 0) {
+			return null;
+		}
+		return names.length == 1 && !isAbsolute() ? this : new MemoryPath(fileSystem, names[names.length - 1]);
+	}
+
+	@Override
+	public Path getParent() {
+		final String[] names = names();
+		if (names.length == 0 || names.length == 1 && !isAbsolute()) {
+			return null;
+		}
+		return of(names, 0, names.length - 1, isAbsolute());
+	}
+
+	@Override
+	public int getNameCount() {
+		return names().length;
+	}
+
+	@Override
+	public Path getName(final int index) {
+		final String[] names = names();
+		if (index < 0 || index >= names.length) {
+			throw new IllegalArgumentException("No name at " + index + " in " + path);
+		}
+		return new MemoryPath(fileSystem, names[index]);
+	}
+
+	@Override
+	public Path subpath(final int beginIndex, final int endIndex) {
+		final String[] names = names();
+		if (beginIndex < 0 || endIndex > names.length || beginIndex >= endIndex) {
+			throw new IllegalArgumentException("No names from " + beginIndex + " to " + endIndex + " in " + path);
+		}
+		return of(names, beginIndex, endIndex, false);
+	}
+
+	@Override
+	public boolean startsWith(final Path other) {
+		if (!(other instanceof MemoryPath) || ((MemoryPath) other).fileSystem != fileSystem) {
+			return false;
+		}
+		final MemoryPath that = (MemoryPath) other;
+		if (that.isAbsolute() != isAbsolute() || that.path.isEmpty() && !path.isEmpty()) {
+			return false;
+		}
+		final String[] names = names();
+		final String[] prefix = that.names();
+		if (prefix.length > names.length) {
+			return false;
+		}
+		for (int i = 0; i < prefix.length; i++) {
+			if (!prefix[i].equals(names[i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public boolean startsWith(final String other) {
+		return startsWith(fileSystem.getPath(other));
+	}
+
+	@Override
+	public boolean endsWith(final Path other) {
+		if (!(other instanceof MemoryPath) || ((MemoryPath) other).fileSystem != fileSystem) {
+			return false;
+		}
+		final MemoryPath that = (MemoryPath) other;
+		if (that.isAbsolute()) {
+			return that.path.equals(path);
+		}
+		if (that.path.isEmpty()) {
+			return path.isEmpty();
+		}
+		final String[] names = names();
+		final String[] suffix = that.names();
+		if (suffix.length > names.length) {
+			return false;
+		}
+		for (int i = 0; i < suffix.length; i++) {
+			if (!suffix[i].equals(names[names.length - suffix.length + i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public boolean endsWith(final String other) {
+		return endsWith(fileSystem.getPath(other));
+	}
+
+	@Override
+	public Path normalize() {
+		final List<String> normalized = new ArrayList<>();
+		for (final String name : names()) {
+			if (name.equals(".") || name.isEmpty()) {
+				continue;
+			}
+			if (name.equals("..")) {
+				if (!normalized.isEmpty() && !normalized.get(normalized.size() - 1).equals("..")) {
+					normalized.remove(normalized.size() - 1);
+					continue;
+				}
+				if (isAbsolute()) {
+					continue;
+				}
+			}
+			normalized.add(name);
+		}
+		final String[] names = normalized.toArray(new String[normalized.size()]);
+		return of(names, 0, names.length, isAbsolute());
+	}
+
+	@Override
+	public Path resolve(final Path other) {
+		final MemoryPath that = check(other);
+		if (that.isAbsolute()) {
+			return that;
+		}
+		if (that.path.isEmpty()) {
+			return this;
+		}
+		if (path.isEmpty()) {
+			return that;
+		}
+		return new MemoryPath(fileSystem, path.equals("/") ? "/" + that.path : path + "/" + that.path);
+	}
+
+	@Override
+	public Path resolve(final String other) {
+		return resolve(fileSystem.getPath(other));
+	}
+
+	@Override
+	public Path resolveSibling(final Path other) {
+		check(other);
+		final Path parent = getParent();
+		return parent == null ? other : parent.resolve(other);
+	}
+
+	@Override
+	public Path resolveSibling(final String other) {
+		return resolveSibling(fileSystem.getPath(other));
+	}
+
+	@Override
+	public Path relativize(final Path other) {
+		final MemoryPath that = check(other);
+		if (that.isAbsolute() != isAbsolute()) {
+			throw new IllegalArgumentException("Cannot relativize " + other + " against " + path);
+		}
+		if (path.equals(that.path)) {
+			return new MemoryPath(fileSystem, "");
+		}
+		final String[] from = path.isEmpty() ? new String[0] : names();
+		final String[] to = that.path.isEmpty() ? new String[0] : that.names();
+		int common = 0;
+		while (common < from.length && common < to.length && from[common].equals(to[common])) {
+			common++;
+		}
+		final List<String> relative = new ArrayList<>();
+		for (int i = common; i < from.length; i++) {
+			relative.add("..");
+		}
+		relative.addAll(Arrays.asList(to).subList(common, to.length));
+		final String[] names = relative.toArray(new String[relative.size()]);
+		return of(names, 0, names.length, false);
+	}
+
+	@Override
+	public URI toUri() {
+		try {
+			return new URI(MemoryFileSystemProvider.SCHEME, fileSystem.name(), toAbsolutePath().toString(), null);
+		} catch (URISyntaxException e) {
+			throw new AssertionError(e);
+		}
+	}
+
+	@Override
+	public Path toAbsolutePath() {
+		return isAbsolute() ? this : fileSystem.getPath("/").resolve(this);
+	}
+
+	@Override
+	public Path toRealPath(final LinkOption... options) throws IOException {
+		return fileSystem.toRealPath(this, options);
+	}
+
+	/**
+	 * @throws UnsupportedOperationException
+	 *             always, as the path is not of the default file system
+	 */
+	@Override
+	public File toFile() {
+		throw new UnsupportedOperationException("Not a path of the default file system: " + path);
+	}
+
+	/**
+	 * @throws UnsupportedOperationException
+	 *             always, as the file system has no watch service
+	 */
+	@Override
+	public WatchKey register(final WatchService watcher, final WatchEvent.Kind<?>[] events,
+			final WatchEvent.Modifier... modifiers) {
+		throw new UnsupportedOperationException("In-memory file systems cannot be watched");
+	}
+
+	@Override
+	public WatchKey register(final WatchService watcher, final WatchEvent.Kind<?>... events) {
+		return register(watcher, events, new WatchEvent.Modifier[0]);
+	}
+
+	@Override
+	public Iterator<Path> iterator() {
+		final List<Path> paths = new ArrayList<>();
+		for (int i = 0; i < getNameCount(); i++) {
+			paths.add(getName(i));
+		}
+		return paths.iterator();
+	}
+
+	@Override
+	public int compareTo(final Path other) {
+		return path.compareTo(((MemoryPath) other).path);
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		return obj instanceof MemoryPath && ((MemoryPath) obj).fileSystem == fileSystem
+				&& ((MemoryPath) obj).path.equals(path);
+	}
+
+	@Override
+	public int hashCode() {
+		return path.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return path;
+	}
+}
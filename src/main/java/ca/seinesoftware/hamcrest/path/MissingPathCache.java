@@ -0,0 +1,380 @@
+package ca.seinesoftware.hamcrest.path;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystem;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.hamcrest.Matcher;
+
+/**
+ * MissingPathCache
+ * <p>
+ * An opt-in cache of paths known not to exist, for suites which assert that
+ * many paths below missing directories do not exist. When a lookup fails
+ * because the entry is missing, the cache finds the highest of its ancestors
+ * which is missing too, and from then on answers for that entry and
+ * everything below it without asking the file system. Paths which exist are
+ * always asked about, so only the creation of a path can be missed.
+ * <p>
+ * For example:
+ *
+ * <pre>
+ * MissingPathCache missing = new MissingPathCache(1000, false);
+ *
+ * for (Path path : neverWritten) {
+ *     assertThat(path, not(missing.exists()));
+ * }
+ * </pre>
+ *
+ * <p>
+ * <b>Note</b> that a path created after it was found missing continues to be
+ * reported as missing until {@link #invalidate()} or
+ * {@link #invalidate(Path)}. A cache which watches its directories also
+ * forgets a missing entry once a {@link WatchService} reports it created,
+ * which may be shortly after it was; where the file system cannot be
+ * watched, only explicit invalidation applies. A watching cache holds a watch
+ * service for each file system until it is {@link #close() closed}.
+ * <p>
+ * The cache holds at most a fixed number of missing entries, evicting the
+ * least recently used. It is safe to use from several threads.
+ */
+public final class MissingPathCache implements Closeable {
+
+	/**
+	 * A directory watched for the creation of missing entries, and how many
+	 * of those it is watched for.
+	 */
+	private static final class Watch {
+
+		final WatchKey key;
+		int entries;
+
+		Watch(final WatchKey key) {
+			this.key = key;
+		}
+	}
+
+	private final boolean watching;
+
+	/**
+	 * The highest missing ancestor of each path found missing, in absolute
+	 * form; the value is unused.
+	 */
+	private final Map<Path, Boolean> missing;
+
+	private final Map<FileSystem, WatchService> watchers = new HashMap<>();
+	private final Map<Path, Watch> watches = new HashMap<>();
+	private final Map<WatchKey, Path> directories = new HashMap<>();
+	private final PathProbe probe = new MissingProbe();
+
+	/**
+	 * Create a cache.
+	 *
+	 * @param maximumSize
+	 *            the maximum number of missing entries held
+	 * @param watch
+	 *            whether to watch the directories in which entries are
+	 *            missing, and forget those reported created
+	 */
+	public MissingPathCache(final int maximumSize, final boolean watch) {
+		if (maximumSize < 1) {
+			throw new IllegalArgumentException("Maximum size must be positive: " + maximumSize);
+		}
+
+		this.watching = watch;
+		this.missing = new LinkedHashMap<Path, Boolean>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(final Map.Entry<Path, Boolean> eldest) {
+				if (size() > maximumSize) {
+					unwatch(eldest.getKey().getParent());
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	// ========================================================================
+	// Invalidation
+	// ========================================================================
+
+	/**
+	 * Forget every missing entry.
+	 */
+	public void invalidate() {
+		synchronized (missing) {
+			missing.clear();
+			for (final Watch watch : watches.values()) {
+				watch.key.cancel();
+			}
+			watches.clear();
+			directories.clear();
+		}
+	}
+
+	/**
+	 * Forget the missing entries which the given path, or any of its
+	 * ancestors, may have been created as.
+	 *
+	 * @param path
+	 *            a path which may have been created
+	 */
+	public void invalidate(final Path path) {
+		final Path created = path.toAbsolutePath();
+		synchronized (missing) {
+			for (final Iterator<Path> i = missing.keySet().iterator(); i.hasNext();) {
+				final Path entry = i.next();
+				if (created.startsWith(entry) || entry.startsWith(created)) {
+					i.remove();
+					unwatch(entry.getParent());
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return the number of missing entries held; each also answers for every
+	 *         path below it
+	 */
+	public int size() {
+		synchronized (missing) {
+			return missing.size();
+		}
+	}
+
+	/**
+	 * Stop watching, and forget every missing entry. The cache may still be
+	 * used, and watches again as entries are found missing.
+	 *
+	 * @throws IOException
+	 *             if a watch service cannot be closed
+	 */
+	@Override
+	public void close() throws IOException {
+		final List<WatchService> services;
+		synchronized (missing) {
+			invalidate();
+			services = new ArrayList<>(watchers.values());
+			watchers.clear();
+		}
+
+		IOException failure = null;
+		for (final WatchService service : services) {
+			try {
+				service.close();
+			} catch (IOException e) {
+				failure = e;
+			}
+		}
+		if (failure != null) {
+			throw failure;
+		}
+	}
+
+	// ========================================================================
+	// Lookups
+	// ========================================================================
+
+	/**
+	 * @return {@code true} if the path, or one of its ancestors, is known to
+	 *         be missing
+	 */
+	private boolean isMissing(final Path absolute) {
+		synchronized (missing) {
+			if (missing.isEmpty()) {
+				return false;
+			}
+			if (watching) {
+				update();
+			}
+			for (Path entry = absolute; entry != null; entry = entry.getParent()) {
+				if (missing.get(entry) != null) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * Remember the highest missing ancestor of a path which could not be
+	 * found.
+	 *
+	 * @param absent
+	 *            whether the path itself is known to be missing, rather than
+	 *            perhaps a symbolic link to a missing target
+	 */
+	private void remember(final Path absolute, final boolean absent) {
+		Path highest = absent ? absolute : null;
+		for (Path entry = absent ? absolute.getParent() : absolute; entry != null
+				&& !PathProbe.FILES.exists(entry, LinkOption.NOFOLLOW_LINKS); entry = entry.getParent()) {
+			highest = entry;
+		}
+		if (highest == null || highest.getParent() == null) {
+			return;
+		}
+
+		synchronized (missing) {
+			if (missing.put(highest, Boolean.TRUE) == null && watching) {
+				watch(highest.getParent());
+			}
+		}
+	}
+
+	// ========================================================================
+	// Watching
+	// ========================================================================
+
+	private void watch(final Path directory) {
+		Watch watch = watches.get(directory);
+		if (watch == null) {
+			try {
+				final WatchKey key = directory.register(watcher(directory.getFileSystem()),
+						StandardWatchEventKinds.ENTRY_CREATE);
+				watch = new Watch(key);
+			} catch (IOException | UnsupportedOperationException | ClosedWatchServiceException e) {
+				// Only explicit invalidation will find entries created here
+				return;
+			}
+			watches.put(directory, watch);
+			directories.put(watch.key, directory);
+		}
+		watch.entries++;
+	}
+
+	private void unwatch(final Path directory) {
+		final Watch watch = watches.get(directory);
+		if (watch != null && --watch.entries == 0) {
+			watch.key.cancel();
+			watches.remove(directory);
+			directories.remove(watch.key);
+		}
+	}
+
+	private WatchService watcher(final FileSystem fileSystem) throws IOException {
+		WatchService watcher = watchers.get(fileSystem);
+		if (watcher == null) {
+			watcher = fileSystem.newWatchService();
+			watchers.put(fileSystem, watcher);
+		}
+		return watcher;
+	}
+
+	/**
+	 * Forget the entries reported as created since the last lookup.
+	 */
+	private void update() {
+		for (final WatchService watcher : watchers.values()) {
+			WatchKey key;
+			while ((key = watcher.poll()) != null) {
+				final Path directory = directories.get(key);
+				for (final WatchEvent<?> event : key.pollEvents()) {
+					if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+						invalidate();
+						return;
+					}
+					if (directory != null) {
+						invalidate(directory.resolve((Path) event.context()));
+					}
+				}
+				if (!key.reset() && directory != null) {
+					// The directory itself was removed, and perhaps replaced
+					invalidate(directory);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Answers from the missing entries, asking the file system about
+	 * anything else.
+	 */
+	private final class MissingProbe extends PathProbe {
+
+		@Override
+		BasicFileAttributes readAttributes(final Path path, final LinkOption... options) throws IOException {
+			final Path absolute = path.toAbsolutePath();
+			if (isMissing(absolute)) {
+				throw new NoSuchFileException(path.toString());
+			}
+			try {
+				return FILES.readAttributes(path, options);
+			} catch (NoSuchFileException e) {
+				remember(absolute, noFollow(options));
+				throw e;
+			}
+		}
+
+		@Override
+		boolean isReadable(final Path path) {
+			return !isMissing(path.toAbsolutePath()) && FILES.isReadable(path);
+		}
+
+		@Override
+		boolean isWritable(final Path path) {
+			return !isMissing(path.toAbsolutePath()) && FILES.isWritable(path);
+		}
+
+		@Override
+		boolean isExecutable(final Path path) {
+			return !isMissing(path.toAbsolutePath()) && FILES.isExecutable(path);
+		}
+	}
+
+	// ========================================================================
+	// Factories
+	// ========================================================================
+
+	/**
+	 * Create a matcher like {@link PathMatcher#exists(LinkOption...)} which
+	 * answers from this cache for missing paths.
+	 *
+	 * @param options
+	 *            options indicating how symbolic links are handled
+	 * @return the matcher
+	 */
+	public Matcher<Path> exists(final LinkOption... options) {
+		return new Exists(probe, options);
+	}
+
+	/**
+	 * Create a matcher like {@link PathMatcher#aDirectory(LinkOption...)}
+	 * which answers from this cache for missing paths.
+	 *
+	 * @param options
+	 *            options indicating how symbolic links are handled
+	 * @return the matcher
+	 */
+	public Matcher<Path> aDirectory(final LinkOption... options) {
+		return new Directory(probe, options);
+	}
+
+	/**
+	 * Create a matcher like {@link PathMatcher#aRegularFile(LinkOption...)}
+	 * which answers from this cache for missing paths.
+	 *
+	 * @param options
+	 *            options indicating how symbolic links are handled
+	 * @return the matcher
+	 */
+	public Matcher<Path> aRegularFile(final LinkOption... options) {
+		return new RegularFile(probe, options);
+	}
+}
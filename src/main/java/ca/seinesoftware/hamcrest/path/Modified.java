@@ -0,0 +1,86 @@
+package ca.seinesoftware.hamcrest.path;
+
+import java.io.IOException;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.hamcrest.Description;
+import org.hamcrest.StringDescription;
+
+/**
+ * Compares an entry's modification time with a fixed time, a time relative
+ * to the present, or another entry's modification time.
+ */
+class Modified extends BasicAttributeMatcher {
+
+	private final FileTime time;
+	private final long age;
+	private final Path reference;
+
+	/**
+	 * Matches entries modified after the given time.
+	 */
+	public Modified(final FileTime time, final LinkOption... linkOptions) {
+		super("a file system entry modified after " + time, linkOptions);
+		this.time = time;
+		this.age = 0;
+		this.reference = null;
+	}
+
+	/**
+	 * Matches entries modified more than the given time ago.
+	 */
+	public Modified(final long age, final TimeUnit unit, final LinkOption... linkOptions) {
+		super("a file system entry modified more than " + age + " " + unit.name().toLowerCase(Locale.ROOT)
+				+ " ago", linkOptions);
+		if (age < 0) {
+			throw new IllegalArgumentException("Age must not be negative: " + age);
+		}
+		this.time = null;
+		this.age = unit.toMillis(age);
+		this.reference = null;
+	}
+
+	/**
+	 * Matches entries modified after the given entry.
+	 */
+	public Modified(final Path reference, final LinkOption... linkOptions) {
+		super(new StringDescription().appendText("a file system entry modified after ").appendValue(reference)
+				.toString(), linkOptions);
+		this.time = null;
+		this.age = 0;
+		this.reference = reference;
+	}
+
+	@Override
+	boolean matchesAttributes(final Path path, final BasicFileAttributes attributes, final PathProbe probe)
+			throws IOException {
+		final FileTime modified = attributes.lastModifiedTime();
+		if (time != null) {
+			return modified.compareTo(time) > 0;
+		}
+		if (reference != null) {
+			return modified.compareTo(probe.readAttributes(reference, linkOptions).lastModifiedTime()) > 0;
+		}
+		return modified.toMillis() < System.currentTimeMillis() - age;
+	}
+
+	@Override
+	void describeAttributes(final Path path, final BasicFileAttributes attributes, final Description description) {
+		description.appendValue(path).appendText(" was modified at ")
+				.appendText(attributes.lastModifiedTime().toString());
+		if (reference != null) {
+			description.appendText(", ").appendValue(reference);
+			try {
+				description.appendText(" at ")
+						.appendText(probe.readAttributes(reference, linkOptions).lastModifiedTime().toString());
+			} catch (IOException e) {
+				description.appendText(" does not exist");
+			}
+		}
+	}
+}
@@ -0,0 +1,60 @@
+package ca.seinesoftware.hamcrest.path;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.hamcrest.Description;
+
+/**
+ * Checks every symbolic link of a tree, reporting every link whose chain
+ * ends at a missing entry or never ends.
+ * <p>
+ * A single {@link LinkResolver} follows the links of the whole tree, so links
+ * which lead to other links are only read once, however many chains they
+ * are part of.
+ */
+class NoDanglingLinks extends TreeMatcher {
+
+	@Override
+	public void describeTo(Description description) {
+		description.appendText("a directory in which no symbolic link is dangling");
+	}
+
+	@Override
+	boolean matchesTree(final Path root, final Description mismatch) {
+		final LinkResolver resolver = new LinkResolver();
+		final Differences dangling = new Differences(root, "has dangling symbolic links", mismatch);
+
+		final boolean walked = walk(root, new EntryVisitor() {
+			@Override
+			public boolean visit(final Path entry, final PathProbe probe) {
+				if (!probe.isSymbolicLink(entry)) {
+					return true;
+				}
+
+				LinkResolver.Resolution resolution;
+				IOException failure = null;
+				try {
+					resolution = resolver.resolve(entry);
+				} catch (IOException e) {
+					resolution = null;
+					failure = e;
+				}
+				if (resolution != null && resolution.outcome == LinkResolver.Outcome.RESOLVED) {
+					return true;
+				}
+
+				final Description line = dangling.next();
+				if (line != null && failure != null) {
+					line.appendValue(entry).appendText(" could not be resolved: ")
+							.appendText(String.valueOf(failure.getMessage()));
+				} else if (line != null) {
+					LinkMatcher.describeLink(entry, resolution, resolver, line);
+				}
+				return dangling.wanted();
+			}
+		}, mismatch);
+
+		return dangling.end() && walked;
+	}
+}
@@ -0,0 +1,169 @@
+package ca.seinesoftware.hamcrest.path;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.hamcrest.Description;
+
+class NoDuplicateContent extends TreeMatcher {
+
+	/**
+	 * How much of each candidate is hashed before deciding whether the rest
+	 * needs to be read.
+	 */
+	static final int PREFIX = 64 << 10;
+
+	private static final Comparator<List<Path>> BY_FIRST = new Comparator<List<Path>>() {
+		@Override
+		public int compare(final List<Path> a, final List<Path> b) {
+			return a.get(0).compareTo(b.get(0));
+		}
+	};
+
+	@Override
+	public void describeTo(Description description) {
+		description.appendText("a directory in which no two files have the same content");
+	}
+
+	@Override
+	boolean matchesTree(final Path root, final Description mismatch) {
+		// Hard links share their content, and only need to be read once
+		final Map<Object, List<Path>> byKey = new HashMap<>();
+		final Map<Long, List<Path>> bySize = new HashMap<>();
+
+		final boolean walked = walk(root, new EntryVisitor() {
+			@Override
+			public boolean visit(final Path entry, final PathProbe probe) {
+				final BasicFileAttributes attributes;
+				try {
+					attributes = probe.readAttributes(entry, LinkOption.NOFOLLOW_LINKS);
+				} catch (IOException e) {
+					return true;
+				}
+				if (!attributes.isRegularFile() || attributes.size() == 0) {
+					return true;
+				}
+
+				final Object key = attributes.fileKey();
+				if (key != null) {
+					final List<Path> links = byKey.get(key);
+					if (links != null) {
+						links.add(entry);
+						return true;
+					}
+					byKey.put(key, newList(entry));
+				}
+
+				final List<Path> sameSize = bySize.get(attributes.size());
+				if (sameSize == null) {
+					bySize.put(attributes.size(), newList(entry));
+				} else {
+					sameSize.add(entry);
+				}
+				return true;
+			}
+		}, mismatch);
+
+		if (!walked) {
+			return false;
+		}
+
+		final List<List<Path>> duplicates = new ArrayList<>();
+		for (final List<Path> links : byKey.values()) {
+			if (links.size() > 1) {
+				duplicates.add(links);
+			}
+		}
+
+		final MessageDigest digest = sha256();
+		for (final Map.Entry<Long, List<Path>> sameSize : bySize.entrySet()) {
+			if (sameSize.getValue().size() < 2) {
+				continue;
+			}
+			for (final List<Path> samePrefix : group(sameSize.getValue(), digest, PREFIX)) {
+				if (sameSize.getKey() <= PREFIX) {
+					duplicates.add(samePrefix);
+				} else {
+					duplicates.addAll(group(samePrefix, digest, Long.MAX_VALUE));
+				}
+			}
+		}
+
+		if (duplicates.isEmpty()) {
+			return true;
+		}
+
+		for (final List<Path> group : duplicates) {
+			Collections.sort(group);
+		}
+		Collections.sort(duplicates, BY_FIRST);
+
+		mismatch.appendText("found files with the same content: ");
+		for (int i = 0; i < duplicates.size(); i++) {
+			if (i > 0) {
+				mismatch.appendText(", ");
+			}
+			mismatch.appendValueList("{", ", ", "}", duplicates.get(i));
+		}
+		return false;
+	}
+
+	/**
+	 * Group files by the digest of their first {@code length} bytes.
+	 *
+	 * @return the groups holding more than one file
+	 */
+	private static List<List<Path>> group(final List<Path> paths, final MessageDigest digest, final long length) {
+		final Map<ByteBuffer, List<Path>> byDigest = new LinkedHashMap<>();
+		for (final Path path : paths) {
+			final ByteBuffer hash;
+			try {
+				hash = ByteBuffer.wrap(FileContent.digest(path, digest, length));
+			} catch (IOException e) {
+				continue;
+			}
+
+			final List<Path> sameDigest = byDigest.get(hash);
+			if (sameDigest == null) {
+				byDigest.put(hash, newList(path));
+			} else {
+				sameDigest.add(path);
+			}
+		}
+
+		final List<List<Path>> groups = new ArrayList<>();
+		for (final List<Path> sameDigest : byDigest.values()) {
+			if (sameDigest.size() > 1) {
+				groups.add(sameDigest);
+			}
+		}
+		return groups;
+	}
+
+	private static List<Path> newList(final Path path) {
+		final List<Path> list = new ArrayList<>(2);
+		list.add(path);
+		return list;
+	}
+
+	private static MessageDigest sha256() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			// Every Java platform is required to support SHA-256
+			throw new IllegalStateException(e);
+		}
+	}
+}
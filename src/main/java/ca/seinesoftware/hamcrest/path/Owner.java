@@ -0,0 +1,40 @@
+package ca.seinesoftware.hamcrest.path;
+
+import java.nio.file.LinkOption;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.nio.file.attribute.UserPrincipal;
+
+import org.hamcrest.Description;
+
+class Owner extends PosixMatcher {
+
+	private final String name;
+	private final boolean group;
+
+	/**
+	 * @param name
+	 *            the name of the owning user or group
+	 * @param group
+	 *            whether the owning group is matched, rather than the owner
+	 */
+	public Owner(final String name, final boolean group, final LinkOption... linkOptions) {
+		super((group ? "owned by group " : "owned by ") + '"' + name + '"', linkOptions);
+		this.name = name;
+		this.group = group;
+	}
+
+	@Override
+	boolean matchesAttributes(final PosixFileAttributes attributes) {
+		return name.equals(owner(attributes).getName());
+	}
+
+	@Override
+	void describeAttributes(final PosixFileAttributes attributes, final Description description) {
+		description.appendText(group ? " is owned by group " : " is owned by ")
+				.appendValue(owner(attributes).getName());
+	}
+
+	private UserPrincipal owner(final PosixFileAttributes attributes) {
+		return group ? attributes.group() : attributes.owner();
+	}
+}
@@ -0,0 +1,363 @@
+package ca.seinesoftware.hamcrest.path;
+
+import java.io.IOException;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.hamcrest.Matcher;
+
+/**
+ * PathAttributeCache
+ * <p>
+ * An opt-in cache of file system lookups, for suites which examine the same
+ * {@link Path} with several matchers in a row. The matchers created by a cache
+ * share its lookups: the attributes read by {@link #exists(LinkOption...)}
+ * also answer {@link #aDirectory(LinkOption...)} and
+ * {@link #aRegularFile(LinkOption...)} for the same path and options.
+ * <p>
+ * For example:
+ *
+ * <pre>
+ * PathAttributeCache cache = new PathAttributeCache(10000, 5, TimeUnit.SECONDS);
+ *
+ * assertThat(home, cache.exists());
+ * assertThat(home, is(cache.aDirectory()));
+ * assertThat(home, is(both(cache.readable()).and(cache.writable())));
+ * </pre>
+ *
+ * <p>
+ * <b>Note</b> that where results from the {@link PathMatcher} factories are
+ * <em>immediately outdated</em>, results from a cache may be outdated by up to
+ * its time-to-live: a change to the file system is only guaranteed to be seen
+ * once the time-to-live has passed since the lookup, or after
+ * {@link #invalidate()} or {@link #invalidate(Path)}. Failed lookups are cached
+ * too, so a path which did not exist continues to be reported as missing for
+ * the same period. Tests which change the file system between assertions
+ * should invalidate the affected paths.
+ * <p>
+ * The cache holds at most a fixed number of lookups, evicting the least
+ * recently used. It is safe to use from several threads.
+ */
+public final class PathAttributeCache {
+
+	/**
+	 * The kinds of lookup cached for each path.
+	 */
+	private enum Lookup {
+		ATTRIBUTES, ATTRIBUTES_NOFOLLOW, READABLE, WRITABLE, EXECUTABLE, HIDDEN
+	}
+
+	private static final class Key {
+
+		private final Path path;
+		private final Lookup lookup;
+
+		Key(final Path path, final Lookup lookup) {
+			this.path = path;
+			this.lookup = lookup;
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			final Key other = (Key) obj;
+			return lookup == other.lookup && path.equals(other.path);
+		}
+
+		@Override
+		public int hashCode() {
+			return path.hashCode() * 31 + lookup.ordinal();
+		}
+	}
+
+	private static final class Cached {
+
+		/** A {@link BasicFileAttributes}, {@link Boolean} or {@link IOException} */
+		final Object result;
+		final long expires;
+
+		Cached(final Object result, final long expires) {
+			this.result = result;
+			this.expires = expires;
+		}
+	}
+
+	private final long timeToLive;
+	private final Map<Key, Cached> entries;
+	private final PathProbe probe = new CachingProbe();
+
+	/**
+	 * Create a cache.
+	 *
+	 * @param maximumSize
+	 *            the maximum number of lookups held; each path uses one per
+	 *            kind of question asked about it
+	 * @param timeToLive
+	 *            how long a lookup may be reused
+	 * @param unit
+	 *            the unit of {@code timeToLive}
+	 */
+	public PathAttributeCache(final int maximumSize, final long timeToLive, final TimeUnit unit) {
+		if (maximumSize < 1) {
+			throw new IllegalArgumentException("Maximum size must be positive: " + maximumSize);
+		}
+		if (timeToLive < 0) {
+			throw new IllegalArgumentException("Time-to-live must not be negative: " + timeToLive);
+		}
+
+		this.timeToLive = unit.toNanos(timeToLive);
+		this.entries = new LinkedHashMap<Key, Cached>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(final Map.Entry<Key, Cached> eldest) {
+				return size() > maximumSize;
+			}
+		};
+	}
+
+	// ========================================================================
+	// Invalidation
+	// ========================================================================
+
+	/**
+	 * Discard every cached lookup.
+	 */
+	public void invalidate() {
+		synchronized (entries) {
+			entries.clear();
+		}
+	}
+
+	/**
+	 * Discard every cached lookup for the given path.
+	 *
+	 * @param path
+	 *            the path which may have changed
+	 */
+	public void invalidate(final Path path) {
+		synchronized (entries) {
+			for (final Lookup lookup : Lookup.values()) {
+				entries.remove(new Key(path, lookup));
+			}
+		}
+	}
+
+	/**
+	 * @return the number of lookups currently held, including any which have
+	 *         expired but not yet been discarded
+	 */
+	public int size() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+	// ========================================================================
+	// Lookups
+	// ========================================================================
+
+	private Object cached(final Path path, final Lookup lookup) {
+		final Key key = new Key(path, lookup);
+		synchronized (entries) {
+			final Cached entry = entries.get(key);
+			if (entry == null) {
+				return null;
+			}
+			if (System.nanoTime() - entry.expires >= 0) {
+				entries.remove(key);
+				return null;
+			}
+			return entry.result;
+		}
+	}
+
+	private void cache(final Path path, final Lookup lookup, final Object result) {
+		final Cached entry = new Cached(result, System.nanoTime() + timeToLive);
+		synchronized (entries) {
+			entries.put(new Key(path, lookup), entry);
+		}
+	}
+
+	/**
+	 * Answers from the cache, asking the file system on a miss.
+	 */
+	private final class CachingProbe extends PathProbe {
+
+		/**
+		 * The entry's own attributes are always read first: unless the entry
+		 * is a symbolic link, they answer for both link options with a single
+		 * lookup.
+		 */
+		@Override
+		BasicFileAttributes readAttributes(final Path path, final LinkOption... options) throws IOException {
+			final BasicFileAttributes link = lookup(path, Lookup.ATTRIBUTES_NOFOLLOW, LinkOption.NOFOLLOW_LINKS);
+			if (noFollow(options) || !link.isSymbolicLink()) {
+				return link;
+			}
+			return lookup(path, Lookup.ATTRIBUTES);
+		}
+
+		private BasicFileAttributes lookup(final Path path, final Lookup lookup, final LinkOption... options)
+				throws IOException {
+			Object result = cached(path, lookup);
+			if (result == null) {
+				try {
+					result = FILES.readAttributes(path, options);
+				} catch (IOException e) {
+					result = e;
+				}
+				cache(path, lookup, result);
+			}
+
+			if (result instanceof IOException) {
+				throw (IOException) result;
+			}
+			return (BasicFileAttributes) result;
+		}
+
+		@Override
+		boolean isReadable(final Path path) {
+			Boolean result = (Boolean) cached(path, Lookup.READABLE);
+			if (result == null) {
+				result = FILES.isReadable(path);
+				cache(path, Lookup.READABLE, result);
+			}
+			return result;
+		}
+
+		@Override
+		boolean isWritable(final Path path) {
+			Boolean result = (Boolean) cached(path, Lookup.WRITABLE);
+			if (result == null) {
+				result = FILES.isWritable(path);
+				cache(path, Lookup.WRITABLE, result);
+			}
+			return result;
+		}
+
+		@Override
+		boolean isExecutable(final Path path) {
+			Boolean result = (Boolean) cached(path, Lookup.EXECUTABLE);
+			if (result == null) {
+				result = FILES.isExecutable(path);
+				cache(path, Lookup.EXECUTABLE, result);
+			}
+			return result;
+		}
+
+		@Override
+		boolean isHidden(final Path path) throws IOException {
+			Object result = cached(path, Lookup.HIDDEN);
+			if (result == null) {
+				try {
+					result = FILES.isHidden(path);
+				} catch (IOException e) {
+					result = e;
+				}
+				cache(path, Lookup.HIDDEN, result);
+			}
+
+			if (result instanceof IOException) {
+				throw (IOException) result;
+			}
+			return (Boolean) result;
+		}
+	}
+
+	// ========================================================================
+	// Factories
+	// ========================================================================
+
+	/**
+	 * Create a matcher like {@link PathMatcher#exists(LinkOption...)} which
+	 * reads from this cache.
+	 *
+	 * @param options
+	 *            options indicating how symbolic links are handled
+	 * @return the matcher
+	 */
+	public Matcher<Path> exists(final LinkOption... options) {
+		return new Exists(probe, options);
+	}
+
+	/**
+	 * Create a matcher like {@link PathMatcher#aDirectory(LinkOption...)}
+	 * which reads from this cache.
+	 *
+	 * @param options
+	 *            options indicating how symbolic links are handled
+	 * @return the matcher
+	 */
+	public Matcher<Path> aDirectory(final LinkOption... options) {
+		return new Directory(probe, options);
+	}
+
+	/**
+	 * Create a matcher like {@link PathMatcher#aRegularFile(LinkOption...)}
+	 * which reads from this cache.
+	 *
+	 * @param options
+	 *            options indicating how symbolic links are handled
+	 * @return the matcher
+	 */
+	public Matcher<Path> aRegularFile(final LinkOption... options) {
+		return new RegularFile(probe, options);
+	}
+
+	/**
+	 * Create a matcher like {@link PathMatcher#aSymbolicLink()} which reads
+	 * from this cache.
+	 *
+	 * @return the matcher
+	 */
+	public Matcher<Path> aSymbolicLink() {
+		return new SymbolicLink(probe);
+	}
+
+	/**
+	 * Create a matcher like {@link PathMatcher#readable()} which reads from
+	 * this cache.
+	 *
+	 * @return the matcher
+	 */
+	public Matcher<Path> readable() {
+		return new Readable(probe);
+	}
+
+	/**
+	 * Create a matcher like {@link PathMatcher#writable()} which reads from
+	 * this cache.
+	 *
+	 * @return the matcher
+	 */
+	public Matcher<Path> writable() {
+		return new Writable(probe);
+	}
+
+	/**
+	 * Create a matcher like {@link PathMatcher#executable()} which reads from
+	 * this cache.
+	 *
+	 * @return the matcher
+	 */
+	public Matcher<Path> executable() {
+		return new Executable(probe);
+	}
+
+	/**
+	 * Create a matcher like {@link PathMatcher#hidden()} which reads from this
+	 * cache.
+	 *
+	 * @return the matcher
+	 */
+	public Matcher<Path> hidden() {
+		return new Hidden(probe);
+	}
+}
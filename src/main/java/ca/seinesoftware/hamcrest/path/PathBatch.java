@@ -0,0 +1,222 @@
+package ca.seinesoftware.hamcrest.path;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.hamcrest.Matcher;
+import org.hamcrest.StringDescription;
+
+/**
+ * PathBatch
+ * <p>
+ * Evaluates one {@link Matcher} against many {@link Path} objects in a single
+ * pass, collecting every mismatch instead of failing on the first one.
+ * <p>
+ * Paths are evaluated grouped by their parent directory, so that entries of
+ * the same directory are examined back-to-back while the operating system
+ * still has that directory cached.
+ * <p>
+ * On slow or networked file systems, paths may be evaluated in parallel on a
+ * {@link ForkJoinPool}. The matcher must then be safe to use from several
+ * threads, as all the matchers created by {@link PathMatcher} are. The result
+ * is identical to a sequential evaluation, including the order of the
+ * mismatches.
+ * <p>
+ * For example:
+ *
+ * <pre>
+ * BatchResult result = PathBatch.evaluate(artifacts, both(readable()).and(writable()));
+ * if (!result.isSuccess()) {
+ *     fail(result.toString());
+ * }
+ *
+ * // Keep up to 32 file system requests in flight
+ * BatchResult parallel = PathBatch.evaluate(artifacts, readable(), 32);
+ * </pre>
+ *
+ * @see PathMatcher#everyPath(Matcher)
+ */
+public final class PathBatch {
+
+	private PathBatch() {
+	}
+
+	/**
+	 * Order paths by parent directory, then by file name.
+	 */
+	static final Comparator<Path> BY_PARENT = new Comparator<Path>() {
+		@Override
+		public int compare(final Path a, final Path b) {
+			final int parent = compareNullable(a.getParent(), b.getParent());
+			return parent != 0 ? parent : compareNullable(a.getFileName(), b.getFileName());
+		}
+
+		private int compareNullable(final Path a, final Path b) {
+			if (a == null) {
+				return b == null ? 0 : -1;
+			}
+			return b == null ? 1 : a.compareTo(b);
+		}
+	};
+
+	/**
+	 * Evaluate the matcher against every path.
+	 *
+	 * @param paths
+	 *            the paths to examine
+	 * @param matcher
+	 *            the matcher each path is expected to satisfy
+	 * @return the outcome of the evaluation, holding a description of every
+	 *         path which did not match
+	 */
+	public static BatchResult evaluate(final Iterable<? extends Path> paths, final Matcher<? super Path> matcher) {
+		final Path[] sorted = sorted(paths);
+
+		final List<BatchResult.Mismatch> mismatches = new ArrayList<>();
+		for (final Path path : sorted) {
+			final BatchResult.Mismatch mismatch = evaluate(path, matcher);
+			if (mismatch != null) {
+				mismatches.add(mismatch);
+			}
+		}
+		return new BatchResult(matcher, sorted.length, mismatches);
+	}
+
+	/**
+	 * Evaluate the matcher against every path, using up to
+	 * {@code parallelism} threads.
+	 *
+	 * @param paths
+	 *            the paths to examine
+	 * @param matcher
+	 *            the matcher each path is expected to satisfy; must be safe to
+	 *            use from several threads
+	 * @param parallelism
+	 *            the number of paths which may be evaluated concurrently
+	 * @return the outcome of the evaluation, holding a description of every
+	 *         path which did not match, in the same order as
+	 *         {@link #evaluate(Iterable, Matcher)}
+	 */
+	public static BatchResult evaluate(final Iterable<? extends Path> paths, final Matcher<? super Path> matcher,
+			final int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+		}
+
+		final ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			return evaluate(paths, matcher, pool);
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Evaluate the matcher against every path on the given pool.
+	 *
+	 * @param paths
+	 *            the paths to examine
+	 * @param matcher
+	 *            the matcher each path is expected to satisfy; must be safe to
+	 *            use from several threads
+	 * @param pool
+	 *            the pool on which the paths are evaluated
+	 * @return the outcome of the evaluation, holding a description of every
+	 *         path which did not match, in the same order as
+	 *         {@link #evaluate(Iterable, Matcher)}
+	 */
+	public static BatchResult evaluate(final Iterable<? extends Path> paths, final Matcher<? super Path> matcher,
+			final ForkJoinPool pool) {
+		final Path[] sorted = sorted(paths);
+		final BatchResult.Mismatch[] results = new BatchResult.Mismatch[sorted.length];
+		pool.invoke(new Evaluate(sorted, matcher, results, 0, sorted.length));
+
+		final List<BatchResult.Mismatch> mismatches = new ArrayList<>();
+		for (final BatchResult.Mismatch mismatch : results) {
+			if (mismatch != null) {
+				mismatches.add(mismatch);
+			}
+		}
+		return new BatchResult(matcher, sorted.length, mismatches);
+	}
+
+	/**
+	 * Evaluates a contiguous range of the sorted paths, splitting it in half
+	 * until it is small enough to evaluate directly. Each result is stored at
+	 * its path's index, so the outcome does not depend on scheduling.
+	 */
+	private static final class Evaluate extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		/** Small enough that siblings still tend to share a thread. */
+		private static final int THRESHOLD = 16;
+
+		private final Path[] paths;
+		private final Matcher<? super Path> matcher;
+		private final BatchResult.Mismatch[] results;
+		private final int from, to;
+
+		Evaluate(final Path[] paths, final Matcher<? super Path> matcher, final BatchResult.Mismatch[] results,
+				final int from, final int to) {
+			this.paths = paths;
+			this.matcher = matcher;
+			this.results = results;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= THRESHOLD) {
+				for (int i = from; i < to; i++) {
+					results[i] = evaluate(paths[i], matcher);
+				}
+			} else {
+				final int middle = (from + to) >>> 1;
+				invokeAll(new Evaluate(paths, matcher, results, from, middle),
+						new Evaluate(paths, matcher, results, middle, to));
+			}
+		}
+	}
+
+	/**
+	 * Copy the paths into an array, grouped by parent directory.
+	 */
+	static Path[] sorted(final Iterable<? extends Path> paths) {
+		final List<Path> list;
+		if (paths instanceof Collection) {
+			list = new ArrayList<>((Collection<? extends Path>) paths);
+		} else {
+			list = new ArrayList<>();
+			for (final Path path : paths) {
+				list.add(path);
+			}
+		}
+
+		final Path[] sorted = list.toArray(new Path[list.size()]);
+		Arrays.sort(sorted, BY_PARENT);
+		return sorted;
+	}
+
+	/**
+	 * Evaluate the matcher against a single path.
+	 *
+	 * @return the mismatch, or {@code null} if the path matched
+	 */
+	static BatchResult.Mismatch evaluate(final Path path, final Matcher<? super Path> matcher) {
+		if (matcher.matches(path)) {
+			return null;
+		}
+
+		final StringDescription description = new StringDescription();
+		matcher.describeMismatch(path, description);
+		return new BatchResult.Mismatch(path, description.toString());
+	}
+}
@@ -0,0 +1,414 @@
+package ca.seinesoftware.hamcrest.path;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * PathManifest
+ * <p>
+ * Records a directory tree into a manifest, which
+ * {@link PathMatcher#matchesManifest(Path)} later checks a tree against. For
+ * each entry below the root, the manifest holds its type, POSIX permissions
+ * (where supported), size, modification time and, optionally, the message
+ * digest of each regular file. Symbolic links are not followed.
+ * <p>
+ * For example:
+ *
+ * <pre>
+ * PathManifest.record(Paths.get("dist"), Paths.get("dist.manifest"), "SHA-256");
+ * ...
+ * assertThat(Paths.get("dist"), matchesManifest(Paths.get("dist.manifest")));
+ * </pre>
+ *
+ * <p>
+ * The manifest is a UTF-8 text file with one line per entry, sorted so that
+ * a tree can be compared with it in a single pass as it is walked. Neither
+ * recording nor checking holds more than the entries of the directories
+ * between the root and the current entry in memory, however many entries the
+ * tree has.
+ */
+public final class PathManifest {
+
+	private static final String HEADER = "#hamcrest-path-manifest 1 ";
+	private static final String NONE = "-";
+
+	private PathManifest() {
+	}
+
+	/**
+	 * Record a tree, without digests.
+	 *
+	 * @param root
+	 *            the directory to record
+	 * @param manifest
+	 *            the file to write the manifest to
+	 * @throws IOException
+	 *             if the tree cannot be walked or the manifest written
+	 */
+	public static void record(final Path root, final Path manifest) throws IOException {
+		record(root, manifest, null);
+	}
+
+	/**
+	 * Record a tree, including the digest of every regular file.
+	 *
+	 * @param root
+	 *            the directory to record
+	 * @param manifest
+	 *            the file to write the manifest to
+	 * @param algorithm
+	 *            the name of a {@link MessageDigest} algorithm, or
+	 *            {@code null} for no digests
+	 * @throws IOException
+	 *             if the tree cannot be walked or the manifest written
+	 * @throws IllegalArgumentException
+	 *             if the algorithm is not available
+	 */
+	public static void record(final Path root, final Path manifest, final String algorithm) throws IOException {
+		final MessageDigest digest = algorithm == null ? null : digest(algorithm);
+		try (BufferedWriter writer = Files.newBufferedWriter(manifest, StandardCharsets.UTF_8)) {
+			writer.write(HEADER + (algorithm == null ? NONE : algorithm));
+			writer.newLine();
+
+			final Walk walk = new Walk(root, digest);
+			for (Entry entry = walk.next(); entry != null; entry = walk.next()) {
+				writer.write(entry.toLine());
+				writer.newLine();
+			}
+		}
+	}
+
+	static MessageDigest digest(final String algorithm) {
+		try {
+			return MessageDigest.getInstance(algorithm);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalArgumentException("Unknown digest algorithm: " + algorithm, e);
+		}
+	}
+
+	/**
+	 * Orders relative paths so that a directory is immediately followed by its
+	 * entries: {@code '/'} sorts before every other character.
+	 */
+	static final Comparator<String> ORDER = new Comparator<String>() {
+		@Override
+		public int compare(final String a, final String b) {
+			final int length = Math.min(a.length(), b.length());
+			for (int i = 0; i < length; i++) {
+				final char x = a.charAt(i);
+				final char y = b.charAt(i);
+				if (x != y) {
+					return x == '/' ? -1 : y == '/' ? 1 : x - y;
+				}
+			}
+			return a.length() - b.length();
+		}
+	};
+
+	// ========================================================================
+	// Entry
+	// ========================================================================
+
+	/**
+	 * One line of a manifest.
+	 */
+	static final class Entry {
+
+		final String path;
+		final char type;
+		final String permissions;
+		final long size;
+		final long lastModified;
+		final String digest;
+
+		Entry(final String path, final char type, final String permissions, final long size,
+				final long lastModified, final String digest) {
+			this.path = path;
+			this.type = type;
+			this.permissions = permissions;
+			this.size = size;
+			this.lastModified = lastModified;
+			this.digest = digest;
+		}
+
+		String toLine() {
+			return escape(path) + '\t' + type + '\t' + permissions + '\t' + (type == 'd' ? NONE : size) + '\t'
+					+ lastModified + '\t' + digest;
+		}
+
+		static Entry parse(final String line) throws IOException {
+			final String[] fields = line.split("\t", -1);
+			if (fields.length != 6 || fields[1].length() != 1) {
+				throw new IOException("Malformed manifest line: " + line);
+			}
+			try {
+				final char type = fields[1].charAt(0);
+				return new Entry(unescape(fields[0]), type, fields[2], type == 'd' ? 0 : Long.parseLong(fields[3]),
+						Long.parseLong(fields[4]), fields[5]);
+			} catch (NumberFormatException e) {
+				throw new IOException("Malformed manifest line: " + line, e);
+			}
+		}
+
+		/**
+		 * Describe how the actual entry differs from this one.
+		 *
+		 * @return {@code false} if it does not
+		 */
+		boolean describeChanges(final Entry actual, final StringBuilder changes) {
+			final int start = changes.length();
+			if (type != actual.type) {
+				change(changes, start, "type", name(type), name(actual.type));
+			} else {
+				if (!permissions.equals(actual.permissions)) {
+					change(changes, start, "permissions", permissions, actual.permissions);
+				}
+				if (type != 'd' && size != actual.size) {
+					change(changes, start, "size", Long.toString(size), Long.toString(actual.size));
+				}
+				if (!digest.equals(actual.digest)) {
+					change(changes, start, "digest", digest, actual.digest);
+				}
+			}
+			if (lastModified != actual.lastModified) {
+				change(changes, start, "modified", FileTime.fromMillis(lastModified).toString(),
+						FileTime.fromMillis(actual.lastModified).toString());
+			}
+			return changes.length() > start;
+		}
+
+		private static void change(final StringBuilder changes, final int start, final String what,
+				final String expected, final String actual) {
+			changes.append(changes.length() > start ? ", " : "").append(what).append(" was ").append(expected)
+					.append(", is ").append(actual);
+		}
+
+		private static String name(final char type) {
+			switch (type) {
+			case 'd':
+				return "directory";
+			case 'f':
+				return "regular file";
+			case 'l':
+				return "symbolic link";
+			default:
+				return "other";
+			}
+		}
+
+		private static String escape(final String path) {
+			final StringBuilder text = new StringBuilder(path.length());
+			for (int i = 0; i < path.length(); i++) {
+				final char c = path.charAt(i);
+				switch (c) {
+				case '\\':
+					text.append("\\\\");
+					break;
+				case '\t':
+					text.append("\\t");
+					break;
+				case '\n':
+					text.append("\\n");
+					break;
+				case '\r':
+					text.append("\\r");
+					break;
+				default:
+					text.append(c);
+				}
+			}
+			return text.toString();
+		}
+
+		private static String unescape(final String text) throws IOException {
+			final StringBuilder path = new StringBuilder(text.length());
+			for (int i = 0; i < text.length(); i++) {
+				final char c = text.charAt(i);
+				if (c != '\\') {
+					path.append(c);
+					continue;
+				}
+				if (++i == text.length()) {
+					throw new IOException("Malformed manifest path: " + text);
+				}
+				switch (text.charAt(i)) {
+				case '\\':
+					path.append('\\');
+					break;
+				case 't':
+					path.append('\t');
+					break;
+				case 'n':
+					path.append('\n');
+					break;
+				case 'r':
+					path.append('\r');
+					break;
+				default:
+					throw new IOException("Malformed manifest path: " + text);
+				}
+			}
+			return path.toString();
+		}
+	}
+
+	// ========================================================================
+	// Walk
+	// ========================================================================
+
+	/**
+	 * Walks a tree in manifest order, listing one directory at a time.
+	 */
+	static final class Walk {
+
+		private static final Comparator<Path> BY_NAME = new Comparator<Path>() {
+			@Override
+			public int compare(final Path a, final Path b) {
+				return ORDER.compare(a.getFileName().toString(), b.getFileName().toString());
+			}
+		};
+
+		private final Path root;
+		private final MessageDigest digest;
+
+		/** The unvisited entries of each directory being walked */
+		private final Deque<Iterator<Path>> directories = new ArrayDeque<>();
+
+		Walk(final Path root, final MessageDigest digest) throws IOException {
+			this.root = root;
+			this.digest = digest;
+			directories.push(list(root));
+		}
+
+		/**
+		 * @return the next entry, or {@code null} once every entry has been
+		 *         walked
+		 */
+		Entry next() throws IOException {
+			while (!directories.isEmpty()) {
+				final Iterator<Path> entries = directories.peek();
+				if (!entries.hasNext()) {
+					directories.pop();
+					continue;
+				}
+
+				final Path path = entries.next();
+				final Entry entry = read(path);
+				if (entry.type == 'd') {
+					directories.push(list(path));
+				}
+				return entry;
+			}
+			return null;
+		}
+
+		private static Iterator<Path> list(final Path directory) throws IOException {
+			Instrumentation.operation();
+			final List<Path> entries = new ArrayList<>();
+			try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+				for (final Path entry : stream) {
+					entries.add(entry);
+				}
+			}
+			Collections.sort(entries, BY_NAME);
+			return entries.iterator();
+		}
+
+		private Entry read(final Path path) throws IOException {
+			final BasicFileAttributes attributes = PathProbe.FILES.readAttributes(path, LinkOption.NOFOLLOW_LINKS);
+
+			final char type;
+			if (attributes.isDirectory()) {
+				type = 'd';
+			} else if (attributes.isRegularFile()) {
+				type = 'f';
+			} else if (attributes.isSymbolicLink()) {
+				type = 'l';
+			} else {
+				type = 'o';
+			}
+
+			final String permissions = attributes instanceof PosixFileAttributes
+					? PosixFilePermissions.toString(((PosixFileAttributes) attributes).permissions()) : NONE;
+
+			String hash = NONE;
+			if (digest != null && type == 'f') {
+				final byte[] bytes = FileContent.digest(path, digest, Long.MAX_VALUE);
+				hash = ContentMatcher.hex(bytes, bytes.length).substring(2).toLowerCase(Locale.ROOT);
+			}
+
+			final StringBuilder relative = new StringBuilder();
+			for (final Path name : root.relativize(path)) {
+				relative.append(relative.length() > 0 ? "/" : "").append(name);
+			}
+
+			return new Entry(relative.toString(), type, permissions, attributes.size(),
+					attributes.lastModifiedTime().toMillis(), hash);
+		}
+	}
+
+	// ========================================================================
+	// Reader
+	// ========================================================================
+
+	/**
+	 * Reads a manifest one entry at a time.
+	 */
+	static final class Reader implements AutoCloseable {
+
+		private final BufferedReader reader;
+		private final String algorithm;
+
+		Reader(final Path manifest) throws IOException {
+			reader = Files.newBufferedReader(manifest, StandardCharsets.UTF_8);
+			final String header = reader.readLine();
+			if (header == null || !header.startsWith(HEADER)) {
+				reader.close();
+				throw new IOException("Not a manifest: " + manifest);
+			}
+			final String name = header.substring(HEADER.length());
+			algorithm = NONE.equals(name) ? null : name;
+		}
+
+		/**
+		 * @return the digest algorithm the manifest was recorded with, or
+		 *         {@code null}
+		 */
+		String algorithm() {
+			return algorithm;
+		}
+
+		/**
+		 * @return the next entry, or {@code null} at the end of the manifest
+		 */
+		Entry next() throws IOException {
+			final String line = reader.readLine();
+			return line == null ? null : Entry.parse(line);
+		}
+
+		@Override
+		public void close() throws IOException {
+			reader.close();
+		}
+	}
+}
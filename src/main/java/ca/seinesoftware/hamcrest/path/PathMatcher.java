@@ -1,13 +1,22 @@
 package ca.seinesoftware.hamcrest.path;
 
-import java.io.IOException;
-import java.nio.file.Files;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.LinkOption;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.nio.file.attribute.DosFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 
 import org.hamcrest.Description;
 import org.hamcrest.Matcher;
+import org.hamcrest.StringDescription;
 import org.hamcrest.TypeSafeMatcher;
 
 /**
@@ -44,7 +53,12 @@ import org.hamcrest.TypeSafeMatcher;
  * <b>Note</b> that the result of any test is <em>immediately outdated</em>. If
  * a test indicates the existence or accessibility of a file system object,
  * there is no guarantee that a subsequence access will succeed. Care should be
- * taken when using these methods in security sensitive applications.
+ * taken when using these methods in security sensitive applications. Matchers
+ * created by a {@link PathAttributeCache} may be outdated by up to the cache's
+ * time-to-live. Matchers applied to a {@link PathSnapshot}, through
+ * {@link #snapshotMatching(Matcher)} or {@link #consistently(Matcher)}, are as
+ * outdated as the snapshot, whose {@link PathSnapshot#getTimestamp()
+ * timestamp} says when it was taken.
  *
  * @author Arthur Neufeld &lt;aneufeld@seinesoftware.ca&gt;
  */
@@ -63,8 +77,48 @@ public abstract class PathMatcher extends TypeSafeMatcher<Path> {
 	 */
 	protected final LinkOption[] linkOptions;
 
+	/**
+	 * How the file system is asked about the examined path.
+	 */
+	final PathProbe probe;
+
+	/**
+	 * The description, rendered once since the matcher never changes.
+	 */
+	private final String text;
+
+	/**
+	 * @param options
+	 *            options indicating how symbolic links are handled
+	 * @throws IllegalArgumentException
+	 *             if an option is not {@link LinkOption#NOFOLLOW_LINKS
+	 *             NOFOLLOW_LINKS}
+	 */
 	protected PathMatcher(final LinkOption... options) {
-		linkOptions = options;
+		this(PathProbe.FILES, "", options);
+	}
+
+	/**
+	 * @param probe
+	 *            how the file system is asked about the examined path
+	 * @param noun
+	 *            what a matching path is, for instance {@code "a directory"}
+	 * @param options
+	 *            options indicating how symbolic links are handled
+	 */
+	PathMatcher(final PathProbe probe, final String noun, final LinkOption... options) {
+		final StringBuilder text = new StringBuilder();
+		for (final LinkOption option : options) {
+			if (option == LinkOption.NOFOLLOW_LINKS) {
+				text.append("a non-symbolic link to ");
+			} else {
+				throw new IllegalArgumentException("Unknown option: " + option);
+			}
+		}
+
+		this.probe = probe;
+		this.text = text.append(noun).toString();
+		linkOptions = options.length == 0 ? NO_OPTIONS : options.clone();
 	}
 
 	protected PathMatcher() {
@@ -77,57 +131,117 @@ public abstract class PathMatcher extends TypeSafeMatcher<Path> {
 
 	@Override
 	public void describeTo(Description description) {
-		for (final LinkOption option : linkOptions) {
-			if (option == LinkOption.NOFOLLOW_LINKS) {
-				description.appendText("a non-symbolic link to ");
-			} else {
-				throw new IllegalArgumentException("Unknown option: " + option);
-			}
+		description.appendText(text);
+	}
+
+	// ========================================================================
+	// matchesSafely
+	// ========================================================================
+
+	/**
+	 * Evaluate the matcher, asking the file system through the given probe.
+	 * Matchers defined outside this package only implement
+	 * {@link #matchesSafely(Path)}, and ignore the probe.
+	 */
+	boolean matchesSafely(final Path path, final PathProbe probe) {
+		return matchesSafely(path);
+	}
+
+	/**
+	 * Evaluate the matcher through the given probe, or the snapshot being
+	 * matched, recording it if {@link Instrumentation} is enabled.
+	 */
+	final boolean evaluate(final Path path, final PathProbe probe) {
+		if (!Instrumentation.enabled) {
+			return matchesSafely(path, PathSnapshot.probe(path, probe));
+		}
+		final long operations = Instrumentation.operations();
+		final long start = System.nanoTime();
+		try {
+			return matchesSafely(path, PathSnapshot.probe(path, probe));
+		} finally {
+			Instrumentation.record(getClass(), false, System.nanoTime() - start,
+					Instrumentation.operations() - operations);
+		}
+	}
+
+	/**
+	 * Evaluate a matcher through the given probe, if the matcher is able to
+	 * use one.
+	 */
+	static boolean matches(final Matcher<? super Path> matcher, final Path path, final PathProbe probe) {
+		if (matcher instanceof AttributesMatcher) {
+			return ((AttributesMatcher) matcher).evaluator.evaluate(path, probe);
+		}
+		if (matcher instanceof PathMatcher) {
+			return ((PathMatcher) matcher).evaluate(path, probe);
 		}
+		return matcher.matches(path);
 	}
 
 	// ========================================================================
 	// describeMismatchSafely
 	// ========================================================================
 
+	/**
+	 * Describes the mismatch with {@link #describe(Path, Description)},
+	 * recording it if {@link Instrumentation} is enabled.
+	 */
 	@Override
 	protected void describeMismatchSafely(final Path path, Description description) {
-		if (Files.exists(path, LinkOption.NOFOLLOW_LINKS)) {
+		if (!Instrumentation.enabled) {
+			describe(path, description);
+			return;
+		}
+		final long operations = Instrumentation.operations();
+		final long start = System.nanoTime();
+		try {
+			describe(path, description);
+		} finally {
+			Instrumentation.record(getClass(), true, System.nanoTime() - start,
+					Instrumentation.operations() - operations);
+		}
+	}
+
+	/**
+	 * Describe why the path does not match: by default, what kind of entry it
+	 * is and how it may be accessed.
+	 */
+	void describe(final Path path, Description description) {
+		final PathSnapshot snapshot = PathSnapshot.capture(path, PathSnapshot.probe(path, probe));
+		if (snapshot.exists()) {
 			description.appendValue(path).appendText(" is a ");
-			if (Files.isSymbolicLink(path)) {
+			if (snapshot.isSymbolicLink()) {
 				description.appendText("symbolic link to a ");
 			}
 
-			if (!Files.isReadable(path)) {
+			if (!snapshot.isReadable()) {
 				description.appendText("un");
 			}
 			description.appendText("readable, ");
 
-			if (!Files.isWritable(path)) {
+			if (!snapshot.isWritable()) {
 				description.appendText("un");
 			}
 			description.appendText("writable, ");
 
-			if (!Files.isExecutable(path)) {
+			if (!snapshot.isExecutable()) {
 				description.appendText("un");
 			}
 			description.appendText("executable");
 
-			try {
-				if (Files.isHidden(path)) {
-					description.appendText(", hidden");
-				}
-			} catch (IOException e) {
+			if (snapshot.isHidden()) {
+				description.appendText(", hidden");
 			}
 
-			if (Files.isDirectory(path)) {
+			if (snapshot.isDirectory()) {
 				description.appendText(" directory");
-			} else if (Files.isRegularFile(path)) {
+			} else if (snapshot.isRegularFile()) {
 				description.appendText(" regular file");
 			} else {
 				description.appendText(" non-existent entry");
 			}
-		} else if (Files.notExists(path, linkOptions)) {
+		} else if (snapshot.isDetermined()) {
 			description.appendValue(path).appendText(" does not exist");
 		} else {
 			description.appendText("file system status for ").appendValue(path).appendText(" cannot be determined");
@@ -138,6 +252,39 @@ public abstract class PathMatcher extends TypeSafeMatcher<Path> {
 	// Factories
 	// ========================================================================
 
+	private static final LinkOption[] NOFOLLOW = { LinkOption.NOFOLLOW_LINKS };
+
+	/**
+	 * Matchers are immutable, so those without arguments are shared.
+	 */
+	private static final class Shared {
+		static final PathMatcher EXISTS = new Exists();
+		static final PathMatcher EXISTS_NOFOLLOW = new Exists(NOFOLLOW);
+		static final PathMatcher DIRECTORY = new Directory();
+		static final PathMatcher DIRECTORY_NOFOLLOW = new Directory(NOFOLLOW);
+		static final PathMatcher REGULAR_FILE = new RegularFile();
+		static final PathMatcher REGULAR_FILE_NOFOLLOW = new RegularFile(NOFOLLOW);
+		static final PathMatcher SYMBOLIC_LINK = new SymbolicLink();
+		static final PathMatcher READABLE = new Readable();
+		static final PathMatcher WRITABLE = new Writable();
+		static final PathMatcher EXECUTABLE = new Executable();
+		static final PathMatcher HIDDEN = new Hidden();
+		static final PathMatcher DANGLING_LINK = new DanglingLink();
+
+		/**
+		 * @return the shared matcher for the options, if there is one
+		 */
+		static PathMatcher of(final LinkOption[] options, final PathMatcher follow, final PathMatcher noFollow) {
+			if (options.length == 0) {
+				return follow;
+			}
+			if (options.length == 1 && options[0] == LinkOption.NOFOLLOW_LINKS) {
+				return noFollow;
+			}
+			return null;
+		}
+	}
+
 	/**
 	 * Create a matcher that matches if the examined {@link Path} can be
 	 * determined to <em>exist</em>.
@@ -159,7 +306,8 @@ public abstract class PathMatcher extends TypeSafeMatcher<Path> {
 	 *         not exist or its existence cannot be determined.
 	 */
 	public static Matcher<Path> exists(final LinkOption... options) {
-		return new Exists(options);
+		final PathMatcher shared = Shared.of(options, Shared.EXISTS, Shared.EXISTS_NOFOLLOW);
+		return shared != null ? shared : new Exists(options);
 	}
 
 	/**
@@ -184,7 +332,8 @@ public abstract class PathMatcher extends TypeSafeMatcher<Path> {
 	 *         determined if the path is a directory or not.
 	 */
 	public static Matcher<Path> aDirectory(final LinkOption... options) {
-		return new Directory(options);
+		final PathMatcher shared = Shared.of(options, Shared.DIRECTORY, Shared.DIRECTORY_NOFOLLOW);
+		return shared != null ? shared : new Directory(options);
 	}
 
 	/**
@@ -209,7 +358,8 @@ public abstract class PathMatcher extends TypeSafeMatcher<Path> {
 	 *         determined if the path is a regular file or not.
 	 */
 	public static Matcher<Path> aRegularFile(final LinkOption... options) {
-		return new RegularFile(options);
+		final PathMatcher shared = Shared.of(options, Shared.REGULAR_FILE, Shared.REGULAR_FILE_NOFOLLOW);
+		return shared != null ? shared : new RegularFile(options);
 	}
 
 	/**
@@ -228,7 +378,7 @@ public abstract class PathMatcher extends TypeSafeMatcher<Path> {
 	 *         determined if the path is a symbolic link or not.
 	 */
 	public static Matcher<Path> aSymbolicLink() {
-		return new SymbolicLink();
+		return Shared.SYMBOLIC_LINK;
 	}
 
 	/**
@@ -252,7 +402,7 @@ public abstract class PathMatcher extends TypeSafeMatcher<Path> {
 	 */
 	@Deprecated
 	public static Matcher<Path> symbolicLink() {
-		return new SymbolicLink();
+		return Shared.SYMBOLIC_LINK;
 	}
 
 	/**
@@ -272,7 +422,7 @@ public abstract class PathMatcher extends TypeSafeMatcher<Path> {
 	 *         cannot be determined
 	 */
 	public static Matcher<Path> readable() {
-		return new Readable();
+		return Shared.READABLE;
 	}
 
 	/**
@@ -292,7 +442,7 @@ public abstract class PathMatcher extends TypeSafeMatcher<Path> {
 	 *         cannot be determined
 	 */
 	public static Matcher<Path> writable() {
-		return new Writable();
+		return Shared.WRITABLE;
 	}
 
 	/**
@@ -315,7 +465,7 @@ public abstract class PathMatcher extends TypeSafeMatcher<Path> {
 	 *         access cannot be determined
 	 */
 	public static Matcher<Path> executable() {
-		return new Executable();
+		return Shared.EXECUTABLE;
 	}
 
 	/**
@@ -338,7 +488,271 @@ public abstract class PathMatcher extends TypeSafeMatcher<Path> {
 	 *         be determined
 	 */
 	public static Matcher<Path> hidden() {
-		return new Hidden();
+		return Shared.HIDDEN;
+	}
+
+	/**
+	 * Create a matcher that checks several properties of the examined
+	 * {@link Path} at once, answering them all from a single read of its
+	 * attributes. Properties are added with the methods of the returned
+	 * matcher; with none, every path matches.
+	 * <p>
+	 * By default, symbolic links are followed. If the option
+	 * {@link LinkOption#NOFOLLOW_LINKS NOFOLLOW_LINKS} is present then symbolic
+	 * links are not followed when checking existence and type.
+	 *
+	 * <p>
+	 * For example:
+	 *
+	 * <pre>
+	 * assertThat(Paths.get("/tmp"), attributes().directory().readable().writable().notHidden());
+	 * </pre>
+	 *
+	 * @param options
+	 *            options indicating how symbolic links are handled
+	 * @return {@code true} if the path has every property asked for;
+	 *         {@code false} otherwise
+	 */
+	public static AttributesMatcher attributes(final LinkOption... options) {
+		return new AttributesMatcher(options);
+	}
+
+	/**
+	 * Create a matcher that matches if the examined {@link Path}'s
+	 * <em>size</em>, in bytes, satisfies the given matcher. The size,
+	 * modification time and emptiness matchers each read the entry's
+	 * {@link BasicFileAttributes} once.
+	 * <p>
+	 * By default, symbolic links are followed. If the option
+	 * {@link LinkOption#NOFOLLOW_LINKS NOFOLLOW_LINKS} is present then symbolic
+	 * links are not followed.
+	 *
+	 * <pre>
+	 * assertThat(Paths.get("data.bin"), hasSize(greaterThan(1024L)));
+	 * </pre>
+	 *
+	 * @param matcher
+	 *            the matcher the size is expected to satisfy
+	 * @param options
+	 *            options indicating how symbolic links are handled
+	 * @return {@code true} if the size can be read and matches; {@code false}
+	 *         otherwise
+	 */
+	public static Matcher<Path> hasSize(final Matcher<? super Long> matcher, final LinkOption... options) {
+		return new Size(matcher, options);
+	}
+
+	/**
+	 * Create a matcher that matches if the examined {@link Path} was
+	 * <em>last modified after</em> the given time.
+	 * <p>
+	 * By default, symbolic links are followed. If the option
+	 * {@link LinkOption#NOFOLLOW_LINKS NOFOLLOW_LINKS} is present then symbolic
+	 * links are not followed.
+	 *
+	 * <pre>
+	 * assertThat(Paths.get("build.log"), modifiedAfter(FileTime.fromMillis(start)));
+	 * </pre>
+	 *
+	 * @param time
+	 *            the time after which the path is expected to be modified
+	 * @param options
+	 *            options indicating how symbolic links are handled
+	 * @return {@code true} if the path was modified after the time;
+	 *         {@code false} otherwise
+	 */
+	public static Matcher<Path> modifiedAfter(final FileTime time, final LinkOption... options) {
+		return new Modified(time, options);
+	}
+
+	/**
+	 * Create a matcher that matches if the examined {@link Path} was
+	 * <em>last modified more than</em> the given time ago, measured when
+	 * matched.
+	 * <p>
+	 * By default, symbolic links are followed. If the option
+	 * {@link LinkOption#NOFOLLOW_LINKS NOFOLLOW_LINKS} is present then symbolic
+	 * links are not followed.
+	 *
+	 * <pre>
+	 * assertThat(Paths.get("cache/index"), olderThan(1, TimeUnit.DAYS));
+	 * </pre>
+	 *
+	 * @param age
+	 *            the least time since the path was modified
+	 * @param unit
+	 *            the unit of the age
+	 * @param options
+	 *            options indicating how symbolic links are handled
+	 * @return {@code true} if the path was modified before then;
+	 *         {@code false} otherwise
+	 * @throws IllegalArgumentException
+	 *             if the age is negative
+	 */
+	public static Matcher<Path> olderThan(final long age, final TimeUnit unit, final LinkOption... options) {
+		return new Modified(age, unit, options);
+	}
+
+	/**
+	 * Create a matcher that matches if the examined {@link Path} was
+	 * <em>last modified after</em> the given path, whose modification time is
+	 * read each time it is matched.
+	 * <p>
+	 * By default, symbolic links are followed. If the option
+	 * {@link LinkOption#NOFOLLOW_LINKS NOFOLLOW_LINKS} is present then symbolic
+	 * links are not followed, for either path.
+	 *
+	 * <pre>
+	 * assertThat(Paths.get("app.jar"), newerThan(Paths.get("src/Main.java")));
+	 * </pre>
+	 *
+	 * @param reference
+	 *            the path expected to be modified earlier
+	 * @param options
+	 *            options indicating how symbolic links are handled
+	 * @return {@code true} if both paths exist and the examined path was
+	 *         modified later; {@code false} otherwise
+	 */
+	public static Matcher<Path> newerThan(final Path reference, final LinkOption... options) {
+		return new Modified(reference, options);
+	}
+
+	/**
+	 * Create a matcher that matches if the examined {@link Path} is an
+	 * <em>empty regular file</em>.
+	 * <p>
+	 * By default, symbolic links are followed. If the option
+	 * {@link LinkOption#NOFOLLOW_LINKS NOFOLLOW_LINKS} is present then symbolic
+	 * links are not followed.
+	 *
+	 * <pre>
+	 * assertThat(Paths.get("errors.log"), emptyFile());
+	 * </pre>
+	 *
+	 * @param options
+	 *            options indicating how symbolic links are handled
+	 * @return {@code true} if the path is a regular file of no bytes;
+	 *         {@code false} otherwise
+	 */
+	public static Matcher<Path> emptyFile(final LinkOption... options) {
+		return new EmptyFile(options);
+	}
+
+	/**
+	 * Create a matcher that matches if the examined {@link Path} is an
+	 * <em>empty directory</em>. Only the first entry of the directory is
+	 * ever listed.
+	 * <p>
+	 * By default, symbolic links are followed. If the option
+	 * {@link LinkOption#NOFOLLOW_LINKS NOFOLLOW_LINKS} is present then symbolic
+	 * links are not followed.
+	 *
+	 * <pre>
+	 * assertThat(Paths.get("spool"), emptyDirectory());
+	 * </pre>
+	 *
+	 * @param options
+	 *            options indicating how symbolic links are handled
+	 * @return {@code true} if the path is a directory without entries;
+	 *         {@code false} otherwise
+	 */
+	public static Matcher<Path> emptyDirectory(final LinkOption... options) {
+		return new EmptyDirectory(options);
+	}
+
+	/**
+	 * Create a matcher that matches if the examined {@link Path} has exactly
+	 * the given <em>POSIX permissions</em>. The permissions, ownership and
+	 * mode matchers each read the entry's
+	 * {@link java.nio.file.attribute.PosixFileAttributes PosixFileAttributes}
+	 * once, and never match on file systems without them.
+	 *
+	 * <p>
+	 * For example:
+	 *
+	 * <pre>
+	 * assertThat(Paths.get("bin/start.sh"), hasPermissions("rwxr-x---"));
+	 * </pre>
+	 *
+	 * @param permissions
+	 *            the expected permissions, in the form used by
+	 *            {@link PosixFilePermissions#fromString(String)}
+	 * @param options
+	 *            options indicating how symbolic links are handled
+	 * @return {@code true} if the path has exactly the given permissions;
+	 *         {@code false} otherwise
+	 * @throws IllegalArgumentException
+	 *             if the permissions are not in that form
+	 */
+	public static Matcher<Path> hasPermissions(final String permissions, final LinkOption... options) {
+		return new Permissions(permissions, options);
+	}
+
+	/**
+	 * Create a matcher that matches if the examined {@link Path}'s set of
+	 * <em>POSIX permissions</em> satisfies the given matcher.
+	 *
+	 * <p>
+	 * For example:
+	 *
+	 * <pre>
+	 * assertThat(Paths.get("conf"), hasMode(not(hasItem(OTHERS_WRITE))));
+	 * </pre>
+	 *
+	 * @param matcher
+	 *            the matcher the permissions are expected to satisfy
+	 * @param options
+	 *            options indicating how symbolic links are handled
+	 * @return {@code true} if the path's permissions match; {@code false}
+	 *         otherwise
+	 */
+	public static Matcher<Path> hasMode(final Matcher<? super Set<PosixFilePermission>> matcher,
+			final LinkOption... options) {
+		return new Permissions(matcher, options);
+	}
+
+	/**
+	 * Create a matcher that matches if the examined {@link Path} is
+	 * <em>owned</em> by the named user.
+	 *
+	 * <p>
+	 * For example:
+	 *
+	 * <pre>
+	 * assertThat(Paths.get("/opt/app"), ownedBy("app"));
+	 * </pre>
+	 *
+	 * @param user
+	 *            the name of the expected owner
+	 * @param options
+	 *            options indicating how symbolic links are handled
+	 * @return {@code true} if the path is owned by the user; {@code false}
+	 *         otherwise
+	 */
+	public static Matcher<Path> ownedBy(final String user, final LinkOption... options) {
+		return new Owner(user, false, options);
+	}
+
+	/**
+	 * Create a matcher that matches if the examined {@link Path}'s
+	 * <em>group owner</em> is the named group.
+	 *
+	 * <p>
+	 * For example:
+	 *
+	 * <pre>
+	 * assertThat(Paths.get("/opt/app"), groupOwnedBy("staff"));
+	 * </pre>
+	 *
+	 * @param group
+	 *            the name of the expected group
+	 * @param options
+	 *            options indicating how symbolic links are handled
+	 * @return {@code true} if the path is owned by the group; {@code false}
+	 *         otherwise
+	 */
+	public static Matcher<Path> groupOwnedBy(final String group, final LinkOption... options) {
+		return new Owner(group, true, options);
 	}
 
 	/**
@@ -354,6 +768,11 @@ public abstract class PathMatcher extends TypeSafeMatcher<Path> {
 	 * <pre>
 	 * assertThat(Paths.get("/tmp/../tmp"), is(sameFile(Paths.get("/tmp"))));
 	 * </pre>
+	 * <p>
+	 * Where the provider supports {@link BasicFileAttributes#fileKey() file
+	 * keys}, the expected path's key is read the first time it is needed and
+	 * then reused, so each match only reads the examined path's attributes.
+	 * Replacing the expected file system object after that is not noticed.
 	 *
 	 * @param expected
 	 *            path to the expected file system object.
@@ -363,4 +782,815 @@ public abstract class PathMatcher extends TypeSafeMatcher<Path> {
 		return new SameFile(expected);
 	}
 
+	/**
+	 * Create a matcher that matches if the examined {@link Path} describes the
+	 * <em>same file system object</em> as any of the given paths, for instance
+	 * a hard link to one of them.
+	 * <p>
+	 * The expected paths' {@link BasicFileAttributes#fileKey() file keys} are
+	 * read once, when the matcher is created, and kept in a hash set, so each
+	 * match only reads the examined path's attributes however many paths are
+	 * expected. Expected paths which do not exist then are only matched by
+	 * an equal path.
+	 *
+	 * <p>
+	 * For example:
+	 *
+	 * <pre>
+	 * assertThat(restored, everyEntry(anyOf(aDirectory(), sameFileAsAnyOf(cached))));
+	 * </pre>
+	 *
+	 * @param expected
+	 *            paths to the expected file system objects
+	 * @return {@code true} if the path locates the same file as any of the
+	 *         expected paths
+	 */
+	public static Matcher<Path> sameFileAsAnyOf(final Collection<? extends Path> expected) {
+		return new SameFileAsAnyOf(expected);
+	}
+
+	/**
+	 * Create a matcher that matches if the examined {@link Path} is a <em>hard
+	 * link</em> to the same file as the expected path. Unlike
+	 * {@link #sameFile(Path)}, symbolic links are not followed: a symbolic
+	 * link is only a hard link to itself.
+	 *
+	 * <p>
+	 * For example:
+	 *
+	 * <pre>
+	 * assertThat(Paths.get("backup/data.bin"), is(hardLinkedTo(Paths.get("data.bin"))));
+	 * </pre>
+	 *
+	 * @param expected
+	 *            path to the expected file
+	 * @return {@code true} if, and only if, the two paths are links to the same
+	 *         file
+	 */
+	public static Matcher<Path> hardLinkedTo(final Path expected) {
+		return new SameFile(expected, new StringDescription().appendText("a hard link to ").appendValue(expected)
+				.toString(), false);
+	}
+
+	/**
+	 * Create a matcher that matches if the examined {@link Path}'s number of
+	 * <em>hard links</em> satisfies the given matcher. The count is read from
+	 * the {@code unix:nlink} attribute; on file systems which do not provide
+	 * it, the matcher never matches.
+	 *
+	 * <p>
+	 * For example:
+	 *
+	 * <pre>
+	 * assertThat(Paths.get("data.bin"), linkCount(is(1)));
+	 * </pre>
+	 *
+	 * @param matcher
+	 *            the matcher the link count is expected to satisfy
+	 * @param options
+	 *            options indicating how symbolic links are handled
+	 * @return {@code true} if the link count can be read and matches;
+	 *         {@code false} otherwise
+	 */
+	public static Matcher<Path> linkCount(final Matcher<? super Integer> matcher, final LinkOption... options) {
+		return new LinkCount(matcher, options);
+	}
+
+	/**
+	 * Create a matcher that matches if the examined {@link Path} is a
+	 * <em>symbolic link to</em> the expected path: its chain of symbolic
+	 * links passes through the expected path, or ends at the same file.
+	 * <p>
+	 * The chain is followed one link at a time, each link's target resolved
+	 * against the link's own directory, and a chain which loops is detected
+	 * rather than followed until the operating system gives up.
+	 *
+	 * <p>
+	 * For example:
+	 *
+	 * <pre>
+	 * assertThat(Paths.get("releases/current"), linksTo(Paths.get("releases/2.1.0")));
+	 * </pre>
+	 *
+	 * @param expected
+	 *            the path the link is expected to lead to
+	 * @return {@code true} if the path is a symbolic link leading to the
+	 *         expected path; {@code false} otherwise
+	 */
+	public static Matcher<Path> linksTo(final Path expected) {
+		return new LinksTo(expected);
+	}
+
+	/**
+	 * Create a matcher that matches if the examined {@link Path} is a
+	 * <em>dangling</em> symbolic link: its chain of symbolic links ends at a
+	 * missing entry, or loops.
+	 *
+	 * <p>
+	 * For example:
+	 *
+	 * <pre>
+	 * assertThat(Paths.get("lib/libssl.so"), is(not(danglingLink())));
+	 * </pre>
+	 *
+	 * @return {@code true} if the path is a dangling symbolic link;
+	 *         {@code false} otherwise
+	 */
+	public static Matcher<Path> danglingLink() {
+		return Shared.DANGLING_LINK;
+	}
+
+	/**
+	 * Create a matcher that matches if the number of symbolic links followed
+	 * from the examined {@link Path} to the end of its chain satisfies the
+	 * given matcher. An existing entry which is not a symbolic link has a
+	 * chain of length 0; a chain which loops has no length, and never
+	 * matches. The mismatch description lists the chain.
+	 *
+	 * <p>
+	 * For example:
+	 *
+	 * <pre>
+	 * assertThat(Paths.get("/usr/bin/java"), linkChainLength(lessThan(3)));
+	 * </pre>
+	 *
+	 * @param matcher
+	 *            the matcher the length is expected to satisfy
+	 * @return {@code true} if the chain ends and its length matches;
+	 *         {@code false} otherwise
+	 */
+	public static Matcher<Path> linkChainLength(final Matcher<? super Integer> matcher) {
+		return new LinkChainLength(matcher);
+	}
+
+	/**
+	 * Create a matcher that matches if the examined {@link Path} is a regular
+	 * file whose content <em>contains</em> the given sequence of bytes.
+	 * <p>
+	 * The file is streamed rather than loaded onto the heap, and reading stops
+	 * at the first occurrence. On a mismatch, the longest partial occurrence
+	 * and its offset are described.
+	 *
+	 * <p>
+	 * For example:
+	 *
+	 * <pre>
+	 * assertThat(Paths.get("server.log"), containsBytes("STARTED".getBytes(US_ASCII)));
+	 * </pre>
+	 *
+	 * @param bytes
+	 *            the bytes expected in the file
+	 * @return {@code true} if the path is a regular file containing the bytes;
+	 *         {@code false} otherwise
+	 */
+	public static Matcher<Path> containsBytes(final byte[] bytes) {
+		return new ContainsBytes(bytes);
+	}
+
+	/**
+	 * Create a matcher that matches if the examined {@link Path} is a regular
+	 * file which <em>starts with</em> the given magic number. Only as many
+	 * bytes as the magic number is long are read. On a mismatch, the offset of
+	 * the first differing byte is described.
+	 *
+	 * <p>
+	 * For example:
+	 *
+	 * <pre>
+	 * assertThat(Paths.get("app.jar"), startsWithMagic(new byte[] { 'P', 'K', 3, 4 }));
+	 * </pre>
+	 *
+	 * @param magic
+	 *            the bytes the file is expected to start with
+	 * @return {@code true} if the path is a regular file starting with the
+	 *         bytes; {@code false} otherwise
+	 */
+	public static Matcher<Path> startsWithMagic(final byte[] magic) {
+		return new StartsWithMagic(magic);
+	}
+
+	/**
+	 * Create a matcher that matches if the examined {@link Path} is a regular
+	 * file whose <em>number of lines</em> satisfies the given matcher. Lines
+	 * are counted by line feeds, plus one if the last line is not terminated,
+	 * streaming the whole file.
+	 *
+	 * <p>
+	 * For example:
+	 *
+	 * <pre>
+	 * assertThat(Paths.get("export.csv"), hasLineCount(is(1000001L)));
+	 * </pre>
+	 *
+	 * @param matcher
+	 *            the matcher the number of lines is expected to satisfy
+	 * @return {@code true} if the path is a regular file whose line count
+	 *         matches; {@code false} otherwise
+	 */
+	public static Matcher<Path> hasLineCount(final Matcher<? super Long> matcher) {
+		return new LineCount(matcher);
+	}
+
+	/**
+	 * Create a matcher that matches if the examined {@link Path} is a regular
+	 * file with a UTF-8 line which <em>contains a match</em> for the given
+	 * regular expression.
+	 *
+	 * <p>
+	 * For example:
+	 *
+	 * <pre>
+	 * assertThat(Paths.get("server.log"), not(contentMatchesRegex("ERROR|FATAL")));
+	 * </pre>
+	 *
+	 * @param regex
+	 *            the regular expression some line is expected to contain
+	 * @return {@code true} if the path is a regular file with a matching line;
+	 *         {@code false} otherwise
+	 * @see #contentMatchesRegex(Pattern, Charset)
+	 */
+	public static Matcher<Path> contentMatchesRegex(final String regex) {
+		return new ContentMatchesRegex(Pattern.compile(regex), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Create a matcher that matches if the examined {@link Path} is a regular
+	 * file with a line which <em>contains a match</em> for the given pattern.
+	 * <p>
+	 * The file is split at line feeds and decoded one line at a time, so the
+	 * pattern never sees more than a single line, and reading stops at the
+	 * first matching line. A carriage return ending a line is not part of it.
+	 * A line longer than a mebibyte is not held in memory, but searched in
+	 * overlapping windows of a mebicharacter, so that in it a match is only
+	 * found if it is no longer than 64 kibicharacters, or lies within one
+	 * window.
+	 *
+	 * @param pattern
+	 *            the pattern some line is expected to contain
+	 * @param charset
+	 *            the file's character set, which must encode a line feed as
+	 *            the single byte {@code 0x0A}
+	 * @return {@code true} if the path is a regular file with a matching line;
+	 *         {@code false} otherwise
+	 * @throws IllegalArgumentException
+	 *             if the character set encodes a line feed otherwise, such as
+	 *             UTF-16
+	 */
+	public static Matcher<Path> contentMatchesRegex(final Pattern pattern, final Charset charset) {
+		return new ContentMatchesRegex(pattern, charset);
+	}
+
+	/**
+	 * Create a matcher that matches if the examined {@link Path} is a regular
+	 * file whose <em>message digest</em> is the given hexadecimal value, for
+	 * instance to verify an artifact against its published checksum.
+	 * <p>
+	 * The file is streamed through the digest without being copied onto the
+	 * heap. Digests such as SHA-256 can only be computed in order, so each
+	 * file is digested by a single thread; use
+	 * {@link #everyPath(Matcher, int)} to verify several files concurrently.
+	 *
+	 * <p>
+	 * For example:
+	 *
+	 * <pre>
+	 * assertThat(Paths.get("release.tar"), hasDigest("SHA-256", "9f86d081884c7d65..."));
+	 * </pre>
+	 *
+	 * @param algorithm
+	 *            the name of a {@link java.security.MessageDigest} algorithm
+	 * @param hex
+	 *            the expected digest, in hexadecimal of either case
+	 * @return {@code true} if the path is a regular file with the digest;
+	 *         {@code false} otherwise
+	 * @throws IllegalArgumentException
+	 *             if the algorithm is not available, or {@code hex} is not a
+	 *             digest of its length
+	 */
+	public static Matcher<Path> hasDigest(final String algorithm, final String hex) {
+		return new FileDigest(algorithm, hex);
+	}
+
+	/**
+	 * Create a matcher that matches if the examined {@link Path} is a regular
+	 * file whose <em>CRC-32C</em> checksum is the given value.
+	 * <p>
+	 * Files larger than 32 MiB are checksummed in chunks on every available
+	 * processor, and the chunks' checksums combined.
+	 *
+	 * <p>
+	 * For example:
+	 *
+	 * <pre>
+	 * assertThat(Paths.get("bundle.bin"), hasCrc32c(0xE3069283L));
+	 * </pre>
+	 *
+	 * @param crc
+	 *            the expected checksum, as an unsigned 32-bit value
+	 * @return {@code true} if the path is a regular file with the checksum;
+	 *         {@code false} otherwise
+	 * @throws IllegalArgumentException
+	 *             if {@code crc} does not fit in 32 bits
+	 */
+	public static Matcher<Path> hasCrc32c(final long crc) {
+		return new FileCrc32c(crc);
+	}
+
+	/**
+	 * Create a matcher that <em>waits</em>, up to the given timeout, for the
+	 * examined {@link Path} to satisfy the given matcher. Rather than polling
+	 * in a sleep loop, the path is examined again whenever a
+	 * {@link java.nio.file.WatchService WatchService} reports a change in its
+	 * parent directory, and at growing intervals on file systems which do not
+	 * report changes. The mismatch description is the given matcher's
+	 * description of the path when the timeout passed.
+	 *
+	 * <p>
+	 * For example:
+	 *
+	 * <pre>
+	 * assertThat(Paths.get("out/report.pdf"), eventually(aRegularFile(), 30, TimeUnit.SECONDS));
+	 * </pre>
+	 *
+	 * @param matcher
+	 *            the matcher the path is expected to satisfy
+	 * @param timeout
+	 *            how long to wait
+	 * @param unit
+	 *            the unit of {@code timeout}
+	 * @return a matcher which can also wait without blocking, through
+	 *         {@link Eventually#await(Path)}
+	 */
+	public static Eventually eventually(final Matcher<? super Path> matcher, final long timeout,
+			final TimeUnit unit) {
+		return new Eventually(matcher, timeout, unit);
+	}
+
+	/**
+	 * Create a matcher that matches if a {@link PathSnapshot} of the examined
+	 * {@link Path}, taken once per evaluation, satisfies the given matcher.
+	 * However the matchers created by this class are combined, they all
+	 * answer from the same snapshot, so they cannot contradict each other
+	 * when the entry changes during the evaluation, and the entry's attributes
+	 * are only read once.
+	 *
+	 * <p>
+	 * For example:
+	 *
+	 * <pre>
+	 * assertThat(home, consistently(allOf(exists(), aDirectory(), readable())));
+	 * </pre>
+	 *
+	 * @param matcher
+	 *            the matcher the snapshot is expected to satisfy
+	 * @return the matcher
+	 * @see PathSnapshot#of(Path)
+	 */
+	public static Matcher<Path> consistently(final Matcher<? super Path> matcher) {
+		return new Consistently(matcher);
+	}
+
+	/**
+	 * Create a matcher that matches if the examined {@link PathSnapshot}
+	 * satisfies the given matcher of its path. The matchers created by this
+	 * class answer from the snapshot, without reading the entry's attributes
+	 * again, so one snapshot may be examined cheaply many times. A mismatch is
+	 * described as of the time the snapshot was taken.
+	 *
+	 * <p>
+	 * For example:
+	 *
+	 * <pre>
+	 * PathSnapshot snapshot = PathSnapshot.of(home);
+	 * assertThat(snapshot, snapshotMatching(both(aDirectory()).and(readable())));
+	 * assertThat(snapshot, snapshotMatching(not(hidden())));
+	 * </pre>
+	 *
+	 * @param matcher
+	 *            the matcher the snapshot is expected to satisfy
+	 * @return the matcher
+	 */
+	public static Matcher<PathSnapshot> snapshotMatching(final Matcher<? super Path> matcher) {
+		return new SnapshotMatching(matcher);
+	}
+
+	/**
+	 * Create a matcher that matches if <em>every</em> examined {@link Path}
+	 * satisfies the given matcher. Unlike
+	 * {@link org.hamcrest.Matchers#everyItem(Matcher) everyItem}, evaluation
+	 * does not stop at the first failure; the mismatch description lists every
+	 * path which did not match, grouped by parent directory.
+	 *
+	 * <p>
+	 * For example:
+	 *
+	 * <pre>
+	 * assertThat(artifacts, everyPath(both(readable()).and(writable())));
+	 * </pre>
+	 *
+	 * @param matcher
+	 *            the matcher each path is expected to satisfy
+	 * @return {@code true} if every path matches; {@code false} otherwise
+	 * @see PathBatch
+	 */
+	public static Matcher<Iterable<? extends Path>> everyPath(final Matcher<? super Path> matcher) {
+		return new EveryPath(matcher, 1);
+	}
+
+	/**
+	 * Create a matcher that matches if <em>every</em> examined {@link Path}
+	 * satisfies the given matcher, evaluating up to {@code parallelism} paths
+	 * concurrently. The outcome, including the order of the reported
+	 * mismatches, is the same as {@link #everyPath(Matcher)}.
+	 *
+	 * <p>
+	 * For example:
+	 *
+	 * <pre>
+	 * assertThat(artifacts, everyPath(readable(), 32));
+	 * </pre>
+	 *
+	 * @param matcher
+	 *            the matcher each path is expected to satisfy; must be safe to
+	 *            use from several threads
+	 * @param parallelism
+	 *            the number of paths which may be evaluated concurrently
+	 * @return {@code true} if every path matches; {@code false} otherwise
+	 * @see PathBatch#evaluate(Iterable, Matcher, int)
+	 */
+	public static Matcher<Iterable<? extends Path>> everyPath(final Matcher<? super Path> matcher,
+			final int parallelism) {
+		return new EveryPath(matcher, parallelism);
+	}
+
+	/**
+	 * Create a matcher that matches if the examined {@link Path} is a directory
+	 * in which <em>every entry</em>, at any depth, satisfies the given matcher.
+	 * The directory itself is not an entry. Symbolic links are not followed.
+	 * <p>
+	 * The tree is walked once, and the walk ends at the first entry which
+	 * does not match. Matchers created by this class are answered from the
+	 * attributes read by the walk wherever possible.
+	 *
+	 * <p>
+	 * For example:
+	 *
+	 * <pre>
+	 * assertThat(Paths.get("build"), everyEntry(aRegularFile(NOFOLLOW_LINKS)));
+	 * </pre>
+	 *
+	 * @param matcher
+	 *            the matcher every entry is expected to satisfy
+	 * @return {@code true} if the path is a directory and every entry matches;
+	 *         {@code false} otherwise
+	 */
+	public static Matcher<Path> everyEntry(final Matcher<? super Path> matcher) {
+		return new EveryEntry(matcher);
+	}
+
+	/**
+	 * Create a matcher that matches if the examined {@link Path} is a directory
+	 * in which <em>every entry</em>, at any depth, satisfies the given matcher,
+	 * and which describes <em>every</em> entry which does not. The directory
+	 * itself is not an entry. Symbolic links are not followed.
+	 * <p>
+	 * Each entry's attributes are read once, during the walk, as POSIX
+	 * attributes where supported, so auditing permissions and ownership
+	 * across a tree costs a single read per entry. The first 100 mismatches
+	 * are described.
+	 *
+	 * <p>
+	 * For example:
+	 *
+	 * <pre>
+	 * assertThat(Paths.get("/opt/app"), auditEntries(both(ownedBy("app")).and(hasMode(not(hasItem(OTHERS_WRITE))))));
+	 * </pre>
+	 *
+	 * @param matcher
+	 *            the matcher every entry is expected to satisfy
+	 * @return {@code true} if the path is a directory and every entry matches;
+	 *         {@code false} otherwise
+	 */
+	public static Matcher<Path> auditEntries(final Matcher<? super Path> matcher) {
+		return new EntryAudit(matcher);
+	}
+
+	/**
+	 * Create a matcher like {@link #everyEntry(Matcher)} which remembers the
+	 * outcome for each entry, and on later matches of the same directory only
+	 * re-evaluates the entries a {@link java.nio.file.WatchService
+	 * WatchService} reports as changed. The mismatch description lists every
+	 * entry which does not match.
+	 *
+	 * <p>
+	 * For example:
+	 *
+	 * <pre>
+	 * try (WatchedTree staging = watchedEveryEntry(not(writable()))) {
+	 *     assertThat(Paths.get("staging"), staging);
+	 *     ...
+	 *     assertThat(Paths.get("staging"), staging);
+	 * }
+	 * </pre>
+	 *
+	 * @param matcher
+	 *            the matcher every entry is expected to satisfy
+	 * @return a matcher which must be closed once no longer needed
+	 * @see WatchedTree
+	 */
+	public static WatchedTree watchedEveryEntry(final Matcher<? super Path> matcher) {
+		return new WatchedTree(matcher);
+	}
+
+	/**
+	 * Create a matcher that matches if the examined {@link Path} is a directory
+	 * in which <em>at least one entry</em>, at any depth, satisfies the given
+	 * matcher. The directory itself is not an entry. Symbolic links are not
+	 * followed.
+	 * <p>
+	 * The tree is walked once, and the walk ends at the first entry which
+	 * matches.
+	 *
+	 * <p>
+	 * For example:
+	 *
+	 * <pre>
+	 * assertThat(Paths.get("dist"), not(anyEntry(writable())));
+	 * </pre>
+	 *
+	 * @param matcher
+	 *            the matcher some entry is expected to satisfy
+	 * @return {@code true} if the path is a directory and some entry matches;
+	 *         {@code false} otherwise
+	 */
+	public static Matcher<Path> anyEntry(final Matcher<? super Path> matcher) {
+		return new AnyEntry(matcher);
+	}
+
+	/**
+	 * Create a matcher that matches if the examined {@link Path} is a directory
+	 * in which <em>every entry matching a pattern</em>, at any depth,
+	 * satisfies the given matcher. Entries are matched by their path relative
+	 * to the directory, written with {@code '/'} separating names, which
+	 * itself is not an entry. Symbolic links are not followed.
+	 * <p>
+	 * The pattern is a glob, unless prefixed by another syntax accepted by
+	 * {@link java.nio.file.FileSystem#getPathMatcher(String) getPathMatcher},
+	 * such as {@code "regex:"}. The walk starts below any literal directories
+	 * the pattern begins with, goes no deeper than a glob without
+	 * {@code "**"} can match, and skips each directory whose name a glob rules
+	 * out, so entries which cannot match are never visited.
+	 *
+	 * <p>
+	 * For example:
+	 *
+	 * <pre>
+	 * assertThat(Paths.get("out"), everyEntryMatching("**&#47;*.so", executable()));
+	 * </pre>
+	 *
+	 * @param pattern
+	 *            the pattern selecting the entries to examine
+	 * @param matcher
+	 *            the matcher every selected entry is expected to satisfy
+	 * @return {@code true} if the path is a directory and every entry matching
+	 *         the pattern matches; {@code false} otherwise
+	 * @throws IllegalArgumentException
+	 *             if the pattern is empty or malformed
+	 */
+	public static Matcher<Path> everyEntryMatching(final String pattern, final Matcher<? super Path> matcher) {
+		return new EveryEntry(new EntryPattern(pattern), matcher);
+	}
+
+	/**
+	 * Create a matcher that matches if the examined {@link Path} is a directory
+	 * in which <em>at least one entry matching a pattern</em>, at any depth,
+	 * satisfies the given matcher. The pattern, and the parts of the tree
+	 * walked, are as for {@link #everyEntryMatching(String, Matcher)}.
+	 *
+	 * <p>
+	 * For example:
+	 *
+	 * <pre>
+	 * assertThat(Paths.get("out"), anyEntryMatching("regex:lib/.*\\.jar", aRegularFile()));
+	 * </pre>
+	 *
+	 * @param pattern
+	 *            the pattern selecting the entries to examine
+	 * @param matcher
+	 *            the matcher some selected entry is expected to satisfy
+	 * @return {@code true} if the path is a directory and some entry matching
+	 *         the pattern matches; {@code false} otherwise
+	 * @throws IllegalArgumentException
+	 *             if the pattern is empty or malformed
+	 */
+	public static Matcher<Path> anyEntryMatching(final String pattern, final Matcher<? super Path> matcher) {
+		return new AnyEntry(new EntryPattern(pattern), matcher);
+	}
+
+	/**
+	 * Create a matcher that matches if the examined {@link Path} is a directory
+	 * whose <em>number of entries</em>, at any depth, satisfies the given
+	 * matcher. The directory itself is not an entry. Symbolic links are not
+	 * followed.
+	 *
+	 * <p>
+	 * For example:
+	 *
+	 * <pre>
+	 * assertThat(Paths.get("dist"), entryCount(is(3)));
+	 * </pre>
+	 *
+	 * @param matcher
+	 *            the matcher the number of entries is expected to satisfy
+	 * @return {@code true} if the path is a directory and its entry count
+	 *         matches; {@code false} otherwise
+	 */
+	public static Matcher<Path> entryCount(final Matcher<? super Integer> matcher) {
+		return new EntryCount(matcher);
+	}
+
+	/**
+	 * Create a matcher that matches if the examined {@link Path} is a directory
+	 * in which <em>no two regular files</em>, at any depth, have the same
+	 * content. Empty files are ignored, and hard links to the same file count
+	 * as duplicates. Symbolic links are not followed.
+	 * <p>
+	 * Files are grouped by size, so only files of equal size are read; of
+	 * those, only files whose first 64 KiB hash the same are read in full.
+	 * The mismatch description lists every group of duplicates.
+	 *
+	 * <p>
+	 * For example:
+	 *
+	 * <pre>
+	 * assertThat(Paths.get("assets"), noDuplicateContent());
+	 * </pre>
+	 *
+	 * @return {@code true} if the path is a directory holding no duplicate
+	 *         files; {@code false} otherwise
+	 */
+	public static Matcher<Path> noDuplicateContent() {
+		return new NoDuplicateContent();
+	}
+
+	/**
+	 * Create a matcher that matches if the examined {@link Path} is a directory
+	 * in which <em>no symbolic link</em>, at any depth, is dangling, as
+	 * {@link #danglingLink()} would find it. Symbolic links are not followed
+	 * into other directories.
+	 * <p>
+	 * Each link is read once, however many chains it is part of, and each
+	 * directory's real path once, so a tree is checked in time linear in its
+	 * number of links. The mismatch description lists every dangling link and
+	 * its chain.
+	 *
+	 * <p>
+	 * For example:
+	 *
+	 * <pre>
+	 * assertThat(Paths.get("/nix/var/nix/profiles"), noDanglingLinks());
+	 * </pre>
+	 *
+	 * @return {@code true} if the path is a directory without dangling links;
+	 *         {@code false} otherwise
+	 */
+	public static Matcher<Path> noDanglingLinks() {
+		return new NoDanglingLinks();
+	}
+
+	/**
+	 * Create a matcher that matches if the examined {@link Path} is a directory
+	 * whose tree is the same as when the given manifest was recorded by
+	 * {@link PathManifest}: no entry has been added or removed, and every
+	 * entry has the recorded type, permissions, size, modification time and,
+	 * if recorded, digest. The mismatch description lists every difference.
+	 * <p>
+	 * The tree is walked once, in the manifest's order, and compared with the
+	 * manifest as it is read, so memory use does not grow with the number of
+	 * entries.
+	 *
+	 * <p>
+	 * For example:
+	 *
+	 * <pre>
+	 * assertThat(Paths.get("dist"), matchesManifest(Paths.get("dist.manifest")));
+	 * </pre>
+	 *
+	 * @param manifest
+	 *            the manifest recorded by {@link PathManifest}
+	 * @return {@code true} if the path is a directory matching the manifest;
+	 *         {@code false} otherwise
+	 */
+	public static Matcher<Path> matchesManifest(final Path manifest) {
+		return new ManifestMatcher(manifest);
+	}
+
+	/**
+	 * Create a matcher that matches if the examined {@link Path} is a directory
+	 * whose tree is the <em>same as the expected directory's</em>: every entry
+	 * of either exists in the other, with the same type, POSIX permissions
+	 * (where supported), size for regular files, and target for symbolic
+	 * links. Modification times are not compared, so trees built on different
+	 * machines can be. The mismatch description lists every difference.
+	 * <p>
+	 * Each pair of directories is listed and merged in name order, and
+	 * subtrees are compared in parallel on a fork-join pool. Symbolic links are
+	 * not followed.
+	 *
+	 * <p>
+	 * For example:
+	 *
+	 * <pre>
+	 * assertThat(Paths.get("target/classes"), sameTreeAs(Paths.get("reference/classes")));
+	 * </pre>
+	 *
+	 * @param expected
+	 *            the directory the examined tree is expected to match
+	 * @return {@code true} if the path is a directory with the same entries;
+	 *         {@code false} otherwise
+	 */
+	public static Matcher<Path> sameTreeAs(final Path expected) {
+		return new SameTree(expected, false);
+	}
+
+	/**
+	 * Create a matcher like {@link #sameTreeAs(Path)} which, if
+	 * {@code content} is {@code true}, also requires the regular files of both
+	 * trees to have the <em>same content</em>. Content is only read for files
+	 * of the same size, by comparing memory-mapped windows of both files, and
+	 * stops at the first byte which differs.
+	 *
+	 * <p>
+	 * For example:
+	 *
+	 * <pre>
+	 * assertThat(Paths.get("dist"), sameTreeAs(Paths.get("/mnt/builder-2/dist"), true));
+	 * </pre>
+	 *
+	 * @param expected
+	 *            the directory the examined tree is expected to match
+	 * @param content
+	 *            whether the content of regular files is compared
+	 * @return {@code true} if the path is a directory with the same entries
+	 *         and, if asked, content; {@code false} otherwise
+	 */
+	public static Matcher<Path> sameTreeAs(final Path expected, final boolean content) {
+		return new SameTree(expected, content);
+	}
+
+	/**
+	 * Create a matcher that matches if the examined {@link Path} is a zip or
+	 * jar archive whose named <em>entry</em> satisfies the given matcher. The
+	 * entry is a path of the archive's zip file system, so every matcher of
+	 * this class applies to it, including the tree matchers when the entry is
+	 * a directory; {@code "/"} names the archive's root.
+	 * <p>
+	 * The archive is not extracted. It is opened once, its central directory
+	 * read into memory, and kept open for later matches until it changes, so
+	 * asserting on many entries of the same archive reads it only once. Call
+	 * {@link ArchiveCache#clear()} to close the archives kept open, for
+	 * instance before rebuilding one on Windows.
+	 *
+	 * <p>
+	 * For example:
+	 *
+	 * <pre>
+	 * Path jar = Paths.get("target/app.jar");
+	 * assertThat(jar, archiveEntry("META-INF/MANIFEST.MF", aRegularFile()));
+	 * assertThat(jar, archiveEntry("/", everyEntryMatching("**&#47;*.class", hasSize(greaterThan(0L)))));
+	 * </pre>
+	 *
+	 * @param entry
+	 *            the name of the entry, relative to the archive's root
+	 * @param matcher
+	 *            the matcher the entry is expected to satisfy
+	 * @return {@code true} if the path is an archive whose entry matches;
+	 *         {@code false} otherwise
+	 */
+	public static Matcher<Path> archiveEntry(final String entry, final Matcher<? super Path> matcher) {
+		return new ArchiveEntry(entry, matcher);
+	}
+
+	/**
+	 * Create a matcher that matches if the examined {@link Path} is a zip or
+	 * jar archive which <em>has the named entry</em>, as
+	 * {@link #archiveEntry(String, Matcher)} does for {@link #exists(LinkOption...)
+	 * exists()}.
+	 *
+	 * <p>
+	 * For example:
+	 *
+	 * <pre>
+	 * assertThat(Paths.get("target/app.jar"), hasArchiveEntry("app/Main.class"));
+	 * </pre>
+	 *
+	 * @param entry
+	 *            the name of the entry, relative to the archive's root
+	 * @return {@code true} if the path is an archive with the entry;
+	 *         {@code false} otherwise
+	 */
+	public static Matcher<Path> hasArchiveEntry(final String entry) {
+		return new ArchiveEntry(entry, exists());
+	}
+
 }
@@ -0,0 +1,220 @@
+package ca.seinesoftware.hamcrest.path;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.DosFileAttributes;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.util.Set;
+
+/**
+ * The questions the matchers ask the file system.
+ * <p>
+ * {@link #FILES} answers them directly with {@link Files}. Other probes answer
+ * them from attributes which are already at hand, such as those handed to a
+ * {@link java.nio.file.FileVisitor}, and fall back to {@link #FILES} for
+ * anything else.
+ */
+abstract class PathProbe {
+
+	/**
+	 * A probe which asks the file system every time.
+	 * <p>
+	 * Attributes are read as {@link PosixFileAttributes} or
+	 * {@link DosFileAttributes} when the provider supports those views, so that
+	 * a single read answers as many questions as possible.
+	 */
+	static final PathProbe FILES = new PathProbe() {
+
+		@Override
+		BasicFileAttributes readAttributes(final Path path, final LinkOption... options) throws IOException {
+			Instrumentation.operation();
+			final Set<String> views = path.getFileSystem().supportedFileAttributeViews();
+			try {
+				if (views.contains("posix")) {
+					return Files.readAttributes(path, PosixFileAttributes.class, options);
+				}
+				if (views.contains("dos")) {
+					return Files.readAttributes(path, DosFileAttributes.class, options);
+				}
+			} catch (UnsupportedOperationException e) {
+			}
+			return Files.readAttributes(path, BasicFileAttributes.class, options);
+		}
+
+		@Override
+		boolean exists(final Path path, final LinkOption... options) {
+			Instrumentation.operation();
+			return Files.exists(path, options);
+		}
+
+		@Override
+		boolean isDirectory(final Path path, final LinkOption... options) {
+			Instrumentation.operation();
+			return Files.isDirectory(path, options);
+		}
+
+		@Override
+		boolean isRegularFile(final Path path, final LinkOption... options) {
+			Instrumentation.operation();
+			return Files.isRegularFile(path, options);
+		}
+
+		@Override
+		boolean isSymbolicLink(final Path path) {
+			Instrumentation.operation();
+			return Files.isSymbolicLink(path);
+		}
+
+		@Override
+		boolean isReadable(final Path path) {
+			Instrumentation.operation();
+			return Files.isReadable(path);
+		}
+
+		@Override
+		boolean isWritable(final Path path) {
+			Instrumentation.operation();
+			return Files.isWritable(path);
+		}
+
+		@Override
+		boolean isExecutable(final Path path) {
+			Instrumentation.operation();
+			return Files.isExecutable(path);
+		}
+
+		@Override
+		boolean isHidden(final Path path) throws IOException {
+			Instrumentation.operation();
+			return Files.isHidden(path);
+		}
+	};
+
+	/**
+	 * @see Files#readAttributes(Path, Class, LinkOption...)
+	 */
+	abstract BasicFileAttributes readAttributes(Path path, LinkOption... options) throws IOException;
+
+	/**
+	 * Read the entry's POSIX attributes, from those at hand if they are POSIX
+	 * attributes, or else by asking the file system.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             if the provider does not support POSIX attributes
+	 * @see Files#readAttributes(Path, Class, LinkOption...)
+	 */
+	PosixFileAttributes readPosixAttributes(final Path path, final LinkOption... options) throws IOException {
+		final BasicFileAttributes attributes = readAttributes(path, options);
+		if (attributes instanceof PosixFileAttributes) {
+			return (PosixFileAttributes) attributes;
+		}
+		Instrumentation.operation();
+		return Files.readAttributes(path, PosixFileAttributes.class, options);
+	}
+
+	/**
+	 * @return the number of hard links to the entry, or {@code null} if it
+	 *         cannot be determined
+	 */
+	Integer linkCount(final Path path, final LinkOption... options) {
+		Instrumentation.operation();
+		try {
+			return (Integer) Files.getAttribute(path, "unix:nlink", options);
+		} catch (IOException | UnsupportedOperationException | IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * @see Files#exists(Path, LinkOption...)
+	 */
+	boolean exists(final Path path, final LinkOption... options) {
+		try {
+			readAttributes(path, options);
+			return true;
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * @see Files#isDirectory(Path, LinkOption...)
+	 */
+	boolean isDirectory(final Path path, final LinkOption... options) {
+		try {
+			return readAttributes(path, options).isDirectory();
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * @see Files#isRegularFile(Path, LinkOption...)
+	 */
+	boolean isRegularFile(final Path path, final LinkOption... options) {
+		try {
+			return readAttributes(path, options).isRegularFile();
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * @see Files#isSymbolicLink(Path)
+	 */
+	boolean isSymbolicLink(final Path path) {
+		try {
+			return readAttributes(path, LinkOption.NOFOLLOW_LINKS).isSymbolicLink();
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * @see Files#isReadable(Path)
+	 */
+	boolean isReadable(final Path path) {
+		return FILES.isReadable(path);
+	}
+
+	/**
+	 * @see Files#isWritable(Path)
+	 */
+	boolean isWritable(final Path path) {
+		return FILES.isWritable(path);
+	}
+
+	/**
+	 * @see Files#isExecutable(Path)
+	 */
+	boolean isExecutable(final Path path) {
+		return FILES.isExecutable(path);
+	}
+
+	/**
+	 * @see Files#isHidden(Path)
+	 */
+	boolean isHidden(final Path path) throws IOException {
+		return FILES.isHidden(path);
+	}
+
+	// ========================================================================
+	// Helpers
+	// ========================================================================
+
+	/**
+	 * @return {@code true} if the options ask for symbolic links not to be
+	 *         followed
+	 */
+	static boolean noFollow(final LinkOption... options) {
+		for (final LinkOption option : options) {
+			if (option == LinkOption.NOFOLLOW_LINKS) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,378 @@
+package ca.seinesoftware.hamcrest.path;
+
+import java.io.IOException;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.DosFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.util.concurrent.TimeUnit;
+
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+
+/**
+ * PathSnapshot
+ * <p>
+ * The file system status of a {@link Path}, read in one pass and with as few
+ * system calls as the provider allows, so that several matchers can examine
+ * the same, consistent status.
+ * <p>
+ * The entry's attributes are read once through a {@link PathProbe}, without
+ * following symbolic links; {@link PathProbe#FILES} reads them as
+ * {@link PosixFileAttributes} or {@link DosFileAttributes} when the provider
+ * supports those views. If the entry is a symbolic link, the link target's
+ * attributes are read once more. Access permissions are still checked with
+ * {@link java.nio.file.Files#isReadable(Path)} and friends, since only the
+ * operating system can say whether <em>this</em> Java virtual machine may
+ * access the entry.
+ * <p>
+ * For example:
+ *
+ * <pre>
+ * PathSnapshot snapshot = PathSnapshot.of(home);
+ *
+ * assertThat(snapshot, snapshotMatching(allOf(exists(), aDirectory(), readable())));
+ * assertThat(snapshot, snapshotMatching(hasSize(greaterThan(0L))));
+ * </pre>
+ *
+ * <p>
+ * While a snapshot is matched, every {@link PathMatcher} examining its path
+ * answers from the snapshot instead of the file system, however the matchers
+ * are combined. Matchers which read the content of a file, or walk a
+ * directory tree, still read those from the file system.
+ * <p>
+ * <b>Note</b> that a snapshot is outdated from the moment it is taken: its
+ * {@link #getTimestamp() timestamp} records when, and
+ * {@link #getAge(TimeUnit)} how long ago. Snapshots are immutable, and may be
+ * shared between threads.
+ *
+ * @see PathMatcher#consistently(Matcher)
+ * @see PathMatcher#snapshotMatching(Matcher)
+ */
+public final class PathSnapshot {
+
+	/**
+	 * The snapshot being matched on each thread, if any.
+	 */
+	private static final ThreadLocal<PathSnapshot> CURRENT = new ThreadLocal<>();
+
+	/**
+	 * Whether any snapshot has ever been matched, so that until one is, no
+	 * evaluation looks for its thread's snapshot. It is only ever written
+	 * once, so reading it costs no contention.
+	 */
+	private static volatile boolean matched;
+
+	private final Path path;
+	private final FileTime timestamp;
+	private final long captured;
+	private final BasicFileAttributes linkAttributes;
+	private final IOException linkFailure;
+	private final BasicFileAttributes targetAttributes;
+	private final IOException targetFailure;
+	private final boolean readable;
+	private final boolean writable;
+	private final boolean executable;
+	private final boolean hidden;
+	private final Integer linkCount;
+	private final PathProbe probe = new SnapshotProbe();
+
+	private PathSnapshot(final Path path, final FileTime timestamp, final long captured,
+			final BasicFileAttributes linkAttributes, final IOException linkFailure,
+			final BasicFileAttributes targetAttributes, final IOException targetFailure, final boolean readable,
+			final boolean writable, final boolean executable, final boolean hidden, final Integer linkCount) {
+		this.path = path;
+		this.timestamp = timestamp;
+		this.captured = captured;
+		this.linkAttributes = linkAttributes;
+		this.linkFailure = linkFailure;
+		this.targetAttributes = targetAttributes;
+		this.targetFailure = targetFailure;
+		this.readable = readable;
+		this.writable = writable;
+		this.executable = executable;
+		this.hidden = hidden;
+		this.linkCount = linkCount;
+	}
+
+	// ========================================================================
+	// Capture
+	// ========================================================================
+
+	/**
+	 * Read the file system status of the given path, including everything the
+	 * {@link PathMatcher} factories examine other than content.
+	 *
+	 * @param path
+	 *            the path to examine
+	 * @return the snapshot; never {@code null}
+	 */
+	public static PathSnapshot of(final Path path) {
+		return capture(path, PathProbe.FILES, true);
+	}
+
+	/**
+	 * Read the file system status of the given path, as far as describing a
+	 * mismatch requires.
+	 *
+	 * @param path
+	 *            the path to examine
+	 * @param probe
+	 *            the probe through which the file system is asked
+	 * @return the snapshot; never {@code null}
+	 */
+	static PathSnapshot capture(final Path path, final PathProbe probe) {
+		return capture(path, probe, false);
+	}
+
+	/**
+	 * @param complete
+	 *            whether the link count, which needs a read of its own, is
+	 *            captured too
+	 */
+	private static PathSnapshot capture(final Path path, final PathProbe probe, final boolean complete) {
+		final FileTime timestamp = FileTime.fromMillis(System.currentTimeMillis());
+		final long captured = System.nanoTime();
+		final BasicFileAttributes link;
+		try {
+			link = probe.readAttributes(path, LinkOption.NOFOLLOW_LINKS);
+		} catch (IOException e) {
+			return new PathSnapshot(path, timestamp, captured, null, e, null, e, false, false, false, false,
+					null);
+		}
+
+		BasicFileAttributes target = link;
+		IOException targetFailure = null;
+		if (link.isSymbolicLink()) {
+			try {
+				target = probe.readAttributes(path);
+			} catch (IOException e) {
+				target = null;
+				targetFailure = e;
+			}
+		}
+
+		final Integer linkCount = complete ? probe.linkCount(path) : null;
+		if (target == null) {
+			return new PathSnapshot(path, timestamp, captured, link, null, null, targetFailure, false, false,
+					false, isHidden(path, link, probe), linkCount);
+		}
+
+		return new PathSnapshot(path, timestamp, captured, link, null, target, null, probe.isReadable(path),
+				probe.isWritable(path), probe.isExecutable(path), isHidden(path, target, probe), linkCount);
+	}
+
+	private static boolean isHidden(final Path path, final BasicFileAttributes attributes, final PathProbe probe) {
+		if (attributes instanceof DosFileAttributes && !(attributes instanceof PosixFileAttributes)) {
+			return ((DosFileAttributes) attributes).isHidden() && !attributes.isDirectory();
+		}
+		try {
+			return probe.isHidden(path);
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	// ========================================================================
+	// Accessors
+	// ========================================================================
+
+	/**
+	 * @return the path examined
+	 */
+	public Path getPath() {
+		return path;
+	}
+
+	/**
+	 * @return when the snapshot was taken
+	 */
+	public FileTime getTimestamp() {
+		return timestamp;
+	}
+
+	/**
+	 * @param unit
+	 *            the unit of the result
+	 * @return how long ago the snapshot was taken, by the monotonic clock of
+	 *         {@link System#nanoTime()}
+	 */
+	public long getAge(final TimeUnit unit) {
+		return unit.convert(System.nanoTime() - captured, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * @return {@code false} if the status of the path could not be determined,
+	 *         for instance because access to a parent directory was denied
+	 */
+	public boolean isDetermined() {
+		return linkFailure == null || linkFailure instanceof NoSuchFileException;
+	}
+
+	/**
+	 * @return {@code true} if the entry exists, without following symbolic
+	 *         links
+	 */
+	public boolean exists() {
+		return linkAttributes != null;
+	}
+
+	/**
+	 * @return {@code true} if the entry is a symbolic link
+	 */
+	public boolean isSymbolicLink() {
+		return linkAttributes != null && linkAttributes.isSymbolicLink();
+	}
+
+	/**
+	 * @return {@code true} if the entry, following symbolic links, is a
+	 *         directory
+	 */
+	public boolean isDirectory() {
+		return targetAttributes != null && targetAttributes.isDirectory();
+	}
+
+	/**
+	 * @return {@code true} if the entry, following symbolic links, is a
+	 *         regular file
+	 */
+	public boolean isRegularFile() {
+		return targetAttributes != null && targetAttributes.isRegularFile();
+	}
+
+	public boolean isReadable() {
+		return readable;
+	}
+
+	public boolean isWritable() {
+		return writable;
+	}
+
+	public boolean isExecutable() {
+		return executable;
+	}
+
+	public boolean isHidden() {
+		return hidden;
+	}
+
+	/**
+	 * @param options
+	 *            options indicating how symbolic links are handled
+	 * @return the entry's attributes, as {@link PosixFileAttributes} or
+	 *         {@link DosFileAttributes} where the provider supports those
+	 *         views, or {@code null} if the entry did not exist
+	 */
+	public BasicFileAttributes getAttributes(final LinkOption... options) {
+		return PathProbe.noFollow(options) ? linkAttributes : targetAttributes;
+	}
+
+	@Override
+	public String toString() {
+		return path + " as of " + timestamp;
+	}
+
+	// ========================================================================
+	// Matching
+	// ========================================================================
+
+	/**
+	 * Evaluate a matcher of the snapshot's path, answering from the snapshot.
+	 */
+	boolean matches(final Matcher<? super Path> matcher) {
+		if (!matched) {
+			matched = true;
+		}
+		final PathSnapshot previous = CURRENT.get();
+		CURRENT.set(this);
+		try {
+			return matcher.matches(path);
+		} finally {
+			// Kept rather than removed, so the thread's entry is reused
+			CURRENT.set(previous);
+		}
+	}
+
+	/**
+	 * Describe why a matcher does not match the snapshot's path, answering
+	 * from the snapshot.
+	 */
+	void describeMismatch(final Matcher<? super Path> matcher, final Description description) {
+		if (!matched) {
+			matched = true;
+		}
+		final PathSnapshot previous = CURRENT.get();
+		CURRENT.set(this);
+		try {
+			matcher.describeMismatch(path, description);
+		} finally {
+			// Kept rather than removed, so the thread's entry is reused
+			CURRENT.set(previous);
+		}
+	}
+
+	/**
+	 * @return the probe through which a path is examined: the snapshot's, if
+	 *         a snapshot of the path is being matched on this thread, or else
+	 *         the given probe
+	 */
+	static PathProbe probe(final Path path, final PathProbe probe) {
+		if (!matched) {
+			return probe;
+		}
+		final PathSnapshot current = CURRENT.get();
+		return current != null && current.path.equals(path) ? current.probe : probe;
+	}
+
+	/**
+	 * Answers from the snapshot for its path, asking the file system about
+	 * anything else.
+	 */
+	private final class SnapshotProbe extends PathProbe {
+
+		@Override
+		BasicFileAttributes readAttributes(final Path path, final LinkOption... options) throws IOException {
+			if (!path.equals(PathSnapshot.this.path)) {
+				return FILES.readAttributes(path, options);
+			}
+			final boolean noFollow = noFollow(options);
+			final BasicFileAttributes attributes = noFollow ? linkAttributes : targetAttributes;
+			if (attributes == null) {
+				throw noFollow ? linkFailure : targetFailure;
+			}
+			return attributes;
+		}
+
+		@Override
+		boolean isReadable(final Path path) {
+			return path.equals(PathSnapshot.this.path) ? readable : FILES.isReadable(path);
+		}
+
+		@Override
+		boolean isWritable(final Path path) {
+			return path.equals(PathSnapshot.this.path) ? writable : FILES.isWritable(path);
+		}
+
+		@Override
+		boolean isExecutable(final Path path) {
+			return path.equals(PathSnapshot.this.path) ? executable : FILES.isExecutable(path);
+		}
+
+		@Override
+		boolean isHidden(final Path path) throws IOException {
+			return path.equals(PathSnapshot.this.path) ? hidden : FILES.isHidden(path);
+		}
+
+		@Override
+		Integer linkCount(final Path path, final LinkOption... options) {
+			if (path.equals(PathSnapshot.this.path) && linkCount != null
+					&& (!noFollow(options) || !PathSnapshot.this.isSymbolicLink())) {
+				return linkCount;
+			}
+			return FILES.linkCount(path, options);
+		}
+	}
+}
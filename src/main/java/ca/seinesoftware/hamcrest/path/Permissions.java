@@ -0,0 +1,46 @@
+package ca.seinesoftware.hamcrest.path;
+
+import java.nio.file.LinkOption;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Set;
+
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.hamcrest.StringDescription;
+import org.hamcrest.core.IsEqual;
+
+class Permissions extends PosixMatcher {
+
+	private final Matcher<? super Set<PosixFilePermission>> matcher;
+
+	/**
+	 * @param permissions
+	 *            the exact permissions, for instance {@code "rwxr-x---"}
+	 */
+	public Permissions(final String permissions, final LinkOption... linkOptions) {
+		this(permissions, IsEqual.equalTo(PosixFilePermissions.fromString(permissions)), linkOptions);
+	}
+
+	public Permissions(final Matcher<? super Set<PosixFilePermission>> matcher, final LinkOption... linkOptions) {
+		this(StringDescription.toString(matcher), matcher, linkOptions);
+	}
+
+	private Permissions(final String text, final Matcher<? super Set<PosixFilePermission>> matcher,
+			final LinkOption... linkOptions) {
+		super("with permissions " + text, linkOptions);
+		this.matcher = matcher;
+	}
+
+	@Override
+	boolean matchesAttributes(final PosixFileAttributes attributes) {
+		return matcher.matches(attributes.permissions());
+	}
+
+	@Override
+	void describeAttributes(final PosixFileAttributes attributes, final Description description) {
+		description.appendText(" has permissions ")
+				.appendText(PosixFilePermissions.toString(attributes.permissions()));
+	}
+}
@@ -0,0 +1,56 @@
+package ca.seinesoftware.hamcrest.path;
+
+import java.io.IOException;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributes;
+
+import org.hamcrest.Description;
+
+/**
+ * A matcher of an entry's {@link PosixFileAttributes}, which are read once
+ * per match. On providers without POSIX attributes, it never matches.
+ */
+abstract class PosixMatcher extends PathMatcher {
+
+	PosixMatcher(final String noun, final LinkOption... options) {
+		super(PathProbe.FILES, "a file system entry " + noun, options);
+	}
+
+	@Override
+	protected boolean matchesSafely(final Path path) {
+		return evaluate(path, probe);
+	}
+
+	@Override
+	boolean matchesSafely(final Path path, final PathProbe probe) {
+		try {
+			return matchesAttributes(probe.readPosixAttributes(path, linkOptions));
+		} catch (IOException | UnsupportedOperationException e) {
+			return false;
+		}
+	}
+
+	@Override
+	void describe(final Path path, final Description description) {
+		final PosixFileAttributes attributes;
+		try {
+			attributes = PathSnapshot.probe(path, probe).readPosixAttributes(path, linkOptions);
+		} catch (IOException e) {
+			super.describe(path, description);
+			return;
+		} catch (UnsupportedOperationException e) {
+			description.appendText("POSIX attributes of ").appendValue(path).appendText(" are not supported");
+			return;
+		}
+		description.appendValue(path);
+		describeAttributes(attributes, description);
+	}
+
+	abstract boolean matchesAttributes(PosixFileAttributes attributes);
+
+	/**
+	 * Describe the attributes which did not match, following the path.
+	 */
+	abstract void describeAttributes(PosixFileAttributes attributes, Description description);
+}
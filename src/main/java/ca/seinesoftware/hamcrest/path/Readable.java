@@ -1,20 +1,24 @@
 package ca.seinesoftware.hamcrest.path;
 
-import java.nio.file.Files;
 import java.nio.file.Path;
 
-import org.hamcrest.Description;
-
 class Readable extends PathMatcher {
 
-	@Override
-	public void describeTo(Description description) {
-		super.describeTo(description);
-		description.appendText("a readable file or directory");
+	public Readable() {
+		this(PathProbe.FILES);
+	}
+
+	Readable(PathProbe probe) {
+		super(probe, "a readable file or directory");
 	}
 
 	@Override
 	protected boolean matchesSafely(Path path) {
-		return Files.isReadable(path);
+		return evaluate(path, probe);
+	}
+
+	@Override
+	boolean matchesSafely(Path path, PathProbe probe) {
+		return probe.isReadable(path);
 	}
 }
@@ -1,25 +1,25 @@
 package ca.seinesoftware.hamcrest.path;
 
-import java.nio.file.Files;
 import java.nio.file.LinkOption;
 import java.nio.file.Path;
 
-import org.hamcrest.Description;
-
 class RegularFile extends PathMatcher {
 
 	public RegularFile(LinkOption... linkOptions) {
-		super(linkOptions);
+		this(PathProbe.FILES, linkOptions);
 	}
 
-	@Override
-	public void describeTo(Description description) {
-		super.describeTo(description);
-		description.appendText("a regular file");
+	RegularFile(PathProbe probe, LinkOption... linkOptions) {
+		super(probe, "a regular file", linkOptions);
 	}
 
 	@Override
 	protected boolean matchesSafely(Path path) {
-		return Files.isRegularFile(path, linkOptions);
+		return evaluate(path, probe);
+	}
+
+	@Override
+	boolean matchesSafely(Path path, PathProbe probe) {
+		return probe.isRegularFile(path, linkOptions);
 	}
 }
\ No newline at end of file
@@ -2,30 +2,99 @@ package ca.seinesoftware.hamcrest.path;
 
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.LinkOption;
 import java.nio.file.Path;
 
 import org.hamcrest.Description;
-import org.hamcrest.TypeSafeMatcher;
+import org.hamcrest.StringDescription;
 
-class SameFile extends TypeSafeMatcher<Path> {
+class SameFile extends PathMatcher {
+
+	/**
+	 * Marks an expected path whose provider has no file keys.
+	 */
+	private static final Object NO_KEY = new Object();
 
 	private final Path expected;
+	private final LinkOption[] options;
+
+	/**
+	 * The expected path's file key, once it has been read.
+	 */
+	private volatile Object expectedKey;
 
 	public SameFile(final Path expected) {
+		this(expected, new StringDescription().appendValue(expected).toString(), true);
+	}
+
+	/**
+	 * @param expected
+	 *            path to the expected file system object
+	 * @param noun
+	 *            what a matching path is
+	 * @param follow
+	 *            whether symbolic links are followed; if not, a symbolic link
+	 *            is only the same file as itself
+	 */
+	SameFile(final Path expected, final String noun, final boolean follow) {
+		super(PathProbe.FILES, noun);
 		this.expected = expected;
+		this.options = follow ? new LinkOption[0] : new LinkOption[] { LinkOption.NOFOLLOW_LINKS };
 	}
 
 	@Override
-	public void describeTo(Description description) {
-		description.appendValue(expected);
+	protected boolean matchesSafely(final Path actual) {
+		return evaluate(actual, probe);
 	}
 
 	@Override
-	protected boolean matchesSafely(final Path actual) {
+	boolean matchesSafely(final Path actual, final PathProbe probe) {
+		if (actual.equals(expected)) {
+			return true;
+		}
+
+		final Object key = expectedKey();
+		if (key == null) {
+			return false;
+		}
+		if (key == NO_KEY) {
+			if (options.length > 0 && (probe.isSymbolicLink(actual) || probe.isSymbolicLink(expected))) {
+				return false;
+			}
+			Instrumentation.operation();
+			try {
+				return Files.isSameFile(actual, expected);
+			} catch (IOException e) {
+				return false;
+			}
+		}
+
 		try {
-			return Files.isSameFile(actual, expected);
+			return key.equals(probe.readAttributes(actual, options).fileKey());
 		} catch (IOException e) {
 			return false;
 		}
 	}
+
+	/**
+	 * @return the expected path's file key, {@link #NO_KEY} if it has none, or
+	 *         {@code null} if it cannot be read (yet)
+	 */
+	private Object expectedKey() {
+		Object key = expectedKey;
+		if (key == null) {
+			try {
+				key = probe.readAttributes(expected, options).fileKey();
+			} catch (IOException e) {
+				return null;
+			}
+			expectedKey = key = key != null ? key : NO_KEY;
+		}
+		return key;
+	}
+
+	@Override
+	void describe(final Path actual, final Description description) {
+		description.appendText("was ").appendValue(actual);
+	}
 }
@@ -0,0 +1,90 @@
+package ca.seinesoftware.hamcrest.path;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.hamcrest.StringDescription;
+
+class SameFileAsAnyOf extends PathMatcher {
+
+	/**
+	 * The most expected paths listed in the description.
+	 */
+	private static final int LISTED = 10;
+
+	private final Set<Object> keys = new HashSet<>();
+	private final Set<Path> paths = new HashSet<>();
+
+	/**
+	 * Expected paths whose provider has no file keys.
+	 */
+	private final List<Path> keyless = new ArrayList<>();
+
+	public SameFileAsAnyOf(final Collection<? extends Path> expected) {
+		super(PathProbe.FILES, describe(expected));
+
+		for (final Path path : expected) {
+			paths.add(path);
+			try {
+				final Object key = probe.readAttributes(path).fileKey();
+				if (key != null) {
+					keys.add(key);
+				} else {
+					keyless.add(path);
+				}
+			} catch (IOException e) {
+				// A missing path is the same file as nothing but itself
+			}
+		}
+	}
+
+	private static String describe(final Collection<? extends Path> expected) {
+		final StringDescription description = new StringDescription();
+		description.appendText("the same file as one of ");
+		if (expected.size() <= LISTED) {
+			description.appendValueList("{", ", ", "}", expected);
+		} else {
+			description.appendText(expected.size() + " paths");
+		}
+		return description.toString();
+	}
+
+	@Override
+	protected boolean matchesSafely(final Path actual) {
+		return evaluate(actual, probe);
+	}
+
+	@Override
+	boolean matchesSafely(final Path actual, final PathProbe probe) {
+		if (paths.contains(actual)) {
+			return true;
+		}
+
+		if (!keys.isEmpty()) {
+			try {
+				if (keys.contains(probe.readAttributes(actual).fileKey())) {
+					return true;
+				}
+			} catch (IOException e) {
+				return false;
+			}
+		}
+
+		for (final Path path : keyless) {
+			Instrumentation.operation();
+			try {
+				if (Files.isSameFile(actual, path)) {
+					return true;
+				}
+			} catch (IOException e) {
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,375 @@
+package ca.seinesoftware.hamcrest.path;
+
+import java.io.IOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hamcrest.Description;
+import org.hamcrest.StringDescription;
+
+/**
+ * Compares a tree with another, entry by entry.
+ * <p>
+ * Each pair of directories is listed, sorted by name and merged, so only the
+ * entries of the directories being compared are held in memory. Pairs of
+ * subdirectories, and pairs of large files whose content is compared, are
+ * compared as tasks of a {@link ForkJoinPool}, so that independent subtrees
+ * are compared in parallel. Symbolic links are not followed. The file system
+ * operations the tasks make are counted by {@link Instrumentation} on the
+ * thread evaluating the matcher.
+ */
+class SameTree extends TreeMatcher {
+
+	/**
+	 * Files at least this large have their content compared as a task of
+	 * their own.
+	 */
+	static final long LARGE = 1 << 20;
+
+	private static final Comparator<Path> BY_NAME = new Comparator<Path>() {
+		@Override
+		public int compare(final Path a, final Path b) {
+			return a.getFileName().toString().compareTo(b.getFileName().toString());
+		}
+	};
+
+	/**
+	 * Created when first needed; its threads are daemons.
+	 */
+	private static final class Workers {
+		static final ForkJoinPool POOL = new ForkJoinPool();
+	}
+
+	private final Path expected;
+	private final boolean content;
+
+	/**
+	 * @param content
+	 *            whether the content of regular files is compared, as well as
+	 *            their size
+	 */
+	public SameTree(final Path expected, final boolean content) {
+		this.expected = expected;
+		this.content = content;
+	}
+
+	@Override
+	public void describeTo(Description description) {
+		description.appendText("a directory with the same entries as ").appendValue(expected);
+		if (content) {
+			description.appendText(", with the same content");
+		}
+	}
+
+	@Override
+	boolean matchesTree(final Path root, final Description mismatch) {
+		if (!PathProbe.FILES.isDirectory(root)) {
+			PathMatcher.aDirectory().describeMismatch(root, mismatch);
+			return false;
+		}
+		if (!PathProbe.FILES.isDirectory(expected)) {
+			mismatch.appendValue(expected).appendText(" is not a directory");
+			return false;
+		}
+
+		final AtomicBoolean done = new AtomicBoolean();
+		final AtomicLong operations = new AtomicLong();
+		final boolean describing = !(mismatch instanceof Description.NullDescription);
+		final List<Difference> found = Workers.POOL
+				.invoke(new Subtree(expected, root, "", describing ? null : done, operations));
+		Instrumentation.addOperations(operations.get());
+
+		final Differences differences = new Differences(root,
+				new StringDescription().appendText("differs from ").appendValue(expected).toString(), mismatch);
+		for (final Difference difference : found) {
+			differences.add(difference.kind, difference.path, difference.changes);
+		}
+		return differences.end();
+	}
+
+	private static final class Difference {
+
+		final String kind;
+		final String path;
+		final String changes;
+
+		Difference(final String kind, final String path, final String changes) {
+			this.kind = kind;
+			this.path = path;
+			this.changes = changes;
+		}
+	}
+
+	// ========================================================================
+	// Tasks
+	// ========================================================================
+
+	/**
+	 * A task of the comparison, which hands the file system operations it
+	 * makes to the thread evaluating the matcher.
+	 */
+	private abstract static class Task extends RecursiveTask<List<Difference>> {
+
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * Set once a difference is found when only matching, or
+		 * {@code null} when every difference is wanted.
+		 */
+		final AtomicBoolean done;
+
+		/**
+		 * The file system operations made by the comparison's tasks.
+		 */
+		final AtomicLong operations;
+
+		Task(final AtomicBoolean done, final AtomicLong operations) {
+			this.done = done;
+			this.operations = operations;
+		}
+
+		@Override
+		protected final List<Difference> compute() {
+			if (!Instrumentation.enabled) {
+				return differences();
+			}
+			final long start = Instrumentation.operations();
+			try {
+				return differences();
+			} finally {
+				operations.addAndGet(Instrumentation.takeOperations(start));
+			}
+		}
+
+		abstract List<Difference> differences();
+	}
+
+	/**
+	 * Compares a pair of directories, and forks a task for each pair of their
+	 * subdirectories.
+	 */
+	private final class Subtree extends Task {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Path expected;
+		private final Path actual;
+		private final String relative;
+
+		Subtree(final Path expected, final Path actual, final String relative, final AtomicBoolean done,
+				final AtomicLong operations) {
+			super(done, operations);
+			this.expected = expected;
+			this.actual = actual;
+			this.relative = relative;
+		}
+
+		@Override
+		List<Difference> differences() {
+			// Differences, and the tasks whose differences follow them
+			final List<Object> parts = new ArrayList<>();
+
+			final List<Path> expectedEntries, actualEntries;
+			try {
+				expectedEntries = list(expected);
+				actualEntries = list(actual);
+			} catch (IOException e) {
+				add(parts, new Difference("unreadable ", relative, e.toString()));
+				return collect(parts);
+			}
+
+			int i = 0, j = 0;
+			while ((i < expectedEntries.size() || j < actualEntries.size()) && (done == null || !done.get())) {
+				final int order = i == expectedEntries.size() ? 1
+						: j == actualEntries.size() ? -1
+								: BY_NAME.compare(expectedEntries.get(i), actualEntries.get(j));
+				if (order < 0) {
+					add(parts, new Difference("removed ", path(expectedEntries.get(i)), null));
+					i++;
+				} else if (order > 0) {
+					add(parts, new Difference("added ", path(actualEntries.get(j)), null));
+					j++;
+				} else {
+					compare(expectedEntries.get(i), actualEntries.get(j), parts);
+					i++;
+					j++;
+				}
+			}
+			return collect(parts);
+		}
+
+		private void compare(final Path expected, final Path actual, final List<Object> parts) {
+			final String path = path(actual);
+			final BasicFileAttributes was, is;
+			try {
+				was = PathProbe.FILES.readAttributes(expected, LinkOption.NOFOLLOW_LINKS);
+				is = PathProbe.FILES.readAttributes(actual, LinkOption.NOFOLLOW_LINKS);
+			} catch (IOException e) {
+				add(parts, new Difference("unreadable ", path, e.toString()));
+				return;
+			}
+
+			final StringBuilder changes = new StringBuilder();
+			final String type = type(was);
+			if (!type.equals(type(is))) {
+				change(changes, "type", type, type(is));
+			} else {
+				if (was instanceof PosixFileAttributes && is instanceof PosixFileAttributes) {
+					final String permissions = PosixFilePermissions
+							.toString(((PosixFileAttributes) was).permissions());
+					final String actualPermissions = PosixFilePermissions
+							.toString(((PosixFileAttributes) is).permissions());
+					if (!permissions.equals(actualPermissions)) {
+						change(changes, "permissions", permissions, actualPermissions);
+					}
+				}
+				if (was.isRegularFile() && was.size() != is.size()) {
+					change(changes, "size", Long.toString(was.size()), Long.toString(is.size()));
+				}
+				if (was.isSymbolicLink()) {
+					try {
+						final Path target = Files.readSymbolicLink(expected);
+						final Path actualTarget = Files.readSymbolicLink(actual);
+						if (!target.toString().equals(actualTarget.toString())) {
+							change(changes, "target", target.toString(), actualTarget.toString());
+						}
+					} catch (IOException e) {
+						change(changes, "target", "unreadable", e.toString());
+					}
+				}
+			}
+
+			if (changes.length() > 0) {
+				add(parts, new Difference("changed ", path, changes.toString()));
+			}
+			if (was.isDirectory() && is.isDirectory()) {
+				parts.add(new Subtree(expected, actual, path, done, operations).fork());
+			} else if (changes.length() == 0 && content && was.isRegularFile() && was.size() > 0) {
+				final Content task = new Content(expected, actual, path, done, operations);
+				parts.add(was.size() >= LARGE ? task.fork() : task.compute());
+			}
+		}
+
+		private String path(final Path entry) {
+			final String name = entry.getFileName().toString();
+			return relative.isEmpty() ? name : relative + '/' + name;
+		}
+
+		private void add(final List<Object> parts, final Difference difference) {
+			parts.add(Collections.singletonList(difference));
+			if (done != null) {
+				done.set(true);
+			}
+		}
+	}
+
+	/**
+	 * Compares the content of a pair of regular files of the same size.
+	 */
+	private static final class Content extends Task {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Path expected;
+		private final Path actual;
+		private final String path;
+
+		Content(final Path expected, final Path actual, final String path, final AtomicBoolean done,
+				final AtomicLong operations) {
+			super(done, operations);
+			this.expected = expected;
+			this.actual = actual;
+			this.path = path;
+		}
+
+		@Override
+		List<Difference> differences() {
+			if (done != null && done.get()) {
+				return Collections.emptyList();
+			}
+
+			String changes;
+			try {
+				final long at = FileContent.mismatch(expected, actual);
+				if (at < 0) {
+					return Collections.emptyList();
+				}
+				changes = "content differs at byte " + at;
+			} catch (IOException e) {
+				changes = "content could not be compared: " + e;
+			}
+			if (done != null) {
+				done.set(true);
+			}
+			return Collections.singletonList(new Difference("changed ", path, changes));
+		}
+	}
+
+	// ========================================================================
+	// Helpers
+	// ========================================================================
+
+	private static List<Path> list(final Path directory) throws IOException {
+		Instrumentation.operation();
+		final List<Path> entries = new ArrayList<>();
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+			for (final Path entry : stream) {
+				entries.add(entry);
+			}
+		} catch (DirectoryIteratorException e) {
+			throw e.getCause();
+		}
+		Collections.sort(entries, BY_NAME);
+		return entries;
+	}
+
+	/**
+	 * @return the differences, in order, once every task has completed
+	 */
+	@SuppressWarnings("unchecked")
+	private static List<Difference> collect(final List<Object> parts) {
+		final List<Difference> differences = new ArrayList<>();
+		for (final Object part : parts) {
+			if (part instanceof ForkJoinTask) {
+				differences.addAll(((ForkJoinTask<List<Difference>>) part).join());
+			} else {
+				differences.addAll((List<Difference>) part);
+			}
+		}
+		return differences;
+	}
+
+	private static String type(final BasicFileAttributes attributes) {
+		if (attributes.isDirectory()) {
+			return "directory";
+		}
+		if (attributes.isRegularFile()) {
+			return "regular file";
+		}
+		if (attributes.isSymbolicLink()) {
+			return "symbolic link";
+		}
+		return "other";
+	}
+
+	private static void change(final StringBuilder changes, final String what, final String expected,
+			final String actual) {
+		changes.append(changes.length() > 0 ? ", " : "").append(what).append(" was ").append(expected)
+				.append(", is ").append(actual);
+	}
+}
@@ -0,0 +1,29 @@
+package ca.seinesoftware.hamcrest.path;
+
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.hamcrest.StringDescription;
+
+class Size extends BasicAttributeMatcher {
+
+	private final Matcher<? super Long> matcher;
+
+	public Size(final Matcher<? super Long> matcher, final LinkOption... linkOptions) {
+		super("a file system entry with a size of " + StringDescription.toString(matcher), linkOptions);
+		this.matcher = matcher;
+	}
+
+	@Override
+	boolean matchesAttributes(final Path path, final BasicFileAttributes attributes, final PathProbe probe) {
+		return matcher.matches(attributes.size());
+	}
+
+	@Override
+	void describeAttributes(final Path path, final BasicFileAttributes attributes, final Description description) {
+		description.appendValue(path).appendText(" has a size of ").appendValue(attributes.size());
+	}
+}
@@ -0,0 +1,39 @@
+package ca.seinesoftware.hamcrest.path;
+
+import java.nio.file.Path;
+
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.hamcrest.TypeSafeDiagnosingMatcher;
+
+class SnapshotMatching extends TypeSafeDiagnosingMatcher<PathSnapshot> {
+
+	private final Matcher<? super Path> matcher;
+
+	public SnapshotMatching(final Matcher<? super Path> matcher) {
+		this.matcher = matcher;
+	}
+
+	@Override
+	public void describeTo(Description description) {
+		description.appendText("a snapshot of ").appendDescriptionOf(matcher);
+	}
+
+	@Override
+	protected boolean matchesSafely(final PathSnapshot snapshot, final Description mismatchDescription) {
+		if (snapshot.matches(matcher)) {
+			return true;
+		}
+		describe(snapshot, matcher, mismatchDescription);
+		return false;
+	}
+
+	/**
+	 * Describe the mismatch as of the time the snapshot was taken.
+	 */
+	static void describe(final PathSnapshot snapshot, final Matcher<? super Path> matcher,
+			final Description description) {
+		description.appendText("as of ").appendText(snapshot.getTimestamp().toString()).appendText(", ");
+		snapshot.describeMismatch(matcher, description);
+	}
+}
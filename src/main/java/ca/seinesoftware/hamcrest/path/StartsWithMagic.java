@@ -0,0 +1,65 @@
+package ca.seinesoftware.hamcrest.path;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.hamcrest.Description;
+
+class StartsWithMagic extends ContentMatcher {
+
+	private final byte[] magic;
+
+	public StartsWithMagic(final byte[] magic) {
+		super("starting with " + hex(magic, magic.length));
+		this.magic = magic.clone();
+	}
+
+	@Override
+	boolean matchesContent(final Path path) throws IOException {
+		return mismatch(read(path)) < 0;
+	}
+
+	@Override
+	void describeContentMismatch(final Path path, final Description description) throws IOException {
+		final byte[] start = read(path);
+		final int offset = mismatch(start);
+		if (offset == start.length) {
+			description.appendValue(path).appendText(" is only ").appendValue(start.length)
+					.appendText(" bytes long");
+		} else {
+			description.appendValue(path).appendText(" differs at offset ").appendValue(offset)
+					.appendText(": starts with ").appendText(hex(start, start.length));
+		}
+	}
+
+	/**
+	 * @return as many of the file's first bytes as the magic number is long
+	 */
+	private byte[] read(final Path path) throws IOException {
+		final ByteBuffer start = ByteBuffer.allocate(magic.length);
+		FileContent.read(path, 0, magic.length, new FileContent.Visitor() {
+			@Override
+			public boolean visit(final ByteBuffer buffer, final long offset) {
+				start.put(buffer);
+				return true;
+			}
+		});
+		return Arrays.copyOf(start.array(), start.position());
+	}
+
+	/**
+	 * @return the offset of the first byte differing from the magic number,
+	 *         {@code start.length} if every byte read matches but there are
+	 *         too few, or {@code -1} if the file starts with the magic number
+	 */
+	private int mismatch(final byte[] start) {
+		for (int i = 0; i < start.length; i++) {
+			if (start[i] != magic[i]) {
+				return i;
+			}
+		}
+		return start.length == magic.length ? -1 : start.length;
+	}
+}
@@ -1,19 +1,24 @@
 package ca.seinesoftware.hamcrest.path;
 
-import java.nio.file.Files;
 import java.nio.file.Path;
 
-import org.hamcrest.Description;
-
 class SymbolicLink extends PathMatcher {
 
-	@Override
-	public void describeTo(Description description) {
-		description.appendText("a symbolic link");
+	public SymbolicLink() {
+		this(PathProbe.FILES);
+	}
+
+	SymbolicLink(PathProbe probe) {
+		super(probe, "a symbolic link");
 	}
 
 	@Override
 	protected boolean matchesSafely(Path path) {
-		return Files.isSymbolicLink(path);
+		return evaluate(path, probe);
+	}
+
+	@Override
+	boolean matchesSafely(Path path, PathProbe probe) {
+		return probe.isSymbolicLink(path);
 	}
 }
\ No newline at end of file
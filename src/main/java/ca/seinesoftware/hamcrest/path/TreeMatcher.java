@@ -0,0 +1,315 @@
+package ca.seinesoftware.hamcrest.path;
+
+import java.io.IOException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collections;
+
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.hamcrest.TypeSafeDiagnosingMatcher;
+
+/**
+ * Base class for matchers which examine every entry below a directory in a
+ * single {@link Files#walkFileTree(Path, java.nio.file.FileVisitor)
+ * walkFileTree} pass. The root directory itself is not an entry.
+ * <p>
+ * Symbolic links are not followed, except for a link to the root directory,
+ * whose entries are reported below the link. A tree with a directory which
+ * cannot be listed, or an entry whose attributes cannot be read, does not
+ * match, as it could not be walked. Entry matchers created by
+ * {@link PathMatcher} are answered from the attributes the walk has already
+ * read, rather than asking the file system about each entry again.
+ */
+abstract class TreeMatcher extends TypeSafeDiagnosingMatcher<Path> {
+
+	/**
+	 * Receives each entry of the tree.
+	 */
+	interface EntryVisitor {
+
+		/**
+		 * @param entry
+		 *            the entry being visited
+		 * @param probe
+		 *            a probe which answers from the entry's attributes
+		 * @return {@code false} to end the walk early
+		 */
+		boolean visit(Path entry, PathProbe probe);
+	}
+
+	/**
+	 * Evaluates the matcher with {@link #matchesTree(Path, Description)},
+	 * recording it if {@link Instrumentation} is enabled: as an evaluation
+	 * when the mismatch is not wanted, and as a description when it is.
+	 */
+	@Override
+	protected final boolean matchesSafely(final Path root, final Description mismatch) {
+		if (!Instrumentation.enabled) {
+			return matchesTree(root, mismatch);
+		}
+		final long operations = Instrumentation.operations();
+		final long start = System.nanoTime();
+		try {
+			return matchesTree(root, mismatch);
+		} finally {
+			Instrumentation.record(getClass(), !(mismatch instanceof Description.NullDescription),
+					System.nanoTime() - start, Instrumentation.operations() - operations);
+		}
+	}
+
+	/**
+	 * @param mismatch
+	 *            where to describe why the tree does not match
+	 * @see TypeSafeDiagnosingMatcher#matchesSafely(Object, Description)
+	 */
+	abstract boolean matchesTree(Path root, Description mismatch);
+
+	/**
+	 * Walk every entry below the root.
+	 *
+	 * @return {@code false}, having described why, if the root is not a
+	 *         directory or could not be walked
+	 */
+	static boolean walk(final Path root, final EntryVisitor visitor, final Description mismatch) {
+		return walk(root, null, visitor, mismatch);
+	}
+
+	/**
+	 * Walk the entries below the root which match a pattern, skipping any
+	 * subtree in which none can.
+	 *
+	 * @param pattern
+	 *            the pattern entries must match to be visited, or
+	 *            {@code null} to visit every entry
+	 * @return {@code false}, having described why, if the root is not a
+	 *         directory or could not be walked
+	 */
+	static boolean walk(final Path root, final EntryPattern pattern, final EntryVisitor visitor,
+			final Description mismatch) {
+		Instrumentation.operation();
+		if (!Files.isDirectory(root)) {
+			PathMatcher.aDirectory().describeMismatch(root, mismatch);
+			return false;
+		}
+
+		try {
+			if (pattern == null) {
+				walk(root, Integer.MAX_VALUE, null, visitor);
+				return true;
+			}
+			final EntryPattern.Scope scope = pattern.scope(root);
+			final Path start = scope.start();
+			if (start != null) {
+				walk(start, scope.maxDepth(), scope, visitor);
+			}
+			return true;
+		} catch (IOException e) {
+			mismatch.appendValue(root).appendText(" could not be walked: ").appendText(e.toString());
+			return false;
+		}
+	}
+
+	/**
+	 * Walk from a directory which, if it is a symbolic link, is followed; the
+	 * entries are still reported below the link.
+	 */
+	private static void walk(final Path start, final int maxDepth, final EntryPattern.Scope scope,
+			final EntryVisitor visitor) throws IOException {
+		final Path real = PathProbe.FILES.isSymbolicLink(start) ? start.toRealPath() : start;
+		Files.walkFileTree(real, Collections.<FileVisitOption> emptySet(), maxDepth,
+				new Walker(real, start, scope, visitor));
+	}
+
+	/**
+	 * Describe an entry which did not match the entry matcher.
+	 */
+	static void describeEntryMismatch(final Matcher<? super Path> matcher, final Path entry,
+			final Description mismatch) {
+		mismatch.appendText("entry ");
+		matcher.describeMismatch(entry, mismatch);
+	}
+
+	// ========================================================================
+	// Walker
+	// ========================================================================
+
+	private static final class Walker extends SimpleFileVisitor<Path> {
+
+		private final Path start;
+		private final Path reported;
+		private final EntryPattern.Scope scope;
+		private final EntryVisitor visitor;
+		private final VisitedEntry probe = new VisitedEntry();
+
+		/**
+		 * @param start
+		 *            the directory walked
+		 * @param reported
+		 *            the path below which entries are reported, which is the
+		 *            start unless it is the real path of a symbolic link
+		 * @param scope
+		 *            the entries to visit, or {@code null} for all
+		 */
+		Walker(final Path start, final Path reported, final EntryPattern.Scope scope, final EntryVisitor visitor) {
+			this.start = start;
+			this.reported = reported;
+			this.scope = scope;
+			this.visitor = visitor;
+		}
+
+		@Override
+		public FileVisitResult preVisitDirectory(final Path dir, final BasicFileAttributes attrs) {
+			if (dir.equals(start)) {
+				return FileVisitResult.CONTINUE;
+			}
+			final FileVisitResult result = visit(dir, attrs);
+			if (result == FileVisitResult.CONTINUE && scope != null && !scope.descend(report(dir))) {
+				return FileVisitResult.SKIP_SUBTREE;
+			}
+			return result;
+		}
+
+		@Override
+		public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) {
+			return visit(file, attrs);
+		}
+
+		/**
+		 * Skip an entry which was removed after its directory was listed;
+		 * any other failure, such as a directory which cannot be listed, ends
+		 * the walk, so that no subtree is passed over unread.
+		 */
+		@Override
+		public FileVisitResult visitFileFailed(final Path file, final IOException exc) throws IOException {
+			if (exc instanceof NoSuchFileException) {
+				return FileVisitResult.CONTINUE;
+			}
+			throw exc;
+		}
+
+		private FileVisitResult visit(final Path visited, final BasicFileAttributes attrs) {
+			Instrumentation.operation();
+			final Path entry = report(visited);
+			if (scope != null && !scope.matches(entry)) {
+				return FileVisitResult.CONTINUE;
+			}
+			probe.reset(entry, attrs);
+			return visitor.visit(entry, probe) ? FileVisitResult.CONTINUE : FileVisitResult.TERMINATE;
+		}
+
+		private Path report(final Path visited) {
+			return reported == start ? visited : reported.resolve(start.relativize(visited));
+		}
+	}
+
+	/**
+	 * Answers questions about the visited entry from the attributes handed to
+	 * the visitor, which were read without following symbolic links. Anything
+	 * else is asked of the file system.
+	 */
+	static final class VisitedEntry extends PathProbe {
+
+		private Path entry;
+		private BasicFileAttributes attrs;
+
+		void reset(final Path entry, final BasicFileAttributes attrs) {
+			this.entry = entry;
+			this.attrs = attrs;
+		}
+
+		@Override
+		BasicFileAttributes readAttributes(final Path path, final LinkOption... options) throws IOException {
+			if (attrs != null && path.equals(entry) && (noFollow(options) || !attrs.isSymbolicLink())) {
+				return attrs;
+			}
+			return FILES.readAttributes(path, options);
+		}
+	}
+
+	// ========================================================================
+	// Differences
+	// ========================================================================
+
+	/**
+	 * Describes the differences between a tree and what it was expected to
+	 * be, one line each, in the order they are added.
+	 */
+	static final class Differences {
+
+		/**
+		 * The most differences described; the rest are only counted.
+		 */
+		static final int MAXIMUM_REPORTED = 100;
+
+		private final Path root;
+		private final String heading;
+		private final Description mismatch;
+		private final boolean describing;
+		private int count;
+
+		/**
+		 * @param heading
+		 *            what is wrong with the tree, following it on the first
+		 *            line, for instance {@code "differs from the manifest"}
+		 */
+		Differences(final Path root, final String heading, final Description mismatch) {
+			this.root = root;
+			this.heading = heading;
+			this.mismatch = mismatch;
+			this.describing = !(mismatch instanceof Description.NullDescription);
+		}
+
+		/**
+		 * @return whether more differences are of interest; when only
+		 *         matching, the first one decides
+		 */
+		boolean wanted() {
+			return describing || count == 0;
+		}
+
+		void add(final String kind, final String path, final CharSequence changes) {
+			final Description line = next();
+			if (line == null) {
+				return;
+			}
+			line.appendText(kind).appendValue(path);
+			if (changes != null) {
+				line.appendText(": ").appendText(changes.toString());
+			}
+		}
+
+		/**
+		 * Count a difference.
+		 *
+		 * @return where to describe it, on a line of its own, or {@code null}
+		 *         if it is only counted
+		 */
+		Description next() {
+			if (++count > MAXIMUM_REPORTED) {
+				return null;
+			}
+			if (count == 1) {
+				mismatch.appendValue(root).appendText(" ").appendText(heading).appendText(":");
+			}
+			return mismatch.appendText("\n    ");
+		}
+
+		/**
+		 * @return {@code true} if there were no differences
+		 */
+		boolean end() {
+			if (count > MAXIMUM_REPORTED) {
+				mismatch.appendText("\n    and ").appendText(Integer.toString(count - MAXIMUM_REPORTED))
+						.appendText(" more");
+			}
+			return count == 0;
+		}
+	}
+}
@@ -0,0 +1,428 @@
+package ca.seinesoftware.hamcrest.path;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.hamcrest.TypeSafeDiagnosingMatcher;
+
+/**
+ * WatchedTree
+ * <p>
+ * A matcher which, like {@link PathMatcher#everyEntry(Matcher)}, matches a
+ * directory in which every entry satisfies the given matcher, for harnesses
+ * which assert the same tree repeatedly. The first match walks the whole
+ * tree, remembers the outcome for each entry, and registers every directory
+ * with a {@link WatchService}. Later matches of the same directory only
+ * re-evaluate the entries the watch service has reported as created or
+ * modified, and forget those reported as deleted. If the watch service
+ * reports that events were lost, or cannot watch the tree at all, the tree is
+ * walked again in full.
+ * <p>
+ * For example:
+ *
+ * <pre>
+ * try (WatchedTree staging = watchedEveryEntry(both(readable()).and(not(writable())))) {
+ *     for (Phase phase : phases) {
+ *         phase.run();
+ *         assertThat(stagingDirectory, staging);
+ *     }
+ * }
+ * </pre>
+ *
+ * <p>
+ * Before answering from the remembered outcomes, the matcher creates a file
+ * in a private temporary directory, watched by the same watch service, and
+ * waits for its creation to be reported: the watch service reports changes in
+ * the order they were made, so every change made before the match has then
+ * been reported too. If it is not reported within {@value #BARRIER_TIMEOUT}
+ * milliseconds, the whole tree is walked instead. A watch service which polls
+ * the file system, as on macOS, reports changes only when it next polls, so
+ * with one, or on a file system other than the default, every match walks the
+ * whole tree.
+ * {@link #rescan()} discards the remembered outcomes, so that the next match
+ * walks the whole tree.
+ * <p>
+ * Unlike {@code everyEntry}, the mismatch description lists every entry which
+ * does not match. The matcher holds a watch service until it is
+ * {@link #close() closed}.
+ */
+public final class WatchedTree extends TypeSafeDiagnosingMatcher<Path> implements Closeable {
+
+	/**
+	 * How long, in milliseconds, the watch service is given to report the
+	 * change to the barrier before a match.
+	 */
+	static final long BARRIER_TIMEOUT = 1000;
+
+	private final Matcher<? super Path> matcher;
+
+	private Path root;
+	private Object rootKey;
+	private WatchService watcher;
+	private boolean stale = true;
+
+	/**
+	 * The temporary directory in which a file is created before each match,
+	 * whose creation is reported after every change made before it.
+	 */
+	private Path barrier;
+	private WatchKey barrierKey;
+	private long barriers;
+
+	private final Map<WatchKey, Path> directories = new HashMap<>();
+	private final Map<Path, WatchKey> watched = new HashMap<>();
+	private final Set<Path> entries = new LinkedHashSet<>();
+	private final Set<Path> failures = new TreeSet<>();
+
+	WatchedTree(final Matcher<? super Path> matcher) {
+		this.matcher = matcher;
+	}
+
+	@Override
+	public void describeTo(Description description) {
+		description.appendText("a directory in which every entry is ").appendDescriptionOf(matcher);
+	}
+
+	@Override
+	protected synchronized boolean matchesSafely(final Path root, final Description mismatch) {
+		BasicFileAttributes attributes;
+		try {
+			attributes = PathProbe.FILES.readAttributes(root);
+		} catch (IOException e) {
+			attributes = null;
+		}
+		if (attributes == null || !attributes.isDirectory()) {
+			PathMatcher.aDirectory().describeMismatch(root, mismatch);
+			return false;
+		}
+		if (!root.equals(this.root) || !Objects.equals(attributes.fileKey(), rootKey)) {
+			// Another directory, or the same one replaced, such as by moving
+			// it away, which its watch key would not report
+			this.root = root;
+			rootKey = attributes.fileKey();
+			stale = true;
+		}
+
+		if (!stale) {
+			update();
+		}
+		if (stale && !scan(mismatch)) {
+			return false;
+		}
+
+		if (failures.isEmpty()) {
+			return true;
+		}
+		mismatch.appendText(Integer.toString(failures.size())).appendText(" of ")
+				.appendText(Integer.toString(entries.size())).appendText(" entries did not match");
+		for (final Path failure : failures) {
+			mismatch.appendText("\n    ");
+			TreeMatcher.describeEntryMismatch(matcher, failure, mismatch);
+		}
+		return false;
+	}
+
+	/**
+	 * Discard every remembered outcome, so the next match walks the whole tree
+	 * again.
+	 */
+	public synchronized void rescan() {
+		stale = true;
+	}
+
+	/**
+	 * Stop watching the tree. The matcher may still be used, but walks the
+	 * whole tree again on its next match.
+	 *
+	 * @throws IOException
+	 *             if the watch service cannot be closed
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		stale = true;
+		forget();
+		closeWatcher();
+	}
+
+	private void closeWatcher() throws IOException {
+		try {
+			if (watcher != null) {
+				watcher.close();
+			}
+		} finally {
+			watcher = null;
+			removeBarrier();
+		}
+	}
+
+	// ========================================================================
+	// Full scan
+	// ========================================================================
+
+	private void forget() {
+		for (final WatchKey key : directories.keySet()) {
+			key.cancel();
+		}
+		directories.clear();
+		watched.clear();
+		entries.clear();
+		failures.clear();
+	}
+
+	/**
+	 * Walk the whole tree.
+	 *
+	 * @return {@code false}, having described why, if it cannot be walked
+	 */
+	private boolean scan(final Description mismatch) {
+		forget();
+		if (watcher != null && !barrierKey.isValid()) {
+			// Nothing could be vouched for with it
+			try {
+				closeWatcher();
+			} catch (IOException e) {
+				// Nothing more can be done
+			}
+		}
+		if (watcher == null) {
+			openWatchService();
+		}
+
+		stale = false;
+		watch(root);
+		if (!walk(root, mismatch)) {
+			stale = true;
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Open a watch service which reports changes in order, and register the
+	 * barrier with it, leaving none open if there is no such service.
+	 */
+	private void openWatchService() {
+		if (root.getFileSystem() != FileSystems.getDefault()) {
+			return;
+		}
+		try {
+			watcher = root.getFileSystem().newWatchService();
+			if (watcher.getClass().getSimpleName().equals("PollingWatchService")) {
+				closeWatcher();
+				return;
+			}
+			barrier = Files.createTempDirectory("watched-tree");
+			barrierKey = barrier.register(watcher, StandardWatchEventKinds.ENTRY_CREATE);
+		} catch (IOException | UnsupportedOperationException e) {
+			try {
+				closeWatcher();
+			} catch (IOException f) {
+				// Nothing more can be done
+			}
+		}
+	}
+
+	private void removeBarrier() {
+		barrierKey = null;
+		if (barrier != null) {
+			try {
+				Files.deleteIfExists(barrier);
+			} catch (IOException e) {
+				// Nothing more can be done
+			} finally {
+				barrier = null;
+			}
+		}
+	}
+
+	private boolean walk(final Path directory, final Description mismatch) {
+		return TreeMatcher.walk(directory, new TreeMatcher.EntryVisitor() {
+			@Override
+			public boolean visit(final Path entry, final PathProbe probe) {
+				record(entry, PathMatcher.matches(matcher, entry, probe));
+				if (probe.isDirectory(entry, LinkOption.NOFOLLOW_LINKS)) {
+					watch(entry);
+				}
+				return true;
+			}
+		}, mismatch);
+	}
+
+	private void watch(final Path directory) {
+		if (watcher == null) {
+			stale = true;
+			return;
+		}
+		try {
+			final WatchKey key = directory.register(watcher, StandardWatchEventKinds.ENTRY_CREATE,
+					StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+			directories.put(key, directory);
+			watched.put(directory, key);
+		} catch (IOException | UnsupportedOperationException | ClosedWatchServiceException e) {
+			// Changes to this directory would go unseen
+			stale = true;
+		}
+	}
+
+	private void record(final Path entry, final boolean matches) {
+		entries.add(entry);
+		if (matches) {
+			failures.remove(entry);
+		} else {
+			failures.add(entry);
+		}
+	}
+
+	// ========================================================================
+	// Incremental update
+	// ========================================================================
+
+	/**
+	 * Re-evaluate the entries reported as changed since the last match, once
+	 * the change to the barrier shows that every earlier change has been
+	 * reported; or else mark the tree stale.
+	 */
+	private void update() {
+		final Set<Path> changed = new LinkedHashSet<>();
+		// A new name each time, so that a late report of an earlier barrier is
+		// not taken for this one
+		final Path name = barrier.getFileSystem().getPath(Long.toString(++barriers));
+		try {
+			Files.delete(Files.createFile(barrier.resolve(name)));
+			final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(BARRIER_TIMEOUT);
+			boolean ordered = false;
+			while (!ordered) {
+				final WatchKey key = watcher.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+				if (key == null) {
+					// Changes may not have been reported yet
+					stale = true;
+					break;
+				}
+				if (key == barrierKey) {
+					ordered = created(key, name);
+				} else {
+					changes(key, changed);
+				}
+			}
+		} catch (IOException | ClosedWatchServiceException e) {
+			stale = true;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			stale = true;
+		}
+
+		if (stale) {
+			return;
+		}
+		for (final Path entry : changed) {
+			evaluate(entry);
+		}
+	}
+
+	/**
+	 * Collect the entries a key reports as changed, and reset it.
+	 */
+	private void changes(final WatchKey key, final Set<Path> changed) {
+		final Path directory = directories.get(key);
+		for (final WatchEvent<?> event : key.pollEvents()) {
+			if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+				stale = true;
+			} else if (directory != null) {
+				changed.add(directory.resolve((Path) event.context()));
+			}
+		}
+		if (!key.reset()) {
+			directories.remove(key);
+			if (directory != null && (directory.equals(root) || !watched.containsKey(directory.getParent()))) {
+				// A directory deleted which no watched parent reports, such
+				// as the root
+				stale = true;
+			}
+		}
+	}
+
+	/**
+	 * @return whether the barrier key reports the creation of the named file
+	 */
+	private boolean created(final WatchKey key, final Path name) {
+		boolean created = false;
+		for (final WatchEvent<?> event : key.pollEvents()) {
+			if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+				stale = true;
+			} else if (name.equals(event.context())) {
+				created = true;
+			}
+		}
+		if (!key.reset()) {
+			// Nothing can be vouched for from now on
+			stale = true;
+		}
+		return created;
+	}
+
+	private void evaluate(final Path entry) {
+		final boolean directory;
+		try {
+			directory = PathProbe.FILES.readAttributes(entry, LinkOption.NOFOLLOW_LINKS).isDirectory();
+		} catch (IOException e) {
+			remove(entry);
+			return;
+		}
+
+		final WatchKey key = watched.get(entry);
+		final boolean unwatched = key == null || !key.isValid();
+		if (key != null && (!directory || unwatched)) {
+			// A directory deleted, and perhaps replaced: forget its entries
+			remove(entry);
+		}
+
+		record(entry, matcher.matches(entry));
+		if (directory && unwatched) {
+			// Entries created before the directory was watched are only found
+			// by walking it
+			watch(entry);
+			if (!walk(entry, Description.NONE)) {
+				// The next scan describes why
+				stale = true;
+			}
+		}
+	}
+
+	/**
+	 * Forget an entry which no longer exists, and everything below it.
+	 */
+	private void remove(final Path entry) {
+		entries.remove(entry);
+		failures.remove(entry);
+		if (watched.remove(entry) != null) {
+			for (final Iterator<Path> i = entries.iterator(); i.hasNext();) {
+				final Path descendant = i.next();
+				if (descendant.startsWith(entry)) {
+					i.remove();
+					failures.remove(descendant);
+					watched.remove(descendant);
+				}
+			}
+		}
+	}
+}
@@ -1,20 +1,24 @@
 package ca.seinesoftware.hamcrest.path;
 
-import java.nio.file.Files;
 import java.nio.file.Path;
 
-import org.hamcrest.Description;
-
 class Writable extends PathMatcher {
 
-	@Override
-	public void describeTo(Description description) {
-		super.describeTo(description);
-		description.appendText("a writable file or directory");
+	public Writable() {
+		this(PathProbe.FILES);
+	}
+
+	Writable(PathProbe probe) {
+		super(probe, "a writable file or directory");
 	}
 
 	@Override
 	protected boolean matchesSafely(Path path) {
-		return Files.isWritable(path);
+		return evaluate(path, probe);
+	}
+
+	@Override
+	boolean matchesSafely(Path path, PathProbe probe) {
+		return probe.isWritable(path);
 	}
 }
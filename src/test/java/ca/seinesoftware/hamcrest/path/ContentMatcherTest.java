@@ -0,0 +1,288 @@
+package ca.seinesoftware.hamcrest.path;
+
+import static ca.seinesoftware.hamcrest.path.Descriptions.mismatchDescriptionFor;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.containsBytes;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.contentMatchesRegex;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.hasCrc32c;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.hasDigest;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.hasLineCount;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.startsWithMagic;
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static org.hamcrest.Matchers.both;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import org.hamcrest.Matcher;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ContentMatcherTest {
+
+	// ========================================================================
+	// Test fixtures
+	// ========================================================================
+
+	@ClassRule
+	public static TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private static Path folder, text, unterminated, empty, noFile;
+
+	@BeforeClass
+	public static void beforeClass() throws IOException {
+		folder = temporaryFolder.newFolder("content").toPath();
+		text = Files.write(folder.resolve("text"), "first line\r\nsecond line\nabab abac\n".getBytes(ISO_8859_1));
+		unterminated = Files.write(folder.resolve("unterminated"), "one\ntwo".getBytes(ISO_8859_1));
+		empty = Files.createFile(folder.resolve("empty"));
+		noFile = folder.resolve("no-file");
+	}
+
+	// ========================================================================
+	// containsBytes
+	// ========================================================================
+
+	@Test
+	public void textContainsBytes() {
+		assertThat(text, containsBytes("abac".getBytes(ISO_8859_1)));
+		assertThat(text, containsBytes("line\r\nsecond".getBytes(ISO_8859_1)));
+		assertThat(empty, containsBytes(new byte[0]));
+	}
+
+	@Test
+	public void textDoesNotContainBytes() {
+		assertThat(text, not(containsBytes("abad".getBytes(ISO_8859_1))));
+		assertThat(empty, not(containsBytes("a".getBytes(ISO_8859_1))));
+	}
+
+	@Test
+	public void containsBytesDescription() {
+		String description = mismatchDescriptionFor(text, containsBytes("abad".getBytes(ISO_8859_1)));
+		assertThat(description, both(containsString("a regular file containing 0x61626164"))
+				.and(containsString("> does not contain them in its <34L> bytes"))
+				.and(containsString("the longest partial match is <3> bytes at offset <24L>")));
+	}
+
+	@Test
+	public void directoryDoesNotContainBytes() {
+		String description = mismatchDescriptionFor(folder, containsBytes(new byte[0]));
+		assertThat(description, containsString(" directory"));
+	}
+
+	// ========================================================================
+	// startsWithMagic
+	// ========================================================================
+
+	@Test
+	public void textStartsWithMagic() {
+		assertThat(text, startsWithMagic("first".getBytes(ISO_8859_1)));
+		assertThat(text, not(startsWithMagic("line".getBytes(ISO_8859_1))));
+	}
+
+	@Test
+	public void startsWithMagicDescription() {
+		String description = mismatchDescriptionFor(text, startsWithMagic("fix".getBytes(ISO_8859_1)));
+		assertThat(description, both(containsString("a regular file starting with 0x666978"))
+				.and(containsString("> differs at offset <2>: starts with 0x666972")));
+	}
+
+	@Test
+	public void shortFileDoesNotStartWithMagic() {
+		String description = mismatchDescriptionFor(unterminated, startsWithMagic("one\ntwo\n".getBytes(ISO_8859_1)));
+		assertThat(description, containsString("> is only <7> bytes long"));
+	}
+
+	@Test
+	public void noFileDoesNotStartWithMagic() {
+		String description = mismatchDescriptionFor(noFile, startsWithMagic(new byte[] { 0 }));
+		assertThat(description, containsString(" does not exist"));
+	}
+
+	// ========================================================================
+	// hasLineCount
+	// ========================================================================
+
+	@Test
+	public void lineCounts() {
+		assertThat(text, hasLineCount(is(3L)));
+		assertThat(unterminated, hasLineCount(is(2L)));
+		assertThat(empty, hasLineCount(is(0L)));
+	}
+
+	@Test
+	public void lineCountDescription() {
+		String description = mismatchDescriptionFor(text, hasLineCount(is(4L)));
+		assertThat(description, both(containsString("a regular file with a line count of is <4L>"))
+				.and(containsString("> has <3L> lines")));
+	}
+
+	// ========================================================================
+	// contentMatchesRegex
+	// ========================================================================
+
+	@Test
+	public void textMatchesRegex() {
+		assertThat(text, contentMatchesRegex("^second"));
+		assertThat(text, contentMatchesRegex("line$"));
+		assertThat(unterminated, contentMatchesRegex("^two$"));
+	}
+
+	@Test
+	public void regexDoesNotSpanLines() {
+		assertThat(text, not(contentMatchesRegex("line\\s+second")));
+	}
+
+	@Test
+	public void contentMatchesRegexDescription() {
+		String description = mismatchDescriptionFor(text, contentMatchesRegex("third"));
+		assertThat(description, both(containsString("a regular file with a line containing a match for \"third\""))
+				.and(containsString("none of the <3L> lines of <")));
+	}
+
+	@Test
+	public void longLineIsSearchedInWindows() throws IOException {
+		int window = ContentMatchesRegex.MAXIMUM_LINE_LENGTH;
+		byte[] line = new byte[3 * window];
+		Arrays.fill(line, (byte) 'a');
+		put(line, window - 2, "ACROSS");
+		put(line, window - ContentMatchesRegex.WINDOW_OVERLAP, "b");
+		put(line, 2 * window + 5, "ERROR");
+		put(line, line.length - 1, "z");
+		Path wide = Files.write(folder.resolve("wide"), "short\n".getBytes(ISO_8859_1));
+		Files.write(wide, line, StandardOpenOption.APPEND);
+		Files.write(wide, "\nwanted\n".getBytes(ISO_8859_1), StandardOpenOption.APPEND);
+
+		assertThat(wide, contentMatchesRegex("ERROR"));
+		assertThat(wide, contentMatchesRegex("\\bwanted$"));
+		assertThat(wide, contentMatchesRegex("aACROSSa"));
+		assertThat(wide, contentMatchesRegex("^a+"));
+		assertThat(wide, not(contentMatchesRegex("x")));
+		assertThat(wide, not(contentMatchesRegex("^b")));
+		assertThat(wide, not(contentMatchesRegex("a$")));
+		assertThat(wide, not(contentMatchesRegex("C$")));
+		String description = mismatchDescriptionFor(wide, contentMatchesRegex("x"));
+		assertThat(description, containsString("none of the <3L> lines of <" + wide + "> contains a match"));
+	}
+
+	@Test
+	public void longLineIsDecodedAcrossBuffers() throws IOException {
+		StringBuilder line = new StringBuilder();
+		for (int i = 0; i < ContentMatchesRegex.MAXIMUM_LINE_LENGTH; i++) {
+			line.append('\u00e9');
+		}
+		Path wide = Files.write(folder.resolve("wide-utf-8"), line.append("\r\n").toString().getBytes("UTF-8"));
+
+		assertThat(wide, contentMatchesRegex("^\u00e9{3}"));
+		assertThat(wide, contentMatchesRegex("\u00e9$"));
+		assertThat(wide, not(contentMatchesRegex("\uFFFD|\r")));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void utf16IsRejected() {
+		contentMatchesRegex(Pattern.compile("x"), StandardCharsets.UTF_16);
+	}
+
+	// ========================================================================
+	// hasDigest
+	// ========================================================================
+
+	@Test
+	public void abcHasDigest() throws IOException {
+		Path abc = Files.write(folder.resolve("abc"), "abc".getBytes(ISO_8859_1));
+		assertThat(abc, hasDigest("SHA-256", "ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad"));
+		assertThat(abc, hasDigest("SHA-256", "BA7816BF8F01CFEA414140DE5DAE2223B00361A396177A9CB410FF61F20015AD"));
+		assertThat(abc, hasDigest("MD5", "900150983cd24fb0d6963f7d28e17f72"));
+	}
+
+	@Test
+	public void digestDescription() {
+		String description = mismatchDescriptionFor(empty, hasDigest("MD5", "900150983cd24fb0d6963f7d28e17f72"));
+		assertThat(description, both(containsString("a regular file with a MD5 digest of 900150983cd24fb0d6963f7d28e17f72"))
+				.and(containsString("> has a MD5 digest of d41d8cd98f00b204e9800998ecf8427e")));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void unknownAlgorithmIsRejected() {
+		hasDigest("NO-SUCH-DIGEST", "00");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void shortDigestIsRejected() {
+		hasDigest("SHA-256", "ba7816bf");
+	}
+
+	// ========================================================================
+	// hasCrc32c
+	// ========================================================================
+
+	@Test
+	public void checkHasCrc32c() throws IOException {
+		Path check = Files.write(folder.resolve("check"), "123456789".getBytes(ISO_8859_1));
+		assertThat(check, hasCrc32c(0xE3069283L));
+		assertThat(empty, hasCrc32c(0));
+	}
+
+	@Test
+	public void crc32cDescription() {
+		String description = mismatchDescriptionFor(unterminated, hasCrc32c(0xE3069283L));
+		assertThat(description, both(containsString("a regular file with a CRC32C of 0xE3069283"))
+				.and(containsString("> has a CRC32C of 0x")));
+	}
+
+	@Test
+	public void changedFileIsChecksummedAgain() throws IOException {
+		Path changing = Files.write(folder.resolve("changing"), "123456780".getBytes(ISO_8859_1));
+		FileTime modified = Files.getLastModifiedTime(changing);
+		Matcher<Path> matcher = hasCrc32c(0xE3069283L);
+		assertThat(mismatchDescriptionFor(changing, matcher), not(containsString("has a CRC32C of 0xE3069283")));
+
+		Files.write(changing, "123456789".getBytes(ISO_8859_1));
+		Files.setLastModifiedTime(changing, modified);
+		assertThat(changing, matcher);
+	}
+
+	@Test
+	public void crc32cCombines() {
+		ByteBuffer check = ByteBuffer.wrap("123456789".getBytes(ISO_8859_1));
+		int first = Crc32c.update(0, (ByteBuffer) check.duplicate().limit(4));
+		int second = Crc32c.update(0, (ByteBuffer) check.duplicate().position(4));
+		assertThat(Crc32c.combine(first, second, 5), is(0xE3069283));
+		assertThat(Crc32c.update(first, (ByteBuffer) check.duplicate().position(4)), is(0xE3069283));
+	}
+
+	@Test
+	public void largeFileIsChecksummedInChunks() throws IOException {
+		byte[] bytes = new byte[(int) Crc32c.CHUNK * 2 + 12345];
+		new Random(42).nextBytes(bytes);
+		Path large = Files.write(folder.resolve("large"), bytes);
+		try {
+			long crc = Crc32c.update(0, ByteBuffer.wrap(bytes)) & 0xFFFFFFFFL;
+			assertThat(large, hasCrc32c(crc));
+			assertThat(large, not(hasCrc32c(crc ^ 1)));
+		} finally {
+			Files.delete(large);
+		}
+	}
+
+	// ========================================================================
+	// Helpers
+	// ========================================================================
+
+	private static void put(byte[] bytes, int at, String text) {
+		byte[] put = text.getBytes(ISO_8859_1);
+		System.arraycopy(put, 0, bytes, at, put.length);
+	}
+}
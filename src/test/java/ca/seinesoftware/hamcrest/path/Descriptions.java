@@ -0,0 +1,31 @@
+package ca.seinesoftware.hamcrest.path;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.hamcrest.Matcher;
+import org.hamcrest.StringDescription;
+
+/**
+ * Builds the description of a mismatch, for the tests to examine.
+ */
+final class Descriptions {
+
+	private Descriptions() {
+	}
+
+	/**
+	 * Check that the matcher does not match, and describe it and the mismatch
+	 * as an assertion would.
+	 */
+	static <T> String mismatchDescriptionFor(T actual, Matcher<T> matcher) {
+		assertThat(matcher.matches(actual), is(false));
+
+		StringDescription description = new StringDescription();
+		description.appendText("Expected ");
+		matcher.describeTo(description);
+		description.appendText(" but ");
+		matcher.describeMismatch(actual, description);
+		return description.toString();
+	}
+}
@@ -0,0 +1,128 @@
+package ca.seinesoftware.hamcrest.path;
+
+import static ca.seinesoftware.hamcrest.path.Descriptions.mismatchDescriptionFor;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.aRegularFile;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.eventually;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.exists;
+import static org.hamcrest.Matchers.both;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class EventuallyTest {
+
+	// ========================================================================
+	// Test fixtures
+	// ========================================================================
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private Path folder, output;
+
+	@Before
+	public void before() throws IOException {
+		folder = temporaryFolder.newFolder("out").toPath();
+		output = folder.resolve("report");
+	}
+
+	/**
+	 * Create a file at a path after a delay, on another thread.
+	 */
+	private static void createLater(final Path path, final long delay) {
+		Thread thread = new Thread() {
+			@Override
+			public void run() {
+				try {
+					Thread.sleep(delay);
+					Files.createDirectories(path.getParent());
+					Files.createFile(path);
+				} catch (InterruptedException | IOException e) {
+					throw new AssertionError(e);
+				}
+			}
+		};
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	// ========================================================================
+	// Blocking
+	// ========================================================================
+
+	@Test
+	public void existingFileMatchesImmediately() throws IOException {
+		Files.createFile(output);
+		long start = System.nanoTime();
+		assertThat(output, eventually(exists(), 1, TimeUnit.MINUTES));
+		assertThat(System.nanoTime() - start, is(lessThan(TimeUnit.SECONDS.toNanos(1))));
+	}
+
+	@Test
+	public void waitsForFile() {
+		createLater(output, 200);
+		assertThat(output, eventually(aRegularFile(), 30, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void waitsForFileInMissingDirectory() {
+		Path nested = folder.resolve("a").resolve("b").resolve("report");
+		createLater(nested, 200);
+		assertThat(nested, eventually(aRegularFile(), 30, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void timeoutDescription() {
+		long start = System.nanoTime();
+		String description = mismatchDescriptionFor(output, eventually(exists(), 200, TimeUnit.MILLISECONDS));
+		assertThat(System.nanoTime() - start, is(lessThan(TimeUnit.SECONDS.toNanos(2))));
+		assertThat(description, both(containsString("an existing filesystem entry within 200 milliseconds"))
+				.and(containsString("> does not exist")));
+	}
+
+	// ========================================================================
+	// Non-blocking
+	// ========================================================================
+
+	@Test
+	public void futureCompletesWithPath() throws Exception {
+		Future<Path> future = eventually(exists(), 30, TimeUnit.SECONDS).await(output);
+		assertThat(future.isDone(), is(false));
+		Files.createFile(output);
+		assertThat(future.get(30, TimeUnit.SECONDS), is(output));
+	}
+
+	@Test
+	public void futureFailsWithMismatch() throws Exception {
+		Future<Path> future = eventually(exists(), 100, TimeUnit.MILLISECONDS).await(output);
+		try {
+			future.get(30, TimeUnit.SECONDS);
+			fail();
+		} catch (ExecutionException e) {
+			assertThat(e.getCause(), is(instanceOf(AssertionError.class)));
+			assertThat(e.getCause().getMessage(), both(containsString("Expected: an existing filesystem entry"))
+					.and(containsString("but: <" + output + "> does not exist")));
+		}
+	}
+
+	@Test
+	public void notEventually() {
+		assertThat(output, not(eventually(exists(), 0, TimeUnit.SECONDS)));
+	}
+}
@@ -0,0 +1,230 @@
+package ca.seinesoftware.hamcrest.path;
+
+import static ca.seinesoftware.hamcrest.path.PathMatcher.aRegularFile;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.attributes;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.everyEntry;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.exists;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.sameFile;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.sameTreeAs;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
+
+import org.hamcrest.StringDescription;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class InstrumentationTest {
+
+	// ========================================================================
+	// Test fixtures
+	// ========================================================================
+
+	private FileSystem fs;
+	private Path root, file, noFile;
+
+	@Before
+	public void before() throws IOException {
+		fs = MemoryFileSystems.newFileSystem();
+		root = Files.createDirectories(fs.getPath("/data"));
+		file = Files.createFile(root.resolve("a.txt"));
+		Files.createFile(root.resolve("b.txt"));
+		noFile = root.resolve("no-file");
+		Instrumentation.reset();
+	}
+
+	@After
+	public void after() throws IOException {
+		Instrumentation.disable();
+		Instrumentation.reset();
+		fs.close();
+	}
+
+	// ========================================================================
+	// Recording
+	// ========================================================================
+
+	@Test
+	public void testNothingRecordedWhenDisabled() {
+		assertThat(file, exists());
+		assertThat(Instrumentation.statistics().isEmpty(), is(true));
+	}
+
+	@Test
+	public void testEvaluationsRecorded() {
+		Instrumentation.enable();
+		assertThat(file, exists());
+		assertThat(noFile, not(exists()));
+
+		final Instrumentation.Statistics statistics = Instrumentation.statistics().get("Exists");
+		assertThat(statistics.getEvaluations(), is(2L));
+		assertThat(statistics.getDescriptions(), is(0L));
+		assertThat(statistics.getOperations(), is(2L));
+		assertThat(sum(statistics.getHistogram()), is(2L));
+	}
+
+	@Test
+	public void testDescriptionsRecorded() {
+		Instrumentation.enable();
+		new StringDescription().appendDescriptionOf(sameFile(file));
+		sameFile(file).describeMismatch(noFile, new StringDescription());
+
+		final Instrumentation.Statistics statistics = Instrumentation.statistics().get("SameFile");
+		assertThat(statistics.getEvaluations(), is(0L));
+		assertThat(statistics.getDescriptions(), is(1L));
+	}
+
+	@Test
+	public void testAttributesMatcherNamed() {
+		Instrumentation.enable();
+		assertThat(file, attributes().regularFile().readable());
+		assertThat(Instrumentation.statistics().keySet(), contains("AttributesMatcher"));
+	}
+
+	@Test
+	public void testTreeMatcherIncludesEntryMatcher() {
+		Instrumentation.enable();
+		assertThat(root, everyEntry(aRegularFile()));
+
+		final Map<String, Instrumentation.Statistics> statistics = Instrumentation.statistics();
+		assertThat(statistics.get("EveryEntry").getEvaluations(), is(1L));
+		assertThat(statistics.get("RegularFile").getEvaluations(), is(2L));
+		assertThat(statistics.get("EveryEntry").getOperations(), is(greaterThan(2L)));
+		assertThat(statistics.get("EveryEntry").getTotalNanos(),
+				is(greaterThan(statistics.get("RegularFile").getTotalNanos())));
+	}
+
+	@Test
+	public void testSameTreeCountsOperationsOfItsTasks() throws IOException {
+		final Path copy = Files.createDirectories(fs.getPath("/copy"));
+		Files.createFile(copy.resolve("a.txt"));
+		Files.createFile(copy.resolve("b.txt"));
+		Instrumentation.enable();
+		final long operations = Instrumentation.operations();
+		assertThat(copy, sameTreeAs(root));
+
+		final long counted = Instrumentation.statistics().get("SameTree").getOperations();
+		assertThat(counted, is(greaterThan(6L)));
+		assertThat(Instrumentation.operations() - operations, is(counted));
+	}
+
+	@Test
+	public void testTreeMatcherMismatchRecordedAsDescription() {
+		Instrumentation.enable();
+		everyEntry(aRegularFile()).describeMismatch(file, new StringDescription());
+		assertThat(Instrumentation.statistics().get("EveryEntry").getDescriptions(), is(1L));
+	}
+
+	@Test
+	public void testReset() {
+		Instrumentation.enable();
+		assertThat(file, exists());
+		Instrumentation.reset();
+		assertThat(Instrumentation.statistics().isEmpty(), is(true));
+	}
+
+	// ========================================================================
+	// Listeners
+	// ========================================================================
+
+	@Test
+	public void testListener() {
+		final List<String> heard = new ArrayList<>();
+		final Instrumentation.Listener listener = new Instrumentation.Listener() {
+			@Override
+			public void evaluated(String matcher, boolean description, long nanos, long operations) {
+				heard.add(matcher + (description ? " described " : " evaluated ") + operations);
+			}
+		};
+
+		Instrumentation.addListener(listener);
+		try {
+			assertThat(file, exists());
+			assertThat(heard, is(empty()));
+
+			Instrumentation.enable();
+			assertThat(file, exists());
+			assertThat(heard, contains("Exists evaluated 1"));
+		} finally {
+			Instrumentation.removeListener(listener);
+		}
+	}
+
+	// ========================================================================
+	// Reporting
+	// ========================================================================
+
+	@Test
+	public void testBuckets() {
+		assertThat(Instrumentation.bucket(0), is(0));
+		assertThat(Instrumentation.bucket(1), is(1));
+		assertThat(Instrumentation.bucket(1023), is(10));
+		assertThat(Instrumentation.bucket(1024), is(11));
+		assertThat(Instrumentation.bucket(Long.MAX_VALUE), is(Instrumentation.BUCKETS - 1));
+	}
+
+	@Test
+	public void testPercentiles() {
+		final long[] histogram = new long[Instrumentation.BUCKETS];
+		histogram[10] = 98;
+		histogram[20] = 2;
+		final Instrumentation.Statistics statistics = new Instrumentation.Statistics("Exists", 100, 0, 100, 0,
+				histogram);
+		assertThat(statistics.nanosAtPercentile(50), is(1023L));
+		assertThat(statistics.nanosAtPercentile(99), is((1L << 20) - 1));
+	}
+
+	@Test
+	public void testSummary() {
+		Instrumentation.enable();
+		assertThat(file, exists());
+		assertThat(Instrumentation.summary(), containsString("Matcher"));
+		assertThat(Instrumentation.summary(), containsString("Exists"));
+	}
+
+	@Test
+	public void testMBean() throws Exception {
+		final ObjectName name = Instrumentation.registerMBean();
+		final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		try {
+			assertThat(Instrumentation.registerMBean(), is(name));
+
+			server.setAttribute(name, new javax.management.Attribute("Enabled", true));
+			assertThat(Instrumentation.isEnabled(), is(true));
+
+			assertThat(file, exists());
+			assertThat((String) server.getAttribute(name, "Summary"), containsString("Exists"));
+			assertThat(((TabularData) server.getAttribute(name, "Statistics")).isEmpty(), is(false));
+			assertThat(Instrumentation.statistics(), hasKey("Exists"));
+		} finally {
+			server.unregisterMBean(name);
+		}
+	}
+
+	private static long sum(final long[] counts) {
+		long sum = 0;
+		for (final long count : counts) {
+			sum += count;
+		}
+		return sum;
+	}
+}
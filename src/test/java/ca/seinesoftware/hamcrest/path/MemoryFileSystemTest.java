@@ -0,0 +1,252 @@
+package ca.seinesoftware.hamcrest.path;
+
+import static ca.seinesoftware.hamcrest.path.Descriptions.mismatchDescriptionFor;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.aDirectory;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.aRegularFile;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.aSymbolicLink;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.attributes;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.containsBytes;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.emptyDirectory;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.entryCount;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.everyEntry;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.everyEntryMatching;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.executable;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.exists;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.hardLinkedTo;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.hasCrc32c;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.hasLineCount;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.hasPermissions;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.hasSize;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.hidden;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.linkCount;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.matchesManifest;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.noDuplicateContent;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.ownedBy;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.readable;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.sameFile;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.sameTreeAs;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.writable;
+import static java.nio.file.LinkOption.NOFOLLOW_LINKS;
+import static org.hamcrest.Matchers.both;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MemoryFileSystemTest {
+
+	// ========================================================================
+	// Test fixtures
+	// ========================================================================
+
+	private FileSystem fs;
+	private Path root, script, config, link, noFile;
+
+	@Before
+	public void before() throws IOException {
+		fs = MemoryFileSystems.newFileSystem("app", "staff");
+		root = Files.createDirectories(fs.getPath("/opt/app"));
+		script = Files.createFile(root.resolve("start.sh"),
+				PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwxr-x---")));
+		Files.write(script, Arrays.asList("#!/bin/sh", "exec java -jar app.jar"), StandardCharsets.UTF_8);
+		config = Files.write(Files.createDirectory(root.resolve("conf")).resolve("app.conf"),
+				"port=8080\n".getBytes(StandardCharsets.UTF_8));
+		link = Files.createSymbolicLink(root.resolve("current"), fs.getPath("conf"));
+		noFile = root.resolve("no-file");
+	}
+
+	@After
+	public void after() throws IOException {
+		fs.close();
+	}
+
+	// ========================================================================
+	// File system
+	// ========================================================================
+
+	@Test
+	public void pathsAreResolved() {
+		Path path = fs.getPath("/opt", "app", "conf");
+		assertThat(path.getParent(), is(root));
+		assertThat(path.getFileName().toString(), is("conf"));
+		assertThat(root.relativize(config).toString(), is("conf/app.conf"));
+		assertThat(root.resolve("../app/./conf").normalize(), is(path));
+		assertThat(fs.getPath("conf").toAbsolutePath().toString(), is("/conf"));
+		assertThat(path.startsWith(root), is(true));
+		assertThat(path.endsWith("app/conf"), is(true));
+	}
+
+	@Test
+	public void contentIsWrittenAndRead() throws IOException {
+		Files.write(config, "host=localhost\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+		assertThat(Files.readAllLines(config, StandardCharsets.UTF_8), contains("port=8080", "host=localhost"));
+		assertThat(Files.size(config), is(25L));
+
+		Files.write(config, new byte[0]);
+		assertThat(Files.size(config), is(0L));
+	}
+
+	@Test
+	public void linksAreFollowed() throws IOException {
+		assertThat(Files.readAllLines(link.resolve("app.conf"), StandardCharsets.UTF_8), contains("port=8080"));
+		assertThat(link.toRealPath(), is(root.resolve("conf")));
+		assertThat(Files.readSymbolicLink(link), is(fs.getPath("conf")));
+	}
+
+	@Test
+	public void directoriesAreListed() throws IOException {
+		List<String> names = new ArrayList<>();
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(root)) {
+			for (Path entry : stream) {
+				names.add(entry.getFileName().toString());
+			}
+		}
+		assertThat(names, contains("conf", "current", "start.sh"));
+	}
+
+	@Test
+	public void entriesAreCopiedMovedAndDeleted() throws IOException {
+		Path copy = Files.copy(config, root.resolve("copy.conf"));
+		assertThat(copy, containsBytes("port".getBytes(StandardCharsets.UTF_8)));
+		Path moved = Files.move(copy, root.resolve("moved.conf"), StandardCopyOption.REPLACE_EXISTING);
+		assertThat(copy, not(exists()));
+		assertThat(moved, aRegularFile());
+		Files.delete(moved);
+		assertThat(moved, not(exists(NOFOLLOW_LINKS)));
+	}
+
+	@Test(expected = DirectoryNotEmptyException.class)
+	public void nonEmptyDirectoryIsNotDeleted() throws IOException {
+		Files.delete(root);
+	}
+
+	@Test(expected = FileAlreadyExistsException.class)
+	public void existingFileIsNotCreated() throws IOException {
+		Files.createFile(script);
+	}
+
+	@Test(expected = NoSuchFileException.class)
+	public void missingParentIsNotCreated() throws IOException {
+		Files.createFile(noFile.resolve("child"));
+	}
+
+	@Test(expected = FileSystemException.class)
+	public void linkLoopIsDetected() throws IOException {
+		Files.createSymbolicLink(root.resolve("loop"), fs.getPath("loop"));
+		Files.readAllBytes(root.resolve("loop"));
+	}
+
+	@Test
+	public void globsAreMatched() {
+		assertThat(fs.getPathMatcher("glob:**/*.{conf,sh}").matches(config), is(true));
+		assertThat(fs.getPathMatcher("glob:/opt/*/start.[a-z]h").matches(script), is(true));
+		assertThat(fs.getPathMatcher("glob:/opt/*.conf").matches(config), is(false));
+		assertThat(fs.getPathMatcher("regex:.*/conf/.*").matches(config), is(true));
+	}
+
+	// ========================================================================
+	// Matchers
+	// ========================================================================
+
+	@Test
+	public void typesAreMatched() {
+		assertThat(root, aDirectory());
+		assertThat(script, aRegularFile());
+		assertThat(link, both(aSymbolicLink()).and(aDirectory()));
+		assertThat(link, not(aDirectory(NOFOLLOW_LINKS)));
+		assertThat(noFile, not(exists()));
+	}
+
+	@Test
+	public void permissionsAreMatched() throws IOException {
+		assertThat(script, both(executable()).and(hasPermissions("rwxr-x---")));
+		assertThat(config, both(readable()).and(writable()).and(not(executable())));
+		assertThat(root, ownedBy("app"));
+
+		Files.setPosixFilePermissions(config, PosixFilePermissions.fromString("r--r--r--"));
+		assertThat(config, not(writable()));
+		assertThat(config, attributes().regularFile().readable().notWritable().notHidden());
+	}
+
+	@Test
+	public void hiddenEntriesAreMatched() throws IOException {
+		assertThat(Files.createFile(root.resolve(".profile")), is(hidden()));
+		assertThat(config, is(not(hidden())));
+		Files.setAttribute(config, "dos:hidden", true);
+		assertThat(config, is(hidden()));
+	}
+
+	@Test
+	public void linksAreMatched() throws IOException {
+		Path hardLink = Files.createLink(root.resolve("hard.conf"), config);
+		assertThat(hardLink, hardLinkedTo(config));
+		assertThat(config, linkCount(is(2)));
+		assertThat(link.resolve("app.conf"), sameFile(config));
+	}
+
+	@Test
+	public void contentIsMatched() throws IOException {
+		assertThat(config, hasSize(is(10L)));
+		assertThat(config, containsBytes("8080".getBytes(StandardCharsets.UTF_8)));
+		assertThat(script, hasLineCount(is(2L)));
+		Path check = Files.write(root.resolve("check"), "123456789".getBytes(StandardCharsets.US_ASCII));
+		assertThat(check, hasCrc32c(0xE3069283L));
+	}
+
+	@Test
+	public void treesAreMatched() throws IOException {
+		assertThat(root, entryCount(is(4)));
+		assertThat(root, everyEntry(exists(NOFOLLOW_LINKS)));
+		assertThat(root, everyEntryMatching("**/*.conf", readable()));
+		assertThat(root, noDuplicateContent());
+		assertThat(Files.createDirectory(root.resolve("empty")), emptyDirectory());
+
+		Path manifest = fs.getPath("/manifest");
+		PathManifest.record(root, manifest, "SHA-256");
+		assertThat(root, matchesManifest(manifest));
+		Files.write(config, "port=9090\n".getBytes(StandardCharsets.UTF_8));
+		assertThat(mismatchDescriptionFor(root, matchesManifest(manifest)), containsString("changed"));
+	}
+
+	@Test
+	public void treesAreCompared() throws IOException {
+		Path expected = Files.createDirectories(fs.getPath("/srv/expected/conf"));
+		Path actual = Files.createDirectories(fs.getPath("/srv/actual/conf"));
+		Files.write(expected.resolve("app.conf"), "port=8080\n".getBytes(StandardCharsets.UTF_8));
+		Files.write(actual.resolve("app.conf"), "port=8080\n".getBytes(StandardCharsets.UTF_8));
+		assertThat(actual.getParent(), sameTreeAs(expected.getParent(), true));
+
+		Files.write(actual.resolve("app.conf"), "port=8081\n".getBytes(StandardCharsets.UTF_8));
+		assertThat(actual.getParent(), sameTreeAs(expected.getParent()));
+		assertThat(mismatchDescriptionFor(actual.getParent(), sameTreeAs(expected.getParent(), true)),
+				containsString("changed \"conf/app.conf\": content differs at byte 8"));
+	}
+
+	@Test
+	public void mismatchIsDescribed() {
+		String description = mismatchDescriptionFor(noFile, aRegularFile());
+		assertThat(description, containsString("</opt/app/no-file> does not exist"));
+	}
+}
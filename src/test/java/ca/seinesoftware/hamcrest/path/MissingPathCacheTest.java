@@ -0,0 +1,189 @@
+package ca.seinesoftware.hamcrest.path;
+
+import static ca.seinesoftware.hamcrest.path.PathMatcher.eventually;
+import static java.nio.file.LinkOption.NOFOLLOW_LINKS;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.hamcrest.StringDescription;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MissingPathCacheTest {
+
+	// ========================================================================
+	// Test fixtures
+	// ========================================================================
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private Path testFolder, testFile, missing;
+
+	@Before
+	public void before() throws IOException {
+		testFolder = temporaryFolder.newFolder("folder").toPath();
+		testFile = Files.createFile(testFolder.resolve("test-file"));
+		missing = testFolder.resolve("missing");
+	}
+
+	@After
+	public void after() {
+		Instrumentation.disable();
+		Instrumentation.reset();
+	}
+
+	// ========================================================================
+	// Caching
+	// ========================================================================
+
+	@Test
+	public void matchersAgreeWithPathMatcher() {
+		MissingPathCache cache = new MissingPathCache(100, false);
+		assertThat(testFolder, cache.exists());
+		assertThat(testFolder, is(cache.aDirectory()));
+		assertThat(testFile, is(cache.aRegularFile(NOFOLLOW_LINKS)));
+		assertThat(missing, is(not(cache.exists())));
+		assertThat(missing.resolve("a"), is(not(cache.aDirectory())));
+		assertThat(missing.resolve("a/b"), is(not(cache.aRegularFile())));
+	}
+
+	@Test
+	public void highestMissingAncestorIsRemembered() {
+		MissingPathCache cache = new MissingPathCache(100, false);
+		assertThat(missing.resolve("a/b/c"), not(cache.exists()));
+		assertThat(cache.size(), is(1));
+
+		assertThat(missing.resolve("d"), not(cache.aRegularFile()));
+		assertThat(missing, not(cache.aDirectory()));
+		assertThat(cache.size(), is(1));
+	}
+
+	@Test
+	public void descendantsAreAnsweredWithoutTheFileSystem() {
+		MissingPathCache cache = new MissingPathCache(100, false);
+		assertThat(missing.resolve("a"), not(cache.exists()));
+
+		Instrumentation.enable();
+		final long operations = Instrumentation.operations();
+		assertThat(missing.resolve("b/c"), not(cache.exists()));
+		assertThat(missing.resolve("d"), not(cache.aDirectory()));
+		assertThat(Instrumentation.operations() - operations, is(0L));
+	}
+
+	@Test
+	public void createdPathsAreMissedUntilInvalidated() throws IOException {
+		MissingPathCache cache = new MissingPathCache(100, false);
+		Path file = missing.resolve("a/file");
+		assertThat(file, not(cache.exists()));
+
+		Files.createDirectories(file.getParent());
+		Files.createFile(file);
+		assertThat(file, not(cache.exists()));
+
+		cache.invalidate(file);
+		assertThat(file, cache.exists());
+		assertThat(cache.size(), is(0));
+	}
+
+	@Test
+	public void invalidateForgetsEverything() throws IOException {
+		MissingPathCache cache = new MissingPathCache(100, false);
+		assertThat(missing.resolve("a"), not(cache.exists()));
+
+		Files.createDirectories(missing.resolve("a"));
+		cache.invalidate();
+		assertThat(missing.resolve("a"), cache.aDirectory());
+	}
+
+	@Test
+	public void existingPathsAreAlwaysAskedAbout() throws IOException {
+		MissingPathCache cache = new MissingPathCache(100, false);
+		assertThat(testFile, cache.exists());
+
+		Files.delete(testFile);
+		assertThat(testFile, not(cache.exists()));
+	}
+
+	@Test
+	public void linksToMissingTargetsAreNotRemembered() throws IOException {
+		MissingPathCache cache = new MissingPathCache(100, false);
+		Path link = Files.createSymbolicLink(testFolder.resolve("link"), missing);
+		assertThat(link, not(cache.exists()));
+		assertThat(cache.size(), is(0));
+
+		Files.createFile(missing);
+		assertThat(link, cache.exists());
+	}
+
+	@Test
+	public void leastRecentlyUsedIsEvicted() throws IOException {
+		MissingPathCache cache = new MissingPathCache(2, false);
+		Path other = testFolder.resolve("other"), third = testFolder.resolve("third");
+
+		assertThat(missing, not(cache.exists()));
+		assertThat(other, not(cache.exists()));
+		assertThat(missing, not(cache.exists()));
+		assertThat(third, not(cache.exists()));
+		assertThat(cache.size(), is(2));
+
+		Files.createFile(missing);
+		Files.createFile(other);
+		assertThat(missing, not(cache.exists()));
+		assertThat(other, cache.exists());
+	}
+
+	@Test
+	public void mismatchIsDescribedFromCache() {
+		MissingPathCache cache = new MissingPathCache(100, false);
+		assertThat(missing.resolve("a"), not(cache.exists()));
+
+		StringDescription description = new StringDescription();
+		cache.exists().describeMismatch(missing.resolve("b"), description);
+		assertThat(description.toString(), containsString(" does not exist"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void maximumSizeMustBePositive() {
+		new MissingPathCache(0, false);
+	}
+
+	// ========================================================================
+	// Watching
+	// ========================================================================
+
+	@Test
+	public void createdPathsAreForgottenWhenWatched() throws IOException {
+		try (MissingPathCache cache = new MissingPathCache(100, true)) {
+			Path file = missing.resolve("file");
+			assertThat(file, not(cache.exists()));
+
+			Files.createDirectory(missing);
+			Files.createFile(file);
+			assertThat(file, eventually(cache.exists(), 10, TimeUnit.SECONDS));
+			assertThat(cache.size(), is(0));
+		}
+	}
+
+	@Test
+	public void unrelatedCreationsAreIgnoredWhenWatched() throws IOException {
+		try (MissingPathCache cache = new MissingPathCache(100, true)) {
+			assertThat(missing, not(cache.exists()));
+
+			Path other = Files.createFile(testFolder.resolve("other"));
+			assertThat(other, cache.exists());
+			assertThat(missing, not(cache.exists()));
+			assertThat(cache.size(), is(1));
+		}
+	}
+}
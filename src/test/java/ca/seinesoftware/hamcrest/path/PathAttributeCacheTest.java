@@ -0,0 +1,133 @@
+package ca.seinesoftware.hamcrest.path;
+
+import static java.nio.file.LinkOption.NOFOLLOW_LINKS;
+import static org.hamcrest.Matchers.both;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.hamcrest.StringDescription;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class PathAttributeCacheTest {
+
+	// ========================================================================
+	// Test fixtures
+	// ========================================================================
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private Path testFolder, testFile;
+
+	@Before
+	public void before() throws IOException {
+		testFolder = temporaryFolder.newFolder("folder").toPath();
+		testFile = Files.createFile(testFolder.resolve("test-file"));
+	}
+
+	// ========================================================================
+	// Caching
+	// ========================================================================
+
+	@Test
+	public void matchersAgreeWithPathMatcher() {
+		PathAttributeCache cache = new PathAttributeCache(100, 1, TimeUnit.MINUTES);
+		assertThat(testFolder, cache.exists());
+		assertThat(testFolder, is(cache.aDirectory()));
+		assertThat(testFolder, is(not(cache.aRegularFile())));
+		assertThat(testFolder, is(not(cache.aSymbolicLink())));
+		assertThat(testFolder, is(both(cache.readable()).and(cache.executable())));
+		assertThat(testFolder, is(not(cache.hidden())));
+		assertThat(testFile, is(cache.aRegularFile(NOFOLLOW_LINKS)));
+		assertThat(testFolder.resolve("no-file"), is(not(cache.exists())));
+	}
+
+	@Test
+	public void resultsAreReusedUntilInvalidated() throws IOException {
+		PathAttributeCache cache = new PathAttributeCache(100, 1, TimeUnit.MINUTES);
+		assertThat(testFile, cache.exists());
+
+		Files.delete(testFile);
+		assertThat(testFile, cache.exists());
+
+		cache.invalidate(testFile);
+		assertThat(testFile, not(cache.exists()));
+	}
+
+	@Test
+	public void failedLookupsAreReusedUntilInvalidated() throws IOException {
+		Path noFile = testFolder.resolve("no-file");
+		PathAttributeCache cache = new PathAttributeCache(100, 1, TimeUnit.MINUTES);
+		assertThat(noFile, not(cache.exists()));
+
+		Files.createFile(noFile);
+		assertThat(noFile, not(cache.exists()));
+
+		cache.invalidate();
+		assertThat(noFile, cache.exists());
+	}
+
+	@Test
+	public void resultsExpire() throws IOException {
+		PathAttributeCache cache = new PathAttributeCache(100, 0, TimeUnit.SECONDS);
+		assertThat(testFile, cache.exists());
+
+		Files.delete(testFile);
+		assertThat(testFile, not(cache.exists()));
+	}
+
+	@Test
+	public void attributesAreShared() {
+		PathAttributeCache cache = new PathAttributeCache(100, 1, TimeUnit.MINUTES);
+		assertThat(testFile, cache.exists(NOFOLLOW_LINKS));
+		assertThat(cache.size(), is(1));
+
+		assertThat(testFile, is(cache.aRegularFile()));
+		assertThat(testFile, is(not(cache.aDirectory())));
+		assertThat(testFile, is(not(cache.aSymbolicLink())));
+		assertThat(cache.size(), is(1));
+	}
+
+	@Test
+	public void leastRecentlyUsedIsEvicted() throws IOException {
+		PathAttributeCache cache = new PathAttributeCache(2, 1, TimeUnit.MINUTES);
+		Path other = Files.createFile(testFolder.resolve("other"));
+
+		assertThat(testFolder, cache.exists());
+		assertThat(testFile, cache.exists());
+		assertThat(testFolder, cache.exists());
+		assertThat(other, cache.exists());
+		assertThat(cache.size(), is(2));
+
+		Files.delete(testFile);
+		Files.delete(other);
+		assertThat(testFile, not(cache.exists()));
+		assertThat(other, cache.exists());
+	}
+
+	@Test
+	public void mismatchIsDescribedFromCache() throws IOException {
+		PathAttributeCache cache = new PathAttributeCache(100, 1, TimeUnit.MINUTES);
+		assertThat(testFile, is(not(cache.aDirectory())));
+		Files.delete(testFile);
+
+		StringDescription description = new StringDescription();
+		cache.aDirectory().describeMismatch(testFile, description);
+		assertThat(description.toString(), containsString(" regular file"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void maximumSizeMustBePositive() {
+		new PathAttributeCache(0, 1, TimeUnit.MINUTES);
+	}
+}
@@ -0,0 +1,144 @@
+package ca.seinesoftware.hamcrest.path;
+
+import static ca.seinesoftware.hamcrest.path.PathMatcher.aRegularFile;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.everyPath;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.exists;
+import static org.hamcrest.Matchers.both;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.hamcrest.StringDescription;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class PathBatchTest {
+
+	// ========================================================================
+	// Test fixtures
+	// ========================================================================
+
+	@ClassRule
+	public static TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private static Path root, a, b, fileA1, fileA2, fileB1, noFileA, noFileB;
+
+	@BeforeClass
+	public static void beforeClass() throws IOException {
+		root = temporaryFolder.newFolder("batch").toPath();
+		a = Files.createDirectory(root.resolve("a"));
+		b = Files.createDirectory(root.resolve("b"));
+		fileA1 = Files.createFile(a.resolve("1"));
+		fileA2 = Files.createFile(a.resolve("2"));
+		fileB1 = Files.createFile(b.resolve("1"));
+		noFileA = a.resolve("none");
+		noFileB = b.resolve("none");
+	}
+
+	// ========================================================================
+	// PathBatch
+	// ========================================================================
+
+	@Test
+	public void allPathsMatch() {
+		BatchResult result = PathBatch.evaluate(Arrays.asList(fileA1, fileB1, fileA2), exists());
+		assertThat(result.isSuccess(), is(true));
+		assertThat(result.evaluated(), is(3));
+		assertThat(result.mismatches(), is(empty()));
+	}
+
+	@Test
+	public void everyMismatchIsCollected() {
+		BatchResult result = PathBatch.evaluate(Arrays.asList(noFileB, fileA1, noFileA, fileB1), exists());
+		assertThat(result.isSuccess(), is(false));
+		assertThat(result.evaluated(), is(4));
+		assertThat(pathsOf(result), contains(noFileA, noFileB));
+		assertThat(result.mismatches().get(0).description(), containsString(" does not exist"));
+	}
+
+	@Test
+	public void pathsAreGroupedByParent() {
+		BatchResult result = PathBatch.evaluate(Arrays.asList(b, fileB1, a, fileA2, root, fileA1),
+				aRegularFile());
+		assertThat(pathsOf(result), contains(root, a, b));
+	}
+
+	@Test
+	public void resultDescribesEveryMismatch() {
+		BatchResult result = PathBatch.evaluate(Arrays.asList(noFileA, noFileB, fileA1), exists());
+		assertThat(result.toString(), both(containsString("2 of 3 paths were not an existing filesystem entry"))
+				.and(containsString("a/none> does not exist")).and(containsString("b/none> does not exist")));
+	}
+
+	@Test
+	public void parallelMatchesSequential() {
+		List<Path> paths = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			paths.add((i % 2 == 0 ? a : b).resolve(Integer.toString(i % 7)));
+		}
+
+		BatchResult sequential = PathBatch.evaluate(paths, exists());
+		BatchResult parallel = PathBatch.evaluate(paths, exists(), 8);
+		assertThat(parallel.evaluated(), is(200));
+		assertThat(pathsOf(parallel), is(pathsOf(sequential)));
+		assertThat(parallel.toString(), is(sequential.toString()));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void parallelismMustBePositive() {
+		PathBatch.evaluate(Arrays.asList(fileA1), exists(), 0);
+	}
+
+	// ========================================================================
+	// everyPath
+	// ========================================================================
+
+	@Test
+	public void everyPathExists() {
+		assertThat(Arrays.asList(fileA1, fileA2, fileB1), everyPath(exists()));
+	}
+
+	@Test
+	public void notEveryPathExists() {
+		assertThat(Arrays.asList(fileA1, noFileA), not(everyPath(exists())));
+	}
+
+	@Test
+	public void notEveryPathExistsInParallel() {
+		assertThat(Arrays.asList(fileA1, noFileA, fileB1), not(everyPath(exists(), 4)));
+		assertThat(Arrays.asList(fileA1, fileA2, fileB1), everyPath(exists(), 4));
+	}
+
+	@Test
+	public void everyPathDescription() {
+		List<Path> paths = Arrays.asList(noFileA, fileA1, noFileB);
+
+		StringDescription description = new StringDescription();
+		everyPath(exists()).describeTo(description);
+		description.appendText(" but ");
+		everyPath(exists()).describeMismatch(paths, description);
+
+		assertThat(description.toString(), both(containsString("every path is an existing filesystem entry but 2 of 3"))
+				.and(containsString("a/none> does not exist")).and(containsString("b/none> does not exist")));
+	}
+
+	private static List<Path> pathsOf(BatchResult result) {
+		List<Path> paths = new ArrayList<>();
+		for (BatchResult.Mismatch mismatch : result.mismatches()) {
+			paths.add(mismatch.path());
+		}
+		return paths;
+	}
+}
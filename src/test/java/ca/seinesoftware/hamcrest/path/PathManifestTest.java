@@ -0,0 +1,132 @@
+package ca.seinesoftware.hamcrest.path;
+
+import static ca.seinesoftware.hamcrest.path.Descriptions.mismatchDescriptionFor;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.matchesManifest;
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static org.hamcrest.Matchers.both;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class PathManifestTest {
+
+	// ========================================================================
+	// Test fixtures
+	// ========================================================================
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private Path root, manifest;
+
+	@Before
+	public void before() throws IOException {
+		root = temporaryFolder.newFolder("tree").toPath();
+		Path a = Files.createDirectory(root.resolve("a"));
+		Files.write(a.resolve("file"), "content".getBytes(ISO_8859_1));
+		Files.write(root.resolve("a-b"), "other".getBytes(ISO_8859_1));
+		Files.write(root.resolve("with\ttab"), "tab".getBytes(ISO_8859_1));
+		manifest = temporaryFolder.getRoot().toPath().resolve("tree.manifest");
+	}
+
+	// ========================================================================
+	// Recording
+	// ========================================================================
+
+	@Test
+	public void unchangedTreeMatches() throws IOException {
+		PathManifest.record(root, manifest);
+		assertThat(root, matchesManifest(manifest));
+	}
+
+	@Test
+	public void unchangedTreeMatchesWithDigests() throws IOException {
+		PathManifest.record(root, manifest, "SHA-256");
+		assertThat(root, matchesManifest(manifest));
+	}
+
+	@Test
+	public void directoryIsFollowedByItsEntries() {
+		assertThat(PathManifest.ORDER.compare("a/file", "a-b"), is(lessThan(0)));
+		assertThat(PathManifest.ORDER.compare("a", "a/file"), is(lessThan(0)));
+		assertThat(PathManifest.ORDER.compare("a-b", "a"), is(greaterThan(0)));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void unknownAlgorithmIsRejected() throws IOException {
+		PathManifest.record(root, manifest, "NO-SUCH-DIGEST");
+	}
+
+	// ========================================================================
+	// Differences
+	// ========================================================================
+
+	@Test
+	public void differencesDescription() throws IOException {
+		PathManifest.record(root, manifest);
+		Files.write(root.resolve("added"), "new".getBytes(ISO_8859_1));
+		Files.delete(root.resolve("with\ttab"));
+		Path file = root.resolve("a").resolve("file");
+		FileTime modified = Files.getLastModifiedTime(file);
+		Files.write(file, "longer content".getBytes(ISO_8859_1));
+		Files.setLastModifiedTime(file, modified);
+
+		String description = mismatchDescriptionFor(root, matchesManifest(manifest));
+		assertThat(description, both(containsString("a directory matching the manifest <"))
+				.and(containsString("> differs from the manifest:"))
+				.and(containsString("\n    changed \"a/file\": size was 7, is 14"))
+				.and(containsString("\n    added \"added\""))
+				.and(containsString("\n    removed \"with\\ttab\"")));
+	}
+
+	@Test
+	public void changedContentIsFoundByDigest() throws IOException {
+		Path file = root.resolve("a-b");
+		PathManifest.record(root, manifest, "SHA-256");
+		FileTime modified = Files.getLastModifiedTime(file);
+		Files.write(file, "OTHER".getBytes(ISO_8859_1));
+		Files.setLastModifiedTime(file, modified);
+
+		String description = mismatchDescriptionFor(root, matchesManifest(manifest));
+		assertThat(description, containsString("changed \"a-b\": digest was "));
+	}
+
+	@Test
+	public void changedContentIsNotFoundWithoutDigest() throws IOException {
+		Path file = root.resolve("a-b");
+		PathManifest.record(root, manifest);
+		FileTime modified = Files.getLastModifiedTime(file);
+		Files.write(file, "OTHER".getBytes(ISO_8859_1));
+		Files.setLastModifiedTime(file, modified);
+
+		assertThat(root, matchesManifest(manifest));
+	}
+
+	@Test
+	public void fileDoesNotMatchManifest() throws IOException {
+		PathManifest.record(root, manifest);
+		String description = mismatchDescriptionFor(manifest, matchesManifest(manifest));
+		assertThat(description, containsString(" regular file"));
+	}
+
+	@Test
+	public void notAManifest() throws IOException {
+		Files.write(manifest, "not a manifest".getBytes(ISO_8859_1));
+		String description = mismatchDescriptionFor(root, matchesManifest(manifest));
+		assertThat(description, containsString("Not a manifest"));
+		assertThat(root, not(matchesManifest(root.resolve("no-manifest"))));
+	}
+}
@@ -3,21 +3,40 @@
  */
 package ca.seinesoftware.hamcrest.path;
 
+import static ca.seinesoftware.hamcrest.path.Descriptions.mismatchDescriptionFor;
 import static ca.seinesoftware.hamcrest.path.PathMatcher.aDirectory;
 import static ca.seinesoftware.hamcrest.path.PathMatcher.aRegularFile;
 import static ca.seinesoftware.hamcrest.path.PathMatcher.aSymbolicLink;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.attributes;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.danglingLink;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.emptyDirectory;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.emptyFile;
 import static ca.seinesoftware.hamcrest.path.PathMatcher.executable;
 import static ca.seinesoftware.hamcrest.path.PathMatcher.exists;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.hardLinkedTo;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.hasSize;
 import static ca.seinesoftware.hamcrest.path.PathMatcher.hidden;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.linkChainLength;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.linkCount;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.linksTo;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.modifiedAfter;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.newerThan;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.olderThan;
 import static ca.seinesoftware.hamcrest.path.PathMatcher.readable;
 import static ca.seinesoftware.hamcrest.path.PathMatcher.sameFile;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.sameFileAsAnyOf;
 import static ca.seinesoftware.hamcrest.path.PathMatcher.writable;
 import static java.nio.file.LinkOption.NOFOLLOW_LINKS;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.anything;
 import static org.hamcrest.Matchers.both;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.hamcrest.Matchers.startsWith;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assume.assumeThat;
@@ -25,9 +44,13 @@ import static org.junit.Assume.assumeThat;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.LinkOption;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.concurrent.TimeUnit;
 
 import org.hamcrest.Matcher;
 import org.hamcrest.StringDescription;
@@ -150,6 +173,24 @@ public class PathMatcherTest {
 				.and(containsString("hidden regular file")));
 	}
 
+	@Test
+	public void isLinkNotADirectoryDescription() {
+		assumeThat(linkFile, notNullValue());
+
+		String description = mismatchDescriptionFor(linkFile, aDirectory());
+		assertThat(description, both(containsString(" is a symbolic link to a readable, "))
+				.and(containsString(" regular file")));
+	}
+
+	@Test
+	public void isDanglingLinkNotADirectoryDescription() {
+		assumeThat(linkNoFile, notNullValue());
+
+		String description = mismatchDescriptionFor(linkNoFile, aDirectory());
+		assertThat(description, both(containsString(" is a symbolic link to a unreadable, "))
+				.and(containsString(" non-existent entry")));
+	}
+
 	// ========================================================================
 	// Regular File
 	// ========================================================================
@@ -347,18 +388,359 @@ public class PathMatcherTest {
 		assertThat(description, both(containsString("test-file> but was <")).and(containsString("no-file>")));
 	}
 
+	@Test
+	public void linkFileIsSameAsTestFile() {
+		assumeThat(linkFile, notNullValue());
+		assertThat(linkFile, is(sameFile(testFile)));
+	}
+
+	@Test
+	public void sameFileMatcherIsReusable() {
+		Matcher<Path> matcher = sameFile(testFile);
+		assertThat(testFolder.resolve(Paths.get("..", "folder", "test-file")), is(matcher));
+		assertThat(hiddenFile, is(not(matcher)));
+		assertThat(testFile, is(matcher));
+	}
+
+	@Test
+	public void isSameAsAnyOf() {
+		Matcher<Path> matcher = sameFileAsAnyOf(Arrays.asList(hiddenFile, testFile, noFile));
+		assertThat(testFolder.resolve(Paths.get("..", "folder", "test-file")), is(matcher));
+		assertThat(hiddenFile, is(matcher));
+		assertThat(noFile, is(matcher));
+		assertThat(testFolder, is(not(matcher)));
+	}
+
+	@Test
+	public void hardLinkIsSameAsAnyOf() throws IOException {
+		Path hardLink;
+		try {
+			hardLink = Files.createLink(testFolder.resolve("hard-link"), hiddenFile);
+		} catch (UnsupportedOperationException | IOException e) {
+			hardLink = null;
+		}
+		assumeThat(hardLink, notNullValue());
+
+		try {
+			assertThat(hardLink, is(sameFileAsAnyOf(Arrays.asList(testFile, hiddenFile))));
+		} finally {
+			Files.delete(hardLink);
+		}
+	}
+
+	@Test
+	public void isNotSameAsAnyOfDescription() {
+		String description = mismatchDescriptionFor(testFolder, sameFileAsAnyOf(Arrays.asList(testFile, noFile)));
+		assertThat(description, both(containsString("the same file as one of {<")).and(containsString("no-file>}"))
+				.and(containsString(" directory")));
+	}
+
+	// ========================================================================
+	// Hard Links
+	// ========================================================================
+
+	@Test
+	public void hardLinkIsHardLinkedTo() throws IOException {
+		Path hardLink;
+		try {
+			hardLink = Files.createLink(testFolder.resolve("hard-linked"), hiddenFile);
+		} catch (UnsupportedOperationException | IOException e) {
+			hardLink = null;
+		}
+		assumeThat(hardLink, notNullValue());
+
+		try {
+			assertThat(hardLink, is(hardLinkedTo(hiddenFile)));
+			assertThat(hiddenFile, is(hardLinkedTo(hardLink)));
+			assertThat(testFile, is(not(hardLinkedTo(hardLink))));
+		} finally {
+			Files.delete(hardLink);
+		}
+	}
+
+	@Test
+	public void linkFileIsNotHardLinkedTo() {
+		assumeThat(linkFile, notNullValue());
+		assertThat(linkFile, is(not(hardLinkedTo(testFile))));
+		assertThat(linkFile, is(hardLinkedTo(linkFile)));
+	}
+
+	@Test
+	public void isNotHardLinkedToDescription() {
+		String description = mismatchDescriptionFor(noFile, hardLinkedTo(testFile));
+		assertThat(description, both(containsString("a hard link to <")).and(containsString("> but was <")));
+	}
+
+	@Test
+	public void testFileHasOneLink() {
+		assumeThat(testFile.getFileSystem().supportedFileAttributeViews(), hasItem("unix"));
+		assertThat(testFile, linkCount(is(1)));
+		assertThat(testFile, not(linkCount(greaterThan(1))));
+	}
+
+	@Test
+	public void linkCountDescription() {
+		assumeThat(testFile.getFileSystem().supportedFileAttributeViews(), hasItem("unix"));
+		String description = mismatchDescriptionFor(testFile, linkCount(is(2)));
+		assertThat(description, both(containsString("a file system entry with a link count of is <2>"))
+				.and(containsString("> has a link count of <1>")));
+	}
+
+	@Test
+	public void noFileHasNoLinkCount() {
+		String description = mismatchDescriptionFor(noFile, linkCount(is(0)));
+		assertThat(description, containsString("link count of <"));
+	}
+
+	// ========================================================================
+	// Symbolic Link Chains
+	// ========================================================================
+
+	@Test
+	public void linkChainIsFollowed() throws IOException {
+		assumeThat(linkFile, notNullValue());
+		Path chain = Files.createSymbolicLink(testFolder.resolve("link-chain"), linkFile);
+		try {
+			assertThat(chain, is(linksTo(testFile)));
+			assertThat(chain, is(linksTo(linkFile)));
+			assertThat(chain, linkChainLength(is(2)));
+			assertThat(chain, is(not(danglingLink())));
+			assertThat(linkFile, is(not(linksTo(chain))));
+		} finally {
+			Files.delete(chain);
+		}
+	}
+
+	@Test
+	public void testFileIsNotALink() {
+		assertThat(testFile, linkChainLength(is(0)));
+		assertThat(testFile, is(not(linksTo(testFile))));
+		assertThat(testFile, is(not(danglingLink())));
+		assertThat(noFile, is(not(linkChainLength(anything()))));
+	}
+
+	@Test
+	public void linkNoFileIsDangling() {
+		assumeThat(linkNoFile, notNullValue());
+		assertThat(linkNoFile, is(danglingLink()));
+		assertThat(linkNoFile, linkChainLength(is(1)));
+		assertThat(linkNoFile, is(not(linksTo(testFile))));
+	}
+
+	@Test
+	public void linkCycleIsDangling() throws IOException {
+		assumeThat(linkFile, notNullValue());
+		Path x = testFolder.resolve("cycle-x"), y = testFolder.resolve("cycle-y");
+		Files.createSymbolicLink(x, y.getFileName());
+		Files.createSymbolicLink(y, x.getFileName());
+		try {
+			assertThat(x, is(danglingLink()));
+			assertThat(x, is(not(linkChainLength(anything()))));
+			assertThat(x, is(linksTo(y)));
+			assertThat(mismatchDescriptionFor(x, linkChainLength(is(2))), containsString(", a cycle"));
+		} finally {
+			Files.delete(x);
+			Files.delete(y);
+		}
+	}
+
+	@Test
+	public void isNotDanglingLinkDescription() {
+		assumeThat(linkFile, notNullValue());
+		String description = mismatchDescriptionFor(linkFile, danglingLink());
+		assertThat(description, both(containsString("a dangling symbolic link")).and(containsString(" links to <")));
+		assertThat(mismatchDescriptionFor(testFile, danglingLink()), containsString(" is not a symbolic link"));
+	}
+
+	@Test
+	public void isNotLinkedToDescription() {
+		assumeThat(linkNoFile, notNullValue());
+		String description = mismatchDescriptionFor(linkNoFile, linksTo(testFile));
+		assertThat(description, both(containsString("a symbolic link to <"))
+				.and(containsString(", which does not exist")));
+	}
+
+	// ========================================================================
+	// Attributes
+	// ========================================================================
+
+	@Test
+	public void testFolderHasAttributes() {
+		assertThat(testFolder, attributes().existing().directory().readable().executable().notHidden());
+	}
+
+	@Test
+	public void testFileDoesNotHaveAttributes() {
+		assertThat(testFile, not(attributes().directory().readable()));
+		assertThat(testFile, attributes().regularFile().notSymbolicLink());
+	}
+
+	@Test
+	public void hiddenFileHasAttributes() {
+		assertThat(hiddenFile, attributes().regularFile().hidden());
+	}
+
+	@Test
+	public void noFileDoesNotHaveAttributes() {
+		assertThat(noFile, not(attributes().existing()));
+		assertThat(noFile, attributes().notReadable().notWritable().notExecutable());
+	}
+
+	@Test
+	public void linkNoFileHasAttributes() {
+		assumeThat(linkNoFile, notNullValue());
+
+		assertThat(linkNoFile, attributes().symbolicLink());
+		assertThat(linkNoFile, attributes(NOFOLLOW_LINKS).existing().symbolicLink());
+		assertThat(linkNoFile, not(attributes().existing()));
+	}
+
+	@Test
+	public void attributesDescribedAsAllOf() {
+		StringDescription attributes = new StringDescription();
+		attributes(NOFOLLOW_LINKS).directory().readable().notHidden().describeTo(attributes);
+
+		StringDescription allOf = new StringDescription();
+		allOf(aDirectory(NOFOLLOW_LINKS), readable(), not(hidden())).describeTo(allOf);
+
+		assertThat(attributes.toString(), is(allOf.toString()));
+	}
+
+	@Test
+	public void doesNotHaveAttributesDescription() {
+		String description = mismatchDescriptionFor(noFile, attributes().directory().readable());
+		assertThat(description, both(containsString("(a directory and a readable file or directory)"))
+				.and(containsString(" does not exist")));
+	}
+
+	// ========================================================================
+	// Size and Modification Time
+	// ========================================================================
+
+	@Test
+	public void testFileHasSize() throws IOException {
+		assertThat(testFile, hasSize(is(Files.size(testFile))));
+		assertThat(testFile, not(hasSize(is(0L))));
+	}
+
+	@Test
+	public void sizeDescription() {
+		String description = mismatchDescriptionFor(testFile, hasSize(is(0L)));
+		assertThat(description, both(containsString("a file system entry with a size of is <0L>"))
+				.and(containsString("test-file> has a size of <")));
+	}
+
+	@Test
+	public void noFileHasNoSize() {
+		String description = mismatchDescriptionFor(noFile, hasSize(greaterThan(-1L)));
+		assertThat(description, containsString(" does not exist"));
+	}
+
+	@Test
+	public void fileIsModifiedAfter() throws IOException {
+		Path folder = temporaryFolder.newFolder("modified").toPath();
+		Path older = Files.createFile(folder.resolve("older"));
+		Path newer = Files.createFile(folder.resolve("newer"));
+		long now = System.currentTimeMillis();
+		Files.setLastModifiedTime(older, FileTime.fromMillis(now - TimeUnit.DAYS.toMillis(2)));
+		Files.setLastModifiedTime(newer, FileTime.fromMillis(now - TimeUnit.HOURS.toMillis(1)));
+
+		assertThat(newer, modifiedAfter(FileTime.fromMillis(now - TimeUnit.DAYS.toMillis(1))));
+		assertThat(older, not(modifiedAfter(FileTime.fromMillis(now - TimeUnit.DAYS.toMillis(1)))));
+		assertThat(older, olderThan(1, TimeUnit.DAYS));
+		assertThat(newer, not(olderThan(1, TimeUnit.DAYS)));
+		assertThat(newer, newerThan(older));
+		assertThat(older, not(newerThan(newer)));
+		assertThat(newer, not(newerThan(noFile)));
+	}
+
+	@Test
+	public void modifiedDescription() throws IOException {
+		Path file = Files.createFile(temporaryFolder.newFolder("described").toPath().resolve("file"));
+		Files.setLastModifiedTime(file, FileTime.fromMillis(0));
+
+		String description = mismatchDescriptionFor(file, modifiedAfter(FileTime.fromMillis(1000)));
+		assertThat(description, both(containsString("a file system entry modified after 1970-01-01T00:00:01Z"))
+				.and(containsString("file> was modified at 1970-01-01T00:00:00Z")));
+
+		description = mismatchDescriptionFor(testFile, olderThan(3, TimeUnit.DAYS));
+		assertThat(description, containsString("a file system entry modified more than 3 days ago"));
+
+		description = mismatchDescriptionFor(file, newerThan(testFile));
+		assertThat(description, both(containsString("a file system entry modified after <" + testFile + ">"))
+				.and(containsString(", <" + testFile + "> at ")));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void negativeAgeIsRejected() {
+		olderThan(-1, TimeUnit.SECONDS);
+	}
+
 	// ========================================================================
-	// Build a description for a mismatch
+	// Empty File/Directory
 	// ========================================================================
 
-	private <T> String mismatchDescriptionFor(T actual, Matcher<T> matcher) {
-		assertThat(matcher.matches(actual), is(false));
+	@Test
+	public void emptyFileAndDirectory() throws IOException {
+		Path folder = temporaryFolder.newFolder("empty").toPath();
+		Path file = Files.createFile(folder.resolve("file"));
+
+		assertThat(file, emptyFile());
+		assertThat(testFile, not(emptyFile()));
+		assertThat(folder, not(emptyFile()));
+		assertThat(folder, not(emptyDirectory()));
+		assertThat(file, not(emptyDirectory()));
 
-		StringDescription description = new StringDescription();
-		description.appendText("Expected ");
-		matcher.describeTo(description);
-		description.appendText(" but ");
-		matcher.describeMismatch(actual, description);
-		return description.toString();
+		Files.delete(file);
+		assertThat(folder, emptyDirectory());
+		assertThat(noFile, not(emptyDirectory()));
+	}
+
+	@Test
+	public void linkFileIsNotEmptyWithoutFollowing() {
+		assumeThat(linkFile, notNullValue());
+		assertThat(linkFile, not(emptyFile(NOFOLLOW_LINKS)));
+		assertThat(linkFile, not(emptyFile()));
+	}
+
+	@Test
+	public void emptyDescription() {
+		String description = mismatchDescriptionFor(testFile, emptyFile());
+		assertThat(description, both(containsString("an empty regular file"))
+				.and(containsString("test-file> has a size of <")));
+
+		description = mismatchDescriptionFor(testFolder, emptyDirectory());
+		assertThat(description, both(containsString("an empty directory"))
+				.and(containsString("folder> contains <" + testFolder)));
+
+		description = mismatchDescriptionFor(testFile, emptyDirectory());
+		assertThat(description, containsString(" regular file"));
+	}
+
+	// ========================================================================
+	// Options and shared instances
+	// ========================================================================
+
+	@Test(expected = IllegalArgumentException.class)
+	public void unknownOptionIsRejectedOnCreation() {
+		exists((LinkOption) null);
+	}
+
+	@Test
+	public void optionsAreDescribed() {
+		assertThat(StringDescription.toString(aDirectory(NOFOLLOW_LINKS)), is("a non-symbolic link to a directory"));
+		assertThat(StringDescription.toString(aDirectory()), is("a directory"));
+	}
+
+	@Test
+	public void matchersWithoutArgumentsAreShared() {
+		assertThat(readable(), is(sameInstance(readable())));
+		assertThat(writable(), is(sameInstance(writable())));
+		assertThat(executable(), is(sameInstance(executable())));
+		assertThat(hidden(), is(sameInstance(hidden())));
+		assertThat(aSymbolicLink(), is(sameInstance(aSymbolicLink())));
+		assertThat(exists(), is(sameInstance(exists())));
+		assertThat(exists(NOFOLLOW_LINKS), is(sameInstance(exists(NOFOLLOW_LINKS))));
+		assertThat(aDirectory(), is(not(sameInstance(aDirectory(NOFOLLOW_LINKS)))));
 	}
 }
@@ -0,0 +1,173 @@
+package ca.seinesoftware.hamcrest.path;
+
+import static ca.seinesoftware.hamcrest.path.Descriptions.mismatchDescriptionFor;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.aDirectory;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.aRegularFile;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.aSymbolicLink;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.attributes;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.consistently;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.exists;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.hasSize;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.hidden;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.linkCount;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.readable;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.snapshotMatching;
+import static java.nio.file.LinkOption.NOFOLLOW_LINKS;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.both;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assume.assumeThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.hamcrest.Matcher;
+import org.hamcrest.StringDescription;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class PathSnapshotTest {
+
+	// ========================================================================
+	// Test fixtures
+	// ========================================================================
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private Path testFolder, testFile, missing;
+
+	@Before
+	public void before() throws IOException {
+		testFolder = temporaryFolder.newFolder("folder").toPath();
+		testFile = Files.write(testFolder.resolve("test-file"), Collections.singleton("Some text"),
+				StandardCharsets.ISO_8859_1);
+		missing = testFolder.resolve("missing");
+	}
+
+	@After
+	public void after() {
+		Instrumentation.disable();
+		Instrumentation.reset();
+	}
+
+	// ========================================================================
+	// Capture
+	// ========================================================================
+
+	@Test
+	public void snapshotCapturesAttributes() {
+		PathSnapshot snapshot = PathSnapshot.of(testFolder);
+		assertThat(snapshot.getPath(), is(testFolder));
+		assertThat(snapshot.isDetermined(), is(true));
+		assertThat(snapshot.exists(), is(true));
+		assertThat(snapshot.isDirectory(), is(true));
+		assertThat(snapshot.isRegularFile(), is(false));
+		assertThat(snapshot.isSymbolicLink(), is(false));
+		assertThat(snapshot.isReadable(), is(true));
+		assertThat(snapshot.getAttributes(), is(notNullValue()));
+		assertThat(snapshot.getAttributes(NOFOLLOW_LINKS).isDirectory(), is(true));
+	}
+
+	@Test
+	public void missingPathIsCaptured() {
+		PathSnapshot snapshot = PathSnapshot.of(missing);
+		assertThat(snapshot.isDetermined(), is(true));
+		assertThat(snapshot.exists(), is(false));
+		assertThat(snapshot.getAttributes(), is(nullValue()));
+		assertThat(snapshot, snapshotMatching(not(exists(NOFOLLOW_LINKS))));
+	}
+
+	@Test
+	public void snapshotIsTimestamped() {
+		long before = System.currentTimeMillis();
+		PathSnapshot snapshot = PathSnapshot.of(testFile);
+		assertThat(snapshot.getTimestamp().toMillis(), is(greaterThanOrEqualTo(before)));
+		assertThat(snapshot.getAge(TimeUnit.NANOSECONDS), is(greaterThanOrEqualTo(0L)));
+		assertThat(snapshot.toString(), containsString(" as of " + snapshot.getTimestamp()));
+	}
+
+	// ========================================================================
+	// Matching
+	// ========================================================================
+
+	@Test
+	public void matchersAnswerFromSnapshot() {
+		PathSnapshot snapshot = PathSnapshot.of(testFile);
+
+		Instrumentation.enable();
+		final long operations = Instrumentation.operations();
+		assertThat(snapshot, snapshotMatching(allOf(exists(), aRegularFile(), readable(), not(hidden()))));
+		assertThat(snapshot, snapshotMatching(both(hasSize(is(10L))).and(not(aSymbolicLink()))));
+		assertThat(snapshot, snapshotMatching(attributes().regularFile().readable()));
+		assertThat(Instrumentation.operations() - operations, is(0L));
+	}
+
+	@Test
+	public void linkCountIsCaptured() {
+		assumeThat(testFile.getFileSystem().supportedFileAttributeViews(), hasItem("unix"));
+		PathSnapshot snapshot = PathSnapshot.of(testFile);
+
+		Instrumentation.enable();
+		final long operations = Instrumentation.operations();
+		assertThat(snapshot, snapshotMatching(linkCount(is(1))));
+		assertThat(Instrumentation.operations() - operations, is(0L));
+	}
+
+	@Test
+	public void snapshotIsNotAffectedByLaterChanges() throws IOException {
+		PathSnapshot snapshot = PathSnapshot.of(testFile);
+		Files.delete(testFile);
+
+		assertThat(snapshot, snapshotMatching(allOf(exists(), aRegularFile(), readable())));
+		assertThat(testFile, not(consistently(exists())));
+	}
+
+	@Test
+	public void consistentlyMatchesAComposition() {
+		assertThat(testFolder, consistently(allOf(exists(), aDirectory(), readable())));
+		assertThat(testFile, consistently(not(aDirectory())));
+		assertThat(missing, not(consistently(exists())));
+	}
+
+	@Test
+	public void mismatchIsDescribedAsOfSnapshot() {
+		PathSnapshot snapshot = PathSnapshot.of(missing);
+		String description = mismatchDescriptionFor(snapshot, snapshotMatching(allOf(exists(), aDirectory())));
+		assertThat(description, both(containsString("a snapshot of (an existing filesystem entry and a directory)"))
+				.and(containsString("as of " + snapshot.getTimestamp() + ", ")).and(containsString(" does not exist")));
+	}
+
+	@Test
+	public void consistentlyMismatchDescription() {
+		String description = mismatchDescriptionFor(testFile, consistently(aDirectory()));
+		assertThat(description, both(containsString("Expected a directory but as of "))
+				.and(containsString(" regular file")));
+	}
+
+	@Test
+	public void consistentlyDescribesTheSnapshotWhichFailed() throws IOException {
+		Matcher<Path> matcher = consistently(aDirectory());
+		assertThat(matcher.matches(testFile), is(false));
+
+		Files.delete(testFile);
+		Files.createDirectory(testFile);
+		StringDescription description = new StringDescription();
+		matcher.describeMismatch(testFile, description);
+		assertThat(description.toString(), containsString(" regular file"));
+	}
+}
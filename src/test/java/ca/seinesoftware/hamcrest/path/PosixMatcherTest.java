@@ -0,0 +1,162 @@
+package ca.seinesoftware.hamcrest.path;
+
+import static ca.seinesoftware.hamcrest.path.Descriptions.mismatchDescriptionFor;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.auditEntries;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.groupOwnedBy;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.hasMode;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.hasPermissions;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.ownedBy;
+import static java.nio.file.LinkOption.NOFOLLOW_LINKS;
+import static java.nio.file.attribute.PosixFilePermission.GROUP_WRITE;
+import static java.nio.file.attribute.PosixFilePermission.OTHERS_WRITE;
+import static java.nio.file.attribute.PosixFilePermission.OWNER_EXECUTE;
+import static org.hamcrest.Matchers.both;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assume.assumeThat;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.nio.file.attribute.PosixFilePermissions;
+
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class PosixMatcherTest {
+
+	// ========================================================================
+	// Test fixtures
+	// ========================================================================
+
+	@ClassRule
+	public static TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private static Path root, script, config, shared, noFile;
+	private static String owner, group;
+
+	@BeforeClass
+	public static void beforeClass() throws IOException {
+		assumeThat(FileSystems.getDefault().supportedFileAttributeViews(), hasItem("posix"));
+
+		root = temporaryFolder.newFolder("deploy").toPath();
+		script = Files.createFile(root.resolve("start.sh"));
+		Files.setPosixFilePermissions(script, PosixFilePermissions.fromString("rwxr-x---"));
+		Path conf = Files.createDirectory(root.resolve("conf"));
+		config = Files.createFile(conf.resolve("app.conf"));
+		Files.setPosixFilePermissions(config, PosixFilePermissions.fromString("rw-r-----"));
+		shared = Files.createFile(conf.resolve("shared.conf"));
+		Files.setPosixFilePermissions(shared, PosixFilePermissions.fromString("rw-rw-rw-"));
+		noFile = root.resolve("no-file");
+
+		PosixFileAttributes attributes = Files.readAttributes(script, PosixFileAttributes.class);
+		owner = attributes.owner().getName();
+		group = attributes.group().getName();
+	}
+
+	// ========================================================================
+	// Permissions
+	// ========================================================================
+
+	@Test
+	public void scriptHasPermissions() {
+		assertThat(script, hasPermissions("rwxr-x---"));
+		assertThat(script, not(hasPermissions("rwxr-xr-x")));
+	}
+
+	@Test
+	public void permissionsDescription() {
+		String description = mismatchDescriptionFor(config, hasPermissions("rwxr-x---", NOFOLLOW_LINKS));
+		assertThat(description, both(
+				containsString("a non-symbolic link to a file system entry with permissions rwxr-x---"))
+						.and(containsString("app.conf> has permissions rw-r-----")));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void malformedPermissionsAreRejected() {
+		hasPermissions("rwx");
+	}
+
+	@Test
+	public void scriptHasMode() {
+		assertThat(script, hasMode(hasItem(OWNER_EXECUTE)));
+		assertThat(shared, hasMode(hasItem(OTHERS_WRITE)));
+		assertThat(config, hasMode(not(hasItem(GROUP_WRITE))));
+	}
+
+	@Test
+	public void noFileHasNoPermissions() {
+		String description = mismatchDescriptionFor(noFile, hasPermissions("---------"));
+		assertThat(description, containsString(" does not exist"));
+	}
+
+	// ========================================================================
+	// Ownership
+	// ========================================================================
+
+	@Test
+	public void scriptIsOwned() {
+		assertThat(script, ownedBy(owner));
+		assertThat(script, groupOwnedBy(group));
+		assertThat(script, not(ownedBy(owner + "-nobody")));
+	}
+
+	@Test
+	public void ownerDescription() {
+		String description = mismatchDescriptionFor(script, groupOwnedBy("no-such-group"));
+		assertThat(description, both(containsString("a file system entry owned by group \"no-such-group\""))
+				.and(containsString("start.sh> is owned by group \"" + group + "\"")));
+	}
+
+	// ========================================================================
+	// Audit
+	// ========================================================================
+
+	@Test
+	public void everyEntryIsOwned() {
+		assertThat(root, auditEntries(ownedBy(owner)));
+	}
+
+	@Test
+	public void auditDescribesEveryMismatch() {
+		String description = mismatchDescriptionFor(root, auditEntries(hasMode(not(hasItem(GROUP_WRITE)))));
+		assertThat(description, both(containsString("> has entries which did not match:"))
+				.and(containsString("\n    entry <" + shared + "> has permissions rw-rw-rw-"))
+				.and(not(containsString("app.conf"))));
+
+		description = mismatchDescriptionFor(root, auditEntries(hasPermissions("rw-r-----")));
+		assertThat(description, both(containsString("start.sh> has permissions rwxr-x---"))
+				.and(containsString("shared.conf> has permissions rw-rw-rw-")).and(containsString("conf> has")));
+	}
+
+	@Test
+	public void unlistableDirectoryIsReportedAndAuditContinues() throws IOException {
+		Path tree = temporaryFolder.newFolder("locked-deploy").toPath();
+		Path locked = Files.createDirectory(tree.resolve("locked"));
+		Path open = Files.createDirectory(tree.resolve("open"));
+		Path writable = Files.createFile(open.resolve("writable.conf"));
+		Files.setPosixFilePermissions(writable, PosixFilePermissions.fromString("rw-rw-rw-"));
+		Files.setPosixFilePermissions(locked, PosixFilePermissions.fromString("---------"));
+		try {
+			assumeThat(Files.isReadable(locked), is(false));
+
+			String description = mismatchDescriptionFor(tree, auditEntries(hasMode(not(hasItem(OTHERS_WRITE)))));
+			assertThat(description, both(containsString("entry <" + locked + "> could not be listed: "))
+					.and(containsString("entry <" + writable + "> has permissions rw-rw-rw-")));
+		} finally {
+			Files.setPosixFilePermissions(locked, PosixFilePermissions.fromString("rwx------"));
+		}
+	}
+
+	@Test
+	public void fileIsNotAudited() {
+		assertThat(script, not(auditEntries(ownedBy(owner))));
+	}
+}
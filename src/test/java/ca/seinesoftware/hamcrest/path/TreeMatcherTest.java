@@ -0,0 +1,410 @@
+package ca.seinesoftware.hamcrest.path;
+
+import static ca.seinesoftware.hamcrest.path.Descriptions.mismatchDescriptionFor;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.aDirectory;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.aRegularFile;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.aSymbolicLink;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.anyEntry;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.anyEntryMatching;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.entryCount;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.everyEntry;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.everyEntryMatching;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.exists;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.noDanglingLinks;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.noDuplicateContent;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.sameTreeAs;
+import static java.nio.file.LinkOption.NOFOLLOW_LINKS;
+import static org.hamcrest.Matchers.both;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assume.assumeThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.PosixFilePermissions;
+
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TreeMatcherTest {
+
+	// ========================================================================
+	// Test fixtures
+	// ========================================================================
+
+	@ClassRule
+	public static TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private static Path root, sub, file, noFile;
+
+	@BeforeClass
+	public static void beforeClass() throws IOException {
+		root = temporaryFolder.newFolder("tree").toPath();
+		sub = Files.createDirectories(root.resolve("a").resolve("b"));
+		file = Files.createFile(sub.resolve("file"));
+		Files.createFile(root.resolve("top"));
+		noFile = root.resolve("no-file");
+	}
+
+	// ========================================================================
+	// everyEntry
+	// ========================================================================
+
+	@Test
+	public void everyEntryExists() {
+		assertThat(root, everyEntry(exists(NOFOLLOW_LINKS)));
+	}
+
+	@Test
+	public void notEveryEntryIsARegularFile() {
+		assertThat(root, not(everyEntry(aRegularFile())));
+	}
+
+	@Test
+	public void everyEntryDescription() {
+		String description = mismatchDescriptionFor(root, everyEntry(aRegularFile()));
+		assertThat(description, both(containsString("a directory in which every entry is a regular file"))
+				.and(containsString("entry <")).and(containsString(" directory")));
+	}
+
+	@Test
+	public void noFileIsNotATree() {
+		String description = mismatchDescriptionFor(noFile, everyEntry(exists()));
+		assertThat(description, containsString(" does not exist"));
+	}
+
+	@Test
+	public void fileIsNotATree() {
+		assertThat(file, not(everyEntry(exists())));
+	}
+
+	@Test
+	public void unlistableSubtreeIsNotPassedOver() throws IOException {
+		Path tree = temporaryFolder.newFolder("locked-tree").toPath();
+		Path locked = Files.createDirectory(tree.resolve("locked"));
+		Files.createFile(locked.resolve("unseen"));
+		Files.setPosixFilePermissions(locked, PosixFilePermissions.fromString("---------"));
+		try {
+			assumeThat(Files.isReadable(locked), is(false));
+
+			assertThat(tree, not(everyEntry(exists())));
+			assertThat(tree, not(entryCount(is(1))));
+			assertThat(tree, not(noDanglingLinks()));
+			String description = mismatchDescriptionFor(tree, everyEntry(exists()));
+			assertThat(description, containsString("<" + tree + "> could not be walked: "));
+		} finally {
+			Files.setPosixFilePermissions(locked, PosixFilePermissions.fromString("rwx------"));
+		}
+	}
+
+	@Test
+	public void linkToRootIsFollowed() throws IOException {
+		Path link = Files.createSymbolicLink(temporaryFolder.getRoot().toPath().resolve("tree-link"), root);
+		assertThat(link, entryCount(is(4)));
+		assertThat(link, anyEntry(aDirectory(NOFOLLOW_LINKS)));
+		assertThat(link, everyEntryMatching("a/**", exists()));
+		assertThat(link, not(anyEntryMatching("**/no-file", exists(NOFOLLOW_LINKS))));
+
+		String description = mismatchDescriptionFor(link, everyEntry(aDirectory()));
+		assertThat(description, containsString("entry <" + link.resolve("top") + ">"));
+	}
+
+	// ========================================================================
+	// anyEntry
+	// ========================================================================
+
+	@Test
+	public void anyEntryIsADirectory() {
+		assertThat(root, anyEntry(aDirectory()));
+	}
+
+	@Test
+	public void noEntryIsASymbolicLink() {
+		assertThat(root, not(anyEntry(aSymbolicLink())));
+	}
+
+	@Test
+	public void anyEntryDescription() {
+		String description = mismatchDescriptionFor(root, anyEntry(aSymbolicLink()));
+		assertThat(description, both(containsString("a directory in which some entry is a symbolic link"))
+				.and(containsString("none of the 4 entries of <")));
+	}
+
+	// ========================================================================
+	// everyEntryMatching and anyEntryMatching
+	// ========================================================================
+
+	@Test
+	public void everyEntryMatchingGlob() throws IOException {
+		Path out = patternTree();
+		assertThat(out, everyEntryMatching("**/*.so", aRegularFile()));
+		assertThat(out, not(everyEntryMatching("**/*.txt", aRegularFile())));
+		assertThat(out, everyEntryMatching("lib/*", aRegularFile()));
+		assertThat(out, everyEntryMatching("*/no-such-dir/**", aDirectory()));
+	}
+
+	@Test
+	public void everyEntryMatchingRegex() throws IOException {
+		Path out = patternTree();
+		assertThat(out, everyEntryMatching("regex:.*\\.so", aRegularFile()));
+		assertThat(out, not(everyEntryMatching("regex:.*/gen/.*", aRegularFile())));
+	}
+
+	@Test
+	public void anyEntryMatchingGlob() throws IOException {
+		Path out = patternTree();
+		assertThat(out, anyEntryMatching("src/*/gen/**", aDirectory()));
+		assertThat(out, not(anyEntryMatching("lib/*.so", aDirectory())));
+		assertThat(out, not(anyEntryMatching("missing/**", exists())));
+	}
+
+	@Test
+	public void entryMatchingDescription() throws IOException {
+		Path out = patternTree();
+		String description = mismatchDescriptionFor(out, everyEntryMatching("**/*.txt", aRegularFile()));
+		assertThat(description, both(containsString(
+				"a directory in which every entry matching \"**/*.txt\" is a regular file"))
+						.and(containsString("dir.txt> is a")));
+
+		description = mismatchDescriptionFor(out, anyEntryMatching("lib/*", aDirectory()));
+		assertThat(description, containsString("none of the 2 entries of <" + out + "> matching \"lib/*\" matched"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void malformedPatternIsRejected() {
+		everyEntryMatching("regex:[", exists());
+	}
+
+	@Test
+	public void globScopeIsPruned() throws IOException {
+		Path out = patternTree();
+		EntryPattern.Scope scope = new EntryPattern("src/*/gen/**/*.java").scope(out);
+		assertThat(scope.start(), is(out.resolve("src")));
+		assertThat(scope.maxDepth(), is(Integer.MAX_VALUE));
+		assertThat(scope.descend(out.resolve("src/main")), is(true));
+		assertThat(scope.descend(out.resolve("src/main/java")), is(false));
+		assertThat(scope.descend(out.resolve("src/main/gen")), is(true));
+		assertThat(scope.descend(out.resolve("src/main/gen/deep/er")), is(true));
+
+		scope = new EntryPattern("lib/*.so").scope(out);
+		assertThat(scope.start(), is(out.resolve("lib")));
+		assertThat(scope.maxDepth(), is(1));
+
+		scope = new EntryPattern("{lib,src/main}/*").scope(out);
+		assertThat(scope.start(), is(out));
+		assertThat(scope.maxDepth(), is(Integer.MAX_VALUE));
+
+		assertThat(new EntryPattern("missing/*").scope(out).start(), is(nullValue()));
+	}
+
+	@Test
+	public void regexScopeStartsBelowLiteralDirectories() throws IOException {
+		Path out = patternTree();
+		assertThat(new EntryPattern("regex:src/main/.*").scope(out).start(), is(out.resolve("src/main")));
+		assertThat(new EntryPattern("regex:src/mains?/.*").scope(out).start(), is(out.resolve("src")));
+		assertThat(new EntryPattern("regex:src/.*|lib/.*").scope(out).start(), is(out));
+	}
+
+	private static Path patternTree() throws IOException {
+		Path out = temporaryFolder.getRoot().toPath().resolve("out");
+		if (Files.isDirectory(out)) {
+			return out;
+		}
+		Files.createDirectories(out.resolve("lib"));
+		Files.createFile(out.resolve("lib/libone.so"));
+		Files.createFile(out.resolve("lib/libtwo.so"));
+		Files.createDirectories(out.resolve("src/main/java"));
+		Files.createFile(out.resolve("src/main/java/Main.java"));
+		Files.createDirectories(out.resolve("src/main/gen/dir.txt"));
+		Files.createFile(out.resolve("src/main/gen/Gen.java"));
+		return out;
+	}
+
+	// ========================================================================
+	// entryCount
+	// ========================================================================
+
+	@Test
+	public void entryCountIsFour() {
+		assertThat(root, entryCount(is(4)));
+		assertThat(sub, entryCount(is(1)));
+	}
+
+	@Test
+	public void entryCountDescription() {
+		String description = mismatchDescriptionFor(root, entryCount(greaterThan(10)));
+		assertThat(description, both(containsString("a directory with an entry count of a value greater than <10>"))
+				.and(containsString("> has <4> entries")));
+	}
+
+	// ========================================================================
+	// noDuplicateContent
+	// ========================================================================
+
+	@Test
+	public void emptyFilesAreNotDuplicates() {
+		assertThat(root, noDuplicateContent());
+	}
+
+	@Test
+	public void duplicateContentDescription() throws IOException {
+		Path dir = temporaryFolder.newFolder("duplicates").toPath();
+		byte[] large = new byte[NoDuplicateContent.PREFIX + 10];
+		Path one = Files.write(dir.resolve("one"), "same".getBytes(StandardCharsets.ISO_8859_1));
+		Path two = Files.write(Files.createDirectory(dir.resolve("sub")).resolve("two"),
+				"same".getBytes(StandardCharsets.ISO_8859_1));
+		Files.write(dir.resolve("other"), "diff".getBytes(StandardCharsets.ISO_8859_1));
+		Path big = Files.write(dir.resolve("big"), large);
+		large[large.length - 1] = 1;
+		Files.write(dir.resolve("big-tail"), large);
+		large[large.length - 1] = 0;
+		Path bigCopy = Files.write(dir.resolve("big-copy"), large);
+
+		String description = mismatchDescriptionFor(dir, noDuplicateContent());
+		assertThat(description, both(containsString("a directory in which no two files have the same content"))
+				.and(containsString("{<" + big + ">, <" + bigCopy + ">}"))
+				.and(containsString("{<" + one + ">, <" + two + ">}")).and(not(containsString("other")))
+				.and(not(containsString("big-tail"))));
+	}
+
+	// ========================================================================
+	// sameTreeAs
+	// ========================================================================
+
+	@Test
+	public void copyIsTheSameTree() throws IOException {
+		Path expected = buildTree("same-expected"), actual = buildTree("same-actual");
+		assertThat(actual, sameTreeAs(expected));
+		assertThat(actual, sameTreeAs(expected, true));
+	}
+
+	@Test
+	public void sameTreeAsDescription() throws IOException {
+		Path expected = buildTree("described-expected"), actual = buildTree("described-actual");
+		Files.delete(actual.resolve("lib/b.txt"));
+		Files.createFile(actual.resolve("lib/c.txt"));
+		Files.write(actual.resolve("a.txt"), "four".getBytes(StandardCharsets.UTF_8));
+		Files.delete(actual.resolve("bin/run"));
+		Files.createDirectory(actual.resolve("bin/run"));
+
+		String description = mismatchDescriptionFor(actual, sameTreeAs(expected));
+		assertThat(description, both(containsString("a directory with the same entries as <" + expected + ">"))
+				.and(containsString("<" + actual + "> differs from <" + expected + ">:"))
+				.and(containsString("changed \"a.txt\": size was 3, is 4"))
+				.and(containsString("changed \"bin/run\": type was regular file, is directory"))
+				.and(containsString("removed \"lib/b.txt\""))
+				.and(containsString("added \"lib/c.txt\"")));
+		assertThat(description.indexOf("a.txt") < description.indexOf("bin/run"), is(true));
+		assertThat(description.indexOf("lib/b.txt") < description.indexOf("lib/c.txt"), is(true));
+	}
+
+	@Test
+	public void contentIsOnlyComparedWhenAsked() throws IOException {
+		Path expected = buildTree("content-expected"), actual = buildTree("content-actual");
+		Files.write(actual.resolve("lib/b.txt"), "bee".getBytes(StandardCharsets.UTF_8));
+
+		assertThat(actual, sameTreeAs(expected));
+		String description = mismatchDescriptionFor(actual, sameTreeAs(expected, true));
+		assertThat(description, containsString("changed \"lib/b.txt\": content differs at byte 1"));
+	}
+
+	@Test
+	public void largeFilesAreComparedInParallel() throws IOException {
+		Path expected = buildTree("large-expected"), actual = buildTree("large-actual");
+		byte[] bytes = new byte[(int) SameTree.LARGE + 12345];
+		Files.write(expected.resolve("lib/large"), bytes);
+		bytes[bytes.length - 1] = 1;
+		Files.write(actual.resolve("lib/large"), bytes);
+
+		String description = mismatchDescriptionFor(actual, sameTreeAs(expected, true));
+		assertThat(description,
+				containsString("changed \"lib/large\": content differs at byte " + (bytes.length - 1)));
+	}
+
+	@Test
+	public void permissionsAreCompared() throws IOException {
+		Path expected = buildTree("permissions-expected"), actual = buildTree("permissions-actual");
+		assumeThat(expected.getFileSystem().supportedFileAttributeViews().contains("posix"), is(true));
+		Files.setPosixFilePermissions(actual.resolve("lib"), PosixFilePermissions.fromString("rwx------"));
+		Files.setPosixFilePermissions(expected.resolve("lib"), PosixFilePermissions.fromString("rwxr-xr-x"));
+		Files.delete(actual.resolve("lib/b.txt"));
+
+		String description = mismatchDescriptionFor(actual, sameTreeAs(expected));
+		assertThat(description, both(containsString("changed \"lib\": permissions was rwxr-xr-x, is rwx------"))
+				.and(containsString("removed \"lib/b.txt\"")));
+	}
+
+	@Test
+	public void fileIsNotTheSameTree() throws IOException {
+		assertThat(file, not(sameTreeAs(root)));
+		String description = mismatchDescriptionFor(root, sameTreeAs(file));
+		assertThat(description, containsString("<" + file + "> is not a directory"));
+	}
+
+	private static Path buildTree(final String name) throws IOException {
+		Path tree = temporaryFolder.newFolder(name).toPath();
+		Files.write(tree.resolve("a.txt"), "one".getBytes(StandardCharsets.UTF_8));
+		Files.createDirectories(tree.resolve("bin"));
+		Files.createFile(tree.resolve("bin/run"));
+		Files.createDirectories(tree.resolve("lib/empty"));
+		Files.write(tree.resolve("lib/b.txt"), "bbb".getBytes(StandardCharsets.UTF_8));
+		return tree;
+	}
+
+	// ========================================================================
+	// noDanglingLinks
+	// ========================================================================
+
+	@Test
+	public void treeWithoutLinksHasNoDanglingLinks() {
+		assertThat(root, noDanglingLinks());
+	}
+
+	@Test
+	public void danglingLinksDescription() throws IOException {
+		Path dir = temporaryFolder.newFolder("links").toPath();
+		Path target = Files.createFile(dir.resolve("target"));
+		Path sub = Files.createDirectory(dir.resolve("sub"));
+		Path good = Files.createSymbolicLink(sub.resolve("good"), target);
+		Files.createSymbolicLink(dir.resolve("chained"), good);
+		assertThat(dir, noDanglingLinks());
+
+		Path missing = Files.createSymbolicLink(sub.resolve("missing"), dir.resolve("no-file"));
+		Path x = Files.createSymbolicLink(dir.resolve("x"), Paths.get("y"));
+		Files.createSymbolicLink(dir.resolve("y"), Paths.get("x"));
+
+		String description = mismatchDescriptionFor(dir, noDanglingLinks());
+		assertThat(description, both(containsString("a directory in which no symbolic link is dangling"))
+				.and(containsString(" has dangling symbolic links:"))
+				.and(containsString("<" + missing + "> links to <")).and(containsString(", which does not exist"))
+				.and(containsString("<" + x + "> links to <")).and(containsString(", a cycle"))
+				.and(not(containsString("good"))));
+	}
+
+	// ========================================================================
+	// Visited entries
+	// ========================================================================
+
+	@Test
+	public void visitedEntryAnswersFromAttributes() throws IOException {
+		BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class, NOFOLLOW_LINKS);
+		TreeMatcher.VisitedEntry probe = new TreeMatcher.VisitedEntry();
+		probe.reset(file, attrs);
+
+		assertThat(probe.readAttributes(file), is(sameInstance(attrs)));
+		assertThat(probe.readAttributes(file, NOFOLLOW_LINKS), is(sameInstance(attrs)));
+		assertThat(probe.isRegularFile(file), is(true));
+		assertThat(probe.isDirectory(sub), is(true));
+	}
+}
@@ -0,0 +1,223 @@
+package ca.seinesoftware.hamcrest.path;
+
+import static ca.seinesoftware.hamcrest.path.PathMatcher.hidden;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.watchedEveryEntry;
+import static org.hamcrest.Matchers.both;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assume.assumeFalse;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchService;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.hamcrest.StringDescription;
+import org.hamcrest.TypeSafeMatcher;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class WatchedTreeTest {
+
+	// ========================================================================
+	// Test fixtures
+	// ========================================================================
+
+	private static final int ENTRIES = 50;
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private Path root, sub;
+	private WatchedTree tree;
+	private AtomicLong evaluations;
+
+	@Before
+	public void before() throws IOException {
+		root = temporaryFolder.newFolder("watched").toPath();
+		sub = Files.createDirectory(root.resolve("sub"));
+		for (int i = 0; i < ENTRIES; i++) {
+			Files.createFile(sub.resolve("file-" + i));
+		}
+		evaluations = new AtomicLong();
+		tree = watchedEveryEntry(counted(not(hidden())));
+	}
+
+	@After
+	public void after() throws IOException {
+		tree.close();
+	}
+
+	// ========================================================================
+	// Incremental updates
+	// ========================================================================
+
+	@Test
+	public void firstMatchWalksTheTree() {
+		assertThat(root, tree);
+		assertThat(evaluations.get(), is(ENTRIES + 1L));
+	}
+
+	@Test
+	public void unchangedTreeIsNotWalkedAgain() throws IOException {
+		assumeOrderedWatchService();
+		assertThat(root, tree);
+		assertThat(root, tree);
+		assertThat(evaluations.get(), is(ENTRIES + 1L));
+	}
+
+	@Test
+	public void onlyChangedEntriesAreEvaluated() throws IOException {
+		assumeOrderedWatchService();
+		assertThat(root, tree);
+
+		Path hiddenFile = Files.createFile(sub.resolve(".hidden"));
+		assertThat(root, not(tree));
+		assertThat(evaluations.get(), is(lessThan(ENTRIES + 10L)));
+
+		String description = mismatchDescription();
+		assertThat(description, both(containsString("1 of 52 entries did not match"))
+				.and(containsString("\n    entry was <" + hiddenFile + ">")));
+
+		Files.delete(hiddenFile);
+		assertThat(root, tree);
+		assertThat(evaluations.get(), is(lessThan(ENTRIES + 10L)));
+	}
+
+	@Test
+	public void newDirectoriesAreWalked() throws IOException {
+		assertThat(root, tree);
+
+		Path created = temporaryFolder.newFolder("created").toPath();
+		Files.createFile(Files.createDirectory(created.resolve("nested")).resolve(".hidden"));
+		Files.move(created, root.resolve("created"));
+		assertThat(root, not(tree));
+
+		Files.createFile(root.resolve("created").resolve("nested").resolve("visible"));
+		Files.delete(root.resolve("created").resolve("nested").resolve(".hidden"));
+		assertThat(root, tree);
+	}
+
+	@Test
+	public void deletedDirectoriesAreForgotten() throws IOException {
+		Path nested = Files.createDirectory(root.resolve("nested"));
+		Files.createFile(nested.resolve(".hidden"));
+		assertThat(root, not(tree));
+
+		Files.delete(nested.resolve(".hidden"));
+		Files.delete(nested);
+		assertThat(root, tree);
+	}
+
+	@Test
+	public void changesInSeveralDirectoriesAreSeen() throws IOException {
+		Path other = Files.createDirectory(root.resolve("other"));
+		assertThat(root, tree);
+
+		for (int i = 0; i < 20; i++) {
+			Files.createFile(sub.resolve("more-" + i));
+			Files.createFile(other.resolve("more-" + i));
+		}
+		Path hiddenFile = Files.createFile(other.resolve(".hidden"));
+		assertThat(root, not(tree));
+
+		Files.delete(hiddenFile);
+		Files.createFile(sub.resolve(".hidden"));
+		assertThat(root, not(tree));
+	}
+
+	@Test
+	public void deletedAndRecreatedRootIsWalkedAgain() throws IOException {
+		assertThat(root, tree);
+
+		for (int i = 0; i < ENTRIES; i++) {
+			Files.delete(sub.resolve("file-" + i));
+		}
+		Files.delete(sub);
+		Files.delete(root);
+		Files.createDirectory(root);
+		assertThat(root, tree);
+
+		Files.createFile(root.resolve(".hidden"));
+		assertThat(root, not(tree));
+	}
+
+	@Test
+	public void movedAwayRootIsWalkedAgain() throws IOException {
+		assertThat(root, tree);
+
+		Path replacement = temporaryFolder.newFolder("replacement").toPath();
+		Files.move(root, temporaryFolder.getRoot().toPath().resolve("old"));
+		Files.move(replacement, root);
+		assertThat(root, tree);
+
+		Files.createFile(root.resolve(".hidden"));
+		assertThat(root, not(tree));
+	}
+
+	@Test
+	public void rescanWalksTheTreeAgain() {
+		assertThat(root, tree);
+		tree.rescan();
+		assertThat(root, tree);
+		assertThat(evaluations.get(), is(2 * (ENTRIES + 1L)));
+	}
+
+	@Test
+	public void fileIsNotATree() {
+		assertThat(sub.resolve("file-0"), not(tree));
+	}
+
+	// ========================================================================
+	// Helpers
+	// ========================================================================
+
+	/**
+	 * Count the entries the tree evaluates.
+	 */
+	private Matcher<Path> counted(final Matcher<Path> matcher) {
+		return new TypeSafeMatcher<Path>() {
+			@Override
+			public void describeTo(Description description) {
+				description.appendDescriptionOf(matcher);
+			}
+
+			@Override
+			protected boolean matchesSafely(Path path) {
+				evaluations.incrementAndGet();
+				return matcher.matches(path);
+			}
+
+			@Override
+			protected void describeMismatchSafely(Path path, Description mismatch) {
+				matcher.describeMismatch(path, mismatch);
+			}
+		};
+	}
+
+	/**
+	 * Skip a test which counts evaluations where the watch service polls, as
+	 * then every match walks the whole tree.
+	 */
+	private static void assumeOrderedWatchService() throws IOException {
+		try (WatchService watcher = FileSystems.getDefault().newWatchService()) {
+			assumeFalse(watcher.getClass().getSimpleName().equals("PollingWatchService"));
+		}
+	}
+
+	private String mismatchDescription() {
+		StringDescription description = new StringDescription();
+		tree.describeMismatch(root, description);
+		return description.toString();
+	}
+}
@@ -0,0 +1,230 @@
+package ca.seinesoftware.hamcrest.path;
+
+import static ca.seinesoftware.hamcrest.path.Descriptions.mismatchDescriptionFor;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.aDirectory;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.aRegularFile;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.anyEntryMatching;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.archiveEntry;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.attributes;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.containsBytes;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.contentMatchesRegex;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.emptyDirectory;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.emptyFile;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.entryCount;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.everyEntry;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.everyEntryMatching;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.exists;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.hasArchiveEntry;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.hasCrc32c;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.hasDigest;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.hasLineCount;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.hasSize;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.hidden;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.matchesManifest;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.modifiedAfter;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.noDuplicateContent;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.readable;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.sameFile;
+import static ca.seinesoftware.hamcrest.path.PathMatcher.startsWithMagic;
+import static org.hamcrest.Matchers.both;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assume.assumeThat;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * The matchers applied to the entries of an archive, through the zip file
+ * system provider, without extracting them.
+ */
+public class ZipFileSystemTest {
+
+	// ========================================================================
+	// Test fixtures
+	// ========================================================================
+
+	@ClassRule
+	public static TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private static FileSystem zip;
+	private static Path archive, root, manifest, main, empty, directory, noFile;
+
+	@BeforeClass
+	public static void beforeClass() throws IOException {
+		archive = temporaryFolder.getRoot().toPath().resolve("app.jar");
+		URI uri = URI.create("jar:" + archive.toUri());
+		try (FileSystem created = FileSystems.newFileSystem(uri, Collections.singletonMap("create", "true"))) {
+			Path meta = Files.createDirectories(created.getPath("/META-INF"));
+			Files.write(meta.resolve("MANIFEST.MF"),
+					"Manifest-Version: 1.0\nMain-Class: app.Main\n".getBytes(StandardCharsets.UTF_8));
+			Path app = Files.createDirectories(created.getPath("/app"));
+			Files.write(app.resolve("Main.class"), new byte[] { (byte) 0xCA, (byte) 0xFE, (byte) 0xBA,
+					(byte) 0xBE, 0, 0, 0, 52 });
+			Files.createFile(app.resolve("empty.properties"));
+			Files.createDirectories(created.getPath("/lib"));
+		}
+
+		zip = FileSystems.newFileSystem(uri, Collections.<String, Object> emptyMap());
+		root = zip.getPath("/");
+		manifest = zip.getPath("/META-INF/MANIFEST.MF");
+		main = zip.getPath("/app/Main.class");
+		empty = zip.getPath("/app/empty.properties");
+		directory = zip.getPath("/lib");
+		noFile = zip.getPath("/app/no-file");
+	}
+
+	@AfterClass
+	public static void afterClass() throws IOException {
+		if (zip != null) {
+			zip.close();
+		}
+		ArchiveCache.clear();
+	}
+
+	// ========================================================================
+	// Entries
+	// ========================================================================
+
+	@Test
+	public void entriesAreMatched() {
+		assertThat(manifest, aRegularFile());
+		assertThat(directory, aDirectory());
+		assertThat(noFile, not(exists()));
+		assertThat(manifest, readable());
+		assertThat(manifest, not(hidden()));
+		assertThat(main, attributes().existing().regularFile().notHidden());
+		assertThat(zip.getPath("/app/../app/Main.class"), sameFile(main));
+	}
+
+	@Test
+	public void attributesAreMatched() {
+		assertThat(main, hasSize(is(8L)));
+		assertThat(empty, emptyFile());
+		assertThat(directory, emptyDirectory());
+		assertThat(manifest, modifiedAfter(FileTime.fromMillis(0)));
+	}
+
+	@Test
+	public void contentIsMatched() {
+		assertThat(main, startsWithMagic(new byte[] { (byte) 0xCA, (byte) 0xFE }));
+		assertThat(manifest, containsBytes("Main-Class".getBytes(StandardCharsets.UTF_8)));
+		assertThat(manifest, hasLineCount(is(2L)));
+		assertThat(manifest, contentMatchesRegex("^Main-Class: app\\.\\w+$"));
+		assertThat(main, hasDigest("SHA-256", "a79425e4a5e19137f00ab1173148d9470084888edd7321e0a49c6aa7fb9923f0"));
+		assertThat(main, hasCrc32c(0xDD539C79L));
+	}
+
+	@Test
+	public void treesAreMatched() throws IOException {
+		assertThat(root, entryCount(is(6)));
+		assertThat(root, everyEntry(exists()));
+		assertThat(root, everyEntryMatching("**/*.class", hasSize(greaterThan(0L))));
+		assertThat(root, anyEntryMatching("regex:/?META-INF/.*", aRegularFile()));
+		assertThat(root, noDuplicateContent());
+
+		Path recorded = temporaryFolder.getRoot().toPath().resolve("app.jar.manifest");
+		PathManifest.record(root, recorded, "SHA-256");
+		assertThat(root, matchesManifest(recorded));
+	}
+
+	@Test
+	public void mismatchIsDescribed() {
+		String description = mismatchDescriptionFor(noFile, aRegularFile());
+		assertThat(description, containsString("</app/no-file> does not exist"));
+	}
+
+	// ========================================================================
+	// Archive entries
+	// ========================================================================
+
+	@Test
+	public void archiveEntriesAreMatched() {
+		assertThat(archive, hasArchiveEntry("META-INF/MANIFEST.MF"));
+		assertThat(archive, archiveEntry("/app/Main.class", hasSize(is(8L))));
+		assertThat(archive, archiveEntry("lib", aDirectory()));
+		assertThat(archive, archiveEntry("/", everyEntryMatching("**/*.class", aRegularFile())));
+		assertThat(archive, not(hasArchiveEntry("app/no-file")));
+	}
+
+	@Test
+	public void archiveEntryDescription() {
+		String description = mismatchDescriptionFor(archive, archiveEntry("app", aRegularFile()));
+		assertThat(description, both(containsString("an archive whose entry \"app\" is a regular file"))
+				.and(containsString("in <" + archive + ">, </app> is a")));
+
+		description = mismatchDescriptionFor(archive.resolveSibling("no.jar"), hasArchiveEntry("x"));
+		assertThat(description, containsString("no.jar> could not be opened: "));
+	}
+
+	@Test
+	public void archiveIsOpenedOnceUntilChanged() throws IOException {
+		Path changing = temporaryFolder.newFolder("changing").toPath().resolve("changing.zip");
+		Files.copy(archive, changing);
+		ArchiveCache.Archive opened = ArchiveCache.open(changing);
+		opened.release();
+		ArchiveCache.Archive again = ArchiveCache.open(changing);
+		again.release();
+		assertThat(again, is(sameInstance(opened)));
+
+		Files.setLastModifiedTime(changing, FileTime.fromMillis(0));
+		ArchiveCache.Archive reopened = ArchiveCache.open(changing);
+		reopened.release();
+		assertThat(reopened, is(not(sameInstance(opened))));
+		assertThat(opened.fileSystem.isOpen(), is(false));
+	}
+
+	@Test
+	public void archiveInUseIsNotClosed() throws IOException {
+		Path changing = temporaryFolder.newFolder("in-use").toPath().resolve("in-use.zip");
+		Files.copy(archive, changing);
+		ArchiveCache.Archive opened = ArchiveCache.open(changing);
+
+		ArchiveCache.clear();
+		Files.setLastModifiedTime(changing, FileTime.fromMillis(0));
+		assertThat(changing, hasArchiveEntry("app/Main.class"));
+		assertThat(opened.fileSystem.isOpen(), is(true));
+		assertThat(opened.fileSystem.getPath("/app/Main.class"), aRegularFile());
+
+		opened.release();
+		assertThat(opened.fileSystem.isOpen(), is(false));
+	}
+
+	@Test
+	public void replacedArchiveIsReopened() throws IOException {
+		Path folder = temporaryFolder.newFolder("replaced").toPath();
+		Path replaced = Files.copy(archive, folder.resolve("replaced.zip"));
+		ArchiveCache.Archive opened = ArchiveCache.open(replaced);
+		opened.release();
+
+		FileTime modified = Files.getLastModifiedTime(replaced);
+		Path copy = Files.copy(archive, folder.resolve("copy.zip"));
+		Files.setLastModifiedTime(copy, modified);
+		Files.move(copy, replaced, StandardCopyOption.REPLACE_EXISTING);
+		assumeThat(Files.readAttributes(replaced, BasicFileAttributes.class).fileKey(), is(notNullValue()));
+
+		ArchiveCache.Archive reopened = ArchiveCache.open(replaced);
+		reopened.release();
+		assertThat(reopened, is(not(sameInstance(opened))));
+	}
+}